@@ -0,0 +1,197 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.jcr.Credentials;
+import javax.jcr.Repository;
+import javax.jcr.Session;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hippoecm.hst.configuration.components.HstComponentConfiguration;
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.configuration.hosting.VirtualHosts;
+import org.hippoecm.hst.configuration.site.HstSite;
+import org.hippoecm.hst.configuration.sitemap.HstSiteMapItem;
+import org.hippoecm.hst.content.tool.ContentBeansTool;
+import org.hippoecm.hst.site.HstServices;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Copies the documents linked by many pages from a source channel to a target channel in one background job
+ * by {@link DocumentCopyingPageCopyEventListener#copyPagesInBulk(Mount, HstSite, List, Mount, HstSite, Session, org.hippoecm.hst.content.beans.manager.ObjectBeanManager, BulkPageCopyCheckpoint, PageCopyJob)},
+ * keeping a checkpoint per source and target mount pair so a failed bulk copy resumes from where it stopped.
+ */
+public class BulkPageCopier implements BulkPageCopierMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkPageCopier.class);
+
+    private final DocumentCopyingPageCopyEventListener listener;
+
+    private final Repository repository;
+
+    private final Credentials credentials;
+
+    private final Map<String, BulkPageCopyCheckpoint> checkpoints = new ConcurrentHashMap<>();
+
+    public BulkPageCopier(final DocumentCopyingPageCopyEventListener listener, final Repository repository,
+            final Credentials credentials) {
+        this.listener = listener;
+        this.repository = repository;
+        this.credentials = credentials;
+    }
+
+    @Override
+    public String submitBulkCopy(final String sourceMountId, final String[] sourcePages, final String targetMountId) {
+        if (sourcePages == null || sourcePages.length == 0) {
+            throw new IllegalArgumentException("No source page given.");
+        }
+
+        final VirtualHosts virtualHosts = HstModelUtils.getVirtualHosts();
+        final Mount sourceMount = HstModelUtils.getMount(virtualHosts, sourceMountId);
+        final Mount targetMount = HstModelUtils.getMount(virtualHosts, targetMountId);
+        final HstSite sourceSite = HstModelUtils.getPreviewHstSite(sourceMount);
+        final HstSite targetSite = HstModelUtils.getPreviewHstSite(targetMount);
+        final List<HstComponentConfiguration> pages = resolvePages(sourceSite, sourcePages);
+        final String targetContentBasePath = targetMount.getContentPath();
+        final String checkpointKey = getCheckpointKey(sourceMountId, targetMountId);
+        final BulkPageCopyCheckpoint checkpoint = checkpoints.computeIfAbsent(checkpointKey,
+                BulkPageCopyCheckpoint::new);
+
+        final PageCopyJob pageCopyJob = listener.getPageCopyJobManager().submit("Copying documents linked by "
+                + pages.size() + " pages to '" + targetContentBasePath + "'", job -> {
+            if (!listener.getChannelLockManager().tryLock(targetContentBasePath)) {
+                throw new IllegalStateException("The target channel is busy with another page copy. Target='"
+                        + targetContentBasePath + "'.");
+            }
+
+            Session session = null;
+
+            try {
+                session = repository.login(credentials);
+                final ContentBeansTool contentBeansTool = HstServices.getComponentManager()
+                        .getComponent(ContentBeansTool.class.getName());
+                listener.copyPagesInBulk(sourceMount, sourceSite, pages, targetMount, targetSite, session,
+                        contentBeansTool.createObjectBeanManager(session), checkpoint, job);
+                checkpoints.remove(checkpointKey, checkpoint);
+            } finally {
+                if (session != null) {
+                    session.logout();
+                }
+
+                listener.getChannelLockManager().unlock(targetContentBasePath);
+            }
+        });
+
+        log.info("Submitted bulk copy job '{}' of {} pages from '{}' to '{}'.", pageCopyJob.getJobId(),
+                pages.size(), sourceMountId, targetMountId);
+
+        return pageCopyJob.getJobId();
+    }
+
+    @Override
+    public String[] getCheckpoints() {
+        final List<String> descriptions = new ArrayList<>();
+
+        for (BulkPageCopyCheckpoint checkpoint : checkpoints.values()) {
+            descriptions.add(checkpoint.toString());
+        }
+
+        return descriptions.toArray(new String[descriptions.size()]);
+    }
+
+    @Override
+    public void clearCheckpoint(final String sourceMountId, final String targetMountId) {
+        checkpoints.remove(getCheckpointKey(sourceMountId, targetMountId));
+    }
+
+    @Override
+    public void clearAllCheckpoints() {
+        checkpoints.clear();
+    }
+
+    private List<HstComponentConfiguration> resolvePages(final HstSite sourceSite, final String[] sourcePages) {
+        final Map<String, HstComponentConfiguration> pages = new LinkedHashMap<>();
+
+        for (String sourcePage : sourcePages) {
+            if (StringUtils.startsWith(sourcePage, "/")) {
+                final HstSiteMapItem siteMapItem = findSiteMapItem(sourceSite, sourcePage);
+
+                if (siteMapItem == null) {
+                    throw new IllegalArgumentException("No sitemap item found by '" + sourcePage
+                            + "' in the source mount.");
+                }
+
+                addPagesOfSiteMapItem(sourceSite, siteMapItem, pages);
+            } else {
+                final HstComponentConfiguration page = sourceSite.getComponentsConfiguration()
+                        .getComponentConfiguration(sourcePage);
+
+                if (page == null) {
+                    throw new IllegalArgumentException("No page found by '" + sourcePage + "' in the source mount.");
+                }
+
+                pages.put(page.getId(), page);
+            }
+        }
+
+        return new ArrayList<>(pages.values());
+    }
+
+    private static HstSiteMapItem findSiteMapItem(final HstSite site, final String siteMapItemPath) {
+        final String[] segments = StringUtils.split(siteMapItemPath, '/');
+
+        if (segments.length == 0) {
+            return null;
+        }
+
+        HstSiteMapItem siteMapItem = site.getSiteMap().getSiteMapItem(segments[0]);
+
+        for (int i = 1; siteMapItem != null && i < segments.length; i++) {
+            siteMapItem = siteMapItem.getChild(segments[i]);
+        }
+
+        return siteMapItem;
+    }
+
+    private static void addPagesOfSiteMapItem(final HstSite site, final HstSiteMapItem siteMapItem,
+            final Map<String, HstComponentConfiguration> pages) {
+        final String componentConfigurationId = siteMapItem.getComponentConfigurationId();
+
+        if (componentConfigurationId != null && !pages.containsKey(componentConfigurationId)) {
+            final HstComponentConfiguration page = site.getComponentsConfiguration()
+                    .getComponentConfiguration(componentConfigurationId);
+
+            if (page != null) {
+                pages.put(componentConfigurationId, page);
+            }
+        }
+
+        for (HstSiteMapItem child : siteMapItem.getChildren()) {
+            addPagesOfSiteMapItem(site, child, pages);
+        }
+    }
+
+    private static String getCheckpointKey(final String sourceMountId, final String targetMountId) {
+        return sourceMountId + " -> " + targetMountId;
+    }
+}
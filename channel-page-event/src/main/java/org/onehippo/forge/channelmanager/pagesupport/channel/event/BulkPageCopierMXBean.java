@@ -0,0 +1,59 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+/**
+ * Management interface of {@link BulkPageCopier} as deployed as JMX MBean.
+ */
+public interface BulkPageCopierMXBean {
+
+    /**
+     * JMX MBean name to be used.
+     */
+    String NAME = "org.onehippo.forge.channelmanager.pagesupport.channel.event:type=BulkPageCopierMXBean";
+
+    /**
+     * Submits a background job copying the documents linked by the {@code sourcePages} to the target channel
+     * and updating the document parameters of the pages existing in the target channel.
+     * Each item of {@code sourcePages} is either a page component configuration ID, or a sitemap item path starting
+     * with '/' to include all the pages of the sitemap item and its descendants.
+     * @param sourceMountId source mount identifier
+     * @param sourcePages source page component configuration IDs or sitemap item paths
+     * @param targetMountId target mount identifier
+     * @return the job ID to follow through {@link PageCopyJobManagerMXBean#getJobStatus(String)}
+     */
+    String submitBulkCopy(String sourceMountId, String[] sourcePages, String targetMountId);
+
+    /**
+     * Returns the descriptions of the kept checkpoints.
+     * @return the descriptions of the kept checkpoints
+     */
+    String[] getCheckpoints();
+
+    /**
+     * Removes the checkpoint of the bulk copy from the source mount to the target mount, so the next bulk copy
+     * between them starts from scratch.
+     * @param sourceMountId source mount identifier
+     * @param targetMountId target mount identifier
+     */
+    void clearCheckpoint(String sourceMountId, String targetMountId);
+
+    /**
+     * Removes all the kept checkpoints.
+     */
+    void clearAllCheckpoints();
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Progress of a bulk copy of the linked documents of many pages from a source channel to a target channel,
+ * kept across retries so that a failed or interrupted bulk copy resumes from where it stopped.
+ */
+public class BulkPageCopyCheckpoint {
+
+    private final String key;
+
+    private final Set<String> scannedPages = new LinkedHashSet<>();
+
+    private final Set<String> documentPaths = new LinkedHashSet<>();
+
+    private boolean documentsCopied;
+
+    private final Set<String> updatedPages = new LinkedHashSet<>();
+
+    private long lastUpdatedTime;
+
+    public BulkPageCopyCheckpoint(final String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public synchronized boolean isPageScanned(final String pageId) {
+        return scannedPages.contains(pageId);
+    }
+
+    /**
+     * Records the page as scanned with the linked document paths found in it.
+     * @param pageId page ID
+     * @param pageDocumentPaths linked document paths found in the page
+     */
+    public synchronized void pageScanned(final String pageId, final Collection<String> pageDocumentPaths) {
+        scannedPages.add(pageId);
+        documentPaths.addAll(pageDocumentPaths);
+        documentsCopied = false;
+        lastUpdatedTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Returns the union of the linked document paths of all the scanned pages.
+     * @return the union of the linked document paths of all the scanned pages
+     */
+    public synchronized Set<String> getDocumentPaths() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(documentPaths));
+    }
+
+    public synchronized boolean isDocumentsCopied() {
+        return documentsCopied;
+    }
+
+    public synchronized void documentsCopied() {
+        documentsCopied = true;
+        lastUpdatedTime = System.currentTimeMillis();
+    }
+
+    public synchronized boolean isPageUpdated(final String pageId) {
+        return updatedPages.contains(pageId);
+    }
+
+    public synchronized void pageUpdated(final String pageId) {
+        updatedPages.add(pageId);
+        lastUpdatedTime = System.currentTimeMillis();
+    }
+
+    public synchronized long getLastUpdatedTime() {
+        return lastUpdatedTime;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "BulkPageCopyCheckpoint[" + key + ", scannedPages=" + scannedPages.size() + ", documents="
+                + documentPaths.size() + ", documentsCopied=" + documentsCopied + ", updatedPages="
+                + updatedPages.size() + "]";
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fair lock manager, keyed by channel key such as the target content base path, to disallow concurrent document
+ * copying on the same target channel.
+ * <P>
+ * A caller waits for a channel lock up to {@link #getLockWaitTimeout()} milliseconds and gives up if the lock is not
+ * available by then, instead of piling up request threads behind a slow page copy.
+ * </P>
+ * <P>
+ * If a {@link DistributedChannelLock} is configured, the cluster-wide lock is acquired as well after the local lock,
+ * within the remaining lock wait timeout, to disallow concurrent document copying on the same target channel
+ * across cluster nodes. While holding a cluster-wide lock, it is renewed every {@link #getLeaseRenewalInterval()}
+ * milliseconds by a background heartbeat, so that a long-running copy doesn't lose the lock to another cluster node
+ * on its lease expiration.
+ * </P>
+ */
+public class ChannelLockManager implements ChannelLockManagerMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ChannelLockManager.class);
+
+    /**
+     * Default maximum time in milliseconds to wait for a channel lock.
+     */
+    public static final long DEFAULT_LOCK_WAIT_TIMEOUT = 30000L;
+
+    /**
+     * Default interval in milliseconds to renew the held cluster-wide locks.
+     */
+    public static final long DEFAULT_LEASE_RENEWAL_INTERVAL = 60000L;
+
+    private final ConcurrentMap<String, ChannelLock> channelLocks = new ConcurrentHashMap<>();
+
+    private volatile long lockWaitTimeout = DEFAULT_LOCK_WAIT_TIMEOUT;
+
+    private DistributedChannelLock distributedChannelLock;
+
+    private long leaseRenewalInterval = DEFAULT_LEASE_RENEWAL_INTERVAL;
+
+    // channel keys of which cluster-wide locks are held by this
+    private final Set<String> distributedLockedChannels = ConcurrentHashMap.newKeySet();
+
+    // guarded by this
+    private ScheduledExecutorService leaseRenewalScheduler;
+
+    private final AtomicLong acquiredCount = new AtomicLong();
+    private final AtomicLong timedOutCount = new AtomicLong();
+    private final AtomicLong totalWaitTime = new AtomicLong();
+    private final AtomicLong maxWaitTime = new AtomicLong();
+    private final AtomicLong releasedCount = new AtomicLong();
+    private final AtomicLong totalHoldTime = new AtomicLong();
+    private final AtomicLong maxHoldTime = new AtomicLong();
+
+    @Override
+    public long getLockWaitTimeout() {
+        return lockWaitTimeout;
+    }
+
+    @Override
+    public void setLockWaitTimeout(long lockWaitTimeout) {
+        this.lockWaitTimeout = lockWaitTimeout;
+    }
+
+    public DistributedChannelLock getDistributedChannelLock() {
+        return distributedChannelLock;
+    }
+
+    public void setDistributedChannelLock(DistributedChannelLock distributedChannelLock) {
+        this.distributedChannelLock = distributedChannelLock;
+    }
+
+    public long getLeaseRenewalInterval() {
+        return leaseRenewalInterval;
+    }
+
+    /**
+     * Sets the interval in milliseconds to renew the held cluster-wide locks, which should be well below the lease
+     * duration of the {@link DistributedChannelLock}.
+     * @param leaseRenewalInterval the interval in milliseconds to renew the held cluster-wide locks
+     */
+    public void setLeaseRenewalInterval(long leaseRenewalInterval) {
+        this.leaseRenewalInterval = leaseRenewalInterval;
+    }
+
+    /**
+     * Stops renewing the held cluster-wide locks and closes the {@link DistributedChannelLock}.
+     */
+    public void destroy() {
+        synchronized (this) {
+            if (leaseRenewalScheduler != null) {
+                leaseRenewalScheduler.shutdownNow();
+                leaseRenewalScheduler = null;
+            }
+        }
+
+        if (distributedChannelLock != null) {
+            distributedChannelLock.close();
+        }
+    }
+
+    /**
+     * Tries to acquire the lock for the {@code channelKey}, waiting up to {@link #getLockWaitTimeout()} milliseconds.
+     * @param channelKey channel key such as target content base path
+     * @return true if the lock was acquired, false if the lock wait timeout elapsed before acquiring the lock
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public boolean tryLock(final String channelKey) throws InterruptedException {
+        return tryLock(channelKey, lockWaitTimeout);
+    }
+
+    /**
+     * Tries to acquire the lock for the {@code channelKey}, waiting up to {@code timeout} milliseconds,
+     * e.g. in a background job which may wait longer than a request.
+     * @param channelKey channel key such as target content base path
+     * @param timeout maximum time in milliseconds to wait for the lock
+     * @return true if the lock was acquired, false if the timeout elapsed before acquiring the lock
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public boolean tryLock(final String channelKey, final long timeout) throws InterruptedException {
+        final ChannelLock channelLock = channelLocks.computeIfAbsent(channelKey, key -> new ChannelLock());
+        final long waitStart = System.currentTimeMillis();
+
+        if (!channelLock.lock.tryLock(timeout, TimeUnit.MILLISECONDS)) {
+            timedOutCount.incrementAndGet();
+            log.warn("Timed out after {}ms in waiting for the channel lock on '{}'.", timeout, channelKey);
+            return false;
+        }
+
+        if (channelLock.lock.getHoldCount() == 1 && distributedChannelLock != null) {
+            boolean distributedLockAcquired = false;
+
+            try {
+                final long remaining = timeout - (System.currentTimeMillis() - waitStart);
+                distributedLockAcquired = distributedChannelLock.tryLock(channelKey, Math.max(remaining, 0L));
+            } finally {
+                if (!distributedLockAcquired) {
+                    channelLock.lock.unlock();
+                }
+            }
+
+            if (!distributedLockAcquired) {
+                timedOutCount.incrementAndGet();
+                log.warn("Timed out after {}ms in waiting for the distributed channel lock on '{}'.", timeout,
+                        channelKey);
+                return false;
+            }
+
+            distributedLockedChannels.add(channelKey);
+            startLeaseRenewal();
+        }
+
+        final long now = System.currentTimeMillis();
+        final long waitTime = now - waitStart;
+
+        if (channelLock.lock.getHoldCount() == 1) {
+            channelLock.acquiredAt = now;
+        }
+
+        acquiredCount.incrementAndGet();
+        totalWaitTime.addAndGet(waitTime);
+        maxWaitTime.accumulateAndGet(waitTime, Math::max);
+        log.debug("Acquired the channel lock on '{}' after waiting {}ms.", channelKey, waitTime);
+
+        return true;
+    }
+
+    /**
+     * Releases the lock for the {@code channelKey} held by the current thread.
+     * @param channelKey channel key such as target content base path
+     * @throws IllegalMonitorStateException if the current thread does not hold the lock
+     */
+    public void unlock(final String channelKey) {
+        final ChannelLock channelLock = channelLocks.get(channelKey);
+
+        if (channelLock == null) {
+            throw new IllegalMonitorStateException("No channel lock on '" + channelKey + "'.");
+        }
+
+        if (channelLock.lock.getHoldCount() == 1) {
+            final long holdTime = System.currentTimeMillis() - channelLock.acquiredAt;
+            releasedCount.incrementAndGet();
+            totalHoldTime.addAndGet(holdTime);
+            maxHoldTime.accumulateAndGet(holdTime, Math::max);
+            log.debug("Releasing the channel lock on '{}' after holding it {}ms.", channelKey, holdTime);
+
+            if (distributedChannelLock != null) {
+                distributedLockedChannels.remove(channelKey);
+
+                try {
+                    distributedChannelLock.unlock(channelKey);
+                } catch (RuntimeException e) {
+                    log.error("Failed to release the distributed channel lock on '{}'.", channelKey, e);
+                }
+            }
+        }
+
+        channelLock.lock.unlock();
+    }
+
+    @Override
+    public long getAcquiredCount() {
+        return acquiredCount.get();
+    }
+
+    @Override
+    public long getTimedOutCount() {
+        return timedOutCount.get();
+    }
+
+    @Override
+    public double getAverageWaitTime() {
+        final long count = acquiredCount.get();
+        return (count > 0L) ? (double) totalWaitTime.get() / count : 0.0;
+    }
+
+    @Override
+    public long getMaxWaitTime() {
+        return maxWaitTime.get();
+    }
+
+    @Override
+    public double getAverageHoldTime() {
+        final long count = releasedCount.get();
+        return (count > 0L) ? (double) totalHoldTime.get() / count : 0.0;
+    }
+
+    @Override
+    public long getMaxHoldTime() {
+        return maxHoldTime.get();
+    }
+
+    @Override
+    public String[] getLockedChannels() {
+        final List<String> lockedChannels = new ArrayList<>();
+
+        for (Map.Entry<String, ChannelLock> entry : channelLocks.entrySet()) {
+            if (entry.getValue().lock.isLocked()) {
+                lockedChannels.add(entry.getKey());
+            }
+        }
+
+        return lockedChannels.toArray(new String[lockedChannels.size()]);
+    }
+
+    @Override
+    public Map<String, Integer> getQueueLengths() {
+        final Map<String, Integer> queueLengths = new TreeMap<>();
+
+        for (Map.Entry<String, ChannelLock> entry : channelLocks.entrySet()) {
+            queueLengths.put(entry.getKey(), entry.getValue().lock.getQueueLength());
+        }
+
+        return queueLengths;
+    }
+
+    @Override
+    public void resetStatistics() {
+        acquiredCount.set(0L);
+        timedOutCount.set(0L);
+        totalWaitTime.set(0L);
+        maxWaitTime.set(0L);
+        releasedCount.set(0L);
+        totalHoldTime.set(0L);
+        maxHoldTime.set(0L);
+    }
+
+    private synchronized void startLeaseRenewal() {
+        if (leaseRenewalScheduler != null || leaseRenewalInterval <= 0L) {
+            return;
+        }
+
+        leaseRenewalScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "channel-lock-lease-renewal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        leaseRenewalScheduler.scheduleWithFixedDelay(this::renewDistributedLocks, leaseRenewalInterval,
+                leaseRenewalInterval, TimeUnit.MILLISECONDS);
+    }
+
+    private void renewDistributedLocks() {
+        for (String channelKey : distributedLockedChannels) {
+            try {
+                // the lock may have been released in the meantime
+                if (!distributedChannelLock.renew(channelKey) && distributedLockedChannels.contains(channelKey)) {
+                    log.error("Lost the distributed channel lock on '{}' while holding the channel lock.",
+                            channelKey);
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to renew the distributed channel lock on '{}'.", channelKey, e);
+            }
+        }
+    }
+
+    private static class ChannelLock {
+
+        private final ReentrantLock lock = new ReentrantLock(true);
+
+        // only accessed by the lock owner thread
+        private long acquiredAt;
+
+    }
+}
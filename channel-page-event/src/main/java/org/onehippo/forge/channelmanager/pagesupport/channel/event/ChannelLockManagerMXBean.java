@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link ChannelLockManager} as deployed as JMX MBean.
+ */
+public interface ChannelLockManagerMXBean {
+
+    /**
+     * JMX MBean name to be used.
+     */
+    String NAME = "org.onehippo.forge.channelmanager.pagesupport.channel.event:type=ChannelLockManagerMXBean";
+
+    /**
+     * Returns the maximum time in milliseconds to wait for a channel lock.
+     * @return the maximum time in milliseconds to wait for a channel lock
+     */
+    long getLockWaitTimeout();
+
+    /**
+     * Sets the maximum time in milliseconds to wait for a channel lock.
+     * @param lockWaitTimeout the maximum time in milliseconds to wait for a channel lock
+     */
+    void setLockWaitTimeout(long lockWaitTimeout);
+
+    /**
+     * Returns the number of the successful lock acquisitions.
+     * @return the number of the successful lock acquisitions
+     */
+    long getAcquiredCount();
+
+    /**
+     * Returns the number of the lock acquisitions given up after the lock wait timeout.
+     * @return the number of the lock acquisitions given up after the lock wait timeout
+     */
+    long getTimedOutCount();
+
+    /**
+     * Returns the average time in milliseconds spent on waiting for a channel lock.
+     * @return the average time in milliseconds spent on waiting for a channel lock
+     */
+    double getAverageWaitTime();
+
+    /**
+     * Returns the maximum time in milliseconds spent on waiting for a channel lock.
+     * @return the maximum time in milliseconds spent on waiting for a channel lock
+     */
+    long getMaxWaitTime();
+
+    /**
+     * Returns the average time in milliseconds for which a channel lock was held.
+     * @return the average time in milliseconds for which a channel lock was held
+     */
+    double getAverageHoldTime();
+
+    /**
+     * Returns the maximum time in milliseconds for which a channel lock was held.
+     * @return the maximum time in milliseconds for which a channel lock was held
+     */
+    long getMaxHoldTime();
+
+    /**
+     * Returns the channel keys which are currently locked.
+     * @return the channel keys which are currently locked
+     */
+    String[] getLockedChannels();
+
+    /**
+     * Returns the number of threads waiting for each channel lock, keyed by channel key.
+     * @return the number of threads waiting for each channel lock, keyed by channel key
+     */
+    Map<String, Integer> getQueueLengths();
+
+    /**
+     * Resets all the lock statistics.
+     */
+    void resetStatistics();
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.jcr.ItemNotFoundException;
+import javax.jcr.Node;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hippoecm.hst.configuration.components.HstComponentConfiguration;
+import org.hippoecm.hst.configuration.components.HstComponentsConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.hippoecm.hst.configuration.HstNodeTypes.COMPONENT_PROPERTY_REFERECENCECOMPONENT;
+
+/**
+ * Index of the reference components (<code>hst:referencecomponent</code>) of all the component configurations
+ * in an HST components configuration, and of the canonical identifiers of each referenced component and its
+ * descendants, to filter the source page components present in the target channel without reading JCR nodes.
+ * <P>
+ * The index of a components configuration is filled lazily, reading the reference component of a component
+ * configuration only on its first lookup, so only the components of the copied pages are ever read. The index is kept
+ * as long as the components configuration instance is in use. As the HST model creates new components configuration
+ * instances whenever the model changes, a changed model starts with an empty index.
+ * </P>
+ */
+public class ComponentReferenceIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ComponentReferenceIndex.class);
+
+    private static final String NO_REFERENCE = "";
+
+    private final Map<HstComponentsConfiguration, ComponentsIndex> componentsIndexes =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Returns the reference component of the component configuration by the {@code canonicalIdentifier},
+     * or null if it doesn't refer to any component.
+     * @param componentsConfiguration HST components configuration
+     * @param canonicalIdentifier canonical identifier of a component configuration
+     * @param session JCR session to read the component configuration node if not looked up yet
+     * @return the reference component of the component configuration, or null
+     * @throws RepositoryException if repository exception occurs
+     */
+    public String getReferenceComponent(final HstComponentsConfiguration componentsConfiguration,
+            final String canonicalIdentifier, final Session session) throws RepositoryException {
+        final Map<String, String> referenceComponents = getComponentsIndex(componentsConfiguration)
+                .referenceComponents;
+        String reference = referenceComponents.get(canonicalIdentifier);
+
+        if (reference == null) {
+            // read outside any lock; a concurrent read of the same node yields the same reference
+            reference = readReferenceComponent(canonicalIdentifier, session);
+            referenceComponents.put(canonicalIdentifier, reference);
+        }
+
+        return NO_REFERENCE.equals(reference) ? null : reference;
+    }
+
+    /**
+     * Returns the canonical identifiers of the component configuration by the {@code reference} and
+     * all its descendants.
+     * @param componentsConfiguration HST components configuration
+     * @param reference reference component ID
+     * @return the canonical identifiers of the referenced component configuration and all its descendants
+     */
+    public Set<String> getSelfAndDescendantIdentifiers(final HstComponentsConfiguration componentsConfiguration,
+            final String reference) {
+        return getComponentsIndex(componentsConfiguration).selfAndDescendantIdentifiers
+                .computeIfAbsent(reference, key -> {
+                    final HstComponentConfiguration referenced = componentsConfiguration
+                            .getComponentConfiguration(key);
+
+                    if (referenced == null) {
+                        return Collections.emptySet();
+                    }
+
+                    final Set<String> identifiers = new HashSet<>();
+                    addSelfAndDescendantIdentifiers(referenced, identifiers);
+                    return Collections.unmodifiableSet(identifiers);
+                });
+    }
+
+    /**
+     * Drops all the indexes to be rebuilt on the next lookups.
+     */
+    public void clear() {
+        componentsIndexes.clear();
+    }
+
+    private ComponentsIndex getComponentsIndex(final HstComponentsConfiguration componentsConfiguration) {
+        return componentsIndexes.computeIfAbsent(componentsConfiguration, key -> new ComponentsIndex());
+    }
+
+    private static String readReferenceComponent(final String canonicalIdentifier, final Session session)
+            throws RepositoryException {
+        try {
+            final Node node = session.getNodeByIdentifier(canonicalIdentifier);
+
+            if (node.hasProperty(COMPONENT_PROPERTY_REFERECENCECOMPONENT)) {
+                final String reference = node.getProperty(COMPONENT_PROPERTY_REFERECENCECOMPONENT).getString();
+
+                if (!StringUtils.isBlank(reference)) {
+                    return reference;
+                }
+            }
+        } catch (ItemNotFoundException e) {
+            log.debug("Component configuration node not found by '{}'.", canonicalIdentifier);
+        }
+
+        return NO_REFERENCE;
+    }
+
+    private static void addSelfAndDescendantIdentifiers(final HstComponentConfiguration componentConfiguration,
+            final Set<String> identifiers) {
+        identifiers.add(componentConfiguration.getCanonicalIdentifier());
+
+        for (HstComponentConfiguration child : componentConfiguration.getChildren().values()) {
+            addSelfAndDescendantIdentifiers(child, identifiers);
+        }
+    }
+
+    private static class ComponentsIndex {
+
+        // canonical identifier -> hst:referencecomponent, or NO_REFERENCE
+        private final Map<String, String> referenceComponents = new ConcurrentHashMap<>();
+
+        // reference component ID -> canonical identifiers of the referenced component and its descendants
+        private final Map<String, Set<String>> selfAndDescendantIdentifiers = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+/**
+ * Cluster-wide channel lock, shared by all the nodes in a cluster, to be used by {@link ChannelLockManager}
+ * in addition to its local (in-JVM) channel locks.
+ * <P>
+ * {@link ChannelLockManager} always acquires its local channel lock first, so an implementation is invoked
+ * by at most one thread per channel key in a JVM at a time.
+ * </P>
+ */
+public interface DistributedChannelLock {
+
+    /**
+     * Tries to acquire the cluster-wide lock for the {@code channelKey}, waiting up to {@code timeout} milliseconds.
+     * @param channelKey channel key such as target content base path
+     * @param timeout maximum time in milliseconds to wait for the lock
+     * @return true if the lock was acquired, false if the timeout elapsed before acquiring the lock
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    boolean tryLock(String channelKey, long timeout) throws InterruptedException;
+
+    /**
+     * Releases the cluster-wide lock for the {@code channelKey} held by this node.
+     * @param channelKey channel key such as target content base path
+     */
+    void unlock(String channelKey);
+
+    /**
+     * Renews the cluster-wide lock for the {@code channelKey} held by this node, e.g. by pushing its lease expiration
+     * forward, invoked periodically by {@link ChannelLockManager} while holding the lock.
+     * An implementation with lease expiry should override this not to lose the lock during a long-running copy.
+     * @param channelKey channel key such as target content base path
+     * @return true if the lock is still held by this node, false if it was lost, e.g. taken over by another node
+     */
+    default boolean renew(String channelKey) {
+        return true;
+    }
+
+    /**
+     * Releases the resources of this lock, such as a JCR session.
+     */
+    default void close() {
+    }
+
+}
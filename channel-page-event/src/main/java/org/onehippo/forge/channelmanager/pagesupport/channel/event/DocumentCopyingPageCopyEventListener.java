@@ -15,30 +15,33 @@
  */
 package org.onehippo.forge.channelmanager.pagesupport.channel.event;
 
-import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Predicate;
 
+import javax.jcr.Credentials;
 import javax.jcr.Node;
-import javax.jcr.NodeIterator;
+import javax.jcr.Repository;
 import javax.jcr.RepositoryException;
 import javax.jcr.Session;
-import javax.jcr.query.Query;
-import javax.jcr.query.QueryResult;
 
 import org.apache.commons.lang3.StringUtils;
 import org.hippoecm.hst.configuration.components.HstComponentConfiguration;
 import org.hippoecm.hst.configuration.hosting.Mount;
 import org.hippoecm.hst.configuration.site.HstSite;
+import org.hippoecm.hst.content.beans.manager.ObjectBeanManager;
+import org.hippoecm.hst.content.tool.ContentBeansTool;
 import org.hippoecm.hst.core.jcr.RuntimeRepositoryException;
-import org.hippoecm.hst.core.linking.DocumentParamsScanner;
 import org.hippoecm.hst.core.request.HstRequestContext;
 import org.hippoecm.hst.pagecomposer.jaxrs.api.ChannelEventListenerRegistry;
 import org.hippoecm.hst.pagecomposer.jaxrs.api.PageCopyContext;
@@ -50,6 +53,7 @@ import org.hippoecm.repository.api.HippoNodeType;
 import org.hippoecm.repository.translation.HippoTranslationNodeType;
 import org.hippoecm.repository.util.JcrUtils;
 import org.onehippo.cms7.services.eventbus.Subscribe;
+import org.onehippo.forge.channelmanager.pagesupport.document.management.DocumentManagementService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -68,20 +72,138 @@ public class DocumentCopyingPageCopyEventListener {
 
     private static final Logger log = LoggerFactory.getLogger(DocumentCopyingPageCopyEventListener.class);
 
-    private static final String TRANSLATED_FOLDER_QUERY = "/jcr:root{0}//element(*,hippostd:folder)[@hippotranslation:id=''{1}'']";
+    /**
+     * Default maximum time in milliseconds for a background job to wait for the new page node to be saved.
+     */
+    private static final long DEFAULT_NEW_PAGE_NODE_WAIT_TIMEOUT = 60000L;
+
+    /**
+     * Default maximum time in milliseconds for a background job to wait for the target channel lock, much longer
+     * than the lock wait timeout of a request as a background job is not in the way of any user.
+     */
+    private static final long DEFAULT_JOB_CHANNEL_LOCK_WAIT_TIMEOUT = 600000L;
+
+    private static final long NEW_PAGE_NODE_POLL_INTERVAL = 500L;
 
-    private static final String TRANSLATED_DOCUMENT_HANDLE_QUERY = "/jcr:root{0}//element(*,hippostdpubwf:document)[@hippotranslation:id=''{1}'']/..";
+    /**
+     * Maximum number of the documents translated or committed in a batch operation of the document management service.
+     */
+    private static final int DOCUMENT_TRANSLATION_BATCH_SIZE = 50;
 
     private DocumentManagementServiceClient documentManagementServiceClient;
 
     private boolean copyDocumentsLinkedBySourcePage;
 
+    private ChannelLockManager channelLockManager;
+
+    private boolean asyncDocumentCopying;
+
+    private PageCopyJobManager pageCopyJobManager;
+
+    private Repository repository;
+
+    private Credentials credentials;
+
+    private long newPageNodeWaitTimeout = DEFAULT_NEW_PAGE_NODE_WAIT_TIMEOUT;
+
+    private long jobChannelLockWaitTimeout = DEFAULT_JOB_CHANNEL_LOCK_WAIT_TIMEOUT;
+
+    private TranslationIndex translationIndex;
+
+    private boolean parallelDocumentCopying;
+
+    // whether or not the parallel document copying has been refused for a small session pool of the service
+    private DocumentTranslationExecutor documentTranslationExecutor;
+
+    private Credentials readOnlyCredentials;
+
+    private PageCopyMetrics pageCopyMetrics;
+
+    private ComponentReferenceIndex componentReferenceIndex;
+
+    private PageCopyJournal pageCopyJournal;
+
+    private PageCopyAdmissionController pageCopyAdmissionController;
+
     public void init() {
+        MBeanRegistrationUtils.registerMBean(getChannelLockManager(), ChannelLockManagerMXBean.NAME);
+        MBeanRegistrationUtils.registerMBean(getPageCopyMetrics(), PageCopyMetricsMXBean.NAME);
+        MBeanRegistrationUtils.registerMBean(getPageCopyJournal(), PageCopyJournalMXBean.NAME);
+
+        if (getRepository() != null && getCredentials() != null) {
+            // the bulk page copies and the relinks always run in background jobs, whether or not page copies do
+            getPageCopyJobManager().init();
+            MBeanRegistrationUtils.registerMBean(getPageCopyJobManager(), PageCopyJobManagerMXBean.NAME);
+            MBeanRegistrationUtils.registerMBean(new BulkPageCopier(this, getRepository(), getCredentials()),
+                    BulkPageCopierMXBean.NAME);
+            MBeanRegistrationUtils.registerMBean(new DocumentParamsRelinker(this, getRepository(), getCredentials()),
+                    DocumentParamsRelinkerMXBean.NAME);
+        } else if (isAsyncDocumentCopying()) {
+            log.warn("'asyncDocumentCopying' is turned on, but 'repository' or 'credentials' is not set. "
+                    + "Linked documents will be copied synchronously.");
+        }
+
+        if (isParallelDocumentCopying()) {
+            if (getRepository() == null || getCredentials() == null) {
+                log.warn("'parallelDocumentCopying' is turned on, but 'repository' or 'credentials' is not set. "
+                        + "Linked documents will be translated one by one.");
+            } else {
+                getDocumentTranslationExecutor().init();
+            }
+        }
+
+        if (pageCopyAdmissionController != null) {
+            MBeanRegistrationUtils.registerMBean(pageCopyAdmissionController,
+                    PageCopyAdmissionControllerMXBean.NAME);
+        }
+
+        if (translationIndex != null) {
+            translationIndex.init();
+            MBeanRegistrationUtils.registerMBean(translationIndex, TranslationIndexMXBean.NAME);
+        }
+
+        if (getRepository() != null && (getReadOnlyCredentials() != null || getCredentials() != null)) {
+            final Credentials planningCredentials = (getReadOnlyCredentials() != null) ? getReadOnlyCredentials()
+                    : getCredentials();
+            MBeanRegistrationUtils.registerMBean(new PageCopyPlanner(this, getRepository(), planningCredentials),
+                    PageCopyPlannerMXBean.NAME);
+        }
+
         ChannelEventListenerRegistry.get().register(this);
     }
 
     public void destroy() {
         ChannelEventListenerRegistry.get().unregister(this);
+
+        MBeanRegistrationUtils.unregisterMBean(PageCopyPlannerMXBean.NAME);
+
+        if (translationIndex != null) {
+            MBeanRegistrationUtils.unregisterMBean(TranslationIndexMXBean.NAME);
+            translationIndex.destroy();
+        }
+
+        if (documentTranslationExecutor != null) {
+            documentTranslationExecutor.destroy();
+        }
+
+        if (pageCopyJobManager != null) {
+            MBeanRegistrationUtils.unregisterMBean(DocumentParamsRelinkerMXBean.NAME);
+            MBeanRegistrationUtils.unregisterMBean(BulkPageCopierMXBean.NAME);
+            MBeanRegistrationUtils.unregisterMBean(PageCopyJobManagerMXBean.NAME);
+            pageCopyJobManager.destroy();
+        }
+
+        if (pageCopyAdmissionController != null) {
+            MBeanRegistrationUtils.unregisterMBean(PageCopyAdmissionControllerMXBean.NAME);
+        }
+
+        MBeanRegistrationUtils.unregisterMBean(PageCopyJournalMXBean.NAME);
+        MBeanRegistrationUtils.unregisterMBean(PageCopyMetricsMXBean.NAME);
+        MBeanRegistrationUtils.unregisterMBean(ChannelLockManagerMXBean.NAME);
+
+        if (channelLockManager != null) {
+            channelLockManager.destroy();
+        }
     }
 
     public DocumentManagementServiceClient getDocumentManagementServiceClient() {
@@ -96,6 +218,184 @@ public class DocumentCopyingPageCopyEventListener {
         this.documentManagementServiceClient = documentManagementServiceClient;
     }
 
+    public ChannelLockManager getChannelLockManager() {
+        if (channelLockManager == null) {
+            channelLockManager = new ChannelLockManager();
+        }
+
+        return channelLockManager;
+    }
+
+    public void setChannelLockManager(ChannelLockManager channelLockManager) {
+        this.channelLockManager = channelLockManager;
+    }
+
+    public PageCopyMetrics getPageCopyMetrics() {
+        if (pageCopyMetrics == null) {
+            pageCopyMetrics = new PageCopyMetrics();
+        }
+
+        return pageCopyMetrics;
+    }
+
+    public void setPageCopyMetrics(PageCopyMetrics pageCopyMetrics) {
+        this.pageCopyMetrics = pageCopyMetrics;
+    }
+
+    public PageCopyJournal getPageCopyJournal() {
+        if (pageCopyJournal == null) {
+            pageCopyJournal = new PageCopyJournal();
+        }
+
+        return pageCopyJournal;
+    }
+
+    public void setPageCopyJournal(PageCopyJournal pageCopyJournal) {
+        this.pageCopyJournal = pageCopyJournal;
+    }
+
+    public PageCopyAdmissionController getPageCopyAdmissionController() {
+        return pageCopyAdmissionController;
+    }
+
+    /**
+     * Sets the admission controller to limit the number of the linked document copies running at the same time
+     * across all the target channels. If not set, it is not limited except by the channel lock on each target channel.
+     * @param pageCopyAdmissionController page copy admission controller
+     */
+    public void setPageCopyAdmissionController(PageCopyAdmissionController pageCopyAdmissionController) {
+        this.pageCopyAdmissionController = pageCopyAdmissionController;
+    }
+
+    public ComponentReferenceIndex getComponentReferenceIndex() {
+        return componentReferenceIndex;
+    }
+
+    /**
+     * Sets the component reference index to filter the source page components present in the target channel
+     * without reading the component configuration nodes on each page copy. If not set, the nodes are read.
+     * @param componentReferenceIndex component reference index
+     */
+    public void setComponentReferenceIndex(ComponentReferenceIndex componentReferenceIndex) {
+        this.componentReferenceIndex = componentReferenceIndex;
+    }
+
+    public boolean isAsyncDocumentCopying() {
+        return asyncDocumentCopying;
+    }
+
+    /**
+     * Sets whether or not to copy the linked documents and to update the document parameters of the new page
+     * in a background job, instead of in the request thread. It requires {@link #setRepository(Repository)} and
+     * {@link #setCredentials(Credentials)} to get a JCR session in the background job.
+     * @param asyncDocumentCopying whether or not to copy the linked documents in a background job
+     */
+    public void setAsyncDocumentCopying(boolean asyncDocumentCopying) {
+        this.asyncDocumentCopying = asyncDocumentCopying;
+    }
+
+    public PageCopyJobManager getPageCopyJobManager() {
+        if (pageCopyJobManager == null) {
+            pageCopyJobManager = new PageCopyJobManager();
+        }
+
+        return pageCopyJobManager;
+    }
+
+    public void setPageCopyJobManager(PageCopyJobManager pageCopyJobManager) {
+        this.pageCopyJobManager = pageCopyJobManager;
+    }
+
+    public Repository getRepository() {
+        return repository;
+    }
+
+    public void setRepository(Repository repository) {
+        this.repository = repository;
+    }
+
+    public Credentials getCredentials() {
+        return credentials;
+    }
+
+    public void setCredentials(Credentials credentials) {
+        this.credentials = credentials;
+    }
+
+    public Credentials getReadOnlyCredentials() {
+        return readOnlyCredentials;
+    }
+
+    /**
+     * Sets the credentials to read the content in computing page copy plans through JMX.
+     * If not set, {@link #getCredentials()} is used instead, but the session is never saved either way.
+     * @param readOnlyCredentials credentials to read the content in computing page copy plans
+     */
+    public void setReadOnlyCredentials(Credentials readOnlyCredentials) {
+        this.readOnlyCredentials = readOnlyCredentials;
+    }
+
+    public long getNewPageNodeWaitTimeout() {
+        return newPageNodeWaitTimeout;
+    }
+
+    public void setNewPageNodeWaitTimeout(long newPageNodeWaitTimeout) {
+        this.newPageNodeWaitTimeout = newPageNodeWaitTimeout;
+    }
+
+    public long getJobChannelLockWaitTimeout() {
+        return jobChannelLockWaitTimeout;
+    }
+
+    /**
+     * Sets the maximum time in milliseconds for a background document copying job to wait for the target channel
+     * lock held by another page copy.
+     * @param jobChannelLockWaitTimeout the maximum time in milliseconds to wait for the target channel lock
+     */
+    public void setJobChannelLockWaitTimeout(long jobChannelLockWaitTimeout) {
+        this.jobChannelLockWaitTimeout = jobChannelLockWaitTimeout;
+    }
+
+    public TranslationIndex getTranslationIndex() {
+        return translationIndex;
+    }
+
+    /**
+     * Sets the translation index to look up the translated folders and documents in the target channel without
+     * queries. If not set, they are looked up by queries.
+     * @param translationIndex translation index
+     */
+    public void setTranslationIndex(TranslationIndex translationIndex) {
+        this.translationIndex = translationIndex;
+    }
+
+    public boolean isParallelDocumentCopying() {
+        return parallelDocumentCopying;
+    }
+
+    /**
+     * Sets whether or not to translate the linked documents concurrently, after creating all the missing target
+     * folders first. It requires {@link #setRepository(Repository)} and {@link #setCredentials(Credentials)} to get
+     * a JCR session in each worker to check the target documents and to run the workflow operations with, and the
+     * service module classes visible to this class loader. Otherwise, the linked documents are translated one by one.
+     * @param parallelDocumentCopying whether or not to translate the linked documents concurrently
+     */
+    public void setParallelDocumentCopying(boolean parallelDocumentCopying) {
+        this.parallelDocumentCopying = parallelDocumentCopying;
+    }
+
+    public DocumentTranslationExecutor getDocumentTranslationExecutor() {
+        if (documentTranslationExecutor == null) {
+            documentTranslationExecutor = new DocumentTranslationExecutor();
+        }
+
+        return documentTranslationExecutor;
+    }
+
+    public void setDocumentTranslationExecutor(DocumentTranslationExecutor documentTranslationExecutor) {
+        this.documentTranslationExecutor = documentTranslationExecutor;
+    }
+
     public boolean isCopyDocumentsLinkedBySourcePage() {
         return copyDocumentsLinkedBySourcePage;
     }
@@ -117,6 +417,12 @@ public class DocumentCopyingPageCopyEventListener {
      * Custom event handler after {@link #onPageCopyEvent(PageCopyEvent)} is invoked.
      * An extended class from this can implement this method if it needs to process some custom tasks after the
      * normal page copy event handling.
+     * <P>
+     * If the linked documents are copied by a background job ({@link #isAsyncDocumentCopying()}), this is invoked
+     * right after the job is submitted, before the new page is saved and before the linked documents are copied to
+     * the target channel. So the translated documents may not exist yet, and the new page still links to the source
+     * documents at this point.
+     * </P>
      * @param pageCopyEvent page copy event
      */
     protected void onAfterPageCopyEvent(PageCopyEvent pageCopyEvent) {
@@ -133,73 +439,292 @@ public class DocumentCopyingPageCopyEventListener {
         final Mount sourceMount = pageCopyContext.getEditingMount();
         final Mount targetMount = pageCopyContext.getTargetMount();
 
-        final String sourceContentBasePath = sourceMount.getContentPath().intern();
-        final String targetContentBasePath = targetMount.getContentPath().intern();
+        final String sourceContentBasePath = sourceMount.getContentPath();
+        final String targetContentBasePath = targetMount.getContentPath();
 
-        // synchronize interned targetContentBasePath to disallow concurrent document copying on the same target channel
-        synchronized (targetContentBasePath) {
-            try {
-                onBeforePageCopyEvent(pageCopyEvent);
-
-                final Node sourceContentBaseNode = requestContext.getSession().getNode(sourceContentBasePath);
-                final Node targetContentBaseNode = requestContext.getSession().getNode(targetContentBasePath);
-                String sourceTranslationLanguage = HippoFolderDocumentUtils
-                        .getHippoTranslationLanguage(sourceContentBaseNode);
-                String targetTranslationLanguage = HippoFolderDocumentUtils
-                        .getHippoTranslationLanguage(targetContentBaseNode);
-
-                if (StringUtils.isBlank(sourceTranslationLanguage)) {
-                    throw new IllegalStateException("Blank translation language in the source base content at '"
-                            + sourceContentBasePath + "'.");
-                }
+        // lock on targetContentBasePath to disallow concurrent document copying on the same target channel
+        if (!lockTargetChannel(pageCopyEvent, targetContentBasePath)) {
+            return;
+        }
 
-                if (StringUtils.isBlank(targetTranslationLanguage)) {
-                    throw new IllegalStateException("Blank translation language in the target base content at '"
-                            + targetContentBasePath + "'.");
-                }
+        final PageCopyTrace trace = new PageCopyTrace(targetContentBasePath);
+        final PageCopyJournal.Entry journalEntry = getPageCopyJournal().getEntry(pageCopyContext.getSourcePage(),
+                targetMount);
+        boolean asyncJobSubmitted = false;
 
-                if (isCopyDocumentsLinkedBySourcePage()) {
-                    if (StringUtils.equals(sourceContentBasePath, targetContentBasePath)) {
-                        log.info("No need to copy documents because the source and target channel have the same content base path: {}'",
-                                sourceContentBasePath);
-                    } else {
-                        if (StringUtils.equals(sourceTranslationLanguage, targetTranslationLanguage)) {
-                            throw new IllegalStateException(
-                                    "The same translation language of the source and the target base content. Source='"
-                                            + sourceContentBasePath + "'. Target='" + targetContentBasePath + "'.");
-                        }
+        try {
+            onBeforePageCopyEvent(pageCopyEvent);
 
-                        final Set<String> documentPathSet = getDocumentPathSetInPage(pageCopyContext);
+            final Node sourceContentBaseNode = requestContext.getSession().getNode(sourceContentBasePath);
+            final Node targetContentBaseNode = requestContext.getSession().getNode(targetContentBasePath);
+            String sourceTranslationLanguage = HippoFolderDocumentUtils
+                    .getHippoTranslationLanguage(sourceContentBaseNode);
+            String targetTranslationLanguage = HippoFolderDocumentUtils
+                    .getHippoTranslationLanguage(targetContentBaseNode);
 
-                        if (!documentPathSet.isEmpty()) {
-                            if (!StringUtils.equals(sourceMount.getContentPath(), targetMount.getContentPath())) {
-                                copyDocuments(pageCopyContext.getRequestContext().getSession(), documentPathSet,
-                                        sourceContentBaseNode, targetContentBaseNode);
+            if (StringUtils.isBlank(sourceTranslationLanguage)) {
+                throw new IllegalStateException("Blank translation language in the source base content at '"
+                        + sourceContentBasePath + "'.");
+            }
+
+            if (StringUtils.isBlank(targetTranslationLanguage)) {
+                throw new IllegalStateException("Blank translation language in the target base content at '"
+                        + targetContentBasePath + "'.");
+            }
+
+            if (isCopyDocumentsLinkedBySourcePage()) {
+                if (StringUtils.equals(sourceContentBasePath, targetContentBasePath)) {
+                    log.info("No need to copy documents because the source and target channel have the same content base path: {}'",
+                            sourceContentBasePath);
+                } else {
+                    if (StringUtils.equals(sourceTranslationLanguage, targetTranslationLanguage)) {
+                        throw new IllegalStateException(
+                                "The same translation language of the source and the target base content. Source='"
+                                        + sourceContentBasePath + "'. Target='" + targetContentBasePath + "'.");
+                    }
+
+                    final Set<String> documentPathSet = getDocumentPathSetInPage(pageCopyContext, trace);
+
+                    if (!documentPathSet.isEmpty()) {
+                        if (!StringUtils.equals(sourceMount.getContentPath(), targetMount.getContentPath())) {
+                            if (isAsyncDocumentCopyingAvailable()) {
+                                submitDocumentCopyingJob(pageCopyContext, documentPathSet, trace, journalEntry);
+                                asyncJobSubmitted = true;
                             } else {
-                                log.info("Linked document copying step skipped because the content path of the target " +
-                                        "mount is the same as that of the source mount: {}.", sourceMount.getContentPath());
+                                copyDocuments(pageCopyContext.getRequestContext().getSession(), documentPathSet,
+                                        sourceContentBaseNode, targetContentBaseNode, null, trace, journalEntry);
                             }
                         } else {
-                            log.info("No linked document founds in the source page.");
+                            log.info("Linked document copying step skipped because the content path of the target " +
+                                    "mount is the same as that of the source mount: {}.", sourceMount.getContentPath());
                         }
+                    } else {
+                        log.info("No linked document founds in the source page.");
                     }
-                } else {
-                    log.info("Linked document copying step skipped because 'copyDocumentsLinkedBySourcePage' is turned off.");
                 }
+            } else {
+                log.info("Linked document copying step skipped because 'copyDocumentsLinkedBySourcePage' is turned off.");
+            }
 
+            // the background job updates the HST configuration after copying the linked documents if submitted
+            if (!asyncJobSubmitted) {
+                final long hstUpdateStartNanos = System.nanoTime();
                 updateTargetHstConfiguration(pageCopyContext);
+                trace.phaseCompleted(PageCopyMetrics.Phase.HST_UPDATE, hstUpdateStartNanos);
+            }
+
+            onAfterPageCopyEvent(pageCopyEvent);
+        } catch (ClientException e) {
+            log.error("Failed to handle page copy event properly.", e);
+            pageCopyEvent.setException(e);
+        } catch (RejectedExecutionException e) {
+            log.error("Failed to submit a page copy job.", e);
+            final String clientMessage = "Too many page copy jobs in the queue. Please try again later.";
+            pageCopyEvent.setException(new ClientException(clientMessage, ClientError.ITEM_CANNOT_BE_CLONED,
+                    Collections.singletonMap("errorReason", clientMessage)));
+        } catch (Exception e) {
+            log.error("Failed to handle page copy event properly.", e);
+            final String clientMessage = "Failed to handle page copy event properly. " + e.toString();
+            pageCopyEvent.setException(new ClientException(clientMessage, ClientError.ITEM_CANNOT_BE_CLONED,
+                    Collections.singletonMap("errorReason", clientMessage)));
+        } finally {
+            getChannelLockManager().unlock(targetContentBasePath);
+
+            if (!asyncJobSubmitted) {
+                getPageCopyMetrics().pageCopyCompleted(trace, pageCopyEvent.getException() == null);
+
+                if (pageCopyEvent.getException() == null) {
+                    getPageCopyJournal().completed(journalEntry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Acquires the channel lock on {@code targetContentBasePath}, or sets a {@link ClientException} to the
+     * {@code pageCopyEvent} if the lock cannot be acquired within the lock wait timeout.
+     * @param pageCopyEvent page copy event
+     * @param targetContentBasePath target content base path
+     * @return true if the channel lock was acquired, false otherwise
+     */
+    private boolean lockTargetChannel(final PageCopyEvent pageCopyEvent, final String targetContentBasePath) {
+        try {
+            if (getChannelLockManager().tryLock(targetContentBasePath)) {
+                return true;
+            }
+
+            final String clientMessage = "The target channel is busy with another page copy. Please try again later. "
+                    + "Target='" + targetContentBasePath + "'.";
+            pageCopyEvent.setException(new ClientException(clientMessage, ClientError.ITEM_ALREADY_LOCKED,
+                    Collections.singletonMap("errorReason", clientMessage)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            final String clientMessage = "Interrupted while waiting for the target channel lock. Target='"
+                    + targetContentBasePath + "'.";
+            pageCopyEvent.setException(new ClientException(clientMessage, ClientError.ITEM_CANNOT_BE_CLONED,
+                    Collections.singletonMap("errorReason", clientMessage)));
+        }
+
+        return false;
+    }
+
+    /**
+     * Computes the plan of copying the documents linked by the {@code sourcePage} to the target channel, by reads
+     * only, without creating any folder or document.
+     * @param sourceMount source mount
+     * @param sourceSite source HST site to resolve the source page in, which should be the preview site
+     * @param sourcePage source page component configuration
+     * @param targetMount target mount
+     * @param targetSite target HST site to resolve the target page in, which should be the preview site
+     * @param session JCR session to read the content, which is never saved
+     * @return the plan of copying the documents linked by the {@code sourcePage} to the target channel
+     * @throws RepositoryException if repository exception occurs
+     */
+    public PageCopyPlan planPageCopy(final Mount sourceMount, final HstSite sourceSite,
+            final HstComponentConfiguration sourcePage, final Mount targetMount, final HstSite targetSite,
+            final Session session) throws RepositoryException {
+        final String sourceContentBasePath = sourceMount.getContentPath();
+        final String targetContentBasePath = targetMount.getContentPath();
+        final PageCopyPlan.Builder plan = new PageCopyPlan.Builder(sourcePage.getCanonicalStoredLocation(),
+                sourceContentBasePath, targetContentBasePath);
+
+        if (!isCopyDocumentsLinkedBySourcePage() || StringUtils.equals(sourceContentBasePath, targetContentBasePath)) {
+            return plan.build();
+        }
 
-                onAfterPageCopyEvent(pageCopyEvent);
+        final Node sourceContentBaseNode = session.getNode(sourceContentBasePath);
+        final Node targetContentBaseNode = session.getNode(targetContentBasePath);
+        final String targetTranslationLanguage = HippoFolderDocumentUtils
+                .getHippoTranslationLanguage(targetContentBaseNode);
+
+        if (StringUtils.isBlank(targetTranslationLanguage)) {
+            throw new IllegalStateException("Blank translation language in the target base content at '"
+                    + targetContentBasePath + "'.");
+        }
+
+        // the trace of a plan is not reported to the page copy metrics
+        final PageCopyTrace trace = new PageCopyTrace(targetContentBasePath);
+        final Set<String> documentPathSet = getDocumentPathSetInPage(sourcePage, sourceSite, targetSite, session,
+                trace);
+        final TargetTranslationLookup translationLookup = new TargetTranslationLookup(targetContentBaseNode,
+                TargetTranslationLookup.DEFAULT_CHUNK_SIZE, getTranslationIndex(), targetTranslationLanguage);
+        prefetchTargetTranslations(translationLookup, sourceContentBaseNode, documentPathSet);
+        final TargetResolutionContext resolutionContext = new TargetResolutionContext(translationLookup, trace);
+
+        for (String sourceDocumentPath : documentPathSet) {
+            try {
+                prepareDocumentCopy(session, sourceDocumentPath, sourceContentBaseNode, targetContentBaseNode,
+                        targetTranslationLanguage, resolutionContext, plan);
             } catch (ClientException e) {
-                log.error("Failed to handle page copy event properly.", e);
-                pageCopyEvent.setException(e);
+                plan.skipDocument(sourceDocumentPath, PageCopyPlan.SkipReason.CANNOT_BE_COPIED, e.getMessage());
+            } catch (RepositoryException | RuntimeException e) {
+                throw e;
             } catch (Exception e) {
-                log.error("Failed to handle page copy event properly.", e);
-                final String clientMessage = "Failed to handle page copy event properly. " + e.toString();
-                pageCopyEvent.setException(new ClientException(clientMessage, ClientError.ITEM_CANNOT_BE_CLONED,
-                        Collections.singletonMap("errorReason", clientMessage)));
+                throw new RepositoryException(e);
             }
         }
+
+        return plan.build();
+    }
+
+    /**
+     * Copies the documents linked by all the {@code sourcePages} to the target channel at once, and then updates
+     * the document parameters of the pages which exist in the {@code targetSite} already.
+     * <P>
+     * All the pages are scanned first to compute the union of the linked documents, so each document shared by
+     * multiple pages is resolved and translated only once and each missing folder is created only once.
+     * The progress is recorded in the {@code checkpoint}, so a failed bulk copy resumes from where it stopped
+     * when invoked again with the same checkpoint.
+     * </P>
+     * @param sourceMount source mount
+     * @param sourceSite source site of which pages are copied
+     * @param sourcePages source page component configurations
+     * @param targetMount target mount
+     * @param targetSite target site in which the copied pages are updated
+     * @param session JCR session
+     * @param objectBeanManager object bean manager with the {@code session} to resolve translated documents
+     * @param checkpoint progress checkpoint
+     * @param job page copy job to report the progress to, or null
+     * @throws RepositoryException if repository exception occurs
+     */
+    public void copyPagesInBulk(final Mount sourceMount, final HstSite sourceSite,
+            final List<HstComponentConfiguration> sourcePages, final Mount targetMount, final HstSite targetSite,
+            final Session session, final ObjectBeanManager objectBeanManager, final BulkPageCopyCheckpoint checkpoint,
+            final PageCopyJob job) throws RepositoryException {
+        final String sourceContentBasePath = sourceMount.getContentPath();
+        final String targetContentBasePath = targetMount.getContentPath();
+
+        final PageCopyTrace trace = new PageCopyTrace(targetContentBasePath);
+
+        if (job != null) {
+            job.setTotalSteps(2 * sourcePages.size());
+        }
+
+        for (HstComponentConfiguration sourcePage : sourcePages) {
+            if (!checkpoint.isPageScanned(sourcePage.getId())) {
+                checkpoint.pageScanned(sourcePage.getId(),
+                        getDocumentPathSetInPage(sourcePage, sourceSite, targetSite, session, trace));
+            }
+
+            if (job != null) {
+                job.stepCompleted();
+            }
+        }
+
+        log.info("Found {} linked documents in {} pages to copy to '{}'.", checkpoint.getDocumentPaths().size(),
+                sourcePages.size(), targetContentBasePath);
+
+        if (!checkpoint.isDocumentsCopied()) {
+            if (isCopyDocumentsLinkedBySourcePage() && !StringUtils.equals(sourceContentBasePath, targetContentBasePath)) {
+                final Node targetContentBaseNode = session.getNode(targetContentBasePath);
+
+                if (StringUtils.isBlank(HippoFolderDocumentUtils.getHippoTranslationLanguage(targetContentBaseNode))) {
+                    throw new IllegalStateException("Blank translation language in the target base content at '"
+                            + targetContentBasePath + "'.");
+                }
+
+                copyDocuments(session, checkpoint.getDocumentPaths(), session.getNode(sourceContentBasePath),
+                        targetContentBaseNode, job, trace, null);
+            }
+
+            checkpoint.documentsCopied();
+        }
+
+        final boolean updateHstConfiguration = !sourceMount.getIdentifier().equals(targetMount.getIdentifier());
+
+        for (HstComponentConfiguration sourcePage : sourcePages) {
+            if (updateHstConfiguration && !checkpoint.isPageUpdated(sourcePage.getId())) {
+                final HstComponentConfiguration targetPage = targetSite.getComponentsConfiguration()
+                        .getComponentConfiguration(sourcePage.getId());
+
+                if (targetPage == null || targetPage.isInherited()
+                        || !session.nodeExists(targetPage.getCanonicalStoredLocation())) {
+                    log.info("Skipping updating the document parameters of '{}' because it doesn't exist in the "
+                            + "target channel.", sourcePage.getId());
+                } else {
+                    // the existing page may be being edited by another user, so leave the locked components as they are
+                    final HstDocumentParamsUpdateReport report = HstDocumentParamsUpdater.updateTargetDocumentPathsWithReport(
+                            sourceMount, sourcePage, targetMount,
+                            session.getNode(targetPage.getCanonicalStoredLocation()), objectBeanManager,
+                            getTranslationIndex(), true);
+                    session.save();
+                    log.debug("Updated the document parameters of '{}': {}", sourcePage.getId(), report);
+
+                    if (!report.getLockedNodes().isEmpty()) {
+                        log.warn("Skipped updating the document parameters of '{}' in the components locked by "
+                                + "other users: {}", sourcePage.getId(), report.getLockedNodes());
+                    }
+                }
+
+                checkpoint.pageUpdated(sourcePage.getId());
+            }
+
+            if (job != null) {
+                job.stepCompleted();
+            }
+        }
+
+        log.info("Copied the documents linked by {} pages in bulk: {}", sourcePages.size(), trace);
     }
 
     protected void updateTargetHstConfiguration(final PageCopyContext pageCopyContext) {
@@ -211,128 +736,529 @@ public class DocumentCopyingPageCopyEventListener {
         }
 
         // delegate to static utility
-        HstDocumentParamsUpdater.updateTargetDocumentPaths(pageCopyContext.getEditingMount(),
-                                                            pageCopyContext.getSourcePage(),
-                                                            pageCopyContext.getTargetMount(),
-                                                            pageCopyContext.getNewPageNode(),
-                                                            pageCopyContext.getRequestContext());
+        final HstDocumentParamsUpdateReport report = HstDocumentParamsUpdater.updateTargetDocumentPathsWithReport(
+                pageCopyContext.getEditingMount(),
+                pageCopyContext.getSourcePage(),
+                pageCopyContext.getTargetMount(),
+                pageCopyContext.getNewPageNode(),
+                pageCopyContext.getRequestContext().getObjectBeanManager(),
+                getTranslationIndex());
+        log.debug("Updated the document parameters of the new page: {}", report);
+    }
+
+    private boolean isAsyncDocumentCopyingAvailable() {
+        return isAsyncDocumentCopying() && getRepository() != null && getCredentials() != null;
+    }
+
+    /**
+     * Submits a background job to copy the linked documents and to update the document parameters of the new page
+     * afterwards, with a JCR session of its own.
+     * <P>
+     * The job waits until the new page node is saved by the request thread first, so nothing is copied if the page
+     * copy is rolled back. It waits for the target channel lock up to {@link #getJobChannelLockWaitTimeout()}
+     * milliseconds, as the request thread may still hold the lock when the job starts.
+     * </P>
+     * @param pageCopyContext page copy context
+     * @param documentPathSet document paths linked by the source page
+     * @param trace page copy trace to complete when the job finishes
+     * @param journalEntry page copy journal entry to resume from and to record the completed steps in
+     * @return the submitted page copy job
+     * @throws RepositoryException if repository exception occurs
+     */
+    private PageCopyJob submitDocumentCopyingJob(final PageCopyContext pageCopyContext,
+            final Set<String> documentPathSet, final PageCopyTrace trace, final PageCopyJournal.Entry journalEntry)
+            throws RepositoryException {
+        final Mount sourceMount = pageCopyContext.getEditingMount();
+        final Mount targetMount = pageCopyContext.getTargetMount();
+        final HstComponentConfiguration sourcePage = pageCopyContext.getSourcePage();
+        final String newPageNodePath = pageCopyContext.getNewPageNode().getPath();
+        final ContentBeansTool contentBeansTool = pageCopyContext.getRequestContext().getContentBeansTool();
+        final boolean updateHstConfiguration = !sourceMount.getIdentifier().equals(targetMount.getIdentifier());
+        final String targetContentBasePath = targetMount.getContentPath();
+
+        final PageCopyJob pageCopyJob = getPageCopyJobManager().submit("Copying documents linked by '"
+                + sourcePage.getCanonicalStoredLocation() + "' to '" + targetContentBasePath + "'", job -> {
+            if (!getChannelLockManager().tryLock(targetContentBasePath, getJobChannelLockWaitTimeout())) {
+                getPageCopyMetrics().pageCopyCompleted(trace, false);
+                throw new IllegalStateException("The target channel is still busy with another page copy after "
+                        + getJobChannelLockWaitTimeout() + "ms. Target='" + targetContentBasePath + "'.");
+            }
+
+            Session session = null;
+            boolean succeeded = false;
+
+            try {
+                session = getRepository().login(getCredentials());
+
+                // don't copy anything if the page copy is not saved, e.g. rolled back on a failure
+                final Node newPageNode = waitForNode(session, newPageNodePath);
+
+                copyDocuments(session, documentPathSet, session.getNode(sourceMount.getContentPath()),
+                        session.getNode(targetContentBasePath), job, trace, journalEntry);
+
+                if (updateHstConfiguration) {
+                    final long hstUpdateStartNanos = System.nanoTime();
+                    final HstDocumentParamsUpdateReport report = HstDocumentParamsUpdater.updateTargetDocumentPathsWithReport(
+                            sourceMount, sourcePage, targetMount, newPageNode,
+                            contentBeansTool.createObjectBeanManager(session), getTranslationIndex());
+                    session.save();
+                    log.debug("Updated the document parameters of '{}': {}", newPageNodePath, report);
+                    trace.phaseCompleted(PageCopyMetrics.Phase.HST_UPDATE, hstUpdateStartNanos);
+                }
+
+                succeeded = true;
+                getPageCopyJournal().completed(journalEntry);
+            } finally {
+                if (session != null) {
+                    session.logout();
+                }
+
+                getChannelLockManager().unlock(targetContentBasePath);
+                getPageCopyMetrics().pageCopyCompleted(trace, succeeded);
+            }
+        });
+
+        log.info("Linked documents will be copied in the background by the job, '{}'.", pageCopyJob.getJobId());
+
+        return pageCopyJob;
+    }
+
+    /**
+     * Waits until the node at {@code nodePath} is visible to the {@code session}, as it is saved by the HST request
+     * thread only after the page copy event handling.
+     * @param session JCR session
+     * @param nodePath node path
+     * @return the node at {@code nodePath}
+     * @throws RepositoryException if repository exception occurs or the node is not found within the timeout
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    private Node waitForNode(final Session session, final String nodePath)
+            throws RepositoryException, InterruptedException {
+        final long deadline = System.currentTimeMillis() + getNewPageNodeWaitTimeout();
+
+        while (!session.nodeExists(nodePath)) {
+            if (System.currentTimeMillis() >= deadline) {
+                throw new RepositoryException("Node not found at '" + nodePath + "' within "
+                        + getNewPageNodeWaitTimeout() + "ms.");
+            }
+
+            Thread.sleep(NEW_PAGE_NODE_POLL_INTERVAL);
+            session.refresh(false);
+        }
+
+        return session.getNode(nodePath);
     }
 
     private void copyDocuments(final Session session, final Set<String> sourceDocumentPathSet,
-            final Node sourceContentBaseNode, final Node targetContentBaseNode) {
+            final Node sourceContentBaseNode, final Node targetContentBaseNode, final PageCopyJob job,
+            final PageCopyTrace trace, final PageCopyJournal.Entry journalEntry) {
+        boolean admitted = false;
+
         try {
-            final String sourceContentBasePath = sourceContentBaseNode.getPath();
-            final String targetContentBasePath = targetContentBaseNode.getPath();
+            admitted = admitDocumentCopying(targetContentBaseNode.getPath());
+
             final String targetTranslationLanguage = HippoFolderDocumentUtils
                     .getHippoTranslationLanguage(targetContentBaseNode);
 
-            Node sourceDocumentHandleNode;
-            Node targetDocumentHandleNode;
-            String targetDocumentAbsPath;
-            String targetFolderAbsPath;
-            String targetFolderRelPath;
+            final TargetTranslationLookup translationLookup = new TargetTranslationLookup(targetContentBaseNode,
+                    TargetTranslationLookup.DEFAULT_CHUNK_SIZE, getTranslationIndex(), targetTranslationLanguage);
+            final Set<String> remainingDocumentPathSet = getRemainingDocumentPathSet(sourceDocumentPathSet,
+                    journalEntry);
 
-            for (String sourceDocumentPath : sourceDocumentPathSet) {
-                if (StringUtils.startsWith(sourceDocumentPath, "/")) {
-                    log.info("Skipping '{}' because it's an absolute jcr path, not relative to source mount content base",
-                            sourceDocumentPath);
-                    continue;
-                }
+            final long lookupStartNanos = System.nanoTime();
+            prefetchTargetTranslations(translationLookup, sourceContentBaseNode, remainingDocumentPathSet);
+            trace.phaseCompleted(PageCopyMetrics.Phase.TRANSLATION_LOOKUP, lookupStartNanos);
+            final TargetResolutionContext resolutionContext = new TargetResolutionContext(translationLookup, trace,
+                    journalEntry);
 
-                if (!sourceContentBaseNode.hasNode(sourceDocumentPath)) {
-                    log.info("Skipping '{}' because it doesn't exist under '{}'.", sourceDocumentPath, sourceContentBasePath);
-                    continue;
-                }
+            if (job != null) {
+                job.setTotalSteps(job.getTotalSteps() + remainingDocumentPathSet.size());
+            }
 
-                sourceDocumentHandleNode = HippoFolderDocumentUtils
-                        .getHippoDocumentHandle(sourceContentBaseNode.getNode(sourceDocumentPath));
+            final boolean parallel = isParallelDocumentCopyingAvailable();
+            final Map<String, DocumentTranslation> pendingTranslations = new LinkedHashMap<>();
 
-                if (sourceDocumentHandleNode == null) {
-                    log.info("Skipping '{}' because there's no document at the location under '{}'.", sourceDocumentPath,
-                            sourceContentBasePath);
-                    continue;
-                }
+            for (String sourceDocumentPath : remainingDocumentPathSet) {
+                final String uncommittedDocumentPath = (journalEntry != null)
+                        ? journalEntry.getUncommittedDocumentPath(sourceDocumentPath) : null;
 
-                targetDocumentHandleNode = findTargetTranslatedDocumentHandleNode(targetContentBaseNode, sourceDocumentHandleNode);
+                if (uncommittedDocumentPath != null) {
+                    log.info("Committing '{}' translated in the previous attempt.", uncommittedDocumentPath);
+                    getDocumentManagementServiceClient().commitEditableDocument(uncommittedDocumentPath);
+                    journalEntry.documentCompleted(sourceDocumentPath);
+
+                    if (job != null) {
+                        job.stepCompleted();
+                    }
 
-                if (targetDocumentHandleNode != null) {
-                    log.info("Skipping '{}' because there exists a translated document at '{}'.", sourceDocumentPath,
-                            targetDocumentHandleNode.getPath());
                     continue;
                 }
 
-                targetDocumentAbsPath = resolveTargetDocumentAbsPath(sourceContentBaseNode, targetContentBaseNode, sourceDocumentPath);
+                final DocumentTranslation translation = prepareDocumentCopy(session, sourceDocumentPath,
+                        sourceContentBaseNode, targetContentBaseNode, targetTranslationLanguage, resolutionContext,
+                        null);
 
-                if (HippoFolderDocumentUtils.documentExists(session, targetDocumentAbsPath)) {
-                    log.info("Skipping '{}' because it already exists under '{}'.", sourceDocumentPath, targetContentBasePath);
-                    continue;
+                if (translation == null && journalEntry != null) {
+                    journalEntry.documentCompleted(sourceDocumentPath);
                 }
 
-                targetFolderAbsPath = StringUtils.substringBeforeLast(targetDocumentAbsPath, "/");
-                targetFolderRelPath = StringUtils.substringAfter(targetFolderAbsPath, targetContentBasePath + "/");
-
-                if (HippoFolderDocumentUtils.folderExists(session, targetFolderAbsPath)) {
-                    Node targetFolderNode = session.getNode(targetFolderAbsPath);
+                // the missing folders are created already, so the documents can be translated independently
+                if (translation != null
+                        && pendingTranslations.putIfAbsent(translation.sourceDocumentHandlePath, translation) == null) {
+                    continue;
+                }
 
-                    if (!targetFolderNode.isNodeType(HippoTranslationNodeType.NT_TRANSLATED)) {
-                        final String clientMessage = "Cannot copy documents because the target folder at '"
-                                + targetFolderAbsPath + "' is not type of " + HippoTranslationNodeType.NT_TRANSLATED
-                                + ".";
-                        throw new ClientException(clientMessage, ClientError.INVALID_NODE_TYPE,
-                                Collections.singletonMap("errorReason", clientMessage));
-                    } else {
-                        Node sourceFolderNode = sourceDocumentHandleNode.getParent();
-                        String sourceFolderTranslationId = JcrUtils.getStringProperty(sourceFolderNode,
-                                HippoTranslationNodeType.ID, null);
-                        String targetFolderTranslationId = JcrUtils.getStringProperty(targetFolderNode,
-                                HippoTranslationNodeType.ID, null);
-                        if (!StringUtils.equals(sourceFolderTranslationId, targetFolderTranslationId)) {
-                            final String clientMessage = "Cannot copy documents because the translation ID of target folder at '"
-                                    + targetFolderAbsPath + "' doesn't match with that of source folder at '"
-                                    + sourceFolderNode.getPath() + "'. '" + targetFolderTranslationId
-                                    + "' (target) vs. '" + sourceFolderTranslationId + "' (source).";
-                            throw new ClientException(clientMessage, ClientError.ITEM_CANNOT_BE_CLONED,
-                                    Collections.singletonMap("errorReason", clientMessage));
-                        }
-                    }
-                } else {
-                    String sourceFolderRelPath = sourceDocumentHandleNode.getParent().getPath()
-                            .substring(sourceContentBasePath.length() + 1);
+                if (translation != null && journalEntry != null) {
+                    // the same handle is translated for the pending source path, which stays in the journal until done
+                    journalEntry.documentCompleted(sourceDocumentPath);
+                }
 
-                    translateFolders(session, sourceContentBaseNode, sourceFolderRelPath, targetContentBaseNode,
-                            targetFolderRelPath, targetTranslationLanguage);
+                if (job != null) {
+                    job.stepCompleted();
                 }
+            }
 
-                final String translateDocumentPath = getDocumentManagementServiceClient().translateDocument(sourceDocumentHandleNode.getPath(),
-                        targetTranslationLanguage, sourceDocumentHandleNode.getName());
-                getDocumentManagementServiceClient().commitEditableDocument(translateDocumentPath);
+            if (!pendingTranslations.isEmpty() && !parallel) {
+                log.debug("Translating {} documents in batches to '{}'.", pendingTranslations.size(),
+                        targetContentBaseNode.getPath());
+                translateDocuments(pendingTranslations.values(), targetTranslationLanguage, trace, journalEntry, job,
+                        null);
+            } else if (!pendingTranslations.isEmpty()) {
+                log.debug("Translating {} documents concurrently to '{}'.", pendingTranslations.size(),
+                        targetContentBaseNode.getPath());
+                getDocumentTranslationExecutor().executeAll(pendingTranslations.values(), getRepository(),
+                        getCredentials(), (workerSession, workerService, translation) -> {
+                            if (HippoFolderDocumentUtils.documentExists(workerSession,
+                                    translation.targetDocumentAbsPath)) {
+                                log.info("Skipping '{}' because it has been created meanwhile.",
+                                        translation.targetDocumentAbsPath);
+
+                                if (journalEntry != null) {
+                                    journalEntry.documentCompleted(translation.sourceDocumentPath);
+                                }
+
+                                if (job != null) {
+                                    job.stepCompleted();
+                                }
+                            } else {
+                                translateDocuments(Collections.singletonList(translation), targetTranslationLanguage,
+                                        trace, journalEntry, job, workerService);
+                            }
+                        });
             }
+
+            log.debug("Resolved the target folders of the linked documents: {}", resolutionContext);
         } catch (ClientException e) {
             throw e;
         } catch (Exception e) {
             final String clientMessage = "Failed to copy all the linked documents. " + e.toString();
             throw new ClientException(clientMessage, ClientError.ITEM_CANNOT_BE_CLONED,
                     Collections.singletonMap("errorReason", clientMessage));
+        } finally {
+            if (admitted) {
+                getPageCopyAdmissionController().release();
+            }
+        }
+    }
+
+    /**
+     * Waits for admission by the page copy admission controller if configured, or throws a {@link ClientException}
+     * if rejected.
+     * @param targetContentBasePath target content base path
+     * @return true if admitted by the page copy admission controller, false if no admission controller is configured
+     */
+    private boolean admitDocumentCopying(final String targetContentBasePath) {
+        final PageCopyAdmissionController admissionController = getPageCopyAdmissionController();
+
+        if (admissionController == null) {
+            return false;
+        }
+
+        String clientMessage;
+
+        try {
+            if (admissionController.tryAcquire(targetContentBasePath)) {
+                return true;
+            }
+
+            clientMessage = "Too many page copies are in progress. Please try again later. Target='"
+                    + targetContentBasePath + "'.";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            clientMessage = "Interrupted while waiting for admission to copy documents. Target='"
+                    + targetContentBasePath + "'.";
+        }
+
+        throw new ClientException(clientMessage, ClientError.ITEM_CANNOT_BE_CLONED,
+                Collections.singletonMap("errorReason", clientMessage));
+    }
+
+    /**
+     * Returns the source document paths which are not completed yet according to the {@code journalEntry}.
+     */
+    private static Set<String> getRemainingDocumentPathSet(final Set<String> sourceDocumentPathSet,
+            final PageCopyJournal.Entry journalEntry) {
+        if (journalEntry == null) {
+            return sourceDocumentPathSet;
+        }
+
+        final Set<String> remainingDocumentPathSet = new LinkedHashSet<>();
+
+        for (String sourceDocumentPath : sourceDocumentPathSet) {
+            if (journalEntry.isDocumentCompleted(sourceDocumentPath)) {
+                log.debug("Skipping '{}' because it was completed in the previous attempt.", sourceDocumentPath);
+            } else {
+                remainingDocumentPathSet.add(sourceDocumentPath);
+            }
+        }
+
+        return remainingDocumentPathSet;
+    }
+
+    /**
+     * Returns true if the linked documents can be translated concurrently, which is not the case if the document
+     * translation executor could not be initialized, as logged on {@link #init()}.
+     */
+    private boolean isParallelDocumentCopyingAvailable() {
+        return isParallelDocumentCopying() && documentTranslationExecutor != null
+                && documentTranslationExecutor.isRunning();
+    }
+
+    /**
+     * Checks whether the linked document at {@code sourceDocumentPath} should be translated to the target channel,
+     * and creates the missing target folders for it if so.
+     * If {@code plan} is given, nothing is created but the decisions are recorded in the {@code plan} instead.
+     * @return the document translation to execute, or null if the document is skipped
+     */
+    private DocumentTranslation prepareDocumentCopy(final Session session, final String sourceDocumentPath,
+            final Node sourceContentBaseNode, final Node targetContentBaseNode, final String targetTranslationLanguage,
+            final TargetResolutionContext resolutionContext, final PageCopyPlan.Builder plan) throws Exception {
+        final String sourceContentBasePath = sourceContentBaseNode.getPath();
+        final String targetContentBasePath = targetContentBaseNode.getPath();
+
+        Node sourceDocumentHandleNode;
+        Node targetDocumentHandleNode;
+        String targetDocumentAbsPath;
+        String targetFolderAbsPath;
+        String targetFolderRelPath;
+
+        if (StringUtils.startsWith(sourceDocumentPath, "/")) {
+            log.info("Skipping '{}' because it's an absolute jcr path, not relative to source mount content base",
+                    sourceDocumentPath);
+            skipDocument(resolutionContext, plan, sourceDocumentPath, PageCopyPlan.SkipReason.ABSOLUTE_PATH, null);
+            return null;
+        }
+
+        if (!sourceContentBaseNode.hasNode(sourceDocumentPath)) {
+            log.info("Skipping '{}' because it doesn't exist under '{}'.", sourceDocumentPath, sourceContentBasePath);
+            skipDocument(resolutionContext, plan, sourceDocumentPath, PageCopyPlan.SkipReason.NOT_FOUND,
+                    sourceContentBasePath);
+            return null;
+        }
+
+        sourceDocumentHandleNode = HippoFolderDocumentUtils
+                .getHippoDocumentHandle(sourceContentBaseNode.getNode(sourceDocumentPath));
+
+        if (sourceDocumentHandleNode == null) {
+            log.info("Skipping '{}' because there's no document at the location under '{}'.", sourceDocumentPath,
+                    sourceContentBasePath);
+            skipDocument(resolutionContext, plan, sourceDocumentPath, PageCopyPlan.SkipReason.NOT_A_DOCUMENT,
+                    sourceContentBasePath);
+            return null;
+        }
+
+        final long lookupStartNanos = System.nanoTime();
+        targetDocumentHandleNode = findTargetTranslatedDocumentHandleNode(resolutionContext.getTranslationLookup(),
+                sourceDocumentHandleNode);
+        resolutionContext.getTrace().phaseCompleted(PageCopyMetrics.Phase.TRANSLATION_LOOKUP, lookupStartNanos);
+
+        if (targetDocumentHandleNode != null) {
+            log.info("Skipping '{}' because there exists a translated document at '{}'.", sourceDocumentPath,
+                    targetDocumentHandleNode.getPath());
+            skipDocument(resolutionContext, plan, sourceDocumentPath, PageCopyPlan.SkipReason.ALREADY_TRANSLATED,
+                    targetDocumentHandleNode.getPath());
+            if (plan != null) {
+                plan.rewriteParameter(sourceDocumentPath,
+                        StringUtils.removeStart(targetDocumentHandleNode.getPath(), targetContentBasePath + "/"));
+            }
+            return null;
+        }
+
+        targetDocumentAbsPath = resolveTargetDocumentAbsPath(sourceContentBaseNode, targetContentBaseNode, sourceDocumentPath,
+                resolutionContext);
+
+        if (HippoFolderDocumentUtils.documentExists(session, targetDocumentAbsPath)) {
+            log.info("Skipping '{}' because it already exists under '{}'.", sourceDocumentPath, targetContentBasePath);
+            skipDocument(resolutionContext, plan, sourceDocumentPath, PageCopyPlan.SkipReason.ALREADY_EXISTS,
+                    targetDocumentAbsPath);
+            return null;
+        }
+
+        targetFolderAbsPath = StringUtils.substringBeforeLast(targetDocumentAbsPath, "/");
+        targetFolderRelPath = StringUtils.substringAfter(targetFolderAbsPath, targetContentBasePath + "/");
+
+        if (plan != null && plan.isFolderToCreate(targetFolderAbsPath)) {
+            log.debug("Target folder at '{}' is planned to be created already.", targetFolderAbsPath);
+        } else if (HippoFolderDocumentUtils.folderExists(session, targetFolderAbsPath)) {
+            Node targetFolderNode = session.getNode(targetFolderAbsPath);
+
+            if (!targetFolderNode.isNodeType(HippoTranslationNodeType.NT_TRANSLATED)) {
+                final String clientMessage = "Cannot copy documents because the target folder at '"
+                        + targetFolderAbsPath + "' is not type of " + HippoTranslationNodeType.NT_TRANSLATED
+                        + ".";
+                throw new ClientException(clientMessage, ClientError.INVALID_NODE_TYPE,
+                        Collections.singletonMap("errorReason", clientMessage));
+            } else {
+                Node sourceFolderNode = sourceDocumentHandleNode.getParent();
+                String sourceFolderTranslationId = JcrUtils.getStringProperty(sourceFolderNode,
+                        HippoTranslationNodeType.ID, null);
+                String targetFolderTranslationId = JcrUtils.getStringProperty(targetFolderNode,
+                        HippoTranslationNodeType.ID, null);
+                if (!StringUtils.equals(sourceFolderTranslationId, targetFolderTranslationId)) {
+                    final String clientMessage = "Cannot copy documents because the translation ID of target folder at '"
+                            + targetFolderAbsPath + "' doesn't match with that of source folder at '"
+                            + sourceFolderNode.getPath() + "'. '" + targetFolderTranslationId
+                            + "' (target) vs. '" + sourceFolderTranslationId + "' (source).";
+                    throw new ClientException(clientMessage, ClientError.ITEM_CANNOT_BE_CLONED,
+                            Collections.singletonMap("errorReason", clientMessage));
+                }
+            }
+        } else {
+            String sourceFolderRelPath = sourceDocumentHandleNode.getParent().getPath()
+                    .substring(sourceContentBasePath.length() + 1);
+
+            translateFolders(session, sourceContentBaseNode, sourceFolderRelPath, targetContentBaseNode,
+                    targetFolderRelPath, targetTranslationLanguage, resolutionContext, plan);
+        }
+
+        if (plan != null) {
+            plan.translateDocument(sourceDocumentHandleNode.getPath());
+            plan.rewriteParameter(sourceDocumentPath,
+                    StringUtils.removeStart(targetDocumentAbsPath, targetContentBasePath + "/"));
+            return null;
+        }
+
+        return new DocumentTranslation(sourceDocumentPath, sourceDocumentHandleNode.getPath(),
+                sourceDocumentHandleNode.getName(), targetDocumentAbsPath);
+    }
+
+    private static void skipDocument(final TargetResolutionContext resolutionContext, final PageCopyPlan.Builder plan,
+            final String sourceDocumentPath, final PageCopyPlan.SkipReason reason, final String detail) {
+        resolutionContext.getTrace().documentSkipped(reason);
+
+        if (plan != null) {
+            plan.skipDocument(sourceDocumentPath, reason, detail);
+        }
+    }
+
+    /**
+     * Translates and commits the documents by the batch operation of the document management service,
+     * up to {@link #DOCUMENT_TRANSLATION_BATCH_SIZE} documents in a batch. If {@code service} is given, e.g. of
+     * a lane of the document translation executor, it is invoked directly instead of through the client.
+     * The documents succeeded in a batch, and the documents translated but failed to be committed, are recorded in
+     * the {@code journalEntry} even if others failed, and then an exception is thrown with the first failure.
+     */
+    private void translateDocuments(final Collection<DocumentTranslation> translations,
+            final String targetTranslationLanguage, final PageCopyTrace trace,
+            final PageCopyJournal.Entry journalEntry, final PageCopyJob job, final DocumentManagementService service)
+            throws Exception {
+        final List<DocumentTranslation> translationList = new ArrayList<>(translations);
+
+        for (int start = 0; start < translationList.size(); start += DOCUMENT_TRANSLATION_BATCH_SIZE) {
+            final List<DocumentTranslation> batch = translationList.subList(start,
+                    Math.min(start + DOCUMENT_TRANSLATION_BATCH_SIZE, translationList.size()));
+            final long translationStartNanos = System.nanoTime();
+            final String[] sourceDocumentHandlePaths = new String[batch.size()];
+            final String[] targetDocumentNodeNames = new String[batch.size()];
+
+            for (int i = 0; i < batch.size(); i++) {
+                sourceDocumentHandlePaths[i] = batch.get(i).sourceDocumentHandlePath;
+                targetDocumentNodeNames[i] = batch.get(i).targetDocumentNodeName;
+            }
+
+            final DocumentManagementServiceClient.ItemResult[] results = (service != null)
+                    ? DocumentManagementServiceClient.toItemResults(service.translateAndCommitDocuments(
+                            sourceDocumentHandlePaths, targetTranslationLanguage, targetDocumentNodeNames))
+                    : getDocumentManagementServiceClient().translateAndCommitDocuments(sourceDocumentHandlePaths,
+                            targetTranslationLanguage, targetDocumentNodeNames);
+            String errorMessage = null;
+
+            for (int i = 0; i < batch.size(); i++) {
+                if (results[i].isSucceeded()) {
+                    if (journalEntry != null) {
+                        journalEntry.documentCompleted(batch.get(i).sourceDocumentPath);
+                    }
+
+                    trace.documentTranslated();
+
+                    if (job != null) {
+                        job.stepCompleted();
+                    }
+                } else {
+                    if (journalEntry != null && results[i].getResultLocation() != null) {
+                        // translated but not committed, to be committed in the next attempt
+                        journalEntry.documentTranslated(batch.get(i).sourceDocumentPath,
+                                results[i].getResultLocation());
+                    }
+
+                    if (errorMessage == null) {
+                        errorMessage = results[i].toString();
+                    }
+                }
+            }
+
+            trace.phaseCompleted(PageCopyMetrics.Phase.DOCUMENT_TRANSLATION, translationStartNanos);
+
+            if (errorMessage != null) {
+                throw new IllegalStateException("Failed to translate the linked documents. " + errorMessage);
+            }
         }
     }
 
     /**
      * Resolves target document absolute path under {@code targetContentBaseNode},
      * corresponding to the {@code sourceDocumentPath} under {@code sourceContentBaseNode}.
+     * The target folder is resolved once per source folder in a page copy, remembered in {@code resolutionContext}.
      * @param sourceContentBaseNode source content base folder node
      * @param targetContentBaseNode target content base folder node
      * @param sourceDocumentPath source document relative path
+     * @param resolutionContext resolution context of the page copy
      * @return corresponding target document absolute path
      * @throws RepositoryException if any repository exception occurs
      */
     private String resolveTargetDocumentAbsPath(final Node sourceContentBaseNode, final Node targetContentBaseNode,
-            final String sourceDocumentPath) throws RepositoryException {
-        Node sourceDocumentHandleNode = sourceContentBaseNode.getNode(sourceDocumentPath);
-        Node sourceFolderNode = sourceDocumentHandleNode.getParent();
-        Node targetFolderNode = findTargetTranslatedFolderNode(targetContentBaseNode, sourceFolderNode);
+            final String sourceDocumentPath, final TargetResolutionContext resolutionContext) throws RepositoryException {
+        final Node sourceDocumentHandleNode = sourceContentBaseNode.getNode(sourceDocumentPath);
+        final Node sourceParentFolderNode = sourceDocumentHandleNode.getParent();
+        final String sourceParentFolderPath = sourceParentFolderNode.getPath();
+        String targetFolderAbsPath = resolutionContext.getResolvedFolderPath(sourceParentFolderPath);
+
+        if (targetFolderAbsPath == null) {
+            targetFolderAbsPath = resolveTargetFolderAbsPath(sourceContentBaseNode, targetContentBaseNode,
+                    sourceParentFolderNode, resolutionContext);
+            resolutionContext.setResolvedFolderPath(sourceParentFolderPath, targetFolderAbsPath);
+        }
+
+        return targetFolderAbsPath + "/" + sourceDocumentHandleNode.getName();
+    }
+
+    /**
+     * Resolves target folder absolute path under {@code targetContentBaseNode}, corresponding to the
+     * {@code sourceFolderNode} under {@code sourceContentBaseNode}, by walking up to the nearest translated
+     * ancestor folder.
+     * @param sourceContentBaseNode source content base folder node
+     * @param targetContentBaseNode target content base folder node
+     * @param sourceFolderNode source folder node
+     * @param resolutionContext resolution context of the page copy
+     * @return corresponding target folder absolute path
+     * @throws RepositoryException if any repository exception occurs
+     */
+    private String resolveTargetFolderAbsPath(final Node sourceContentBaseNode, final Node targetContentBaseNode,
+            Node sourceFolderNode, final TargetResolutionContext resolutionContext) throws RepositoryException {
+        Node targetFolderNode = findTargetTranslatedFolderNode(resolutionContext, sourceFolderNode);
 
         if (targetFolderNode != null) {
-            return targetFolderNode.getPath() + "/" + sourceDocumentHandleNode.getName();
+            return targetFolderNode.getPath();
         }
 
         Stack<String> targetFolderNameStack = new Stack<>();
@@ -341,7 +1267,7 @@ public class DocumentCopyingPageCopyEventListener {
         sourceFolderNode = sourceFolderNode.getParent();
 
         while (!sourceFolderNode.isSame(sourceContentBaseNode)) {
-            targetFolderNode = findTargetTranslatedFolderNode(targetContentBaseNode, sourceFolderNode);
+            targetFolderNode = findTargetTranslatedFolderNode(resolutionContext, sourceFolderNode);
 
             if (targetFolderNode != null) {
                 String folderPath = StringUtils.removeStart(targetFolderNode.getPath(),
@@ -355,115 +1281,143 @@ public class DocumentCopyingPageCopyEventListener {
             sourceFolderNode = sourceFolderNode.getParent();
         }
 
-        return targetContentBaseNode.getPath() + "/" + StringUtils.join(popAllToList(targetFolderNameStack), "/") + "/"
-                + sourceDocumentHandleNode.getName();
+        return targetContentBaseNode.getPath() + "/" + StringUtils.join(popAllToList(targetFolderNameStack), "/");
     }
 
     /**
-     * Find translated folder node under {@code targetContentBaseNode} for the {@code sourceFolderNode}.
-     * @param targetContentBaseNode target content base folder node
+     * Find translated folder node under the target content base for the {@code sourceFolderNode}, looking up
+     * each source folder at most once in a page copy.
+     * @param resolutionContext resolution context of the page copy
      * @param sourceFolderNode source folder node
-     * @return translated folder node under {@code targetContentBaseNode} for the {@code sourceFolderNode}
+     * @return translated folder node under the target content base for the {@code sourceFolderNode}
      * @throws RepositoryException if repository exception occurs
      */
-    @SuppressWarnings("deprecation")
-    private Node findTargetTranslatedFolderNode(final Node targetContentBaseNode, final Node sourceFolderNode)
-            throws RepositoryException {
-        if (!sourceFolderNode.isNodeType(HippoStdNodeType.NT_FOLDER)
-                || !sourceFolderNode.isNodeType(HippoTranslationNodeType.NT_TRANSLATED)) {
-            return null;
+    private Node findTargetTranslatedFolderNode(final TargetResolutionContext resolutionContext,
+            final Node sourceFolderNode) throws RepositoryException {
+        final String sourceFolderPath = sourceFolderNode.getPath();
+
+        if (resolutionContext.isTranslatedFolderKnown(sourceFolderPath)) {
+            final String targetFolderPath = resolutionContext.getTranslatedFolderPath(sourceFolderPath);
+            final Session session = sourceFolderNode.getSession();
+            return (targetFolderPath != null && session.nodeExists(targetFolderPath))
+                    ? session.getNode(targetFolderPath) : null;
         }
 
-        Node translatedFolderNode = null;
-
-        final String translationId = JcrUtils.getStringProperty(sourceFolderNode, HippoTranslationNodeType.ID, null);
-        final String statement = MessageFormat.format(TRANSLATED_FOLDER_QUERY, targetContentBaseNode.getPath(),
-                translationId);
-        final Query query = targetContentBaseNode.getSession().getWorkspace().getQueryManager().createQuery(statement,
-                Query.XPATH);
+        final long lookupStartNanos = System.nanoTime();
+        final Node targetFolderNode = findTargetTranslatedFolderNode(resolutionContext.getTranslationLookup(),
+                sourceFolderNode);
+        resolutionContext.getTrace().phaseCompleted(PageCopyMetrics.Phase.TRANSLATION_LOOKUP, lookupStartNanos);
+        resolutionContext.setTranslatedFolderPath(sourceFolderPath,
+                (targetFolderNode != null) ? targetFolderNode.getPath() : null);
 
-        final List<Node> translatedFolderNodes = new ArrayList<>();
-        final QueryResult result = query.execute();
-        Node node;
-
-        for (NodeIterator nodeIt = result.getNodes(); nodeIt.hasNext();) {
-            node = nodeIt.nextNode();
-            if (node != null) {
-                translatedFolderNodes.add(node);
-            }
-        }
+        return targetFolderNode;
+    }
 
-        if (!translatedFolderNodes.isEmpty()) {
-            translatedFolderNode = translatedFolderNodes.get(0);
+    /**
+     * Find translated folder node under the target content base for the {@code sourceFolderNode}.
+     * @param translationLookup translation lookup under the target content base
+     * @param sourceFolderNode source folder node
+     * @return translated folder node under the target content base for the {@code sourceFolderNode}
+     * @throws RepositoryException if repository exception occurs
+     */
+    private Node findTargetTranslatedFolderNode(final TargetTranslationLookup translationLookup,
+            final Node sourceFolderNode) throws RepositoryException {
+        final String translationId = getFolderTranslationId(sourceFolderNode);
 
-            if (translatedFolderNodes.size() > 1) {
-                List<String> translatedFolderNodePaths = new ArrayList<>();
-                for (Node folderNode : translatedFolderNodes) {
-                    translatedFolderNodePaths.add(folderNode.getPath());
-                }
-                log.warn("Multiple translated folder nodes found for translation ID, '{}': {}", translationId,
-                        translatedFolderNodePaths);
-            }
+        if (translationId == null) {
+            return null;
         }
 
-        return translatedFolderNode;
+        return translationLookup.findFolderNode(translationId);
     }
 
     /**
-     * Find translated document handle node under {@code targetContentBaseNode} for the {@code sourceDocumentHandleNode}.
-     * @param targetContentBaseNode target content base folder node
+     * Find translated document handle node under the target content base for the {@code sourceDocumentHandleNode}.
+     * @param translationLookup translation lookup under the target content base
      * @param sourceDocumentHandleNode source document handle node
-     * @return translated document handle node under {@code targetContentBaseNode} for the {@code sourceDocumentHandleNode}
+     * @return translated document handle node under the target content base for the {@code sourceDocumentHandleNode}
      * @throws RepositoryException if repository exception occurs
      */
-    @SuppressWarnings("deprecation")
-    private Node findTargetTranslatedDocumentHandleNode(final Node targetContentBaseNode, final Node sourceDocumentHandleNode)
-            throws RepositoryException {
-        if (!sourceDocumentHandleNode.isNodeType(HippoNodeType.NT_HANDLE)
-                || !sourceDocumentHandleNode.hasNode(sourceDocumentHandleNode.getName())) {
+    private Node findTargetTranslatedDocumentHandleNode(final TargetTranslationLookup translationLookup,
+            final Node sourceDocumentHandleNode) throws RepositoryException {
+        final String translationId = getDocumentTranslationId(sourceDocumentHandleNode);
+
+        if (translationId == null) {
             return null;
         }
 
-        final Node sourceDocumentVariantNode = sourceDocumentHandleNode.getNode(sourceDocumentHandleNode.getName());
+        return translationLookup.findDocumentHandleNode(translationId);
+    }
 
-        if (!sourceDocumentVariantNode.isNodeType(HippoTranslationNodeType.NT_TRANSLATED)) {
-            return null;
-        }
+    /**
+     * Resolves the translated folders and documents of all the linked documents and their ancestor folders
+     * under the target content base in a few batched queries, before copying each document.
+     * @param translationLookup translation lookup under the target content base
+     * @param sourceContentBaseNode source content base folder node
+     * @param sourceDocumentPathSet source document relative paths
+     * @throws RepositoryException if repository exception occurs
+     */
+    private void prefetchTargetTranslations(final TargetTranslationLookup translationLookup,
+            final Node sourceContentBaseNode, final Set<String> sourceDocumentPathSet) throws RepositoryException {
+        final Set<String> folderTranslationIds = new LinkedHashSet<>();
+        final Set<String> documentTranslationIds = new LinkedHashSet<>();
+
+        for (String sourceDocumentPath : sourceDocumentPathSet) {
+            if (StringUtils.startsWith(sourceDocumentPath, "/") || !sourceContentBaseNode.hasNode(sourceDocumentPath)) {
+                continue;
+            }
 
-        final String translationId = JcrUtils.getStringProperty(sourceDocumentVariantNode, HippoTranslationNodeType.ID, null);
+            final Node sourceDocumentHandleNode = HippoFolderDocumentUtils
+                    .getHippoDocumentHandle(sourceContentBaseNode.getNode(sourceDocumentPath));
 
-        final String statement = MessageFormat.format(TRANSLATED_DOCUMENT_HANDLE_QUERY, targetContentBaseNode.getPath(),
-                translationId);
-        final Query query = targetContentBaseNode.getSession().getWorkspace().getQueryManager().createQuery(statement,
-                Query.XPATH);
+            if (sourceDocumentHandleNode == null) {
+                continue;
+            }
 
-        final List<Node> translatedDocumentHandleNodes = new ArrayList<>();
-        final QueryResult result = query.execute();
-        Node node;
+            final String documentTranslationId = getDocumentTranslationId(sourceDocumentHandleNode);
 
-        for (NodeIterator nodeIt = result.getNodes(); nodeIt.hasNext();) {
-            node = nodeIt.nextNode();
-            if (node != null) {
-                translatedDocumentHandleNodes.add(node);
+            if (documentTranslationId != null) {
+                documentTranslationIds.add(documentTranslationId);
             }
-        }
 
-        Node translatedDocumentHandleNode = null;
+            Node sourceFolderNode = sourceDocumentHandleNode.getParent();
 
-        if (!translatedDocumentHandleNodes.isEmpty()) {
-            translatedDocumentHandleNode = translatedDocumentHandleNodes.get(0);
+            while (!sourceFolderNode.isSame(sourceContentBaseNode)) {
+                final String folderTranslationId = getFolderTranslationId(sourceFolderNode);
 
-            if (translatedDocumentHandleNodes.size() > 1) {
-                List<String> translatedDocumentHandleNodePaths = new ArrayList<>();
-                for (Node handleNode : translatedDocumentHandleNodes) {
-                    translatedDocumentHandleNodePaths.add(handleNode.getPath());
+                if (folderTranslationId != null) {
+                    folderTranslationIds.add(folderTranslationId);
                 }
-                log.warn("Multiple translated document handle nodes found for translation ID, '{}': {}", translationId,
-                        translatedDocumentHandleNodePaths);
+
+                sourceFolderNode = sourceFolderNode.getParent();
             }
         }
 
-        return translatedDocumentHandleNode;
+        translationLookup.prefetch(folderTranslationIds, documentTranslationIds);
+    }
+
+    private static String getFolderTranslationId(final Node sourceFolderNode) throws RepositoryException {
+        if (!sourceFolderNode.isNodeType(HippoStdNodeType.NT_FOLDER)
+                || !sourceFolderNode.isNodeType(HippoTranslationNodeType.NT_TRANSLATED)) {
+            return null;
+        }
+
+        return JcrUtils.getStringProperty(sourceFolderNode, HippoTranslationNodeType.ID, null);
+    }
+
+    static String getDocumentTranslationId(final Node sourceDocumentHandleNode) throws RepositoryException {
+        if (!sourceDocumentHandleNode.isNodeType(HippoNodeType.NT_HANDLE)
+                || !sourceDocumentHandleNode.hasNode(sourceDocumentHandleNode.getName())) {
+            return null;
+        }
+
+        final Node sourceDocumentVariantNode = sourceDocumentHandleNode.getNode(sourceDocumentHandleNode.getName());
+
+        if (!sourceDocumentVariantNode.isNodeType(HippoTranslationNodeType.NT_TRANSLATED)) {
+            return null;
+        }
+
+        return JcrUtils.getStringProperty(sourceDocumentVariantNode, HippoTranslationNodeType.ID, null);
     }
 
     /**
@@ -473,23 +1427,52 @@ public class DocumentCopyingPageCopyEventListener {
      * paths (from jcr root). If they don't start with a '/', they are
      * relative to the channel content root.
      */
-    private Set<String> getDocumentPathSetInPage(final PageCopyContext pageCopyContext) throws RepositoryException {
+    private Set<String> getDocumentPathSetInPage(final PageCopyContext pageCopyContext, final PageCopyTrace trace)
+            throws RepositoryException {
+        return getDocumentPathSetInPage(pageCopyContext.getSourcePage(), pageCopyContext.getEditingMount().getHstSite(),
+                pageCopyContext.getTargetMount().getHstSite(), pageCopyContext.getRequestContext().getSession(), trace);
+    }
+
+    private Set<String> getDocumentPathSetInPage(final HstComponentConfiguration sourcePage, final HstSite sourceSite,
+            final HstSite targetSite, final Session session, final PageCopyTrace trace) throws RepositoryException {
+        final long filterStartNanos = System.nanoTime();
         final FilterPresentComponentConfigurations filterPresentComponentConfigurations
-                = new FilterPresentComponentConfigurations(pageCopyContext.getSourcePage(), pageCopyContext.getEditingMount().getHstSite(),
-                pageCopyContext.getTargetMount().getHstSite(),
-                pageCopyContext.getRequestContext().getSession());
+                = new FilterPresentComponentConfigurations(sourcePage, sourceSite, targetSite, session,
+                getComponentReferenceIndex());
+        trace.phaseCompleted(PageCopyMetrics.Phase.FILTER, filterStartNanos);
 
-        List<String> documentPathList = DocumentParamsScanner.findDocumentPathsRecursive(pageCopyContext.getSourcePage(),
+        final long scanStartNanos = System.nanoTime();
+        List<String> documentPathList = DocumentParamsScannerCache.findDocumentPathsRecursive(sourcePage,
                 Thread.currentThread().getContextClassLoader(), filterPresentComponentConfigurations);
+        trace.phaseCompleted(PageCopyMetrics.Phase.SCAN, scanStartNanos);
+
+        final Set<String> documentPathSet = new LinkedHashSet<String>(documentPathList);
+        trace.documentsScanned(documentPathSet.size());
 
-        return new LinkedHashSet<String>(documentPathList);
+        return documentPathSet;
     }
 
     public static class FilterPresentComponentConfigurations implements Predicate<HstComponentConfiguration> {
 
         private final Set<String> filteredConfigurationUUIDs;
+        private final ComponentReferenceIndex componentReferenceIndex;
+
         public FilterPresentComponentConfigurations(final HstComponentConfiguration sourceConfig, final HstSite sourceSite, final HstSite targetSite, final Session session) {
+            this(sourceConfig, sourceSite, targetSite, session, null);
+        }
+
+        /**
+         * Same as {@link #FilterPresentComponentConfigurations(HstComponentConfiguration, HstSite, HstSite, Session)},
+         * but looks up the reference components in the {@code componentReferenceIndex} instead of reading
+         * the component configuration nodes if given.
+         */
+        public FilterPresentComponentConfigurations(final HstComponentConfiguration sourceConfig,
+                                                    final HstSite sourceSite,
+                                                    final HstSite targetSite,
+                                                    final Session session,
+                                                    final ComponentReferenceIndex componentReferenceIndex) {
             filteredConfigurationUUIDs =  new HashSet<>();
+            this.componentReferenceIndex = componentReferenceIndex;
             populateSkipSet(sourceConfig, sourceSite, targetSite, session, filteredConfigurationUUIDs);
         }
 
@@ -499,22 +1482,24 @@ public class DocumentCopyingPageCopyEventListener {
                                      final Session session,
                                      final Set<String> skipSet) {
             try {
-                final Node sourceNode = session.getNodeByIdentifier(sourceConfig.getCanonicalIdentifier());
-                if (sourceNode.hasProperty(COMPONENT_PROPERTY_REFERECENCECOMPONENT)) {
-                    String reference = sourceNode.getProperty(COMPONENT_PROPERTY_REFERECENCECOMPONENT).getString();
-                    if (!StringUtils.isBlank(reference)) {
-                        final HstComponentConfiguration targetReference = targetSite.getComponentsConfiguration().getComponentConfiguration(reference);
-                        final HstComponentConfiguration sourceReference = sourceSite.getComponentsConfiguration().getComponentConfiguration(reference);
-                        if (targetReference != null) {
-                            log.debug("Skipping '{}' and descendants because targetSite '{}' already has a resolvable reference for '{}'",
-                                    sourceConfig, targetSite, reference);
+                final String reference = getReferenceComponent(sourceConfig, sourceSite, session);
+                if (!StringUtils.isBlank(reference)) {
+                    final HstComponentConfiguration targetReference = targetSite.getComponentsConfiguration().getComponentConfiguration(reference);
+                    if (targetReference != null) {
+                        log.debug("Skipping '{}' and descendants because targetSite '{}' already has a resolvable reference for '{}'",
+                                sourceConfig, targetSite, reference);
+                        if (componentReferenceIndex != null) {
+                            skipSet.addAll(componentReferenceIndex.getSelfAndDescendantIdentifiers(
+                                    sourceSite.getComponentsConfiguration(), reference));
+                        } else {
+                            final HstComponentConfiguration sourceReference = sourceSite.getComponentsConfiguration().getComponentConfiguration(reference);
                             if (sourceReference != null) {
                                 // sourceReference is never expected to be null, but just in case a null check
                                 populateSelfAndDescending(sourceReference, skipSet);
                             }
-                            // no need to check descendant configurations
-                            return;
                         }
+                        // no need to check descendant configurations
+                        return;
                     }
                 }
             } catch (RepositoryException e) {
@@ -525,6 +1510,21 @@ public class DocumentCopyingPageCopyEventListener {
             }
         }
 
+        private String getReferenceComponent(final HstComponentConfiguration sourceConfig,
+                                             final HstSite sourceSite,
+                                             final Session session) throws RepositoryException {
+            if (componentReferenceIndex != null) {
+                return componentReferenceIndex.getReferenceComponent(sourceSite.getComponentsConfiguration(),
+                        sourceConfig.getCanonicalIdentifier(), session);
+            }
+
+            final Node sourceNode = session.getNodeByIdentifier(sourceConfig.getCanonicalIdentifier());
+            if (sourceNode.hasProperty(COMPONENT_PROPERTY_REFERECENCECOMPONENT)) {
+                return sourceNode.getProperty(COMPONENT_PROPERTY_REFERECENCECOMPONENT).getString();
+            }
+            return null;
+        }
+
         private void populateSelfAndDescending(final HstComponentConfiguration current,
                                                final Set<String> skipSet) {
             skipSet.add(current.getCanonicalIdentifier());
@@ -541,7 +1541,8 @@ public class DocumentCopyingPageCopyEventListener {
 
     private void translateFolders(final Session session, final Node sourceBaseFolderNode,
             final String sourceFolderRelPath, final Node targetBaseFolderNode, final String targetFolderRelPath,
-            final String targetTranslationLanguage) throws Exception {
+            final String targetTranslationLanguage, final TargetResolutionContext resolutionContext,
+            final PageCopyPlan.Builder plan) throws Exception {
         String[] sourceFolderNodeNames = StringUtils.split(sourceFolderRelPath, "/");
         String[] targetFolderNodeNames = StringUtils.split(targetFolderRelPath, "/");
         String sourceFolderLocation = sourceBaseFolderNode.getPath();
@@ -550,6 +1551,11 @@ public class DocumentCopyingPageCopyEventListener {
         String sourceFolderNodeName;
         String targetFolderNodeName;
 
+        // the missing folders from the top ancestor down, to be translated in a batch
+        final List<String> missingSourceFolderLocations = new ArrayList<>();
+        final List<String> missingTargetFolderLocations = new ArrayList<>();
+        final List<String> missingTargetFolderNodeNames = new ArrayList<>();
+
         for (int i = 0; i < sourceFolderNodeNames.length; i++) {
             sourceFolderNodeName = sourceFolderNodeNames[i];
             targetFolderNodeName = (targetFolderNodeNames.length > i) ? targetFolderNodeNames[i] : sourceFolderNodeName;
@@ -562,10 +1568,60 @@ public class DocumentCopyingPageCopyEventListener {
 
             targetFolderLocation += "/" + targetFolderNodeName;
 
-            if (!HippoFolderDocumentUtils.folderExists(session, targetFolderLocation)) {
-                getDocumentManagementServiceClient().translateFolder(sourceFolderLocation, targetTranslationLanguage,
-                        targetFolderNodeName);
+            if (plan != null && plan.isFolderToCreate(targetFolderLocation)) {
+                continue;
+            }
+
+            if (!missingTargetFolderLocations.isEmpty()
+                    || !HippoFolderDocumentUtils.folderExists(session, targetFolderLocation)) {
+                if (plan != null) {
+                    plan.createFolder(targetFolderLocation);
+                    resolutionContext.folderTranslated(sourceFolderLocation, targetFolderLocation);
+                } else {
+                    missingSourceFolderLocations.add(sourceFolderLocation);
+                    missingTargetFolderLocations.add(targetFolderLocation);
+                    missingTargetFolderNodeNames.add(targetFolderNodeName);
+                }
+            }
+        }
+
+        if (missingSourceFolderLocations.isEmpty()) {
+            return;
+        }
+
+        final long folderCreationStartNanos = System.nanoTime();
+        final DocumentManagementServiceClient.ItemResult[] results = getDocumentManagementServiceClient()
+                .translateFolders(missingSourceFolderLocations.toArray(new String[missingSourceFolderLocations.size()]),
+                        targetTranslationLanguage,
+                        missingTargetFolderNodeNames.toArray(new String[missingTargetFolderNodeNames.size()]));
+        resolutionContext.getTrace().phaseCompleted(PageCopyMetrics.Phase.FOLDER_CREATION, folderCreationStartNanos);
+
+        for (int i = 0; i < results.length; i++) {
+            if (!results[i].isSucceeded()) {
+                throw new IllegalStateException("Failed to translate the target folders. " + results[i]);
             }
+
+            resolutionContext.getTrace().folderCreated();
+            resolutionContext.folderTranslated(missingSourceFolderLocations.get(i), missingTargetFolderLocations.get(i));
+        }
+    }
+
+    /**
+     * Document translation to execute after the missing target folders are created.
+     */
+    private static class DocumentTranslation {
+
+        private final String sourceDocumentPath;
+        private final String sourceDocumentHandlePath;
+        private final String targetDocumentNodeName;
+        private final String targetDocumentAbsPath;
+
+        private DocumentTranslation(final String sourceDocumentPath, final String sourceDocumentHandlePath,
+                final String targetDocumentNodeName, final String targetDocumentAbsPath) {
+            this.sourceDocumentPath = sourceDocumentPath;
+            this.sourceDocumentHandlePath = sourceDocumentHandlePath;
+            this.targetDocumentNodeName = targetDocumentNodeName;
+            this.targetDocumentAbsPath = targetDocumentAbsPath;
         }
     }
 
@@ -16,71 +16,262 @@
 package org.onehippo.forge.channelmanager.pagesupport.channel.event;
 
 import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import javax.management.InstanceNotFoundException;
+import javax.management.JMX;
+import javax.management.MBeanOperationInfo;
 import javax.management.MBeanServer;
 import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
 
 import org.apache.commons.lang3.BooleanUtils;
+import org.onehippo.cms7.services.HippoServiceRegistry;
+import org.onehippo.forge.channelmanager.pagesupport.document.management.DocumentManagementService;
+import org.onehippo.forge.channelmanager.pagesupport.document.management.DocumentManagementServiceMXBean;
+import org.onehippo.forge.channelmanager.pagesupport.document.management.DocumentOperationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Internal <code>DocumentManagementService</code> client stub using JMX API.
+ * <P>
+ * If the <code>DocumentManagementService</code> registered in {@link HippoServiceRegistry} is visible to this
+ * class loader, e.g. with the service module deployed in the shared library, it is invoked directly instead,
+ * without the reflective dispatch and type mapping of JMX. Otherwise, JMX is used as a fallback.
+ * </P>
+ * <P>
+ * If a compound or batch operation is not available in the MBean, e.g. of an older or custom service, the default
+ * implementation of {@link DocumentManagementServiceMXBean} runs it instead, invoking the single item operations of
+ * the MBean one after another.
+ * </P>
  */
 class DocumentManagementServiceClient {
 
+    private static final Logger log = LoggerFactory.getLogger(DocumentManagementServiceClient.class);
+
     private static final String DEFAULT_DOCUMENT_MANAGEMENT_SERVICE_NAME = "org.onehippo.forge.channelmanager.pagesupport.document.management:type=DocumentManagementServiceMXBean";
 
     private ObjectName mbeanName;
     private MBeanServer mbeanServer;
 
+    private volatile boolean directInvocation = true;
+
+    private final Map<String, Boolean> availableOperations = new ConcurrentHashMap<>();
+
+    private volatile DocumentManagementServiceMXBean singleItemService;
+
     public boolean obtainEditableDocument(String documentLocation) throws Exception {
+        final DocumentManagementService service = getDirectService();
+
+        if (service != null) {
+            return service.obtainEditableDocument(documentLocation);
+        }
+
         Boolean ret = (Boolean) invokeDocumentManagementServiceMBean("obtainEditableDocument",
                 new String[] { documentLocation }, new String[] { String.class.getName() });
         return BooleanUtils.isTrue(ret);
     }
 
     public boolean disposeEditableDocument(String documentLocation) throws Exception {
+        final DocumentManagementService service = getDirectService();
+
+        if (service != null) {
+            return service.disposeEditableDocument(documentLocation);
+        }
+
         Boolean ret = (Boolean) invokeDocumentManagementServiceMBean("disposeEditableDocument",
                 new String[] { documentLocation }, new String[] { String.class.getName() });
         return BooleanUtils.isTrue(ret);
     }
 
     public boolean commitEditableDocument(String documentLocation) throws Exception {
+        final DocumentManagementService service = getDirectService();
+
+        if (service != null) {
+            return service.commitEditableDocument(documentLocation);
+        }
+
         Boolean ret = (Boolean) invokeDocumentManagementServiceMBean("commitEditableDocument",
                 new String[] { documentLocation }, new String[] { String.class.getName() });
         return BooleanUtils.isTrue(ret);
     }
 
     boolean depublishDocument(String documentLocation) throws Exception {
+        final DocumentManagementService service = getDirectService();
+
+        if (service != null) {
+            return service.depublishDocument(documentLocation);
+        }
+
         Boolean ret = (Boolean) invokeDocumentManagementServiceMBean("depublishDocument",
                 new String[] { documentLocation }, new String[] { String.class.getName() });
         return BooleanUtils.isTrue(ret);
     }
 
     public boolean publishDocument(String documentLocation) throws Exception {
+        final DocumentManagementService service = getDirectService();
+
+        if (service != null) {
+            return service.publishDocument(documentLocation);
+        }
+
         Boolean ret = (Boolean) invokeDocumentManagementServiceMBean("publishDocument",
                 new String[] { documentLocation }, new String[] { String.class.getName() });
         return BooleanUtils.isTrue(ret);
     }
 
     public String copyDocument(String sourceDocumentLocation, String targetFolderLocation, String targetDocumentName) throws Exception {
+        final DocumentManagementService service = getDirectService();
+
+        if (service != null) {
+            return service.copyDocument(sourceDocumentLocation, targetFolderLocation, targetDocumentName);
+        }
+
         return (String) invokeDocumentManagementServiceMBean("copyDocument",
                 new String[] { sourceDocumentLocation, targetFolderLocation, targetDocumentName },
                 new String[] { String.class.getName(), String.class.getName(), String.class.getName() });
     }
 
     public String translateFolder(String sourceFolderLocation, String language, String name) throws Exception {
+        final DocumentManagementService service = getDirectService();
+
+        if (service != null) {
+            return service.translateFolder(sourceFolderLocation, language, name);
+        }
+
         return (String) invokeDocumentManagementServiceMBean("translateFolder",
                 new String[] { sourceFolderLocation, language, name },
                 new String[] { String.class.getName(), String.class.getName(), String.class.getName() });
     }
 
     public String translateDocument(String sourceDocumentLocation, String language, String name) throws Exception {
+        final DocumentManagementService service = getDirectService();
+
+        if (service != null) {
+            return service.translateDocument(sourceDocumentLocation, language, name);
+        }
+
         return (String) invokeDocumentManagementServiceMBean("translateDocument",
                 new String[] { sourceDocumentLocation, language, name },
                 new String[] { String.class.getName(), String.class.getName(), String.class.getName() });
     }
 
+    public String translateAndCommitDocument(String sourceDocumentLocation, String language, String name) throws Exception {
+        final DocumentManagementService service = getDirectService();
+
+        if (service != null) {
+            return service.translateAndCommitDocument(sourceDocumentLocation, language, name);
+        }
+
+        if (!isOperationAvailable("translateAndCommitDocument")) {
+            return getSingleItemService().translateAndCommitDocument(sourceDocumentLocation, language, name);
+        }
+
+        return (String) invokeDocumentManagementServiceMBean("translateAndCommitDocument",
+                new String[] { sourceDocumentLocation, language, name },
+                new String[] { String.class.getName(), String.class.getName(), String.class.getName() });
+    }
+
+    public ItemResult[] translateAndCommitDocuments(String[] sourceDocumentLocations, String language, String[] names)
+            throws Exception {
+        final DocumentManagementService service = getDirectService();
+
+        if (service != null) {
+            return toItemResults(service.translateAndCommitDocuments(sourceDocumentLocations, language, names));
+        }
+
+        if (!isOperationAvailable("translateAndCommitDocuments")) {
+            return toItemResults(
+                    getSingleItemService().translateAndCommitDocuments(sourceDocumentLocations, language, names));
+        }
+
+        return toItemResultsFromCompositeData(invokeDocumentManagementServiceMBean("translateAndCommitDocuments",
+                new Object[] { sourceDocumentLocations, language, names },
+                new String[] { String[].class.getName(), String.class.getName(), String[].class.getName() }));
+    }
+
+    public ItemResult[] commitEditableDocuments(String[] documentLocations) throws Exception {
+        final DocumentManagementService service = getDirectService();
+
+        if (service != null) {
+            return toItemResults(service.commitEditableDocuments(documentLocations));
+        }
+
+        if (!isOperationAvailable("commitEditableDocuments")) {
+            return toItemResults(getSingleItemService().commitEditableDocuments(documentLocations));
+        }
+
+        return toItemResultsFromCompositeData(invokeDocumentManagementServiceMBean("commitEditableDocuments",
+                new Object[] { documentLocations }, new String[] { String[].class.getName() }));
+    }
+
+    public ItemResult[] publishDocuments(String[] documentLocations) throws Exception {
+        final DocumentManagementService service = getDirectService();
+
+        if (service != null) {
+            return toItemResults(service.publishDocuments(documentLocations));
+        }
+
+        if (!isOperationAvailable("publishDocuments")) {
+            return toItemResults(getSingleItemService().publishDocuments(documentLocations));
+        }
+
+        return toItemResultsFromCompositeData(invokeDocumentManagementServiceMBean("publishDocuments",
+                new Object[] { documentLocations }, new String[] { String[].class.getName() }));
+    }
+
+    public ItemResult[] depublishDocuments(String[] documentLocations) throws Exception {
+        final DocumentManagementService service = getDirectService();
+
+        if (service != null) {
+            return toItemResults(service.depublishDocuments(documentLocations));
+        }
+
+        if (!isOperationAvailable("depublishDocuments")) {
+            return toItemResults(getSingleItemService().depublishDocuments(documentLocations));
+        }
+
+        return toItemResultsFromCompositeData(invokeDocumentManagementServiceMBean("depublishDocuments",
+                new Object[] { documentLocations }, new String[] { String[].class.getName() }));
+    }
+
+    public ItemResult[] translateFolders(String[] sourceFolderLocations, String language, String[] names)
+            throws Exception {
+        final DocumentManagementService service = getDirectService();
+
+        if (service != null) {
+            return toItemResults(service.translateFolders(sourceFolderLocations, language, names));
+        }
+
+        if (!isOperationAvailable("translateFolders")) {
+            return toItemResults(getSingleItemService().translateFolders(sourceFolderLocations, language, names));
+        }
+
+        return toItemResultsFromCompositeData(invokeDocumentManagementServiceMBean("translateFolders",
+                new Object[] { sourceFolderLocations, language, names },
+                new String[] { String[].class.getName(), String.class.getName(), String[].class.getName() }));
+    }
+
+    public ItemResult[] translateDocuments(String[] sourceDocumentLocations, String language, String[] names)
+            throws Exception {
+        final DocumentManagementService service = getDirectService();
+
+        if (service != null) {
+            return toItemResults(service.translateDocuments(sourceDocumentLocations, language, names));
+        }
+
+        if (!isOperationAvailable("translateDocuments")) {
+            return toItemResults(getSingleItemService().translateDocuments(sourceDocumentLocations, language, names));
+        }
+
+        return toItemResultsFromCompositeData(invokeDocumentManagementServiceMBean("translateDocuments",
+                new Object[] { sourceDocumentLocations, language, names },
+                new String[] { String[].class.getName(), String.class.getName(), String[].class.getName() }));
+    }
+
     public ObjectName getMbeanName() {
         if (mbeanName == null) {
             try {
@@ -95,6 +286,7 @@ class DocumentManagementServiceClient {
 
     public void setMbeanName(ObjectName mbeanName) {
         this.mbeanName = mbeanName;
+        singleItemService = null;
     }
 
     public MBeanServer getMbeanServer() {
@@ -107,6 +299,129 @@ class DocumentManagementServiceClient {
 
     public void setMbeanServer(MBeanServer mbeanServer) {
         this.mbeanServer = mbeanServer;
+        singleItemService = null;
+    }
+
+    /**
+     * Returns whether or not to invoke the <code>DocumentManagementService</code> directly when available.
+     * @return whether or not to invoke the <code>DocumentManagementService</code> directly when available
+     */
+    public boolean isDirectInvocation() {
+        return directInvocation;
+    }
+
+    public void setDirectInvocation(boolean directInvocation) {
+        this.directInvocation = directInvocation;
+    }
+
+    /**
+     * Returns the <code>DocumentManagementService</code> registered in {@link HippoServiceRegistry} to invoke
+     * directly, or null to invoke it through JMX.
+     */
+    DocumentManagementService getDirectService() {
+        if (!directInvocation) {
+            return null;
+        }
+
+        try {
+            // looked up on each call as the service is registered again whenever its module is reconfigured
+            final Object service = HippoServiceRegistry.getService(DocumentManagementService.class);
+
+            if (service == null || DocumentManagementService.class.isInstance(service)) {
+                return (DocumentManagementService) service;
+            }
+
+            // registered with the interface loaded by another class loader, e.g. bundled in both applications
+            log.info("DocumentManagementService is not of the interface visible in this application, so it will be "
+                    + "invoked through JMX. {}", service.getClass().getName());
+        } catch (LinkageError | ClassCastException e) {
+            log.info("DocumentManagementService is not visible in this application, so it will be invoked through JMX. {}",
+                    e.toString());
+        }
+
+        directInvocation = false;
+        return null;
+    }
+
+    /**
+     * Returns whether or not the operation is available in the <code>DocumentManagementService</code> MBean,
+     * which may not have the compound and batch operations if it is of an older or custom service.
+     */
+    boolean isOperationAvailable(String operationName) {
+        final Boolean available = availableOperations.get(operationName);
+
+        if (available != null) {
+            return available;
+        }
+
+        try {
+            boolean found = false;
+
+            for (MBeanOperationInfo operationInfo : getMbeanServer().getMBeanInfo(getMbeanName()).getOperations()) {
+                if (operationName.equals(operationInfo.getName())) {
+                    found = true;
+                    break;
+                }
+            }
+
+            if (!found) {
+                log.info("'{}' is not available in DocumentManagementService, so the single item operations will be "
+                        + "invoked instead.", operationName);
+            }
+
+            availableOperations.put(operationName, found);
+            return found;
+        } catch (InstanceNotFoundException e) {
+            // not registered yet, so let the invocation fail as usual
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to get the operations of DocumentManagementService. {}", e.toString());
+            return true;
+        }
+    }
+
+    /**
+     * Returns the <code>DocumentManagementService</code> MBean with only the single item operations invoked through
+     * JMX, so that its compound and batch operations are run by the default implementations of the interface.
+     */
+    private DocumentManagementServiceMXBean getSingleItemService() {
+        DocumentManagementServiceMXBean service = singleItemService;
+
+        if (service == null) {
+            service = new SingleItemDocumentManagementService(
+                    JMX.newMXBeanProxy(getMbeanServer(), getMbeanName(), DocumentManagementServiceMXBean.class));
+            singleItemService = service;
+        }
+
+        return service;
+    }
+
+    static ItemResult[] toItemResults(DocumentOperationResult[] results) {
+        final ItemResult[] itemResults = new ItemResult[results.length];
+
+        for (int i = 0; i < results.length; i++) {
+            itemResults[i] = new ItemResult(results[i].getLocation(), results[i].isSucceeded(),
+                    results[i].getResultLocation(), results[i].getErrorMessage());
+        }
+
+        return itemResults;
+    }
+
+    /**
+     * Converts the open type data of the batch operation results returned through JMX, not depending on
+     * the result class which may be invisible to this class loader.
+     */
+    private static ItemResult[] toItemResultsFromCompositeData(Object ret) {
+        final CompositeData[] results = (CompositeData[]) ret;
+        final ItemResult[] itemResults = new ItemResult[results.length];
+
+        for (int i = 0; i < results.length; i++) {
+            itemResults[i] = new ItemResult((String) results[i].get("location"),
+                    BooleanUtils.isTrue((Boolean) results[i].get("succeeded")),
+                    (String) results[i].get("resultLocation"), (String) results[i].get("errorMessage"));
+        }
+
+        return itemResults;
     }
 
     private Object invokeDocumentManagementServiceMBean(String operationName, Object[] params, String[] signature)
@@ -114,4 +429,107 @@ class DocumentManagementServiceClient {
         return getMbeanServer().invoke(getMbeanName(), operationName, params, signature);
     }
 
+    /**
+     * <code>DocumentManagementService</code> delegating only the single item operations to the MBean proxy, and
+     * inheriting the default compound and batch operations running them one after another.
+     */
+    private static class SingleItemDocumentManagementService implements DocumentManagementServiceMXBean {
+
+        private final DocumentManagementServiceMXBean mbeanProxy;
+
+        private SingleItemDocumentManagementService(final DocumentManagementServiceMXBean mbeanProxy) {
+            this.mbeanProxy = mbeanProxy;
+        }
+
+        @Override
+        public boolean obtainEditableDocument(String documentLocation) {
+            return mbeanProxy.obtainEditableDocument(documentLocation);
+        }
+
+        @Override
+        public boolean disposeEditableDocument(String documentLocation) {
+            return mbeanProxy.disposeEditableDocument(documentLocation);
+        }
+
+        @Override
+        public boolean commitEditableDocument(String documentLocation) {
+            return mbeanProxy.commitEditableDocument(documentLocation);
+        }
+
+        @Override
+        public boolean depublishDocument(String documentLocation) {
+            return mbeanProxy.depublishDocument(documentLocation);
+        }
+
+        @Override
+        public boolean publishDocument(String documentLocation) {
+            return mbeanProxy.publishDocument(documentLocation);
+        }
+
+        @Override
+        public String copyDocument(String sourceDocumentLocation, String targetFolderLocation,
+                String targetDocumentName) {
+            return mbeanProxy.copyDocument(sourceDocumentLocation, targetFolderLocation, targetDocumentName);
+        }
+
+        @Override
+        public String translateFolder(String sourceFolderLocation, String language, String name) {
+            return mbeanProxy.translateFolder(sourceFolderLocation, language, name);
+        }
+
+        @Override
+        public String translateDocument(String sourceDocumentLocation, String language, String name) {
+            return mbeanProxy.translateDocument(sourceDocumentLocation, language, name);
+        }
+
+        @Override
+        public String submitBulkPublishInFolder(String folderLocation, String pathPattern) {
+            return mbeanProxy.submitBulkPublishInFolder(folderLocation, pathPattern);
+        }
+
+        @Override
+        public String submitBulkDepublishInFolder(String folderLocation, String pathPattern) {
+            return mbeanProxy.submitBulkDepublishInFolder(folderLocation, pathPattern);
+        }
+    }
+
+    /**
+     * Result of an item in a batch operation.
+     */
+    static class ItemResult {
+
+        private final String location;
+        private final boolean succeeded;
+        private final String resultLocation;
+        private final String errorMessage;
+
+        ItemResult(final String location, final boolean succeeded, final String resultLocation,
+                final String errorMessage) {
+            this.location = location;
+            this.succeeded = succeeded;
+            this.resultLocation = resultLocation;
+            this.errorMessage = errorMessage;
+        }
+
+        String getLocation() {
+            return location;
+        }
+
+        boolean isSucceeded() {
+            return succeeded;
+        }
+
+        String getResultLocation() {
+            return resultLocation;
+        }
+
+        String getErrorMessage() {
+            return errorMessage;
+        }
+
+        @Override
+        public String toString() {
+            return succeeded ? location + " -> " + resultLocation : location + " failed: " + errorMessage;
+        }
+    }
 }
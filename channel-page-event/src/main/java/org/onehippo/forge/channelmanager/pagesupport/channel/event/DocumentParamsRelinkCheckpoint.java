@@ -0,0 +1,63 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Progress of a re-link of the document parameters of all the components in a target channel, kept across retries
+ * so that a failed or interrupted re-link resumes from where it stopped.
+ */
+public class DocumentParamsRelinkCheckpoint {
+
+    private final String key;
+
+    private final Set<String> relinkedComponents = new LinkedHashSet<>();
+
+    private long lastUpdatedTime;
+
+    public DocumentParamsRelinkCheckpoint(final String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public synchronized boolean isComponentRelinked(final String componentId) {
+        return relinkedComponents.contains(componentId);
+    }
+
+    /**
+     * Records the components as re-linked, after their changes have been saved.
+     * @param componentIds component configuration IDs
+     */
+    public synchronized void componentsRelinked(final Collection<String> componentIds) {
+        relinkedComponents.addAll(componentIds);
+        lastUpdatedTime = System.currentTimeMillis();
+    }
+
+    public synchronized long getLastUpdatedTime() {
+        return lastUpdatedTime;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "DocumentParamsRelinkCheckpoint[" + key + ", relinkedComponents=" + relinkedComponents.size() + "]";
+    }
+}
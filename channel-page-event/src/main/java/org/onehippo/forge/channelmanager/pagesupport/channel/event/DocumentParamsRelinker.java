@@ -0,0 +1,253 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.jcr.Credentials;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hippoecm.hst.configuration.HstNodeTypes;
+import org.hippoecm.hst.configuration.components.HstComponentConfiguration;
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.configuration.hosting.VirtualHosts;
+import org.hippoecm.hst.configuration.site.HstSite;
+import org.hippoecm.hst.content.beans.manager.ObjectBeanManager;
+import org.hippoecm.hst.content.tool.ContentBeansTool;
+import org.hippoecm.hst.site.HstServices;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Re-links the document parameters of all the components in the HST configuration workspace of a target channel,
+ * which still point to the documents of a source channel, to the translations of the documents in the target channel
+ * by {@link HstDocumentParamsUpdater}, e.g. after translating the documents outside the Channel Manager.
+ * <P>
+ * The translated document paths are resolved once for all the components of a job, and the changes are saved
+ * every {@link #getSaveBatchSize()} components. A checkpoint of the saved components is kept per source and target
+ * mount pair, so a failed re-link resumes from where it stopped. A dry run only logs and reports the changes.
+ * </P>
+ */
+public class DocumentParamsRelinker implements DocumentParamsRelinkerMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentParamsRelinker.class);
+
+    /**
+     * Default number of the components of which the changes are saved at once.
+     */
+    static final int DEFAULT_SAVE_BATCH_SIZE = 100;
+
+    private static final String WORKSPACE_PATH_SEGMENT = "/" + HstNodeTypes.NODENAME_HST_WORKSPACE + "/";
+
+    private final DocumentCopyingPageCopyEventListener listener;
+
+    private final Repository repository;
+
+    private final Credentials credentials;
+
+    private final Map<String, DocumentParamsRelinkCheckpoint> checkpoints = new ConcurrentHashMap<>();
+
+    private final Map<String, String> lastResults = new ConcurrentHashMap<>();
+
+    private volatile int saveBatchSize = DEFAULT_SAVE_BATCH_SIZE;
+
+    public DocumentParamsRelinker(final DocumentCopyingPageCopyEventListener listener, final Repository repository,
+            final Credentials credentials) {
+        this.listener = listener;
+        this.repository = repository;
+        this.credentials = credentials;
+    }
+
+    @Override
+    public String submitRelink(final String sourceMountId, final String targetMountId, final boolean dryRun) {
+        final VirtualHosts virtualHosts = HstModelUtils.getVirtualHosts();
+        final Mount sourceMount = HstModelUtils.getMount(virtualHosts, sourceMountId);
+        final Mount targetMount = HstModelUtils.getMount(virtualHosts, targetMountId);
+        final String targetContentBasePath = targetMount.getContentPath();
+
+        if (StringUtils.equals(sourceMount.getContentPath(), targetContentBasePath)) {
+            throw new IllegalArgumentException("The source and target mounts share the same content base, '"
+                    + targetContentBasePath + "'.");
+        }
+
+        final List<HstComponentConfiguration> components = getWorkspaceComponentConfigurations(
+                HstModelUtils.getPreviewHstSite(targetMount));
+        final String checkpointKey = getCheckpointKey(sourceMountId, targetMountId);
+        // a dry run changes nothing, so it neither resumes from nor leaves a checkpoint
+        final DocumentParamsRelinkCheckpoint checkpoint = dryRun ? new DocumentParamsRelinkCheckpoint(checkpointKey)
+                : checkpoints.computeIfAbsent(checkpointKey, DocumentParamsRelinkCheckpoint::new);
+
+        final PageCopyJob pageCopyJob = listener.getPageCopyJobManager().submit((dryRun ? "Dry run: r" : "R")
+                + "e-linking document parameters of " + components.size() + " components in '"
+                + targetContentBasePath + "'", job -> {
+            if (!dryRun && !listener.getChannelLockManager().tryLock(targetContentBasePath)) {
+                throw new IllegalStateException("The target channel is busy with another page copy. Target='"
+                        + targetContentBasePath + "'.");
+            }
+
+            Session session = null;
+
+            try {
+                session = repository.login(credentials);
+                final HstDocumentParamsUpdateReport report = relink(sourceMount, targetMount, components, session,
+                        checkpoint, dryRun, job);
+                lastResults.put(checkpointKey + (dryRun ? " (dry run)" : ""), report.getLockedNodes().isEmpty()
+                        ? report.toString() : report + ", locked by other users: " + report.getLockedNodes());
+
+                if (!dryRun) {
+                    checkpoints.remove(checkpointKey, checkpoint);
+                }
+            } finally {
+                if (session != null) {
+                    session.logout();
+                }
+
+                if (!dryRun) {
+                    listener.getChannelLockManager().unlock(targetContentBasePath);
+                }
+            }
+        });
+
+        log.info("Submitted {}re-link job '{}' of {} components from '{}' to '{}'.", dryRun ? "dry run " : "",
+                pageCopyJob.getJobId(), components.size(), sourceMountId, targetMountId);
+
+        return pageCopyJob.getJobId();
+    }
+
+    @Override
+    public String[] getLastResults() {
+        final List<String> results = new ArrayList<>();
+
+        for (Map.Entry<String, String> entry : lastResults.entrySet()) {
+            results.add(entry.getKey() + ": " + entry.getValue());
+        }
+
+        return results.toArray(new String[results.size()]);
+    }
+
+    @Override
+    public String[] getCheckpoints() {
+        final List<String> descriptions = new ArrayList<>();
+
+        for (DocumentParamsRelinkCheckpoint checkpoint : checkpoints.values()) {
+            descriptions.add(checkpoint.toString());
+        }
+
+        return descriptions.toArray(new String[descriptions.size()]);
+    }
+
+    @Override
+    public void clearCheckpoint(final String sourceMountId, final String targetMountId) {
+        checkpoints.remove(getCheckpointKey(sourceMountId, targetMountId));
+    }
+
+    @Override
+    public void clearAllCheckpoints() {
+        checkpoints.clear();
+    }
+
+    @Override
+    public int getSaveBatchSize() {
+        return saveBatchSize;
+    }
+
+    @Override
+    public void setSaveBatchSize(final int saveBatchSize) {
+        if (saveBatchSize < 1) {
+            throw new IllegalArgumentException("saveBatchSize must be positive: " + saveBatchSize);
+        }
+
+        this.saveBatchSize = saveBatchSize;
+    }
+
+    private HstDocumentParamsUpdateReport relink(final Mount sourceMount, final Mount targetMount,
+            final List<HstComponentConfiguration> components, final Session session,
+            final DocumentParamsRelinkCheckpoint checkpoint, final boolean dryRun, final PageCopyJob job)
+            throws RepositoryException {
+        final ContentBeansTool contentBeansTool = HstServices.getComponentManager()
+                .getComponent(ContentBeansTool.class.getName());
+        final ObjectBeanManager objectBeanManager = contentBeansTool.createObjectBeanManager(session);
+        final TranslatedDocumentPathResolver resolver = new TranslatedDocumentPathResolver(session,
+                listener.getTranslationIndex());
+        final HstDocumentParamsUpdateReport report = new HstDocumentParamsUpdateReport();
+        final List<String> unsavedComponentIds = new ArrayList<>();
+        final long startMillis = System.currentTimeMillis();
+
+        job.setTotalSteps(components.size());
+
+        for (HstComponentConfiguration component : components) {
+            final String location = component.getCanonicalStoredLocation();
+
+            if (!checkpoint.isComponentRelinked(component.getId()) && session.nodeExists(location)) {
+                HstDocumentParamsUpdater.relinkTargetDocumentPaths(sourceMount, component, targetMount,
+                        session.getNode(location), objectBeanManager, resolver, dryRun, report);
+                unsavedComponentIds.add(component.getId());
+
+                if (!dryRun && unsavedComponentIds.size() >= saveBatchSize) {
+                    session.save();
+                    checkpoint.componentsRelinked(unsavedComponentIds);
+                    unsavedComponentIds.clear();
+                }
+            }
+
+            job.stepCompleted();
+        }
+
+        if (!dryRun && !unsavedComponentIds.isEmpty()) {
+            session.save();
+            checkpoint.componentsRelinked(unsavedComponentIds);
+        }
+
+        log.info("{}e-linked document parameters of {} components in '{}' in {}ms: {}, {}", dryRun ? "Dry run: r" : "R",
+                components.size(), targetMount.getContentPath(), System.currentTimeMillis() - startMillis, report,
+                resolver);
+
+        if (!report.getLockedNodes().isEmpty()) {
+            log.warn("Skipped re-linking the components locked by other users in '{}': {}",
+                    targetMount.getContentPath(), report.getLockedNodes());
+        }
+
+        return report;
+    }
+
+    /**
+     * Returns the root component configurations stored in the HST configuration workspace of the site itself,
+     * such as the pages created in the Channel Manager.
+     */
+    private static List<HstComponentConfiguration> getWorkspaceComponentConfigurations(final HstSite site) {
+        final List<HstComponentConfiguration> components = new ArrayList<>();
+
+        for (HstComponentConfiguration component : site.getComponentsConfiguration().getComponentConfigurations()
+                .values()) {
+            if (!component.isInherited()
+                    && StringUtils.contains(component.getCanonicalStoredLocation(), WORKSPACE_PATH_SEGMENT)) {
+                components.add(component);
+            }
+        }
+
+        return components;
+    }
+
+    private static String getCheckpointKey(final String sourceMountId, final String targetMountId) {
+        return sourceMountId + " -> " + targetMountId;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+/**
+ * Management interface of {@link DocumentParamsRelinker} as deployed as JMX MBean.
+ */
+public interface DocumentParamsRelinkerMXBean {
+
+    /**
+     * JMX MBean name to be used.
+     */
+    String NAME = "org.onehippo.forge.channelmanager.pagesupport.channel.event:type=DocumentParamsRelinkerMXBean";
+
+    /**
+     * Submits a background job re-linking the document parameters of all the components in the HST configuration
+     * workspace of the target channel, which still point to the documents of the source channel, to the translations
+     * of the documents in the target channel.
+     * @param sourceMountId source mount identifier, of which the documents are linked in the target channel
+     * @param targetMountId target mount identifier
+     * @param dryRun whether to only log and report the changes without applying them
+     * @return the job ID to follow through {@link PageCopyJobManagerMXBean#getJobStatus(String)}
+     */
+    String submitRelink(String sourceMountId, String targetMountId, boolean dryRun);
+
+    /**
+     * Returns the reports of the last completed re-link jobs, per source and target mount pair and dry-run flag.
+     * @return the reports of the last completed re-link jobs
+     */
+    String[] getLastResults();
+
+    /**
+     * Returns the descriptions of the kept checkpoints.
+     * @return the descriptions of the kept checkpoints
+     */
+    String[] getCheckpoints();
+
+    /**
+     * Removes the checkpoint of the re-link from the source mount to the target mount, so the next re-link
+     * between them starts from scratch.
+     * @param sourceMountId source mount identifier
+     * @param targetMountId target mount identifier
+     */
+    void clearCheckpoint(String sourceMountId, String targetMountId);
+
+    /**
+     * Removes all the kept checkpoints.
+     */
+    void clearAllCheckpoints();
+
+    /**
+     * Returns the number of the components of which the changes are saved at once.
+     * @return the number of the components of which the changes are saved at once
+     */
+    int getSaveBatchSize();
+
+    /**
+     * Sets the number of the components of which the changes are saved at once.
+     * @param saveBatchSize the number of the components of which the changes are saved at once
+     */
+    void setSaveBatchSize(int saveBatchSize);
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hippoecm.hst.configuration.ConfigurationUtils;
+import org.hippoecm.hst.configuration.components.HstComponentConfiguration;
+import org.hippoecm.hst.core.linking.DocumentParamsScanner;
+
+/**
+ * Caches the document parameter names found by {@link DocumentParamsScanner#getNames(HstComponentConfiguration, ClassLoader)}
+ * per component class and parameters info class, to avoid the annotation and reflection work on each component
+ * of each page copy.
+ * <P>
+ * The cache is kept per class loader with weak keys, so it doesn't keep a redeployed web application class loader.
+ * The components with dynamic parameters are not cached as their document parameters are configured per component.
+ * </P>
+ */
+final class DocumentParamsScannerCache {
+
+    private static final Map<ClassLoader, Map<String, Set<String>>> namesByClassLoader = new WeakHashMap<>();
+
+    private DocumentParamsScannerCache() {
+    }
+
+    /**
+     * Returns the document parameter names of the component configuration, from the cache if available.
+     * @param config component configuration
+     * @param classLoader class loader to load the component classes
+     * @return the document parameter names of the component configuration
+     */
+    static Set<String> getNames(final HstComponentConfiguration config, final ClassLoader classLoader) {
+        if (!config.getDynamicComponentParameters().isEmpty()) {
+            return DocumentParamsScanner.getNames(config, classLoader);
+        }
+
+        final String key = config.getComponentClassName() + "|" + config.getParametersInfoClassName();
+        final Map<String, Set<String>> names = getNamesOfClassLoader(classLoader);
+        Set<String> componentNames = names.get(key);
+
+        if (componentNames == null) {
+            componentNames = Collections.unmodifiableSet(DocumentParamsScanner.getNames(config, classLoader));
+            names.put(key, componentNames);
+        }
+
+        return componentNames;
+    }
+
+    /**
+     * Same as {@link DocumentParamsScanner#findDocumentPathsRecursive(HstComponentConfiguration, ClassLoader, Predicate)},
+     * but reads the document parameter names from the cache and skips the components without document parameters.
+     * @param config component configuration to start from
+     * @param classLoader class loader to load the component classes
+     * @param filter filter of the component configurations to scan
+     * @return the document parameter values of the component configuration and its descendants
+     */
+    static List<String> findDocumentPathsRecursive(final HstComponentConfiguration config,
+            final ClassLoader classLoader, final Predicate<HstComponentConfiguration> filter) {
+        final List<String> documentPaths = new ArrayList<>();
+        findDocumentPathsRecursive(config, classLoader, filter, documentPaths);
+        return documentPaths;
+    }
+
+    private static void findDocumentPathsRecursive(final HstComponentConfiguration config,
+            final ClassLoader classLoader, final Predicate<HstComponentConfiguration> filter,
+            final List<String> documentPaths) {
+        if (filter.test(config)) {
+            for (String name : getNames(config, classLoader)) {
+                addParameterValue(config, name, documentPaths);
+
+                for (String prefix : config.getParameterPrefixes()) {
+                    addParameterValue(config, ConfigurationUtils.createPrefixedParameterName(prefix, name),
+                            documentPaths);
+                }
+            }
+        }
+
+        for (HstComponentConfiguration child : config.getChildren().values()) {
+            findDocumentPathsRecursive(child, classLoader, filter, documentPaths);
+        }
+    }
+
+    private static void addParameterValue(final HstComponentConfiguration config, final String name,
+            final List<String> documentPaths) {
+        final String documentPath = config.getParameter(name);
+
+        if (StringUtils.isNotBlank(documentPath)) {
+            documentPaths.add(documentPath);
+        }
+    }
+
+    private static Map<String, Set<String>> getNamesOfClassLoader(final ClassLoader classLoader) {
+        synchronized (namesByClassLoader) {
+            return namesByClassLoader.computeIfAbsent(classLoader, key -> new ConcurrentHashMap<>());
+        }
+    }
+}
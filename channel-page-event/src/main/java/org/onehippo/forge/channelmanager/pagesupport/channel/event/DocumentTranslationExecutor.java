@@ -0,0 +1,228 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.jcr.Credentials;
+import javax.jcr.Repository;
+import javax.jcr.Session;
+
+import org.onehippo.forge.channelmanager.pagesupport.document.management.DocumentManagementService;
+import org.onehippo.forge.channelmanager.pagesupport.document.management.impl.DocumentWorkflowDocumentManagementService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes independent document translations of a page copy concurrently on a bounded pool of worker threads
+ * shared by all the target channels.
+ * <P>
+ * The items of one call are drained by at most {@link #getMaxParallelismPerChannel()} lanes, so a page copy with
+ * many linked documents does not take all the workers from page copies to other target channels.
+ * </P>
+ * <P>
+ * Each lane logs in its own JCR session, and runs the workflow operations of its tasks with that session through
+ * a {@link DocumentWorkflowDocumentManagementService} of its own, so the lanes never share a session with each other
+ * or with the <code>DocumentManagementService</code> module. This requires the service module classes to be visible
+ * to this class loader, e.g. with the service module deployed in the shared library. Otherwise, this executor is
+ * not initialized and the documents are translated one by one instead.
+ * </P>
+ */
+public class DocumentTranslationExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentTranslationExecutor.class);
+
+    /**
+     * Default number of the worker threads shared by all the target channels.
+     */
+    public static final int DEFAULT_WORKER_COUNT = 8;
+
+    /**
+     * Default maximum number of the concurrent translations for one target channel.
+     */
+    public static final int DEFAULT_MAX_PARALLELISM_PER_CHANNEL = 4;
+
+    /**
+     * Translation task of an item, executed with the JCR session of the lane executing it.
+     * @param <T> item type
+     */
+    @FunctionalInterface
+    public interface Task<T> {
+
+        /**
+         * Executes the task on the {@code item}.
+         * @param session JCR session of the lane
+         * @param service document management service running the workflow operations with the session of the lane
+         * @param item item to process
+         * @throws Exception if the task fails
+         */
+        void execute(Session session, DocumentManagementService service, T item) throws Exception;
+
+    }
+
+    private int workerCount = DEFAULT_WORKER_COUNT;
+
+    private int maxParallelismPerChannel = DEFAULT_MAX_PARALLELISM_PER_CHANNEL;
+
+    private ExecutorService executor;
+
+    public void init() {
+        try {
+            new DocumentWorkflowDocumentManagementService();
+        } catch (LinkageError e) {
+            log.warn("DocumentWorkflowDocumentManagementService is not visible in this application, so linked documents "
+                    + "will be translated one by one. {}", e.toString());
+            return;
+        }
+
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ThreadFactory threadFactory = runnable -> {
+            final Thread thread = new Thread(runnable,
+                    "channel-pagesup-document-translation-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        executor = Executors.newFixedThreadPool(workerCount, threadFactory);
+    }
+
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    public void setWorkerCount(int workerCount) {
+        this.workerCount = workerCount;
+    }
+
+    public int getMaxParallelismPerChannel() {
+        return maxParallelismPerChannel;
+    }
+
+    public void setMaxParallelismPerChannel(int maxParallelismPerChannel) {
+        this.maxParallelismPerChannel = maxParallelismPerChannel;
+    }
+
+    /**
+     * Returns true if this executor is initialized, which is not the case if the service module classes are not
+     * visible to this class loader.
+     * @return true if this executor is initialized
+     */
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    /**
+     * Executes the {@code task} on all the {@code items} concurrently, and waits until all are done.
+     * Once an item fails, the remaining items which have not been started yet are skipped.
+     * @param items items to process
+     * @param repository repository to log in the session of each lane
+     * @param credentials credentials to log in the session of each lane
+     * @param task task to execute on each item
+     * @param <T> item type
+     * @throws Exception the first failure of the task or of logging in a session
+     */
+    public <T> void executeAll(final Collection<T> items, final Repository repository, final Credentials credentials,
+            final Task<T> task) throws Exception {
+        if (executor == null) {
+            throw new IllegalStateException("Document translation executor is not initialized.");
+        }
+
+        final Queue<T> queue = new ConcurrentLinkedQueue<>(items);
+        final AtomicReference<Exception> failure = new AtomicReference<>();
+        final int laneCount = Math.max(1, Math.min(maxParallelismPerChannel, items.size()));
+        final List<Future<?>> lanes = new ArrayList<>(laneCount);
+
+        for (int i = 0; i < laneCount; i++) {
+            lanes.add(executor.submit(() -> drain(queue, failure, repository, credentials, task)));
+        }
+
+        try {
+            for (Future<?> lane : lanes) {
+                lane.get();
+            }
+        } catch (InterruptedException e) {
+            for (Future<?> lane : lanes) {
+                lane.cancel(true);
+            }
+
+            throw e;
+        } catch (ExecutionException e) {
+            failure.compareAndSet(null, new RuntimeException(e.getCause()));
+        }
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    private <T> void drain(final Queue<T> queue, final AtomicReference<Exception> failure,
+            final Repository repository, final Credentials credentials, final Task<T> task) {
+        Session session = null;
+        DocumentManagementService service = null;
+
+        try {
+            session = repository.login(credentials);
+            service = createLaneService(session);
+            T item;
+
+            while (failure.get() == null && !Thread.currentThread().isInterrupted() && (item = queue.poll()) != null) {
+                task.execute(session, service, item);
+            }
+        } catch (Exception e) {
+            log.error("Failed to translate a document concurrently.", e);
+            failure.compareAndSet(null, e);
+        } finally {
+            if (service != null) {
+                service.destroy();
+            }
+
+            if (session != null) {
+                session.logout();
+            }
+        }
+    }
+
+    /**
+     * Creates a document management service running the workflow operations with the {@code session} of a lane,
+     * without a session pool, a workflow cache or bulk operation workers.
+     */
+    private DocumentManagementService createLaneService(final Session session) {
+        final DocumentWorkflowDocumentManagementService service = new DocumentWorkflowDocumentManagementService();
+        service.setSessionPoolSize(0);
+        service.setWorkflowCacheTimeToLive(0);
+        service.setBulkWorkerCount(0);
+        service.initialize(session);
+        return service;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Summary of an update of the document parameters in an HST configuration node tree by
+ * {@link HstDocumentParamsUpdater}.
+ */
+public class HstDocumentParamsUpdateReport {
+
+    private int visitedNodeCount;
+    private int changedNodeCount;
+    private int skippedNodeCount;
+    private int changedValueCount;
+    private final List<String> lockedNodes = new ArrayList<>();
+
+    /**
+     * Returns the number of the HST configuration nodes visited.
+     * @return the number of the HST configuration nodes visited
+     */
+    public int getVisitedNodeCount() {
+        return visitedNodeCount;
+    }
+
+    /**
+     * Returns the number of the HST configuration nodes of which the parameter values were changed.
+     * @return the number of the HST configuration nodes of which the parameter values were changed
+     */
+    public int getChangedNodeCount() {
+        return changedNodeCount;
+    }
+
+    /**
+     * Returns the number of the HST configuration nodes skipped, with their descendants, because no matching source
+     * component configuration was found.
+     * @return the number of the HST configuration nodes skipped
+     */
+    public int getSkippedNodeCount() {
+        return skippedNodeCount;
+    }
+
+    /**
+     * Returns the number of the parameter values changed in total.
+     * @return the number of the parameter values changed in total
+     */
+    public int getChangedValueCount() {
+        return changedValueCount;
+    }
+
+    /**
+     * Returns the HST configuration nodes skipped, with their descendants, because they are locked
+     * ({@code hst:lockedby}) by another user, each as the node path followed by the user locking it.
+     * @return the HST configuration nodes skipped because they are locked by another user
+     */
+    public List<String> getLockedNodes() {
+        return Collections.unmodifiableList(lockedNodes);
+    }
+
+    void nodeVisited() {
+        ++visitedNodeCount;
+    }
+
+    void nodeChanged(final int valueCount) {
+        ++changedNodeCount;
+        changedValueCount += valueCount;
+    }
+
+    void nodeSkipped() {
+        ++skippedNodeCount;
+    }
+
+    void nodeLocked(final String path, final String lockedBy) {
+        lockedNodes.add(path + " (locked by " + lockedBy + ")");
+    }
+
+    @Override
+    public String toString() {
+        return "HstDocumentParamsUpdateReport{visited=" + visitedNodeCount + ", changed=" + changedNodeCount
+                + ", skipped=" + skippedNodeCount + ", locked=" + lockedNodes.size() + ", changedValues="
+                + changedValueCount + "}";
+    }
+}
@@ -15,7 +15,13 @@
  */
 package org.onehippo.forge.channelmanager.pagesupport.channel.event;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -31,9 +37,9 @@ import org.hippoecm.hst.configuration.HstNodeTypes;
 import org.hippoecm.hst.configuration.components.HstComponentConfiguration;
 import org.hippoecm.hst.configuration.hosting.Mount;
 import org.hippoecm.hst.content.beans.ObjectBeanManagerException;
+import org.hippoecm.hst.content.beans.manager.ObjectBeanManager;
 import org.hippoecm.hst.content.beans.standard.HippoAvailableTranslationsBean;
 import org.hippoecm.hst.content.beans.standard.HippoDocumentBean;
-import org.hippoecm.hst.core.linking.DocumentParamsScanner;
 import org.hippoecm.hst.core.request.HstRequestContext;
 
 import org.slf4j.Logger;
@@ -59,32 +65,268 @@ public final class HstDocumentParamsUpdater {
                                                 final Mount targetMount,
                                                 final Node targetNode,
                                                 final HstRequestContext requestContext) {
+        updateTargetDocumentPaths(sourceMount, source, targetMount, targetNode, requestContext.getObjectBeanManager());
+    }
+
+    /**
+     * Update 'documentLink' and 'jcrPath' HST parameters in the target HST configuration node, based on the source and
+     * target documents being linked as translations of each other, by using the given {@code objectBeanManager}
+     * for the documents which cannot be resolved by the translation IDs, e.g. outside an HST request.
+     */
+    public static void updateTargetDocumentPaths(final Mount sourceMount,
+                                                final HstComponentConfiguration source,
+                                                final Mount targetMount,
+                                                final Node targetNode,
+                                                final ObjectBeanManager objectBeanManager) {
+        updateTargetDocumentPaths(sourceMount, source, targetMount, targetNode, objectBeanManager, (TranslationIndex) null);
+    }
+
+    /**
+     * Update 'documentLink' and 'jcrPath' HST parameters in the target HST configuration node, based on the source and
+     * target documents being linked as translations of each other.
+     * The translated documents are resolved by the translation IDs through the {@code translationIndex} if given,
+     * or through queries otherwise, and the {@code objectBeanManager} is used only for the documents which cannot be
+     * resolved that way.
+     * <P>
+     * The target node tree is traversed iteratively, collecting the changed parameter values of all the nodes first,
+     * and then the changes are applied in one batch, so nothing is changed if the traversal fails halfway.
+     * The changes are not saved, but left to be saved at once by the caller.
+     * </P>
+     */
+    public static void updateTargetDocumentPaths(final Mount sourceMount,
+                                                final HstComponentConfiguration source,
+                                                final Mount targetMount,
+                                                final Node targetNode,
+                                                final ObjectBeanManager objectBeanManager,
+                                                final TranslationIndex translationIndex) {
+        updateTargetDocumentPathsWithReport(sourceMount, source, targetMount, targetNode, objectBeanManager,
+                translationIndex);
+    }
+
+    /**
+     * Same as {@link #updateTargetDocumentPaths(Mount, HstComponentConfiguration, Mount, Node, ObjectBeanManager, TranslationIndex)},
+     * but returns the report of the update, with the numbers of the visited, changed and skipped nodes.
+     * @return the report of the update
+     */
+    public static HstDocumentParamsUpdateReport updateTargetDocumentPathsWithReport(final Mount sourceMount,
+                                                final HstComponentConfiguration source,
+                                                final Mount targetMount,
+                                                final Node targetNode,
+                                                final ObjectBeanManager objectBeanManager,
+                                                final TranslationIndex translationIndex) {
+        return updateTargetDocumentPathsWithReport(sourceMount, source, targetMount, targetNode, objectBeanManager,
+                translationIndex, false);
+    }
+
+    /**
+     * Same as {@link #updateTargetDocumentPathsWithReport(Mount, HstComponentConfiguration, Mount, Node, ObjectBeanManager, TranslationIndex)},
+     * but skips the nodes locked by another user with their descendants if {@code skipLockedNodes} is true,
+     * e.g. when updating an existing page outside a page copy request, reporting them in
+     * {@link HstDocumentParamsUpdateReport#getLockedNodes()}.
+     */
+    static HstDocumentParamsUpdateReport updateTargetDocumentPathsWithReport(final Mount sourceMount,
+                                                final HstComponentConfiguration source,
+                                                final Mount targetMount,
+                                                final Node targetNode,
+                                                final ObjectBeanManager objectBeanManager,
+                                                final TranslationIndex translationIndex,
+                                                final boolean skipLockedNodes) {
+        final HstDocumentParamsUpdateReport report = new HstDocumentParamsUpdateReport();
+
+        try {
+            final TranslatedDocumentPathResolver resolver = new TranslatedDocumentPathResolver(targetNode.getSession(),
+                    translationIndex);
+            final List<ParameterValuesChange> changes = collectParameterValuesChanges(sourceMount, source, targetMount,
+                    targetNode, objectBeanManager, resolver, false, skipLockedNodes, report);
+
+            for (ParameterValuesChange change : changes) {
+                change.apply();
+            }
+
+            log.debug("Updated document parameters of {}: {}, {}", source.getCanonicalStoredLocation(), report, resolver);
+        } catch (RepositoryException e) {
+            log.error("RepositoryException updating HST configuration", e);
+        }
+
+        return report;
+    }
+
+    /**
+     * Re-link 'documentLink' and 'jcrPath' HST parameters in an existing target HST configuration node, which still
+     * point to the documents of the source channel, to the translations of the documents in the target channel,
+     * e.g. after translating the documents outside the Channel Manager.
+     * <P>
+     * The {@code target} is the component configuration of the {@code targetNode} itself. Only the parameter values
+     * with a translated document in the target channel are changed, and a relative parameter value resolving to
+     * an existing node in the target channel already is left as it is. The nodes locked ({@code hst:lockedby}) by
+     * another user are left as they are with their descendants, and reported in
+     * {@link HstDocumentParamsUpdateReport#getLockedNodes()}.
+     * The changes are not saved, but left to be saved by the caller.
+     * </P>
+     * @param dryRun whether to only report the changes without applying them
+     * @return the report of the re-link
+     */
+    public static HstDocumentParamsUpdateReport relinkTargetDocumentPaths(final Mount sourceMount,
+                                                final HstComponentConfiguration target,
+                                                final Mount targetMount,
+                                                final Node targetNode,
+                                                final ObjectBeanManager objectBeanManager,
+                                                final TranslationIndex translationIndex,
+                                                final boolean dryRun) {
+        final HstDocumentParamsUpdateReport report = new HstDocumentParamsUpdateReport();
+
         try {
-            final Set<String> parameters = DocumentParamsScanner.getNames(source, DocumentCopyingPageCopyEventListener.class.getClassLoader());
-            log.debug("Got document parameters {} from component {}", parameters, source.getCanonicalStoredLocation());
+            final TranslatedDocumentPathResolver resolver = new TranslatedDocumentPathResolver(targetNode.getSession(),
+                    translationIndex);
+            relinkTargetDocumentPaths(sourceMount, target, targetMount, targetNode, objectBeanManager, resolver,
+                    dryRun, report);
+        } catch (RepositoryException e) {
+            log.error("RepositoryException re-linking HST configuration", e);
+        }
+
+        return report;
+    }
+
+    /**
+     * Re-links the document parameters in an existing target HST configuration node like
+     * {@link #relinkTargetDocumentPaths(Mount, HstComponentConfiguration, Mount, Node, ObjectBeanManager, TranslationIndex, boolean)},
+     * sharing the {@code resolver} and adding up to the {@code report} across many nodes.
+     */
+    static void relinkTargetDocumentPaths(final Mount sourceMount,
+                                          final HstComponentConfiguration target,
+                                          final Mount targetMount,
+                                          final Node targetNode,
+                                          final ObjectBeanManager objectBeanManager,
+                                          final TranslatedDocumentPathResolver resolver,
+                                          final boolean dryRun,
+                                          final HstDocumentParamsUpdateReport report) throws RepositoryException {
+        final List<ParameterValuesChange> changes = collectParameterValuesChanges(sourceMount, target, targetMount,
+                targetNode, objectBeanManager, resolver, true, true, report);
+
+        if (dryRun) {
+            for (ParameterValuesChange change : changes) {
+                log.info("Dry run: re-linking {}", change);
+            }
+        } else {
+            for (ParameterValuesChange change : changes) {
+                change.apply();
+            }
+        }
+    }
+
+    /**
+     * Traverses the target node tree iteratively, along with the matching source configurations, and collects the
+     * changed parameter values of each node. If {@code skipLockedNodes} is true, the nodes locked by another user
+     * than the user of the session are skipped with their descendants.
+     */
+    private static List<ParameterValuesChange> collectParameterValuesChanges(final Mount sourceMount,
+                                                                             final HstComponentConfiguration source,
+                                                                             final Mount targetMount,
+                                                                             final Node targetNode,
+                                                                             final ObjectBeanManager objectBeanManager,
+                                                                             final TranslatedDocumentPathResolver resolver,
+                                                                             final boolean relink,
+                                                                             final boolean skipLockedNodes,
+                                                                             final HstDocumentParamsUpdateReport report)
+            throws RepositoryException {
+
+        final List<ParameterValuesChange> changes = new ArrayList<>();
+        final Deque<PendingNode> pendingNodes = new ArrayDeque<>();
+        pendingNodes.push(new PendingNode(source, targetNode));
+
+        while (!pendingNodes.isEmpty()) {
+            final PendingNode pendingNode = pendingNodes.pop();
+            final HstComponentConfiguration sourceConfig = pendingNode.source;
+            final Node targetConfigNode = pendingNode.targetNode;
+
+            if (skipLockedNodes) {
+                final String lockedBy = getLockedByOtherUser(targetConfigNode);
+
+                if (lockedBy != null) {
+                    log.info("Skipping updating {} and below because it is locked by {}", targetConfigNode.getPath(), lockedBy);
+                    report.nodeLocked(targetConfigNode.getPath(), lockedBy);
+                    continue;
+                }
+            }
+
+            report.nodeVisited();
+
+            final Set<String> parameters = DocumentParamsScannerCache.getNames(sourceConfig, DocumentCopyingPageCopyEventListener.class.getClassLoader());
+            log.debug("Got document parameters {} from component {}", parameters, sourceConfig.getCanonicalStoredLocation());
 
             if (!parameters.isEmpty()) {
-                final Map<String, String> changeMap = getTargetDocumentPaths(sourceMount, source, targetMount, requestContext, parameters);
-                replaceTargetParameterValues(targetNode, changeMap);
+                final Map<String, String> changeMap = getTargetDocumentPaths(sourceMount, sourceConfig, targetMount, objectBeanManager, parameters, resolver);
+
+                if (relink) {
+                    retainRelinkableChanges(sourceMount.getContentPath(), targetMount.getContentPath(), targetConfigNode, changeMap);
+                }
+
+                final ParameterValuesChange change = getParameterValuesChange(targetConfigNode, changeMap);
+
+                if (change != null) {
+                    changes.add(change);
+                    report.nodeChanged(change.getChangedValueCount());
+                }
             }
 
-            // recursively update child nodes, based on the target node names because the source is merged configuration
+            // update child nodes, based on the target node names because the source is merged configuration
             // so can have other (inherited) children
-            final NodeIterator targetChildren = targetNode.getNodes();
+            final NodeIterator targetChildren = targetConfigNode.getNodes();
 
             while (targetChildren.hasNext()) {
 
                 final Node targetChild = targetChildren.nextNode();
-                final HstComponentConfiguration sourceChild = source.getChildByName(targetChild.getName());
+                final HstComponentConfiguration sourceChild = sourceConfig.getChildByName(targetChild.getName());
                 if (sourceChild == null) {
                     log.warn("No child named {} found for source configuration, skipping updating {} and below", targetChild.getName(), targetChild.getPath());
+                    report.nodeSkipped();
                 } else {
-                    // recursion
-                    updateTargetDocumentPaths(sourceMount, sourceChild, targetMount, targetChild, requestContext);
+                    pendingNodes.push(new PendingNode(sourceChild, targetChild));
                 }
             }
-        } catch (RepositoryException e) {
-            log.error("RepositoryException updating HST configuration", e);
+        }
+
+        return changes;
+    }
+
+    /**
+     * Returns the user locking the HST configuration node ({@code hst:lockedby}) if it is another user than the user
+     * of the session of the node, or null otherwise.
+     */
+    private static String getLockedByOtherUser(final Node node) throws RepositoryException {
+        if (!node.hasProperty(HstNodeTypes.GENERAL_PROPERTY_LOCKED_BY)) {
+            return null;
+        }
+
+        final String lockedBy = node.getProperty(HstNodeTypes.GENERAL_PROPERTY_LOCKED_BY).getString();
+
+        if (StringUtils.isEmpty(lockedBy) || lockedBy.equals(node.getSession().getUserID())) {
+            return null;
+        }
+
+        return lockedBy;
+    }
+
+    /**
+     * Removes the changes not pointing to a translated document in the target channel, and the changes of relative
+     * parameter values resolving to an existing node in the target channel already.
+     */
+    private static void retainRelinkableChanges(final String sourceMountContentPath,
+                                                final String targetMountContentPath,
+                                                final Node targetNode,
+                                                final Map<String, String> changeMap) throws RepositoryException {
+
+        for (final Iterator<Map.Entry<String, String>> it = changeMap.entrySet().iterator(); it.hasNext(); ) {
+            final Map.Entry<String, String> entry = it.next();
+            final String value = entry.getKey();
+
+            if (sourceMountContentPath.equals(entry.getValue())) {
+                // no translation found
+                it.remove();
+            } else if (!value.startsWith("/") && targetNode.getSession().nodeExists(targetMountContentPath + '/' + value)) {
+                log.debug("Keeping parameter value {} of {} resolving in the target channel already", value, targetNode.getPath());
+                it.remove();
+            }
         }
     }
 
@@ -94,29 +336,42 @@ public final class HstDocumentParamsUpdater {
     public static void replaceTargetParameterValues(final Node targetNode,
                                                     final Map<String, String> changeMap) throws RepositoryException {
 
-        if (targetNode.hasProperty(HstNodeTypes.GENERAL_PROPERTY_PARAMETER_VALUES)) {
-            final Value[] paramValues = targetNode.getProperty(HstNodeTypes.GENERAL_PROPERTY_PARAMETER_VALUES).getValues();
-            final String[] oldValues = new String[paramValues.length];
-            for (int i = 0; i < paramValues.length; i++) {
-                oldValues[i] = paramValues[i].getString();
-            }
+        final ParameterValuesChange change = getParameterValuesChange(targetNode, changeMap);
 
-            final String[] newValues = new String[oldValues.length];
-            boolean changed = false;
-            for (int j = 0; j < oldValues.length; j++) {
-                if (changeMap.containsKey(oldValues[j])) {
-                    newValues[j] = changeMap.get(oldValues[j]);
-                    changed = true;
-                } else {
-                    newValues[j] = oldValues[j];
-                }
-            }
+        if (change != null) {
+            change.apply();
+        }
+    }
+
+    /**
+     * Returns the change of the parameter values of the {@code targetNode} by the {@code changeMap},
+     * or null if no parameter value matches.
+     */
+    private static ParameterValuesChange getParameterValuesChange(final Node targetNode,
+                                                                  final Map<String, String> changeMap) throws RepositoryException {
+
+        if (changeMap.isEmpty() || !targetNode.hasProperty(HstNodeTypes.GENERAL_PROPERTY_PARAMETER_VALUES)) {
+            return null;
+        }
+
+        final Value[] paramValues = targetNode.getProperty(HstNodeTypes.GENERAL_PROPERTY_PARAMETER_VALUES).getValues();
+        final String[] oldValues = new String[paramValues.length];
+        for (int i = 0; i < paramValues.length; i++) {
+            oldValues[i] = paramValues[i].getString();
+        }
 
-            if (changed) {
-                log.debug("Updating property {}/{} from {} to {}", targetNode.getPath(), HstNodeTypes.GENERAL_PROPERTY_PARAMETER_VALUES, oldValues, newValues);
-                targetNode.setProperty(HstNodeTypes.GENERAL_PROPERTY_PARAMETER_VALUES, newValues);
+        final String[] newValues = new String[oldValues.length];
+        int changedValueCount = 0;
+        for (int j = 0; j < oldValues.length; j++) {
+            if (changeMap.containsKey(oldValues[j])) {
+                newValues[j] = changeMap.get(oldValues[j]);
+                changedValueCount++;
+            } else {
+                newValues[j] = oldValues[j];
             }
         }
+
+        return changedValueCount > 0 ? new ParameterValuesChange(targetNode, oldValues, newValues, changedValueCount) : null;
     }
 
     /**
@@ -127,6 +382,27 @@ public final class HstDocumentParamsUpdater {
                                                              final Mount targetMount,
                                                              final HstRequestContext requestContext,
                                                              final Set<String> parameters) {
+        return getTargetDocumentPaths(sourceMount, source, targetMount, requestContext.getObjectBeanManager(), parameters);
+    }
+
+    /**
+     * Map source content paths to target content paths, based on translated (linked) content,
+     * by using the given {@code objectBeanManager}.
+     */
+    public static Map<String, String> getTargetDocumentPaths(final Mount sourceMount,
+                                                             final HstComponentConfiguration source,
+                                                             final Mount targetMount,
+                                                             final ObjectBeanManager objectBeanManager,
+                                                             final Set<String> parameters) {
+        return getTargetDocumentPaths(sourceMount, source, targetMount, objectBeanManager, parameters, null);
+    }
+
+    private static Map<String, String> getTargetDocumentPaths(final Mount sourceMount,
+                                                              final HstComponentConfiguration source,
+                                                              final Mount targetMount,
+                                                              final ObjectBeanManager objectBeanManager,
+                                                              final Set<String> parameters,
+                                                              final TranslatedDocumentPathResolver resolver) {
 
         final Map<String, String> changeMap = new HashMap<>();
 
@@ -135,7 +411,7 @@ public final class HstDocumentParamsUpdater {
             // regular parameters
             final String sourceDocumentPath = source.getParameter(parameter);
             if (StringUtils.isNotEmpty(sourceDocumentPath)) {
-                final String targetDocumentPath = getTargetDocumentPath(sourceMount.getContentPath(), sourceDocumentPath, targetMount.getContentPath(), requestContext);
+                final String targetDocumentPath = getTargetDocumentPath(sourceMount.getContentPath(), sourceDocumentPath, targetMount.getContentPath(), objectBeanManager, resolver);
                 if (!sourceDocumentPath.equals(targetDocumentPath)) {
                     changeMap.put(sourceDocumentPath, targetDocumentPath);
                 }
@@ -146,7 +422,7 @@ public final class HstDocumentParamsUpdater {
                 final String prefixedParam = ConfigurationUtils.createPrefixedParameterName(prefix, parameter);
                 final String variantSourceDocumentPath = source.getParameter(prefixedParam);
                 if (StringUtils.isNotEmpty(variantSourceDocumentPath)) {
-                    final String targetDocumentPath = getTargetDocumentPath(sourceMount.getContentPath(), variantSourceDocumentPath, targetMount.getContentPath(), requestContext);
+                    final String targetDocumentPath = getTargetDocumentPath(sourceMount.getContentPath(), variantSourceDocumentPath, targetMount.getContentPath(), objectBeanManager, resolver);
                     if (!variantSourceDocumentPath.equals(targetDocumentPath)) {
                         changeMap.put(variantSourceDocumentPath, targetDocumentPath);
                     }
@@ -165,12 +441,65 @@ public final class HstDocumentParamsUpdater {
                                                final String sourceDocumentPath,
                                                final String targetMountContentPath,
                                                final HstRequestContext requestContext) {
+        return getTargetDocumentPath(sourceMountContentPath, sourceDocumentPath, targetMountContentPath,
+                requestContext.getObjectBeanManager());
+    }
+
+    /**
+     * Get a target document path from a source, based on the linked translations and target base content path,
+     * by using the given {@code objectBeanManager}.
+     */
+    public static String getTargetDocumentPath(final String sourceMountContentPath,
+                                               final String sourceDocumentPath,
+                                               final String targetMountContentPath,
+                                               final ObjectBeanManager objectBeanManager) {
+        return getTargetDocumentPath(sourceMountContentPath, sourceDocumentPath, targetMountContentPath, objectBeanManager, null);
+    }
+
+    private static String getTargetDocumentPath(final String sourceMountContentPath,
+                                                final String sourceDocumentPath,
+                                                final String targetMountContentPath,
+                                                final ObjectBeanManager objectBeanManager,
+                                                final TranslatedDocumentPathResolver resolver) {
+
+        if (resolver == null) {
+            return resolveTargetDocumentPath(sourceMountContentPath, sourceDocumentPath, targetMountContentPath, objectBeanManager, null);
+        }
+
+        String targetDocumentPath = resolver.getTargetDocumentPath(sourceMountContentPath, sourceDocumentPath, targetMountContentPath);
+
+        if (targetDocumentPath == null) {
+            targetDocumentPath = resolveTargetDocumentPath(sourceMountContentPath, sourceDocumentPath, targetMountContentPath, objectBeanManager, resolver);
+            resolver.setTargetDocumentPath(sourceMountContentPath, sourceDocumentPath, targetMountContentPath, targetDocumentPath);
+        }
+
+        return targetDocumentPath;
+    }
+
+    private static String resolveTargetDocumentPath(final String sourceMountContentPath,
+                                                    final String sourceDocumentPath,
+                                                    final String targetMountContentPath,
+                                                    final ObjectBeanManager objectBeanManager,
+                                                    final TranslatedDocumentPathResolver resolver) {
 
         final boolean isAbsolute = sourceDocumentPath.startsWith("/");
 
         final String sourceAbsolutePath = isAbsolute ? sourceDocumentPath : sourceMountContentPath + '/' + sourceDocumentPath;
+
+        if (resolver != null) {
+            final String targetHandlePath = resolver.resolveTranslatedHandlePath(sourceAbsolutePath, targetMountContentPath);
+            if (targetHandlePath != null) {
+                // take the full handle path if absolute, else subtract targetMountContentPath/
+                final String targetDocumentPath = isAbsolute ? targetHandlePath :
+                        targetHandlePath.substring(targetMountContentPath.length() + 1);
+                log.debug("Determined target path {} based on source path {} by translation ID", targetDocumentPath, sourceDocumentPath);
+                return targetDocumentPath;
+            }
+        }
+
+        // fall back to content beans, e.g. for a source path not pointing to a translated document directly
         try {
-            final Object obj = requestContext.getObjectBeanManager().getObject(sourceAbsolutePath);
+            final Object obj = objectBeanManager.getObject(sourceAbsolutePath);
             if (obj == null) {
                 log.warn("Object for path {} is not a {} but null. Check HST configuration for broken content link.",
                         sourceAbsolutePath, HippoDocumentBean.class.getSimpleName());
@@ -203,4 +532,50 @@ public final class HstDocumentParamsUpdater {
         // fallback to source, may leave broken configuration paths
         return sourceMountContentPath;
     }
+
+    private static class PendingNode {
+
+        private final HstComponentConfiguration source;
+        private final Node targetNode;
+
+        private PendingNode(final HstComponentConfiguration source, final Node targetNode) {
+            this.source = source;
+            this.targetNode = targetNode;
+        }
+    }
+
+    private static class ParameterValuesChange {
+
+        private final Node targetNode;
+        private final String[] oldValues;
+        private final String[] newValues;
+        private final int changedValueCount;
+
+        private ParameterValuesChange(final Node targetNode, final String[] oldValues, final String[] newValues,
+                                      final int changedValueCount) {
+            this.targetNode = targetNode;
+            this.oldValues = oldValues;
+            this.newValues = newValues;
+            this.changedValueCount = changedValueCount;
+        }
+
+        private int getChangedValueCount() {
+            return changedValueCount;
+        }
+
+        @Override
+        public String toString() {
+            try {
+                return targetNode.getPath() + "/" + HstNodeTypes.GENERAL_PROPERTY_PARAMETER_VALUES + " from "
+                        + Arrays.toString(oldValues) + " to " + Arrays.toString(newValues);
+            } catch (RepositoryException e) {
+                return super.toString();
+            }
+        }
+
+        private void apply() throws RepositoryException {
+            log.debug("Updating property {}/{} from {} to {}", targetNode.getPath(), HstNodeTypes.GENERAL_PROPERTY_PARAMETER_VALUES, oldValues, newValues);
+            targetNode.setProperty(HstNodeTypes.GENERAL_PROPERTY_PARAMETER_VALUES, newValues);
+        }
+    }
 }
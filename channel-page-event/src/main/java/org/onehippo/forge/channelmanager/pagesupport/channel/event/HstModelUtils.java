@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.configuration.hosting.VirtualHosts;
+import org.hippoecm.hst.configuration.internal.ContextualizableMount;
+import org.hippoecm.hst.configuration.model.HstManager;
+import org.hippoecm.hst.configuration.site.HstSite;
+import org.hippoecm.hst.site.HstServices;
+
+/**
+ * Internal utility to resolve the mounts and the sites from the current HST model outside a page copy request,
+ * e.g. in the MBeans submitting background jobs.
+ */
+final class HstModelUtils {
+
+    private HstModelUtils() {
+    }
+
+    /**
+     * Returns the current HST model.
+     * @return the current HST model
+     * @throws IllegalStateException if the HST model is not available
+     */
+    static VirtualHosts getVirtualHosts() {
+        final HstManager hstManager = HstServices.getComponentManager().getComponent(HstManager.class.getName());
+
+        try {
+            return hstManager.getVirtualHosts();
+        } catch (Exception e) {
+            throw new IllegalStateException("HST model is not available. " + e);
+        }
+    }
+
+    /**
+     * Returns the mount by the {@code mountId}.
+     * @param virtualHosts HST model
+     * @param mountId mount identifier
+     * @return the mount by the {@code mountId}
+     * @throws IllegalArgumentException if no mount is found by the {@code mountId}
+     */
+    static Mount getMount(final VirtualHosts virtualHosts, final String mountId) {
+        final Mount mount = virtualHosts.getMountByIdentifier(mountId);
+
+        if (mount == null) {
+            throw new IllegalArgumentException("No mount found by '" + mountId + "'.");
+        }
+
+        return mount;
+    }
+
+    /**
+     * Returns the preview site of the {@code mount}, which a page copy in the Channel Manager works on.
+     * The live site is never returned instead, not to write into the live HST configuration.
+     * @param mount mount
+     * @return the preview site of the {@code mount}
+     * @throws IllegalStateException if the {@code mount} has no preview configuration, e.g. if the channel has never
+     *         been edited in the Channel Manager
+     */
+    static HstSite getPreviewHstSite(final Mount mount) {
+        if (mount instanceof ContextualizableMount) {
+            final HstSite previewSite = ((ContextualizableMount) mount).getPreviewHstSite();
+
+            if (previewSite != null && previewSite.hasPreviewConfiguration()) {
+                return previewSite;
+            }
+        }
+
+        throw new IllegalStateException("No preview configuration found for the mount, '" + mount.getIdentifier()
+                + "'. Edit the channel in the Channel Manager first to create its preview configuration.");
+    }
+}
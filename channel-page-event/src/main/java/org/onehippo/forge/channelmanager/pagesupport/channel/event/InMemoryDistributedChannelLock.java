@@ -0,0 +1,123 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-memory {@link DistributedChannelLock} implementation with lease expiry, as a stand-in for tests or single node
+ * environments.
+ * <P>
+ * Several instances may share one {@code InMemoryDistributedChannelLock} by {@link #InMemoryDistributedChannelLock(InMemoryDistributedChannelLock)}
+ * to simulate the nodes in a cluster, each with its own owner identity but with the shared lease table.
+ * </P>
+ */
+public class InMemoryDistributedChannelLock implements DistributedChannelLock {
+
+    /**
+     * Default lease duration in milliseconds.
+     */
+    public static final long DEFAULT_LEASE_DURATION = 600000L;
+
+    private final Map<String, Lease> leases;
+
+    private final String ownerId = UUID.randomUUID().toString();
+
+    private long leaseDuration = DEFAULT_LEASE_DURATION;
+
+    public InMemoryDistributedChannelLock() {
+        leases = new HashMap<>();
+    }
+
+    /**
+     * Creates a lock instance with its own owner identity, sharing the lease table with the {@code cluster}.
+     * @param cluster another lock instance of which lease table is to be shared
+     */
+    public InMemoryDistributedChannelLock(final InMemoryDistributedChannelLock cluster) {
+        leases = cluster.leases;
+    }
+
+    public long getLeaseDuration() {
+        return leaseDuration;
+    }
+
+    public void setLeaseDuration(long leaseDuration) {
+        this.leaseDuration = leaseDuration;
+    }
+
+    @Override
+    public boolean tryLock(final String channelKey, final long timeout) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + timeout;
+
+        synchronized (leases) {
+            while (true) {
+                final long now = System.currentTimeMillis();
+                final Lease lease = leases.get(channelKey);
+
+                if (lease == null || lease.expiresAt <= now || ownerId.equals(lease.ownerId)) {
+                    leases.put(channelKey, new Lease(ownerId, now + leaseDuration));
+                    return true;
+                }
+
+                if (deadline <= now) {
+                    return false;
+                }
+
+                // wake up when either the lease is released, the lease expires or the timeout elapses
+                leases.wait(Math.min(deadline, lease.expiresAt) - now);
+            }
+        }
+    }
+
+    @Override
+    public void unlock(final String channelKey) {
+        synchronized (leases) {
+            final Lease lease = leases.get(channelKey);
+
+            if (lease != null && ownerId.equals(lease.ownerId)) {
+                leases.remove(channelKey);
+                leases.notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public boolean renew(final String channelKey) {
+        synchronized (leases) {
+            final Lease lease = leases.get(channelKey);
+
+            if (lease == null || !ownerId.equals(lease.ownerId)) {
+                return false;
+            }
+
+            leases.put(channelKey, new Lease(ownerId, System.currentTimeMillis() + leaseDuration));
+            return true;
+        }
+    }
+
+    private static class Lease {
+
+        private final String ownerId;
+        private final long expiresAt;
+
+        private Lease(final String ownerId, final long expiresAt) {
+            this.ownerId = ownerId;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
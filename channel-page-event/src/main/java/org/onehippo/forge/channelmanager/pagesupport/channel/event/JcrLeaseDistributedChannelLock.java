@@ -0,0 +1,315 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.UUID;
+
+import javax.jcr.Credentials;
+import javax.jcr.InvalidItemStateException;
+import javax.jcr.ItemExistsException;
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hippoecm.repository.api.NodeNameCodec;
+import org.hippoecm.repository.util.JcrUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link DistributedChannelLock} implementation based on lease nodes in the repository, shared by all the nodes
+ * in a cluster.
+ * <P>
+ * A lease node is created under {@link #getLeaseRootPath()} for each locked channel key, with the owner identity and
+ * the expiration time. A lease is released by removing the lease node, or taken over by another owner when it has
+ * expired, e.g. because the owner node crashed while holding the lease.
+ * </P>
+ * <P>
+ * The lease of a held lock is pushed forward by {@link #renew(String)}, invoked periodically by
+ * {@link ChannelLockManager}, so a copy running longer than {@link #getLeaseDuration()} doesn't lose its lease.
+ * All the lease operations share one JCR session, logged in on demand and logged out by {@link #close()}.
+ * </P>
+ */
+public class JcrLeaseDistributedChannelLock implements DistributedChannelLock {
+
+    private static final Logger log = LoggerFactory.getLogger(JcrLeaseDistributedChannelLock.class);
+
+    /**
+     * Default lease root node path.
+     */
+    public static final String DEFAULT_LEASE_ROOT_PATH = "/hippo:configuration/hippo:temporary/channel-pagesup-leases";
+
+    /**
+     * Default lease duration in milliseconds.
+     */
+    public static final long DEFAULT_LEASE_DURATION = 600000L;
+
+    /**
+     * Default interval in milliseconds to check a lease again while waiting.
+     */
+    public static final long DEFAULT_RETRY_INTERVAL = 500L;
+
+    private static final String LEASE_NODE_TYPE = "nt:unstructured";
+
+    private static final String OWNER_PROP = "owner";
+
+    private static final String EXPIRES_PROP = "expires";
+
+    private final String ownerId = UUID.randomUUID().toString();
+
+    private Repository repository;
+
+    private Credentials credentials;
+
+    private String leaseRootPath = DEFAULT_LEASE_ROOT_PATH;
+
+    private long leaseDuration = DEFAULT_LEASE_DURATION;
+
+    private long retryInterval = DEFAULT_RETRY_INTERVAL;
+
+    // guarded by this
+    private Session session;
+
+    public Repository getRepository() {
+        return repository;
+    }
+
+    public void setRepository(Repository repository) {
+        this.repository = repository;
+    }
+
+    public Credentials getCredentials() {
+        return credentials;
+    }
+
+    public void setCredentials(Credentials credentials) {
+        this.credentials = credentials;
+    }
+
+    public String getLeaseRootPath() {
+        return leaseRootPath;
+    }
+
+    public void setLeaseRootPath(String leaseRootPath) {
+        this.leaseRootPath = leaseRootPath;
+    }
+
+    public long getLeaseDuration() {
+        return leaseDuration;
+    }
+
+    public void setLeaseDuration(long leaseDuration) {
+        this.leaseDuration = leaseDuration;
+    }
+
+    public long getRetryInterval() {
+        return retryInterval;
+    }
+
+    public void setRetryInterval(long retryInterval) {
+        this.retryInterval = retryInterval;
+    }
+
+    @Override
+    public boolean tryLock(final String channelKey, final long timeout) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + timeout;
+        final String leaseNodeName = NodeNameCodec.encode(channelKey, true);
+
+        try {
+            while (true) {
+                synchronized (this) {
+                    if (tryAcquireLease(getSession(), leaseNodeName)) {
+                        log.debug("Acquired the lease on '{}' by '{}'.", channelKey, ownerId);
+                        return true;
+                    }
+                }
+
+                final long remaining = deadline - System.currentTimeMillis();
+
+                if (remaining <= 0L) {
+                    log.warn("Timed out after {}ms in waiting for the lease on '{}'.", timeout, channelKey);
+                    return false;
+                }
+
+                // wait without holding the session, so that the other channels can be locked, renewed or unlocked
+                Thread.sleep(Math.min(remaining, retryInterval));
+            }
+        } catch (RepositoryException e) {
+            log.error("Failed to acquire the lease on '{}'.", channelKey, e);
+            discardSession();
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized void unlock(final String channelKey) {
+        final String leaseNodeName = NodeNameCodec.encode(channelKey, true);
+
+        try {
+            final Session session = getSession();
+            removeOwnLeaseNodes(session, getLeaseRootNode(session), leaseNodeName);
+            log.debug("Released the lease on '{}' by '{}'.", channelKey, ownerId);
+        } catch (RepositoryException e) {
+            log.error("Failed to release the lease on '{}'. It will be released after its expiration.", channelKey, e);
+            discardSession();
+        }
+    }
+
+    @Override
+    public synchronized boolean renew(final String channelKey) {
+        final String leaseNodeName = NodeNameCodec.encode(channelKey, true);
+
+        try {
+            final Session session = getSession();
+            session.refresh(false);
+            final Node leaseRootNode = getLeaseRootNode(session);
+
+            if (leaseRootNode.hasNode(leaseNodeName)) {
+                final Node leaseNode = leaseRootNode.getNode(leaseNodeName);
+
+                if (ownerId.equals(JcrUtils.getStringProperty(leaseNode, OWNER_PROP, null))) {
+                    leaseNode.setProperty(EXPIRES_PROP, System.currentTimeMillis() + leaseDuration);
+                    session.save();
+                    log.debug("Renewed the lease on '{}' by '{}'.", channelKey, ownerId);
+                    return true;
+                }
+            }
+
+            log.debug("The lease on '{}' is not held by '{}'.", channelKey, ownerId);
+            return false;
+        } catch (RepositoryException e) {
+            log.error("Failed to renew the lease on '{}'. Trying again on the next renewal.", channelKey, e);
+            discardSession();
+            // not known to be lost yet
+            return true;
+        }
+    }
+
+    /**
+     * Logs out the session shared by the lease operations.
+     */
+    @Override
+    public synchronized void close() {
+        discardSession();
+    }
+
+    /**
+     * Returns the session shared by the lease operations, logging in a new one if not available.
+     */
+    private Session getSession() throws RepositoryException {
+        if (session == null || !session.isLive()) {
+            session = getRepository().login(getCredentials());
+        }
+
+        return session;
+    }
+
+    /**
+     * Logs out the shared session, e.g. after a failure, to start over with a new session next time.
+     */
+    private synchronized void discardSession() {
+        if (session != null) {
+            if (session.isLive()) {
+                session.logout();
+            }
+
+            session = null;
+        }
+    }
+
+    /**
+     * Tries to create or take over the lease node. As concurrent creations on different cluster nodes may end up with
+     * same name sibling lease nodes, the first lease node always wins and the other owners back off.
+     * @param session JCR session
+     * @param leaseNodeName lease node name
+     * @return true if this owns the lease
+     * @throws RepositoryException if repository exception occurs
+     */
+    private boolean tryAcquireLease(final Session session, final String leaseNodeName) throws RepositoryException {
+        try {
+            session.refresh(false);
+
+            final Node leaseRootNode = getLeaseRootNode(session);
+            final long now = System.currentTimeMillis();
+
+            if (leaseRootNode.hasNode(leaseNodeName)) {
+                final Node leaseNode = leaseRootNode.getNode(leaseNodeName);
+                final String owner = JcrUtils.getStringProperty(leaseNode, OWNER_PROP, null);
+                final long expires = JcrUtils.getLongProperty(leaseNode, EXPIRES_PROP, 0L);
+
+                if (!ownerId.equals(owner) && expires > now) {
+                    return false;
+                }
+
+                if (!ownerId.equals(owner)) {
+                    log.info("Taking over the expired lease, '{}', from '{}'.", leaseNodeName, owner);
+                }
+
+                leaseNode.remove();
+            }
+
+            final Node leaseNode = leaseRootNode.addNode(leaseNodeName, LEASE_NODE_TYPE);
+            leaseNode.setProperty(OWNER_PROP, ownerId);
+            leaseNode.setProperty(EXPIRES_PROP, now + leaseDuration);
+            session.save();
+
+            session.refresh(false);
+            final String winner = JcrUtils.getStringProperty(leaseRootNode.getNode(leaseNodeName), OWNER_PROP, null);
+
+            if (!ownerId.equals(winner)) {
+                removeOwnLeaseNodes(session, leaseRootNode, leaseNodeName);
+                return false;
+            }
+
+            return true;
+        } catch (InvalidItemStateException | ItemExistsException e) {
+            log.debug("Concurrent modification on the lease, '{}'. Retrying.", leaseNodeName);
+            session.refresh(false);
+            return false;
+        }
+    }
+
+    private void removeOwnLeaseNodes(final Session session, final Node leaseRootNode, final String leaseNodeName)
+            throws RepositoryException {
+        session.refresh(false);
+
+        for (NodeIterator nodeIt = leaseRootNode.getNodes(leaseNodeName); nodeIt.hasNext();) {
+            final Node leaseNode = nodeIt.nextNode();
+
+            if (ownerId.equals(JcrUtils.getStringProperty(leaseNode, OWNER_PROP, null))) {
+                leaseNode.remove();
+            }
+        }
+
+        session.save();
+    }
+
+    private Node getLeaseRootNode(final Session session) throws RepositoryException {
+        if (session.nodeExists(leaseRootPath)) {
+            return session.getNode(leaseRootPath);
+        }
+
+        final String parentPath = StringUtils.defaultIfEmpty(StringUtils.substringBeforeLast(leaseRootPath, "/"), "/");
+        final Node leaseRootNode = session.getNode(parentPath)
+                .addNode(StringUtils.substringAfterLast(leaseRootPath, "/"), LEASE_NODE_TYPE);
+        session.save();
+
+        return leaseRootNode;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the latest latency samples in a bounded ring buffer to estimate the percentiles, together with the count,
+ * the total and the maximum of all the samples.
+ */
+class LatencyReservoir {
+
+    private final long[] samples;
+
+    private long count;
+
+    private long totalNanos;
+
+    private long maxNanos;
+
+    LatencyReservoir(final int size) {
+        samples = new long[Math.max(1, size)];
+    }
+
+    synchronized void record(final long nanos) {
+        samples[(int) (count % samples.length)] = nanos;
+        ++count;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    synchronized PageCopyLatencyStats toStats(final String name) {
+        final int size = (int) Math.min(count, samples.length);
+        final long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+
+        return new PageCopyLatencyStats(name, count, toMillis(totalNanos), toMillis(maxNanos),
+                toMillis(percentile(sorted, 0.50)), toMillis(percentile(sorted, 0.95)),
+                toMillis(percentile(sorted, 0.99)));
+    }
+
+    private static long percentile(final long[] sorted, final double fraction) {
+        if (sorted.length == 0) {
+            return 0L;
+        }
+
+        final int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static double toMillis(final long nanos) {
+        return nanos / 1000000.0;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Internal utility to register/unregister MBeans in the platform MBean server.
+ */
+final class MBeanRegistrationUtils {
+
+    private static final Logger log = LoggerFactory.getLogger(MBeanRegistrationUtils.class);
+
+    private MBeanRegistrationUtils() {
+    }
+
+    /**
+     * Registers the {@code mbean} with the {@code name}, replacing an existing registration with the same name if any.
+     * @param mbean MBean object
+     * @param name JMX object name
+     */
+    static void registerMBean(final Object mbean, final String name) {
+        try {
+            MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName mbeanName = new ObjectName(name);
+
+            if (mbeanServer.isRegistered(mbeanName)) {
+                mbeanServer.unregisterMBean(mbeanName);
+            }
+
+            mbeanServer.registerMBean(mbean, mbeanName);
+        } catch (Exception e) {
+            log.error("Failed to register MBean, '{}'.", name, e);
+        }
+    }
+
+    /**
+     * Unregisters the MBean registered with the {@code name} if any.
+     * @param name JMX object name
+     */
+    static void unregisterMBean(final String name) {
+        try {
+            MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName mbeanName = new ObjectName(name);
+
+            if (mbeanServer.isRegistered(mbeanName)) {
+                mbeanServer.unregisterMBean(mbeanName);
+            }
+        } catch (Exception e) {
+            log.error("Failed to unregister MBean, '{}'.", name, e);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Limits the number of the linked document copies running at the same time across all the target channels,
+ * in addition to the channel lock allowing only one on each target channel.
+ * <P>
+ * A copy beyond {@link #getMaxConcurrentCopies()} waits for admission in first-come, first-served order up to
+ * {@link #getAdmissionWaitTimeout()} milliseconds, or is rejected right away if {@link #getMaxQueuedCopies()} copies
+ * are waiting already, so a burst of page copies does not saturate the workflow engine and the repository.
+ * </P>
+ */
+public class PageCopyAdmissionController implements PageCopyAdmissionControllerMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PageCopyAdmissionController.class);
+
+    /**
+     * Default maximum number of the linked document copies running at the same time.
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_COPIES = 4;
+
+    /**
+     * Default maximum number of the linked document copies waiting for admission.
+     */
+    public static final int DEFAULT_MAX_QUEUED_COPIES = 20;
+
+    /**
+     * Default maximum time in milliseconds to wait for admission.
+     */
+    public static final long DEFAULT_ADMISSION_WAIT_TIMEOUT = 30000L;
+
+    private int maxConcurrentCopies = DEFAULT_MAX_CONCURRENT_COPIES;
+
+    private Semaphore permits = new Semaphore(DEFAULT_MAX_CONCURRENT_COPIES, true);
+
+    private volatile int maxQueuedCopies = DEFAULT_MAX_QUEUED_COPIES;
+
+    private volatile long admissionWaitTimeout = DEFAULT_ADMISSION_WAIT_TIMEOUT;
+
+    private final AtomicInteger activeCopyCount = new AtomicInteger();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final AtomicLong admittedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong timedOutCount = new AtomicLong();
+    private final AtomicLong totalWaitTime = new AtomicLong();
+    private final AtomicLong maxWaitTime = new AtomicLong();
+
+    @Override
+    public int getMaxConcurrentCopies() {
+        return maxConcurrentCopies;
+    }
+
+    /**
+     * Sets the maximum number of the linked document copies running at the same time. It is meant to be set on
+     * configuration only, before any copy is admitted.
+     * @param maxConcurrentCopies the maximum number of the linked document copies running at the same time
+     */
+    public void setMaxConcurrentCopies(int maxConcurrentCopies) {
+        this.maxConcurrentCopies = maxConcurrentCopies;
+        permits = new Semaphore(maxConcurrentCopies, true);
+    }
+
+    @Override
+    public int getMaxQueuedCopies() {
+        return maxQueuedCopies;
+    }
+
+    @Override
+    public void setMaxQueuedCopies(int maxQueuedCopies) {
+        this.maxQueuedCopies = maxQueuedCopies;
+    }
+
+    @Override
+    public long getAdmissionWaitTimeout() {
+        return admissionWaitTimeout;
+    }
+
+    @Override
+    public void setAdmissionWaitTimeout(long admissionWaitTimeout) {
+        this.admissionWaitTimeout = admissionWaitTimeout;
+    }
+
+    /**
+     * Tries to admit a linked document copy, waiting up to {@link #getAdmissionWaitTimeout()} milliseconds if
+     * the maximum number of copies are running already.
+     * @param channelKey channel key such as target content base path, for logging
+     * @return true if admitted, false if rejected because the queue is full or the admission wait timeout elapsed
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public boolean tryAcquire(final String channelKey) throws InterruptedException {
+        // a zero timeout honors the fairness setting, unlike the untimed tryAcquire()
+        if (permits.tryAcquire(0L, TimeUnit.MILLISECONDS)) {
+            admitted(0L);
+            return true;
+        }
+
+        final int depth = queueDepth.incrementAndGet();
+
+        if (depth > maxQueuedCopies) {
+            queueDepth.decrementAndGet();
+            rejectedCount.incrementAndGet();
+            log.warn("Rejected copying documents to '{}' because {} copies are waiting for admission already.",
+                    channelKey, maxQueuedCopies);
+            return false;
+        }
+
+        maxQueueDepth.accumulateAndGet(depth, Math::max);
+        final long waitStart = System.currentTimeMillis();
+        boolean acquired = false;
+
+        try {
+            acquired = permits.tryAcquire(admissionWaitTimeout, TimeUnit.MILLISECONDS);
+        } finally {
+            queueDepth.decrementAndGet();
+        }
+
+        if (!acquired) {
+            timedOutCount.incrementAndGet();
+            log.warn("Timed out after {}ms in waiting for admission to copy documents to '{}'.", admissionWaitTimeout,
+                    channelKey);
+            return false;
+        }
+
+        final long waitTime = System.currentTimeMillis() - waitStart;
+        admitted(waitTime);
+        log.debug("Admitted copying documents to '{}' after waiting {}ms.", channelKey, waitTime);
+
+        return true;
+    }
+
+    /**
+     * Releases the admission acquired by {@link #tryAcquire(String)}.
+     */
+    public void release() {
+        activeCopyCount.decrementAndGet();
+        permits.release();
+    }
+
+    @Override
+    public int getActiveCopyCount() {
+        return activeCopyCount.get();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    @Override
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    @Override
+    public long getAdmittedCount() {
+        return admittedCount.get();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    @Override
+    public long getTimedOutCount() {
+        return timedOutCount.get();
+    }
+
+    @Override
+    public double getAverageWaitTime() {
+        final long count = admittedCount.get();
+        return (count > 0L) ? (double) totalWaitTime.get() / count : 0.0;
+    }
+
+    @Override
+    public long getMaxWaitTime() {
+        return maxWaitTime.get();
+    }
+
+    private void admitted(final long waitTime) {
+        activeCopyCount.incrementAndGet();
+        admittedCount.incrementAndGet();
+        totalWaitTime.addAndGet(waitTime);
+        maxWaitTime.accumulateAndGet(waitTime, Math::max);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+/**
+ * Management interface of {@link PageCopyAdmissionController} as deployed as JMX MBean.
+ */
+public interface PageCopyAdmissionControllerMXBean {
+
+    /**
+     * JMX MBean name to be used.
+     */
+    String NAME = "org.onehippo.forge.channelmanager.pagesupport.channel.event:type=PageCopyAdmissionControllerMXBean";
+
+    /**
+     * Returns the maximum number of the linked document copies running at the same time across all the channels.
+     * @return the maximum number of the linked document copies running at the same time
+     */
+    int getMaxConcurrentCopies();
+
+    /**
+     * Returns the maximum number of the linked document copies waiting for admission.
+     * @return the maximum number of the linked document copies waiting for admission
+     */
+    int getMaxQueuedCopies();
+
+    /**
+     * Sets the maximum number of the linked document copies waiting for admission.
+     * @param maxQueuedCopies the maximum number of the linked document copies waiting for admission
+     */
+    void setMaxQueuedCopies(int maxQueuedCopies);
+
+    /**
+     * Returns the maximum time in milliseconds to wait for admission.
+     * @return the maximum time in milliseconds to wait for admission
+     */
+    long getAdmissionWaitTimeout();
+
+    /**
+     * Sets the maximum time in milliseconds to wait for admission.
+     * @param admissionWaitTimeout the maximum time in milliseconds to wait for admission
+     */
+    void setAdmissionWaitTimeout(long admissionWaitTimeout);
+
+    /**
+     * Returns the number of the linked document copies currently running.
+     * @return the number of the linked document copies currently running
+     */
+    int getActiveCopyCount();
+
+    /**
+     * Returns the number of the linked document copies currently waiting for admission.
+     * @return the number of the linked document copies currently waiting for admission
+     */
+    int getQueueDepth();
+
+    /**
+     * Returns the maximum number of the linked document copies which waited for admission at the same time.
+     * @return the maximum number of the linked document copies which waited for admission at the same time
+     */
+    int getMaxQueueDepth();
+
+    /**
+     * Returns the number of the admitted linked document copies.
+     * @return the number of the admitted linked document copies
+     */
+    long getAdmittedCount();
+
+    /**
+     * Returns the number of the linked document copies rejected right away because the queue was full.
+     * @return the number of the linked document copies rejected right away because the queue was full
+     */
+    long getRejectedCount();
+
+    /**
+     * Returns the number of the linked document copies given up after the admission wait timeout.
+     * @return the number of the linked document copies given up after the admission wait timeout
+     */
+    long getTimedOutCount();
+
+    /**
+     * Returns the average time in milliseconds spent on waiting for admission.
+     * @return the average time in milliseconds spent on waiting for admission
+     */
+    double getAverageWaitTime();
+
+    /**
+     * Returns the maximum time in milliseconds spent on waiting for admission.
+     * @return the maximum time in milliseconds spent on waiting for admission
+     */
+    long getMaxWaitTime();
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Page copy statistics of a target channel, as exposed through {@link PageCopyMetricsMXBean}.
+ */
+public class PageCopyChannelStats {
+
+    private final String targetContentBasePath;
+    private final long pageCopyCount;
+    private final long failedPageCopyCount;
+    private final long translatedDocumentCount;
+    private final long createdFolderCount;
+    private final PageCopyLatencyStats latency;
+
+    @ConstructorProperties({ "targetContentBasePath", "pageCopyCount", "failedPageCopyCount",
+            "translatedDocumentCount", "createdFolderCount", "latency" })
+    public PageCopyChannelStats(final String targetContentBasePath, final long pageCopyCount,
+            final long failedPageCopyCount, final long translatedDocumentCount, final long createdFolderCount,
+            final PageCopyLatencyStats latency) {
+        this.targetContentBasePath = targetContentBasePath;
+        this.pageCopyCount = pageCopyCount;
+        this.failedPageCopyCount = failedPageCopyCount;
+        this.translatedDocumentCount = translatedDocumentCount;
+        this.createdFolderCount = createdFolderCount;
+        this.latency = latency;
+    }
+
+    public String getTargetContentBasePath() {
+        return targetContentBasePath;
+    }
+
+    public long getPageCopyCount() {
+        return pageCopyCount;
+    }
+
+    public long getFailedPageCopyCount() {
+        return failedPageCopyCount;
+    }
+
+    public long getTranslatedDocumentCount() {
+        return translatedDocumentCount;
+    }
+
+    public long getCreatedFolderCount() {
+        return createdFolderCount;
+    }
+
+    /**
+     * Returns the latency statistics of the whole page copies to the target channel.
+     * @return the latency statistics of the whole page copies to the target channel
+     */
+    public PageCopyLatencyStats getLatency() {
+        return latency;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background page copy job, executed by {@link PageCopyJobManager}, keeping track of its state and progress.
+ */
+public class PageCopyJob {
+
+    /**
+     * Page copy job states.
+     */
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    /**
+     * Task to be executed in a page copy job.
+     */
+    @FunctionalInterface
+    public interface Task {
+
+        /**
+         * Executes the task, reporting its progress to the {@code job}.
+         * @param job page copy job executing this task
+         * @throws Exception if the task fails
+         */
+        void execute(PageCopyJob job) throws Exception;
+
+    }
+
+    private final String jobId = UUID.randomUUID().toString();
+
+    private final String description;
+
+    private final long submittedTime = System.currentTimeMillis();
+
+    private volatile State state = State.QUEUED;
+
+    private volatile int totalSteps;
+
+    private final AtomicInteger completedSteps = new AtomicInteger();
+
+    private volatile long startedTime;
+
+    private volatile long finishedTime;
+
+    private volatile String errorMessage;
+
+    PageCopyJob(final String description) {
+        this.description = description;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+
+    public int getTotalSteps() {
+        return totalSteps;
+    }
+
+    /**
+     * Sets the total number of steps of this job, to report the progress.
+     * @param totalSteps the total number of steps
+     */
+    public void setTotalSteps(int totalSteps) {
+        this.totalSteps = totalSteps;
+    }
+
+    public int getCompletedSteps() {
+        return completedSteps.get();
+    }
+
+    /**
+     * Increments the number of the completed steps of this job.
+     */
+    public void stepCompleted() {
+        completedSteps.incrementAndGet();
+    }
+
+    public long getSubmittedTime() {
+        return submittedTime;
+    }
+
+    public long getStartedTime() {
+        return startedTime;
+    }
+
+    public long getFinishedTime() {
+        return finishedTime;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    /**
+     * Returns a status snapshot of this job.
+     * @return a status snapshot of this job
+     */
+    public PageCopyJobStatus toStatus() {
+        return new PageCopyJobStatus(jobId, description, state.name(), totalSteps, completedSteps.get(), submittedTime,
+                startedTime, finishedTime, errorMessage);
+    }
+
+    void started() {
+        startedTime = System.currentTimeMillis();
+        state = State.RUNNING;
+    }
+
+    void completed() {
+        finishedTime = System.currentTimeMillis();
+        state = State.COMPLETED;
+    }
+
+    void failed(final Throwable th) {
+        errorMessage = th.toString();
+        finishedTime = System.currentTimeMillis();
+        state = State.FAILED;
+    }
+
+    @Override
+    public String toString() {
+        return "PageCopyJob[" + jobId + ", " + description + ", " + state + ", " + completedSteps.get() + "/"
+                + totalSteps + "]";
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes {@link PageCopyJob}s on a bounded pool of background worker threads,
+ * and keeps the queued, running and recently finished jobs to be queried by job ID.
+ */
+public class PageCopyJobManager implements PageCopyJobManagerMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PageCopyJobManager.class);
+
+    /**
+     * Default number of the worker threads.
+     */
+    public static final int DEFAULT_WORKER_COUNT = 2;
+
+    /**
+     * Default maximum number of the jobs waiting in the queue.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 100;
+
+    /**
+     * Default maximum number of the finished jobs to keep.
+     */
+    public static final int DEFAULT_MAX_FINISHED_JOBS = 1000;
+
+    private int workerCount = DEFAULT_WORKER_COUNT;
+
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+    private int maxFinishedJobs = DEFAULT_MAX_FINISHED_JOBS;
+
+    private final Map<String, PageCopyJob> jobs = new LinkedHashMap<>();
+
+    private final AtomicLong completedJobCount = new AtomicLong();
+    private final AtomicLong failedJobCount = new AtomicLong();
+    private final AtomicLong rejectedJobCount = new AtomicLong();
+
+    private ThreadPoolExecutor executor;
+
+    public void init() {
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ThreadFactory threadFactory = runnable -> {
+            final Thread thread = new Thread(runnable, "channel-pagesup-page-copy-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        executor = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory);
+    }
+
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    @Override
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    public void setWorkerCount(int workerCount) {
+        this.workerCount = workerCount;
+    }
+
+    @Override
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getMaxFinishedJobs() {
+        return maxFinishedJobs;
+    }
+
+    public void setMaxFinishedJobs(int maxFinishedJobs) {
+        this.maxFinishedJobs = maxFinishedJobs;
+    }
+
+    /**
+     * Submits a new job executing the {@code task} in the background.
+     * @param description job description
+     * @param task task to execute
+     * @return the submitted job
+     * @throws RejectedExecutionException if the job queue is full or this manager is not initialized
+     */
+    public PageCopyJob submit(final String description, final PageCopyJob.Task task) {
+        if (executor == null) {
+            throw new RejectedExecutionException("Page copy job manager is not initialized.");
+        }
+
+        final PageCopyJob job = new PageCopyJob(description);
+
+        synchronized (jobs) {
+            jobs.put(job.getJobId(), job);
+            evictFinishedJobs();
+        }
+
+        try {
+            executor.execute(() -> execute(job, task));
+        } catch (RejectedExecutionException e) {
+            rejectedJobCount.incrementAndGet();
+
+            synchronized (jobs) {
+                jobs.remove(job.getJobId());
+            }
+
+            throw e;
+        }
+
+        log.info("Submitted page copy job: {}", job);
+
+        return job;
+    }
+
+    /**
+     * Returns the job by the {@code jobId}, or null if not found.
+     * @param jobId job ID
+     * @return the job by the {@code jobId}, or null if not found
+     */
+    public PageCopyJob getJob(final String jobId) {
+        synchronized (jobs) {
+            return jobs.get(jobId);
+        }
+    }
+
+    @Override
+    public PageCopyJobStatus getJobStatus(final String jobId) {
+        final PageCopyJob job = getJob(jobId);
+        return (job != null) ? job.toStatus() : null;
+    }
+
+    @Override
+    public PageCopyJobStatus[] getJobStatuses() {
+        final List<PageCopyJobStatus> statuses = new ArrayList<>();
+
+        synchronized (jobs) {
+            for (PageCopyJob job : jobs.values()) {
+                statuses.add(job.toStatus());
+            }
+        }
+
+        return statuses.toArray(new PageCopyJobStatus[statuses.size()]);
+    }
+
+    @Override
+    public int getActiveJobCount() {
+        return (executor != null) ? executor.getActiveCount() : 0;
+    }
+
+    @Override
+    public int getQueuedJobCount() {
+        return (executor != null) ? executor.getQueue().size() : 0;
+    }
+
+    @Override
+    public long getCompletedJobCount() {
+        return completedJobCount.get();
+    }
+
+    @Override
+    public long getFailedJobCount() {
+        return failedJobCount.get();
+    }
+
+    @Override
+    public long getRejectedJobCount() {
+        return rejectedJobCount.get();
+    }
+
+    private void execute(final PageCopyJob job, final PageCopyJob.Task task) {
+        job.started();
+        log.info("Starting page copy job: {}", job);
+
+        try {
+            task.execute(job);
+            job.completed();
+            completedJobCount.incrementAndGet();
+            log.info("Completed page copy job in {}ms: {}", job.getFinishedTime() - job.getStartedTime(), job);
+        } catch (Exception e) {
+            job.failed(e);
+            failedJobCount.incrementAndGet();
+            log.error("Failed page copy job: {}", job, e);
+        }
+    }
+
+    private void evictFinishedJobs() {
+        int finishedJobCount = 0;
+
+        for (PageCopyJob job : jobs.values()) {
+            if (job.isFinished()) {
+                ++finishedJobCount;
+            }
+        }
+
+        for (Iterator<PageCopyJob> it = jobs.values().iterator(); it.hasNext() && finishedJobCount > maxFinishedJobs;) {
+            if (it.next().isFinished()) {
+                it.remove();
+                --finishedJobCount;
+            }
+        }
+    }
+}
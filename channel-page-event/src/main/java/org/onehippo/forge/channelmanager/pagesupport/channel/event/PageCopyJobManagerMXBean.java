@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+/**
+ * Management interface of {@link PageCopyJobManager} as deployed as JMX MBean.
+ */
+public interface PageCopyJobManagerMXBean {
+
+    /**
+     * JMX MBean name to be used.
+     */
+    String NAME = "org.onehippo.forge.channelmanager.pagesupport.channel.event:type=PageCopyJobManagerMXBean";
+
+    /**
+     * Returns the status of the job by the {@code jobId}, or null if not found.
+     * @param jobId job ID
+     * @return the status of the job by the {@code jobId}, or null if not found
+     */
+    PageCopyJobStatus getJobStatus(String jobId);
+
+    /**
+     * Returns the statuses of all the queued, running and recently finished jobs.
+     * @return the statuses of all the queued, running and recently finished jobs
+     */
+    PageCopyJobStatus[] getJobStatuses();
+
+    /**
+     * Returns the number of the worker threads.
+     * @return the number of the worker threads
+     */
+    int getWorkerCount();
+
+    /**
+     * Returns the maximum number of the jobs waiting in the queue.
+     * @return the maximum number of the jobs waiting in the queue
+     */
+    int getQueueCapacity();
+
+    /**
+     * Returns the number of the jobs currently running.
+     * @return the number of the jobs currently running
+     */
+    int getActiveJobCount();
+
+    /**
+     * Returns the number of the jobs waiting in the queue.
+     * @return the number of the jobs waiting in the queue
+     */
+    int getQueuedJobCount();
+
+    /**
+     * Returns the number of the completed jobs.
+     * @return the number of the completed jobs
+     */
+    long getCompletedJobCount();
+
+    /**
+     * Returns the number of the failed jobs.
+     * @return the number of the failed jobs
+     */
+    long getFailedJobCount();
+
+    /**
+     * Returns the number of the jobs rejected because the queue was full.
+     * @return the number of the jobs rejected because the queue was full
+     */
+    long getRejectedJobCount();
+
+}
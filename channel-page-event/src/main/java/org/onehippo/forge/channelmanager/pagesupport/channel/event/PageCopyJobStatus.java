@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Immutable status snapshot of a {@link PageCopyJob}, as exposed through {@link PageCopyJobManagerMXBean}.
+ */
+public class PageCopyJobStatus {
+
+    private final String jobId;
+    private final String description;
+    private final String state;
+    private final int totalSteps;
+    private final int completedSteps;
+    private final long submittedTime;
+    private final long startedTime;
+    private final long finishedTime;
+    private final String errorMessage;
+
+    @ConstructorProperties({ "jobId", "description", "state", "totalSteps", "completedSteps", "submittedTime",
+            "startedTime", "finishedTime", "errorMessage" })
+    public PageCopyJobStatus(final String jobId, final String description, final String state, final int totalSteps,
+            final int completedSteps, final long submittedTime, final long startedTime, final long finishedTime,
+            final String errorMessage) {
+        this.jobId = jobId;
+        this.description = description;
+        this.state = state;
+        this.totalSteps = totalSteps;
+        this.completedSteps = completedSteps;
+        this.submittedTime = submittedTime;
+        this.startedTime = startedTime;
+        this.finishedTime = finishedTime;
+        this.errorMessage = errorMessage;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public int getTotalSteps() {
+        return totalSteps;
+    }
+
+    public int getCompletedSteps() {
+        return completedSteps;
+    }
+
+    public long getSubmittedTime() {
+        return submittedTime;
+    }
+
+    public long getStartedTime() {
+        return startedTime;
+    }
+
+    public long getFinishedTime() {
+        return finishedTime;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
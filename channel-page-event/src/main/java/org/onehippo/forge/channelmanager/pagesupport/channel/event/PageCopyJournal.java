@@ -0,0 +1,233 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hippoecm.hst.configuration.components.HstComponentConfiguration;
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Journal of the completed steps of the unfinished page copies, keyed by the source page and the target mount,
+ * so a retry after a partial failure resumes from where the previous attempt stopped.
+ * <P>
+ * An entry records the target folders created, the documents translated but not committed yet and the linked
+ * documents completed. A retry skips the completed documents without any lookup, commits the documents translated
+ * but not committed, and resolves the created folders without any lookup. An entry is removed when the page copy
+ * completes, or expires after {@link #getTimeToLive()} since its last update.
+ * </P>
+ */
+public class PageCopyJournal implements PageCopyJournalMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PageCopyJournal.class);
+
+    /**
+     * Default time in milliseconds to keep a journal entry after its last update.
+     */
+    public static final long DEFAULT_TIME_TO_LIVE = 60L * 60L * 1000L;
+
+    /**
+     * Default maximum number of the journal entries.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private long timeToLive = DEFAULT_TIME_TO_LIVE;
+
+    private int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    @Override
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    @Override
+    public void setTimeToLive(long timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the journal entry of copying the {@code sourcePage} to the {@code targetMount}, creating one if not
+     * found or expired.
+     * @param sourcePage source page component configuration
+     * @param targetMount target mount
+     * @return the journal entry of copying the {@code sourcePage} to the {@code targetMount}
+     */
+    Entry getEntry(final HstComponentConfiguration sourcePage, final Mount targetMount) {
+        evictExpiredEntries();
+
+        final String key = sourcePage.getCanonicalIdentifier() + " -> " + targetMount.getIdentifier();
+        final Entry entry = entries.get(key);
+
+        if (entry != null) {
+            log.info("Resuming the page copy from the journal: {}", entry);
+            return entry;
+        }
+
+        if (entries.size() >= maxEntries) {
+            evictOldestEntry();
+        }
+
+        return entries.computeIfAbsent(key, Entry::new);
+    }
+
+    /**
+     * Removes the journal entry of the completed page copy.
+     * @param entry journal entry
+     */
+    void completed(final Entry entry) {
+        entries.remove(entry.getKey(), entry);
+    }
+
+    @Override
+    public String[] getEntries() {
+        final List<String> descriptions = new ArrayList<>();
+
+        for (Entry entry : entries.values()) {
+            descriptions.add(entry.toString());
+        }
+
+        return descriptions.toArray(new String[descriptions.size()]);
+    }
+
+    @Override
+    public int getEntryCount() {
+        return entries.size();
+    }
+
+    @Override
+    public void removeEntry(final String key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+    }
+
+    private void evictExpiredEntries() {
+        final long expiryTime = System.currentTimeMillis() - timeToLive;
+
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext();) {
+            if (it.next().getLastUpdatedTime() < expiryTime) {
+                it.remove();
+            }
+        }
+    }
+
+    private void evictOldestEntry() {
+        Entry oldest = null;
+
+        for (Entry entry : entries.values()) {
+            if (oldest == null || entry.getLastUpdatedTime() < oldest.getLastUpdatedTime()) {
+                oldest = entry;
+            }
+        }
+
+        if (oldest != null) {
+            entries.remove(oldest.getKey(), oldest);
+        }
+    }
+
+    /**
+     * Completed steps of a page copy, updated by the request thread, the background job and the concurrent
+     * translation workers.
+     */
+    static class Entry {
+
+        private final String key;
+
+        // source folder path -> created target folder path
+        private final Map<String, String> translatedFolderPaths = new LinkedHashMap<>();
+
+        // source document path -> translated document path not committed yet
+        private final Map<String, String> uncommittedDocumentPaths = new HashMap<>();
+
+        private final Set<String> completedDocumentPaths = new HashSet<>();
+
+        private volatile long lastUpdatedTime = System.currentTimeMillis();
+
+        Entry(final String key) {
+            this.key = key;
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        long getLastUpdatedTime() {
+            return lastUpdatedTime;
+        }
+
+        synchronized void folderTranslated(final String sourceFolderPath, final String targetFolderPath) {
+            translatedFolderPaths.put(sourceFolderPath, targetFolderPath);
+            lastUpdatedTime = System.currentTimeMillis();
+        }
+
+        synchronized Map<String, String> getTranslatedFolderPaths() {
+            return new LinkedHashMap<>(translatedFolderPaths);
+        }
+
+        synchronized void documentTranslated(final String sourceDocumentPath, final String translatedDocumentPath) {
+            uncommittedDocumentPaths.put(sourceDocumentPath, translatedDocumentPath);
+            lastUpdatedTime = System.currentTimeMillis();
+        }
+
+        synchronized String getUncommittedDocumentPath(final String sourceDocumentPath) {
+            return uncommittedDocumentPaths.get(sourceDocumentPath);
+        }
+
+        /**
+         * Records the linked document as completed, either committed after translation or skipped.
+         * @param sourceDocumentPath source document path
+         */
+        synchronized void documentCompleted(final String sourceDocumentPath) {
+            uncommittedDocumentPaths.remove(sourceDocumentPath);
+            completedDocumentPaths.add(sourceDocumentPath);
+            lastUpdatedTime = System.currentTimeMillis();
+        }
+
+        synchronized boolean isDocumentCompleted(final String sourceDocumentPath) {
+            return completedDocumentPaths.contains(sourceDocumentPath);
+        }
+
+        @Override
+        public synchronized String toString() {
+            return "PageCopyJournal.Entry[" + key + ", translatedFolders=" + translatedFolderPaths.size()
+                    + ", uncommittedDocuments=" + uncommittedDocumentPaths.size() + ", completedDocuments="
+                    + completedDocumentPaths.size() + "]";
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+/**
+ * Management interface of {@link PageCopyJournal} as deployed as JMX MBean.
+ */
+public interface PageCopyJournalMXBean {
+
+    /**
+     * JMX MBean name to be used.
+     */
+    String NAME = "org.onehippo.forge.channelmanager.pagesupport.channel.event:type=PageCopyJournalMXBean";
+
+    /**
+     * Returns the descriptions of the journal entries of the unfinished page copies.
+     * @return the descriptions of the journal entries of the unfinished page copies
+     */
+    String[] getEntries();
+
+    /**
+     * Returns the number of the journal entries.
+     * @return the number of the journal entries
+     */
+    int getEntryCount();
+
+    /**
+     * Returns the time in milliseconds to keep a journal entry after its last update.
+     * @return the time in milliseconds to keep a journal entry after its last update
+     */
+    long getTimeToLive();
+
+    /**
+     * Sets the time in milliseconds to keep a journal entry after its last update.
+     * @param timeToLive the time in milliseconds to keep a journal entry after its last update
+     */
+    void setTimeToLive(long timeToLive);
+
+    /**
+     * Removes the journal entry by the {@code key}, so the next copy of the page starts from scratch.
+     * @param key journal entry key
+     */
+    void removeEntry(String key);
+
+    /**
+     * Removes all the journal entries.
+     */
+    void clear();
+
+}
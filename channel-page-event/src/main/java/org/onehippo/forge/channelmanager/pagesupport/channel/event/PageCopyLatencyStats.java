@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Latency statistics of a page copy phase or of whole page copies, in milliseconds, as exposed through
+ * {@link PageCopyMetricsMXBean}. The percentiles are estimated from the latest samples only.
+ */
+public class PageCopyLatencyStats {
+
+    private final String name;
+    private final long count;
+    private final double totalTime;
+    private final double maxTime;
+    private final double p50;
+    private final double p95;
+    private final double p99;
+
+    @ConstructorProperties({ "name", "count", "totalTime", "maxTime", "p50", "p95", "p99" })
+    public PageCopyLatencyStats(final String name, final long count, final double totalTime, final double maxTime,
+            final double p50, final double p95, final double p99) {
+        this.name = name;
+        this.count = count;
+        this.totalTime = totalTime;
+        this.maxTime = maxTime;
+        this.p50 = p50;
+        this.p95 = p95;
+        this.p99 = p99;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getTotalTime() {
+        return totalTime;
+    }
+
+    public double getMaxTime() {
+        return maxTime;
+    }
+
+    public double getP50() {
+        return p50;
+    }
+
+    public double getP95() {
+        return p95;
+    }
+
+    public double getP99() {
+        return p99;
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects the time spent on each phase of page copies, the linked document and folder counts and the page copy
+ * latencies per target channel, and logs the phase breakdown of a page copy exceeding
+ * {@link #getSlowCopyThreshold()}.
+ * <P>
+ * The latency of a page copy is measured from the start of the page copy event handling to the completion of the
+ * linked document copying, including the time waiting in the queue if copied in a background job.
+ * </P>
+ */
+public class PageCopyMetrics implements PageCopyMetricsMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PageCopyMetrics.class);
+
+    /**
+     * Default number of the latest samples kept to estimate the latency percentiles.
+     */
+    public static final int DEFAULT_RESERVOIR_SIZE = 1024;
+
+    /**
+     * Phases of a page copy.
+     */
+    public enum Phase {
+        /**
+         * Resolving the component configurations of the source page present in the target channel already.
+         */
+        FILTER,
+        /**
+         * Scanning the document parameters of the source page components.
+         */
+        SCAN,
+        /**
+         * Looking up the translated folders and documents in the target channel.
+         */
+        TRANSLATION_LOOKUP,
+        /**
+         * Creating the missing target folders by the folder workflow.
+         */
+        FOLDER_CREATION,
+        /**
+         * Translating and committing the linked documents by the document workflow.
+         */
+        DOCUMENT_TRANSLATION,
+        /**
+         * Updating the document parameters of the new page.
+         */
+        HST_UPDATE
+    }
+
+    private int reservoirSize = DEFAULT_RESERVOIR_SIZE;
+
+    private volatile long slowCopyThreshold;
+
+    private volatile Statistics statistics = new Statistics(reservoirSize);
+
+    public int getReservoirSize() {
+        return reservoirSize;
+    }
+
+    public void setReservoirSize(int reservoirSize) {
+        this.reservoirSize = reservoirSize;
+        statistics = new Statistics(reservoirSize);
+    }
+
+    @Override
+    public long getSlowCopyThreshold() {
+        return slowCopyThreshold;
+    }
+
+    @Override
+    public void setSlowCopyThreshold(long slowCopyThreshold) {
+        this.slowCopyThreshold = slowCopyThreshold;
+    }
+
+    /**
+     * Records the completed page copy traced by the {@code trace}.
+     * @param trace page copy trace
+     * @param succeeded whether or not the page copy succeeded
+     */
+    void pageCopyCompleted(final PageCopyTrace trace, final boolean succeeded) {
+        final long elapsedNanos = trace.getElapsedNanos();
+        final Statistics stats = statistics;
+        final ChannelStatistics channelStats = stats.getChannelStatistics(trace.getTargetContentBasePath());
+
+        stats.pageCopyCount.incrementAndGet();
+        channelStats.pageCopyCount.incrementAndGet();
+
+        if (!succeeded) {
+            stats.failedPageCopyCount.incrementAndGet();
+            channelStats.failedPageCopyCount.incrementAndGet();
+        }
+
+        stats.pageCopyLatency.record(elapsedNanos);
+        channelStats.latency.record(elapsedNanos);
+
+        for (Map.Entry<Phase, Long> entry : trace.getPhaseNanos().entrySet()) {
+            stats.phaseLatencies.get(entry.getKey()).record(entry.getValue());
+        }
+
+        for (Map.Entry<PageCopyPlan.SkipReason, Integer> entry : trace.getSkippedDocumentCounts().entrySet()) {
+            stats.skippedDocumentCounts.get(entry.getKey()).addAndGet(entry.getValue());
+        }
+
+        stats.scannedDocumentCount.addAndGet(trace.getScannedDocumentCount());
+        stats.translatedDocumentCount.addAndGet(trace.getTranslatedDocumentCount());
+        stats.createdFolderCount.addAndGet(trace.getCreatedFolderCount());
+        channelStats.translatedDocumentCount.addAndGet(trace.getTranslatedDocumentCount());
+        channelStats.createdFolderCount.addAndGet(trace.getCreatedFolderCount());
+
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+
+        if (slowCopyThreshold > 0L && elapsedMillis >= slowCopyThreshold) {
+            log.warn("Slow page copy took {}ms (succeeded: {}): {}", elapsedMillis, succeeded, trace);
+        }
+    }
+
+    @Override
+    public long getPageCopyCount() {
+        return statistics.pageCopyCount.get();
+    }
+
+    @Override
+    public long getFailedPageCopyCount() {
+        return statistics.failedPageCopyCount.get();
+    }
+
+    @Override
+    public long getScannedDocumentCount() {
+        return statistics.scannedDocumentCount.get();
+    }
+
+    @Override
+    public long getTranslatedDocumentCount() {
+        return statistics.translatedDocumentCount.get();
+    }
+
+    @Override
+    public long getCreatedFolderCount() {
+        return statistics.createdFolderCount.get();
+    }
+
+    @Override
+    public Map<String, Long> getSkippedDocumentCounts() {
+        final Map<String, Long> counts = new LinkedHashMap<>();
+
+        for (Map.Entry<PageCopyPlan.SkipReason, AtomicLong> entry : statistics.skippedDocumentCounts.entrySet()) {
+            counts.put(entry.getKey().name(), entry.getValue().get());
+        }
+
+        return counts;
+    }
+
+    @Override
+    public PageCopyLatencyStats getPageCopyLatency() {
+        return statistics.pageCopyLatency.toStats("PAGE_COPY");
+    }
+
+    @Override
+    public PageCopyLatencyStats[] getPhaseLatencies() {
+        final List<PageCopyLatencyStats> latencies = new ArrayList<>();
+
+        for (Map.Entry<Phase, LatencyReservoir> entry : statistics.phaseLatencies.entrySet()) {
+            latencies.add(entry.getValue().toStats(entry.getKey().name()));
+        }
+
+        return latencies.toArray(new PageCopyLatencyStats[latencies.size()]);
+    }
+
+    @Override
+    public PageCopyChannelStats[] getChannelStats() {
+        final List<PageCopyChannelStats> channelStatsList = new ArrayList<>();
+
+        for (Map.Entry<String, ChannelStatistics> entry : statistics.channelStatistics.entrySet()) {
+            final ChannelStatistics channelStats = entry.getValue();
+            channelStatsList.add(new PageCopyChannelStats(entry.getKey(), channelStats.pageCopyCount.get(),
+                    channelStats.failedPageCopyCount.get(), channelStats.translatedDocumentCount.get(),
+                    channelStats.createdFolderCount.get(), channelStats.latency.toStats(entry.getKey())));
+        }
+
+        return channelStatsList.toArray(new PageCopyChannelStats[channelStatsList.size()]);
+    }
+
+    @Override
+    public void resetStatistics() {
+        statistics = new Statistics(reservoirSize);
+    }
+
+    private static class Statistics {
+
+        private final int reservoirSize;
+        private final AtomicLong pageCopyCount = new AtomicLong();
+        private final AtomicLong failedPageCopyCount = new AtomicLong();
+        private final AtomicLong scannedDocumentCount = new AtomicLong();
+        private final AtomicLong translatedDocumentCount = new AtomicLong();
+        private final AtomicLong createdFolderCount = new AtomicLong();
+        private final Map<PageCopyPlan.SkipReason, AtomicLong> skippedDocumentCounts =
+                new EnumMap<>(PageCopyPlan.SkipReason.class);
+        private final LatencyReservoir pageCopyLatency;
+        private final Map<Phase, LatencyReservoir> phaseLatencies = new EnumMap<>(Phase.class);
+        private final Map<String, ChannelStatistics> channelStatistics = new ConcurrentHashMap<>();
+
+        private Statistics(final int reservoirSize) {
+            this.reservoirSize = reservoirSize;
+            pageCopyLatency = new LatencyReservoir(reservoirSize);
+
+            for (PageCopyPlan.SkipReason reason : PageCopyPlan.SkipReason.values()) {
+                skippedDocumentCounts.put(reason, new AtomicLong());
+            }
+
+            for (Phase phase : Phase.values()) {
+                phaseLatencies.put(phase, new LatencyReservoir(reservoirSize));
+            }
+        }
+
+        private ChannelStatistics getChannelStatistics(final String targetContentBasePath) {
+            return channelStatistics.computeIfAbsent(targetContentBasePath,
+                    key -> new ChannelStatistics(reservoirSize));
+        }
+    }
+
+    private static class ChannelStatistics {
+
+        private final AtomicLong pageCopyCount = new AtomicLong();
+        private final AtomicLong failedPageCopyCount = new AtomicLong();
+        private final AtomicLong translatedDocumentCount = new AtomicLong();
+        private final AtomicLong createdFolderCount = new AtomicLong();
+        private final LatencyReservoir latency;
+
+        private ChannelStatistics(final int reservoirSize) {
+            latency = new LatencyReservoir(reservoirSize);
+        }
+    }
+}
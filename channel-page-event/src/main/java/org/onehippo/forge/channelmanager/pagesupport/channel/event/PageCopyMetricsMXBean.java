@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link PageCopyMetrics} as deployed as JMX MBean.
+ */
+public interface PageCopyMetricsMXBean {
+
+    /**
+     * JMX MBean name to be used.
+     */
+    String NAME = "org.onehippo.forge.channelmanager.pagesupport.channel.event:type=PageCopyMetricsMXBean";
+
+    /**
+     * Returns the number of the completed page copies, including the failed ones.
+     * @return the number of the completed page copies
+     */
+    long getPageCopyCount();
+
+    /**
+     * Returns the number of the failed page copies.
+     * @return the number of the failed page copies
+     */
+    long getFailedPageCopyCount();
+
+    /**
+     * Returns the number of the linked documents found by scanning the source pages.
+     * @return the number of the linked documents found by scanning the source pages
+     */
+    long getScannedDocumentCount();
+
+    /**
+     * Returns the number of the translated documents.
+     * @return the number of the translated documents
+     */
+    long getTranslatedDocumentCount();
+
+    /**
+     * Returns the number of the created target folders.
+     * @return the number of the created target folders
+     */
+    long getCreatedFolderCount();
+
+    /**
+     * Returns the number of the skipped linked documents by the skip reason.
+     * @return the number of the skipped linked documents by the skip reason
+     */
+    Map<String, Long> getSkippedDocumentCounts();
+
+    /**
+     * Returns the latency statistics of the whole page copies.
+     * @return the latency statistics of the whole page copies
+     */
+    PageCopyLatencyStats getPageCopyLatency();
+
+    /**
+     * Returns the latency statistics of each page copy phase.
+     * @return the latency statistics of each page copy phase
+     */
+    PageCopyLatencyStats[] getPhaseLatencies();
+
+    /**
+     * Returns the page copy statistics of each target channel.
+     * @return the page copy statistics of each target channel
+     */
+    PageCopyChannelStats[] getChannelStats();
+
+    /**
+     * Returns the threshold in milliseconds over which a page copy is logged with its phase breakdown,
+     * or zero if disabled.
+     * @return the slow page copy threshold in milliseconds
+     */
+    long getSlowCopyThreshold();
+
+    /**
+     * Sets the threshold in milliseconds over which a page copy is logged with its phase breakdown.
+     * Zero disables it.
+     * @param slowCopyThreshold the slow page copy threshold in milliseconds
+     */
+    void setSlowCopyThreshold(long slowCopyThreshold);
+
+    /**
+     * Resets all the statistics.
+     */
+    void resetStatistics();
+
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.beans.ConstructorProperties;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable plan of copying the linked documents of a page to a target channel, computed without any write,
+ * as exposed through {@link PageCopyPlannerMXBean}.
+ */
+public class PageCopyPlan {
+
+    /**
+     * Reasons why a linked document is not translated.
+     */
+    public enum SkipReason {
+        ABSOLUTE_PATH, NOT_FOUND, NOT_A_DOCUMENT, ALREADY_TRANSLATED, ALREADY_EXISTS, CANNOT_BE_COPIED
+    }
+
+    private final String sourcePage;
+    private final String sourceContentBasePath;
+    private final String targetContentBasePath;
+    private final String[] documentsToTranslate;
+    private final String[] foldersToCreate;
+    private final SkippedDocument[] skippedDocuments;
+    private final ParameterRewrite[] parameterRewrites;
+    private final int estimatedWorkflowCallCount;
+    private final long planningTime;
+
+    @ConstructorProperties({ "sourcePage", "sourceContentBasePath", "targetContentBasePath", "documentsToTranslate",
+            "foldersToCreate", "skippedDocuments", "parameterRewrites", "estimatedWorkflowCallCount", "planningTime" })
+    public PageCopyPlan(final String sourcePage, final String sourceContentBasePath,
+            final String targetContentBasePath, final String[] documentsToTranslate, final String[] foldersToCreate,
+            final SkippedDocument[] skippedDocuments, final ParameterRewrite[] parameterRewrites,
+            final int estimatedWorkflowCallCount, final long planningTime) {
+        this.sourcePage = sourcePage;
+        this.sourceContentBasePath = sourceContentBasePath;
+        this.targetContentBasePath = targetContentBasePath;
+        this.documentsToTranslate = documentsToTranslate;
+        this.foldersToCreate = foldersToCreate;
+        this.skippedDocuments = skippedDocuments;
+        this.parameterRewrites = parameterRewrites;
+        this.estimatedWorkflowCallCount = estimatedWorkflowCallCount;
+        this.planningTime = planningTime;
+    }
+
+    public String getSourcePage() {
+        return sourcePage;
+    }
+
+    public String getSourceContentBasePath() {
+        return sourceContentBasePath;
+    }
+
+    public String getTargetContentBasePath() {
+        return targetContentBasePath;
+    }
+
+    /**
+     * Returns the source document handle paths to translate.
+     * @return the source document handle paths to translate
+     */
+    public String[] getDocumentsToTranslate() {
+        return documentsToTranslate;
+    }
+
+    /**
+     * Returns the target folder paths to create, in the order of creation.
+     * @return the target folder paths to create
+     */
+    public String[] getFoldersToCreate() {
+        return foldersToCreate;
+    }
+
+    public SkippedDocument[] getSkippedDocuments() {
+        return skippedDocuments;
+    }
+
+    /**
+     * Returns the document parameter value rewrites in the new page.
+     * @return the document parameter value rewrites in the new page
+     */
+    public ParameterRewrite[] getParameterRewrites() {
+        return parameterRewrites;
+    }
+
+    /**
+     * Returns the estimated number of the workflow calls: one per folder to create and two (translate and commit)
+     * per document to translate.
+     * @return the estimated number of the workflow calls
+     */
+    public int getEstimatedWorkflowCallCount() {
+        return estimatedWorkflowCallCount;
+    }
+
+    /**
+     * Returns the time in milliseconds spent on computing this plan.
+     * @return the time in milliseconds spent on computing this plan
+     */
+    public long getPlanningTime() {
+        return planningTime;
+    }
+
+    /**
+     * Linked document which is not translated, with the reason.
+     */
+    public static class SkippedDocument {
+
+        private final String sourceDocumentPath;
+        private final String reason;
+        private final String detail;
+
+        @ConstructorProperties({ "sourceDocumentPath", "reason", "detail" })
+        public SkippedDocument(final String sourceDocumentPath, final String reason, final String detail) {
+            this.sourceDocumentPath = sourceDocumentPath;
+            this.reason = reason;
+            this.detail = detail;
+        }
+
+        public String getSourceDocumentPath() {
+            return sourceDocumentPath;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public String getDetail() {
+            return detail;
+        }
+    }
+
+    /**
+     * Document parameter value in the source page to be rewritten in the new page.
+     */
+    public static class ParameterRewrite {
+
+        private final String sourceValue;
+        private final String targetValue;
+
+        @ConstructorProperties({ "sourceValue", "targetValue" })
+        public ParameterRewrite(final String sourceValue, final String targetValue) {
+            this.sourceValue = sourceValue;
+            this.targetValue = targetValue;
+        }
+
+        public String getSourceValue() {
+            return sourceValue;
+        }
+
+        public String getTargetValue() {
+            return targetValue;
+        }
+    }
+
+    /**
+     * Collects the plan items while planning a page copy.
+     */
+    static class Builder {
+
+        private final String sourcePage;
+        private final String sourceContentBasePath;
+        private final String targetContentBasePath;
+        private final long startTime = System.currentTimeMillis();
+
+        private final Set<String> documentsToTranslate = new LinkedHashSet<>();
+        private final Set<String> foldersToCreate = new LinkedHashSet<>();
+        private final List<SkippedDocument> skippedDocuments = new ArrayList<>();
+        private final Map<String, String> parameterRewrites = new LinkedHashMap<>();
+
+        Builder(final String sourcePage, final String sourceContentBasePath, final String targetContentBasePath) {
+            this.sourcePage = sourcePage;
+            this.sourceContentBasePath = sourceContentBasePath;
+            this.targetContentBasePath = targetContentBasePath;
+        }
+
+        void translateDocument(final String sourceDocumentHandlePath) {
+            documentsToTranslate.add(sourceDocumentHandlePath);
+        }
+
+        boolean isFolderToCreate(final String targetFolderPath) {
+            return foldersToCreate.contains(targetFolderPath);
+        }
+
+        void createFolder(final String targetFolderPath) {
+            foldersToCreate.add(targetFolderPath);
+        }
+
+        void skipDocument(final String sourceDocumentPath, final SkipReason reason, final String detail) {
+            skippedDocuments.add(new SkippedDocument(sourceDocumentPath, reason.name(), detail));
+        }
+
+        void rewriteParameter(final String sourceValue, final String targetValue) {
+            parameterRewrites.put(sourceValue, targetValue);
+        }
+
+        PageCopyPlan build() {
+            final List<ParameterRewrite> rewrites = new ArrayList<>();
+
+            for (Map.Entry<String, String> entry : parameterRewrites.entrySet()) {
+                rewrites.add(new ParameterRewrite(entry.getKey(), entry.getValue()));
+            }
+
+            return new PageCopyPlan(sourcePage, sourceContentBasePath, targetContentBasePath,
+                    documentsToTranslate.toArray(new String[documentsToTranslate.size()]),
+                    foldersToCreate.toArray(new String[foldersToCreate.size()]),
+                    skippedDocuments.toArray(new SkippedDocument[skippedDocuments.size()]),
+                    rewrites.toArray(new ParameterRewrite[rewrites.size()]),
+                    foldersToCreate.size() + 2 * documentsToTranslate.size(),
+                    System.currentTimeMillis() - startTime);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import javax.jcr.Credentials;
+import javax.jcr.Repository;
+import javax.jcr.Session;
+
+import org.hippoecm.hst.configuration.components.HstComponentConfiguration;
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.hippoecm.hst.configuration.hosting.VirtualHosts;
+import org.hippoecm.hst.configuration.site.HstSite;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Computes page copy plans by {@link DocumentCopyingPageCopyEventListener#planPageCopy(Mount, HstSite, HstComponentConfiguration, Mount, HstSite, Session)}
+ * outside a page copy request, resolving the mounts from the current HST model and the page from the preview site
+ * of the source mount as a page copy does, and reading the content in a session which is never saved.
+ */
+public class PageCopyPlanner implements PageCopyPlannerMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PageCopyPlanner.class);
+
+    private final DocumentCopyingPageCopyEventListener listener;
+
+    private final Repository repository;
+
+    private final Credentials credentials;
+
+    public PageCopyPlanner(final DocumentCopyingPageCopyEventListener listener, final Repository repository,
+            final Credentials credentials) {
+        this.listener = listener;
+        this.repository = repository;
+        this.credentials = credentials;
+    }
+
+    @Override
+    public PageCopyPlan planPageCopy(final String sourceMountId, final String sourcePageId,
+            final String targetMountId) {
+        final VirtualHosts virtualHosts = HstModelUtils.getVirtualHosts();
+        final Mount sourceMount = HstModelUtils.getMount(virtualHosts, sourceMountId);
+        final Mount targetMount = HstModelUtils.getMount(virtualHosts, targetMountId);
+        final HstSite sourceSite = HstModelUtils.getPreviewHstSite(sourceMount);
+        final HstSite targetSite = HstModelUtils.getPreviewHstSite(targetMount);
+        final HstComponentConfiguration sourcePage = sourceSite.getComponentsConfiguration()
+                .getComponentConfiguration(sourcePageId);
+
+        if (sourcePage == null) {
+            throw new IllegalArgumentException("No page found by '" + sourcePageId + "' in the source mount.");
+        }
+
+        Session session = null;
+
+        try {
+            session = repository.login(credentials);
+            final PageCopyPlan plan = listener.planPageCopy(sourceMount, sourceSite, sourcePage, targetMount,
+                    targetSite, session);
+            log.info("Planned copying the documents linked by '{}' to '{}': {} documents, {} folders, {} skipped.",
+                    sourcePageId, targetMount.getContentPath(), plan.getDocumentsToTranslate().length,
+                    plan.getFoldersToCreate().length, plan.getSkippedDocuments().length);
+            return plan;
+        } catch (Exception e) {
+            log.error("Failed to plan copying the documents linked by '{}'.", sourcePageId, e);
+            throw new RuntimeException("Failed to plan copying the documents linked by '" + sourcePageId + "'. " + e);
+        } finally {
+            if (session != null) {
+                session.logout();
+            }
+        }
+    }
+}
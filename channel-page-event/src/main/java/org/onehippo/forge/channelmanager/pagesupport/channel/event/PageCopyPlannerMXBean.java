@@ -0,0 +1,38 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+/**
+ * Management interface of {@link PageCopyPlanner} as deployed as JMX MBean.
+ */
+public interface PageCopyPlannerMXBean {
+
+    /**
+     * JMX MBean name to be used.
+     */
+    String NAME = "org.onehippo.forge.channelmanager.pagesupport.channel.event:type=PageCopyPlannerMXBean";
+
+    /**
+     * Computes the plan of copying the documents linked by a page to a target channel, without any write.
+     * @param sourceMountId source mount identifier
+     * @param sourcePageId source page component configuration ID in the preview site of the source mount,
+     *        e.g. {@code hst:pages/homepage}
+     * @param targetMountId target mount identifier
+     * @return the plan of copying the documents linked by the page to the target channel
+     */
+    PageCopyPlan planPageCopy(String sourceMountId, String sourcePageId, String targetMountId);
+
+}
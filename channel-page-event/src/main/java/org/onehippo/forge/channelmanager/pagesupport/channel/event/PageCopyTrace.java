@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time spent on each phase and operation counts of one page copy, recorded by the request thread, the background
+ * job and the concurrent translation workers, and reported to {@link PageCopyMetrics} on completion.
+ */
+class PageCopyTrace {
+
+    private final String targetContentBasePath;
+
+    private final long startNanos = System.nanoTime();
+
+    private final Map<PageCopyMetrics.Phase, Long> phaseNanos = new EnumMap<>(PageCopyMetrics.Phase.class);
+
+    private final Map<PageCopyPlan.SkipReason, Integer> skippedDocumentCounts =
+            new EnumMap<>(PageCopyPlan.SkipReason.class);
+
+    private int scannedDocumentCount;
+
+    private int translatedDocumentCount;
+
+    private int createdFolderCount;
+
+    PageCopyTrace(final String targetContentBasePath) {
+        this.targetContentBasePath = targetContentBasePath;
+    }
+
+    String getTargetContentBasePath() {
+        return targetContentBasePath;
+    }
+
+    long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Adds the time elapsed since {@code phaseStartNanos} to the {@code phase}.
+     * @param phase page copy phase
+     * @param phaseStartNanos {@link System#nanoTime()} at the start of the phase
+     */
+    synchronized void phaseCompleted(final PageCopyMetrics.Phase phase, final long phaseStartNanos) {
+        final long nanos = System.nanoTime() - phaseStartNanos;
+        final Long total = phaseNanos.get(phase);
+        phaseNanos.put(phase, (total != null) ? total + nanos : nanos);
+    }
+
+    synchronized Map<PageCopyMetrics.Phase, Long> getPhaseNanos() {
+        return new EnumMap<>(phaseNanos);
+    }
+
+    synchronized void documentsScanned(final int count) {
+        scannedDocumentCount += count;
+    }
+
+    synchronized int getScannedDocumentCount() {
+        return scannedDocumentCount;
+    }
+
+    synchronized void documentSkipped(final PageCopyPlan.SkipReason reason) {
+        final Integer count = skippedDocumentCounts.get(reason);
+        skippedDocumentCounts.put(reason, (count != null) ? count + 1 : 1);
+    }
+
+    synchronized Map<PageCopyPlan.SkipReason, Integer> getSkippedDocumentCounts() {
+        return new EnumMap<>(skippedDocumentCounts);
+    }
+
+    synchronized void documentTranslated() {
+        ++translatedDocumentCount;
+    }
+
+    synchronized int getTranslatedDocumentCount() {
+        return translatedDocumentCount;
+    }
+
+    synchronized void folderCreated() {
+        ++createdFolderCount;
+    }
+
+    synchronized int getCreatedFolderCount() {
+        return createdFolderCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        final StringBuilder sb = new StringBuilder("PageCopyTrace{target=").append(targetContentBasePath);
+
+        for (Map.Entry<PageCopyMetrics.Phase, Long> entry : phaseNanos.entrySet()) {
+            sb.append(", ").append(entry.getKey()).append('=')
+                    .append(TimeUnit.NANOSECONDS.toMillis(entry.getValue())).append("ms");
+        }
+
+        return sb.append(", scanned=").append(scannedDocumentCount).append(", skipped=").append(skippedDocumentCounts)
+                .append(", translated=").append(translatedDocumentCount).append(", foldersCreated=")
+                .append(createdFolderCount).append('}').toString();
+    }
+}
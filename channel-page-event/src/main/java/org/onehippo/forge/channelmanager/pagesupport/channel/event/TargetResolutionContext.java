@@ -0,0 +1,155 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resolution state kept during copying the linked documents of one page to a target channel.
+ * <P>
+ * It remembers which source folders are translated to which target folders, including the source folders which are
+ * not translated yet, and the resolved target folder of each source folder, so the linked documents sharing folders
+ * do not walk up and look up the same ancestor folders again. Target folders created during the copy are recorded
+ * right away.
+ * </P>
+ */
+class TargetResolutionContext {
+
+    private static final String NOT_TRANSLATED = "";
+
+    private final TargetTranslationLookup translationLookup;
+
+    private final PageCopyTrace trace;
+
+    private final PageCopyJournal.Entry journalEntry;
+
+    // source folder path -> translated target folder path, or NOT_TRANSLATED
+    private final Map<String, String> translatedFolderPaths = new HashMap<>();
+
+    // source folder path -> target folder path to which the documents in the source folder are copied
+    private final Map<String, String> resolvedFolderPaths = new HashMap<>();
+
+    private int folderHitCount;
+
+    private int folderMissCount;
+
+    TargetResolutionContext(final TargetTranslationLookup translationLookup, final PageCopyTrace trace) {
+        this(translationLookup, trace, null);
+    }
+
+    /**
+     * @param translationLookup translation lookup under the target content base
+     * @param trace page copy trace
+     * @param journalEntry page copy journal entry to record the created folders in and to resume from, or null
+     */
+    TargetResolutionContext(final TargetTranslationLookup translationLookup, final PageCopyTrace trace,
+            final PageCopyJournal.Entry journalEntry) {
+        this.translationLookup = translationLookup;
+        this.trace = trace;
+        this.journalEntry = journalEntry;
+
+        if (journalEntry != null) {
+            translatedFolderPaths.putAll(journalEntry.getTranslatedFolderPaths());
+            resolvedFolderPaths.putAll(journalEntry.getTranslatedFolderPaths());
+        }
+    }
+
+    TargetTranslationLookup getTranslationLookup() {
+        return translationLookup;
+    }
+
+    PageCopyTrace getTrace() {
+        return trace;
+    }
+
+    /**
+     * Returns true if the translated target folder of the {@code sourceFolderPath} has been looked up already.
+     * @param sourceFolderPath source folder path
+     * @return true if the translated target folder of the {@code sourceFolderPath} has been looked up already
+     */
+    boolean isTranslatedFolderKnown(final String sourceFolderPath) {
+        final boolean known = translatedFolderPaths.containsKey(sourceFolderPath);
+
+        if (known) {
+            ++folderHitCount;
+        } else {
+            ++folderMissCount;
+        }
+
+        return known;
+    }
+
+    /**
+     * Returns the translated target folder path of the {@code sourceFolderPath}, or null if not translated
+     * or not looked up yet.
+     * @param sourceFolderPath source folder path
+     * @return the translated target folder path of the {@code sourceFolderPath}, or null
+     */
+    String getTranslatedFolderPath(final String sourceFolderPath) {
+        final String targetFolderPath = translatedFolderPaths.get(sourceFolderPath);
+        return (targetFolderPath == null || NOT_TRANSLATED.equals(targetFolderPath)) ? null : targetFolderPath;
+    }
+
+    /**
+     * Records the translated target folder path of the {@code sourceFolderPath}.
+     * @param sourceFolderPath source folder path
+     * @param targetFolderPath translated target folder path, or null if not translated
+     */
+    void setTranslatedFolderPath(final String sourceFolderPath, final String targetFolderPath) {
+        translatedFolderPaths.put(sourceFolderPath, (targetFolderPath != null) ? targetFolderPath : NOT_TRANSLATED);
+    }
+
+    /**
+     * Returns the target folder path resolved for the documents in the {@code sourceFolderPath}, or null if not
+     * resolved yet.
+     * @param sourceFolderPath source folder path
+     * @return the target folder path resolved for the documents in the {@code sourceFolderPath}, or null
+     */
+    String getResolvedFolderPath(final String sourceFolderPath) {
+        return resolvedFolderPaths.get(sourceFolderPath);
+    }
+
+    /**
+     * Records the target folder path resolved for the documents in the {@code sourceFolderPath}.
+     * @param sourceFolderPath source folder path
+     * @param targetFolderPath target folder path resolved for the documents in the {@code sourceFolderPath}
+     */
+    void setResolvedFolderPath(final String sourceFolderPath, final String targetFolderPath) {
+        resolvedFolderPaths.put(sourceFolderPath, targetFolderPath);
+    }
+
+    /**
+     * Records the target folder newly created as a translation of the {@code sourceFolderPath}.
+     * @param sourceFolderPath source folder path
+     * @param targetFolderPath translated target folder path
+     */
+    void folderTranslated(final String sourceFolderPath, final String targetFolderPath) {
+        translatedFolderPaths.put(sourceFolderPath, targetFolderPath);
+        resolvedFolderPaths.put(sourceFolderPath, targetFolderPath);
+
+        if (journalEntry != null) {
+            journalEntry.folderTranslated(sourceFolderPath, targetFolderPath);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "TargetResolutionContext{translatedFolders=" + translatedFolderPaths.size() + ", resolvedFolders="
+                + resolvedFolderPaths.size() + ", folderHits=" + folderHitCount + ", folderMisses=" + folderMissCount
+                + "}";
+    }
+}
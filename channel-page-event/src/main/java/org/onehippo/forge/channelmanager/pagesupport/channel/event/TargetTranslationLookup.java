@@ -0,0 +1,311 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.ValueFactory;
+import javax.jcr.query.Query;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hippoecm.repository.translation.HippoTranslationNodeType;
+import org.hippoecm.repository.util.JcrUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Looks up the translated folder nodes and document handle nodes under a target content base by translation IDs.
+ * <P>
+ * All the translation IDs known up front in a page copy can be resolved by {@link #prefetch(Collection, Collection)}
+ * in a few chunked queries, and then each lookup is served from the prefetched results. A translation ID which was
+ * not prefetched is resolved by a query on demand and the result is kept as well.
+ * </P>
+ * <P>
+ * The queries are JCR-SQL2 queries with the translation IDs as bind variables, prepared once per number of
+ * translation IDs and reused during the lookup. An on-demand query of a single translation ID is limited to just
+ * enough results to detect duplicate translations.
+ * </P>
+ * <P>
+ * If a {@link TranslationIndex} is given and it can serve the target content base, each lookup is served from
+ * the index instead, without any query.
+ * </P>
+ */
+class TargetTranslationLookup {
+
+    private static final Logger log = LoggerFactory.getLogger(TargetTranslationLookup.class);
+
+    /**
+     * Default maximum number of translation IDs in a query.
+     */
+    static final int DEFAULT_CHUNK_SIZE = 50;
+
+    private static final String FOLDER_NODE_TYPE = "hippostd:folder";
+
+    private static final String DOCUMENT_NODE_TYPE = "hippostdpubwf:document";
+
+    /**
+     * Maximum number of the results of a single folder translation ID query, enough to detect a duplicate.
+     */
+    private static final long SINGLE_FOLDER_QUERY_LIMIT = 2L;
+
+    /**
+     * Maximum number of the results of a single document translation ID query, enough to detect a duplicate
+     * as a handle can have up to three variants (draft, unpublished and published).
+     */
+    private static final long SINGLE_DOCUMENT_QUERY_LIMIT = 4L;
+
+    private static final String TRANSLATION_ID_BIND_VARIABLE_PREFIX = "id";
+
+    private final Node targetContentBaseNode;
+
+    private final int chunkSize;
+
+    private final TranslationIndex translationIndex;
+
+    private final String targetLocale;
+
+    private final Map<String, List<String>> folderPathsById = new HashMap<>();
+
+    private final Map<String, List<String>> documentHandlePathsById = new HashMap<>();
+
+    // "<node type>:<number of translation IDs>" -> prepared query
+    private final Map<String, Query> preparedQueries = new HashMap<>();
+
+    TargetTranslationLookup(final Node targetContentBaseNode) {
+        this(targetContentBaseNode, DEFAULT_CHUNK_SIZE, null, null);
+    }
+
+    /**
+     * @param targetContentBaseNode target content base node
+     * @param chunkSize maximum number of translation IDs in a query
+     * @param translationIndex translation index, or null to look up by queries only
+     * @param targetLocale translation locale of the target content base, or null for any locale
+     */
+    TargetTranslationLookup(final Node targetContentBaseNode, final int chunkSize,
+            final TranslationIndex translationIndex, final String targetLocale) {
+        this.targetContentBaseNode = targetContentBaseNode;
+        this.chunkSize = chunkSize;
+        this.translationIndex = translationIndex;
+        this.targetLocale = targetLocale;
+    }
+
+    /**
+     * Resolves the translated folders and documents of the given translation IDs in chunked queries.
+     * @param folderTranslationIds translation IDs of source folders
+     * @param documentTranslationIds translation IDs of source documents
+     * @throws RepositoryException if repository exception occurs
+     */
+    void prefetch(final Collection<String> folderTranslationIds, final Collection<String> documentTranslationIds)
+            throws RepositoryException {
+        if (isIndexed()) {
+            return;
+        }
+
+        resolveFolders(folderTranslationIds);
+        resolveDocumentHandles(documentTranslationIds);
+    }
+
+    /**
+     * Finds the translated folder node of the {@code translationId} under the target content base.
+     * @param translationId translation ID
+     * @return the translated folder node of the {@code translationId} under the target content base, or null if not found
+     * @throws RepositoryException if repository exception occurs
+     */
+    Node findFolderNode(final String translationId) throws RepositoryException {
+        if (isIndexed()) {
+            return getIndexedNode(translationIndex.getFolderPath(targetContentBaseNode.getPath(), translationId,
+                    targetLocale));
+        }
+
+        if (!folderPathsById.containsKey(translationId)) {
+            resolveFolders(Collections.singleton(translationId));
+        }
+
+        return getFirstNode(folderPathsById.get(translationId), translationId, "folder");
+    }
+
+    /**
+     * Finds the translated document handle node of the {@code translationId} under the target content base.
+     * @param translationId translation ID
+     * @return the translated document handle node of the {@code translationId} under the target content base,
+     *         or null if not found
+     * @throws RepositoryException if repository exception occurs
+     */
+    Node findDocumentHandleNode(final String translationId) throws RepositoryException {
+        if (isIndexed()) {
+            return getIndexedNode(translationIndex.getDocumentHandlePath(targetContentBaseNode.getPath(),
+                    translationId, targetLocale));
+        }
+
+        if (!documentHandlePathsById.containsKey(translationId)) {
+            resolveDocumentHandles(Collections.singleton(translationId));
+        }
+
+        return getFirstNode(documentHandlePathsById.get(translationId), translationId, "document handle");
+    }
+
+    private boolean isIndexed() throws RepositoryException {
+        return translationIndex != null && translationIndex.isIndexed(targetContentBaseNode.getPath());
+    }
+
+    private Node getIndexedNode(final String path) throws RepositoryException {
+        if (path == null) {
+            return null;
+        }
+
+        final Session session = targetContentBaseNode.getSession();
+
+        // the index may lag behind the repository for a moment
+        return session.nodeExists(path) ? session.getNode(path) : null;
+    }
+
+    private void resolveFolders(final Collection<String> translationIds) throws RepositoryException {
+        for (List<String> chunk : getUnresolvedChunks(translationIds, folderPathsById)) {
+            final Query query = bindQuery(FOLDER_NODE_TYPE, chunk, SINGLE_FOLDER_QUERY_LIMIT);
+
+            for (NodeIterator nodeIt = query.execute().getNodes(); nodeIt.hasNext();) {
+                final Node folderNode = nodeIt.nextNode();
+
+                if (folderNode != null) {
+                    addPath(folderPathsById, JcrUtils.getStringProperty(folderNode, HippoTranslationNodeType.ID, null),
+                            folderNode.getPath());
+                }
+            }
+        }
+    }
+
+    private void resolveDocumentHandles(final Collection<String> translationIds) throws RepositoryException {
+        for (List<String> chunk : getUnresolvedChunks(translationIds, documentHandlePathsById)) {
+            final Query query = bindQuery(DOCUMENT_NODE_TYPE, chunk, SINGLE_DOCUMENT_QUERY_LIMIT);
+
+            for (NodeIterator nodeIt = query.execute().getNodes(); nodeIt.hasNext();) {
+                final Node variantNode = nodeIt.nextNode();
+
+                if (variantNode != null) {
+                    addPath(documentHandlePathsById,
+                            JcrUtils.getStringProperty(variantNode, HippoTranslationNodeType.ID, null),
+                            variantNode.getParent().getPath());
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits the translation IDs not resolved yet into chunks, marking each as resolved with no result by default.
+     */
+    private List<List<String>> getUnresolvedChunks(final Collection<String> translationIds,
+            final Map<String, List<String>> pathsById) {
+        final List<List<String>> chunks = new ArrayList<>();
+        List<String> chunk = null;
+
+        for (String translationId : translationIds) {
+            if (StringUtils.isBlank(translationId) || pathsById.containsKey(translationId)) {
+                continue;
+            }
+
+            pathsById.put(translationId, new ArrayList<>());
+
+            if (chunk == null || chunk.size() >= chunkSize) {
+                chunk = new ArrayList<>();
+                chunks.add(chunk);
+            }
+
+            chunk.add(translationId);
+        }
+
+        return chunks;
+    }
+
+    /**
+     * Returns the query of the {@code nodeType} nodes of the {@code translationIds} under the target content base,
+     * prepared once per node type and number of translation IDs, with the translation IDs bound.
+     * A query of a single translation ID is limited to {@code singleQueryLimit} results.
+     */
+    private Query bindQuery(final String nodeType, final List<String> translationIds, final long singleQueryLimit)
+            throws RepositoryException {
+        final String key = nodeType + ":" + translationIds.size();
+        Query query = preparedQueries.get(key);
+
+        if (query == null) {
+            query = createQuery(nodeType, translationIds.size());
+
+            if (translationIds.size() == 1) {
+                query.setLimit(singleQueryLimit);
+            }
+
+            preparedQueries.put(key, query);
+        }
+
+        final ValueFactory valueFactory = targetContentBaseNode.getSession().getValueFactory();
+
+        for (int i = 0; i < translationIds.size(); i++) {
+            query.bindValue(TRANSLATION_ID_BIND_VARIABLE_PREFIX + i, valueFactory.createValue(translationIds.get(i)));
+        }
+
+        return query;
+    }
+
+    private Query createQuery(final String nodeType, final int translationIdCount) throws RepositoryException {
+        final StringBuilder statement = new StringBuilder(128 + 40 * translationIdCount);
+        statement.append("SELECT * FROM [").append(nodeType).append("] AS n WHERE ISDESCENDANTNODE(n, [")
+                .append(targetContentBaseNode.getPath()).append("]) AND (");
+
+        for (int i = 0; i < translationIdCount; i++) {
+            if (i > 0) {
+                statement.append(" OR ");
+            }
+
+            statement.append("n.[").append(HippoTranslationNodeType.ID).append("] = $")
+                    .append(TRANSLATION_ID_BIND_VARIABLE_PREFIX).append(i);
+        }
+
+        statement.append(')');
+
+        return targetContentBaseNode.getSession().getWorkspace().getQueryManager()
+                .createQuery(statement.toString(), Query.JCR_SQL2);
+    }
+
+    private static void addPath(final Map<String, List<String>> pathsById, final String translationId,
+            final String path) {
+        final List<String> paths = pathsById.computeIfAbsent(translationId, id -> new ArrayList<>());
+
+        if (!paths.contains(path)) {
+            paths.add(path);
+        }
+    }
+
+    private Node getFirstNode(final List<String> paths, final String translationId, final String kind)
+            throws RepositoryException {
+        if (paths == null || paths.isEmpty()) {
+            return null;
+        }
+
+        if (paths.size() > 1) {
+            log.warn("Multiple translated {} nodes found for translation ID, '{}': {}", kind, translationId, paths);
+        }
+
+        return targetContentBaseNode.getSession().getNode(paths.get(0));
+    }
+}
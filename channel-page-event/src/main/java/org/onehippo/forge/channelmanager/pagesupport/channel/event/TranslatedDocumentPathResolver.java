@@ -0,0 +1,164 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.jcr.Node;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolves the translated document handle path of a source document under a target content base by reading the
+ * translation ID of the source document and looking up the handle by the ID, without mapping any content bean.
+ * <P>
+ * The translation lookup of each target content base is kept for the lifetime of this resolver, e.g. in updating
+ * the document parameters of one page, so the same translation ID is looked up only once.
+ * </P>
+ * <P>
+ * It also memoizes the target document path resolved for each source document parameter value, including the
+ * fallback values when no translation is found, so a document referenced by several components or variants is
+ * resolved only once in a page.
+ * </P>
+ */
+class TranslatedDocumentPathResolver {
+
+    private static final Logger log = LoggerFactory.getLogger(TranslatedDocumentPathResolver.class);
+
+    private final Session session;
+
+    private final TranslationIndex translationIndex;
+
+    private final Map<String, TargetTranslationLookup> translationLookups = new HashMap<>();
+
+    // source content base path, source document path and target content base path -> target document path
+    private final Map<String, String> targetDocumentPaths = new HashMap<>();
+
+    private int hitCount;
+
+    private int missCount;
+
+    /**
+     * @param session JCR session to read the content
+     * @param translationIndex translation index, or null to look up by queries only
+     */
+    TranslatedDocumentPathResolver(final Session session, final TranslationIndex translationIndex) {
+        this.session = session;
+        this.translationIndex = translationIndex;
+    }
+
+    /**
+     * Returns the handle path of the translation of the document at {@code sourceAbsolutePath} under the
+     * {@code targetContentBasePath}, or null if it cannot be resolved without content beans, e.g. if the source
+     * is not a translated document or no translation is found.
+     * @param sourceAbsolutePath source document absolute path
+     * @param targetContentBasePath target content base path
+     * @return the handle path of the translation under the {@code targetContentBasePath}, or null
+     */
+    String resolveTranslatedHandlePath(final String sourceAbsolutePath, final String targetContentBasePath) {
+        try {
+            if (!session.nodeExists(sourceAbsolutePath) || !session.nodeExists(targetContentBasePath)) {
+                return null;
+            }
+
+            final Node sourceDocumentHandleNode = HippoFolderDocumentUtils
+                    .getHippoDocumentHandle(session.getNode(sourceAbsolutePath));
+
+            if (sourceDocumentHandleNode == null) {
+                return null;
+            }
+
+            final String translationId = DocumentCopyingPageCopyEventListener
+                    .getDocumentTranslationId(sourceDocumentHandleNode);
+
+            if (translationId == null) {
+                return null;
+            }
+
+            final Node targetDocumentHandleNode = getTranslationLookup(targetContentBasePath)
+                    .findDocumentHandleNode(translationId);
+
+            return (targetDocumentHandleNode != null) ? targetDocumentHandleNode.getPath() : null;
+        } catch (RepositoryException e) {
+            log.warn("Failed to resolve the translation of '{}' under '{}' by the translation ID. {}",
+                    sourceAbsolutePath, targetContentBasePath, e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Returns the target document path memoized for the source document parameter value, or null if not resolved yet.
+     * @param sourceContentBasePath source content base path
+     * @param sourceDocumentPath source document parameter value
+     * @param targetContentBasePath target content base path
+     * @return the target document path memoized for the source document parameter value, or null
+     */
+    String getTargetDocumentPath(final String sourceContentBasePath, final String sourceDocumentPath,
+            final String targetContentBasePath) {
+        final String targetDocumentPath = targetDocumentPaths.get(
+                getTargetDocumentPathKey(sourceContentBasePath, sourceDocumentPath, targetContentBasePath));
+
+        if (targetDocumentPath != null) {
+            ++hitCount;
+        } else {
+            ++missCount;
+        }
+
+        return targetDocumentPath;
+    }
+
+    /**
+     * Memoizes the target document path resolved for the source document parameter value.
+     * @param sourceContentBasePath source content base path
+     * @param sourceDocumentPath source document parameter value
+     * @param targetContentBasePath target content base path
+     * @param targetDocumentPath resolved target document path
+     */
+    void setTargetDocumentPath(final String sourceContentBasePath, final String sourceDocumentPath,
+            final String targetContentBasePath, final String targetDocumentPath) {
+        targetDocumentPaths.put(
+                getTargetDocumentPathKey(sourceContentBasePath, sourceDocumentPath, targetContentBasePath),
+                targetDocumentPath);
+    }
+
+    @Override
+    public String toString() {
+        return "TranslatedDocumentPathResolver{resolvedPaths=" + targetDocumentPaths.size() + ", hits=" + hitCount
+                + ", misses=" + missCount + "}";
+    }
+
+    private static String getTargetDocumentPathKey(final String sourceContentBasePath,
+            final String sourceDocumentPath, final String targetContentBasePath) {
+        return sourceContentBasePath + '\n' + sourceDocumentPath + '\n' + targetContentBasePath;
+    }
+
+    private TargetTranslationLookup getTranslationLookup(final String targetContentBasePath)
+            throws RepositoryException {
+        TargetTranslationLookup translationLookup = translationLookups.get(targetContentBasePath);
+
+        if (translationLookup == null) {
+            translationLookup = new TargetTranslationLookup(session.getNode(targetContentBasePath),
+                    TargetTranslationLookup.DEFAULT_CHUNK_SIZE, translationIndex, null);
+            translationLookups.put(targetContentBasePath, translationLookup);
+        }
+
+        return translationLookup;
+    }
+}
@@ -0,0 +1,936 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.jcr.Credentials;
+import javax.jcr.Node;
+import javax.jcr.NodeIterator;
+import javax.jcr.Repository;
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.observation.Event;
+import javax.jcr.observation.EventIterator;
+import javax.jcr.observation.EventListener;
+import javax.jcr.query.Query;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hippoecm.repository.HippoStdNodeType;
+import org.hippoecm.repository.api.HippoNodeType;
+import org.hippoecm.repository.translation.HippoTranslationNodeType;
+import org.hippoecm.repository.util.JcrUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-memory index of the translated folders and document handles under channel content roots, mapping each
+ * translation ID to the folder or document handle path per locale.
+ * <P>
+ * A content root is indexed by a query when it is registered through {@link #setContentRootPaths(List)} or looked up
+ * for the first time, and the index is kept up to date by a JCR observation listener on {@link #getObservedPath()}.
+ * Removals, moves and translation property changes are applied incrementally. Only a change which cannot be
+ * applied, such as the removal of the content root itself or a failure in applying a change, marks the content root
+ * to be rebuilt on the next lookup. As the observation is asynchronous, the index may lag behind the repository for
+ * a moment. The removals of the nodes which are not indexed, such as document variants, are dropped without taking
+ * the lock of the index, and the nodes to index are read from the repository before the lock is taken, so an event
+ * blocks the lookups only while its entries are applied.
+ * </P>
+ * <P>
+ * A content root is rebuilt with a session of its own without holding the lock of the index, so the lookups of the
+ * other content roots and the observation are not blocked by a rebuild. The changes observed in the content root
+ * during the rebuild are applied after the rebuilt index is swapped in. A lookup of a content root being rebuilt by
+ * another thread falls back to the repository queries instead of waiting.
+ * </P>
+ * <P>
+ * The index holds at most {@link #getMaxEntries()} entries in total. A content root which would exceed the bound
+ * is dropped from the index and its lookups fall back to the repository queries until it is rebuilt explicitly.
+ * </P>
+ */
+public class TranslationIndex implements TranslationIndexMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(TranslationIndex.class);
+
+    /**
+     * Default path under which the repository changes are observed.
+     */
+    public static final String DEFAULT_OBSERVED_PATH = "/content";
+
+    /**
+     * Default maximum number of the entries in the index.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 100000;
+
+    private static final String TRANSLATION_ID_PROPERTY_NAME_SUFFIX = "/" + HippoTranslationNodeType.ID;
+
+    private static final String TRANSLATION_LOCALE_PROPERTY_NAME_SUFFIX = "/" + HippoTranslationNodeType.LOCALE;
+
+    private static final String SOURCE_PATH_EVENT_INFO = "srcAbsPath";
+
+    private static final String NO_LOCALE = "";
+
+    /**
+     * Incremental change of the index of a content root, derived from a repository event.
+     */
+    private enum Change {
+
+        /**
+         * Removes the entries at or under a path.
+         */
+        REMOVE,
+
+        /**
+         * Indexes the translated node at a path and its descendants, e.g. after a move.
+         */
+        INDEX_SUBTREE,
+
+        /**
+         * Indexes the translated node at a path again, e.g. after a translation property change.
+         */
+        REINDEX_NODE
+    }
+
+    private Repository repository;
+
+    private Credentials credentials;
+
+    private String observedPath = DEFAULT_OBSERVED_PATH;
+
+    private List<String> contentRootPaths = Collections.emptyList();
+
+    private volatile int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    // changed while holding the lock of this only, but read without the lock on the observed events
+    private final Map<String, ContentRootIndex> contentRootIndexes = new ConcurrentSkipListMap<>();
+
+    private int entryCount;
+
+    // observation session, only used while holding the session lock
+    private volatile Session session;
+
+    private final Object sessionLock = new Object();
+
+    private EventListener eventListener;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong fallbackCount = new AtomicLong();
+    private final AtomicLong rebuildCount = new AtomicLong();
+    private final AtomicLong eventCount = new AtomicLong();
+    private volatile long lastRebuildTime;
+
+    public void init() {
+        synchronized (sessionLock) {
+            try {
+                session = getRepository().login(getCredentials());
+                eventListener = new EventListener() {
+                    @Override
+                    public void onEvent(final EventIterator events) {
+                        onEvents(events);
+                    }
+                };
+                session.getWorkspace().getObservationManager().addEventListener(eventListener,
+                        Event.NODE_REMOVED | Event.NODE_MOVED | Event.PROPERTY_ADDED | Event.PROPERTY_CHANGED
+                                | Event.PROPERTY_REMOVED,
+                        observedPath, true, null, null, false);
+            } catch (RepositoryException e) {
+                log.error("Failed to initialize the translation index. Translations will be looked up by queries.", e);
+                destroy();
+                return;
+            }
+        }
+
+        for (String contentRootPath : contentRootPaths) {
+            if (StringUtils.isNotBlank(contentRootPath)) {
+                rebuild(contentRootPath);
+            }
+        }
+    }
+
+    public void destroy() {
+        synchronized (sessionLock) {
+            if (session != null) {
+                try {
+                    if (eventListener != null) {
+                        session.getWorkspace().getObservationManager().removeEventListener(eventListener);
+                    }
+                } catch (RepositoryException e) {
+                    log.warn("Failed to remove the translation index event listener.", e);
+                } finally {
+                    session.logout();
+                    session = null;
+                    eventListener = null;
+                }
+            }
+        }
+
+        synchronized (this) {
+            contentRootIndexes.clear();
+            entryCount = 0;
+        }
+    }
+
+    public Repository getRepository() {
+        return repository;
+    }
+
+    public void setRepository(Repository repository) {
+        this.repository = repository;
+    }
+
+    public Credentials getCredentials() {
+        return credentials;
+    }
+
+    public void setCredentials(Credentials credentials) {
+        this.credentials = credentials;
+    }
+
+    public String getObservedPath() {
+        return observedPath;
+    }
+
+    public void setObservedPath(String observedPath) {
+        this.observedPath = observedPath;
+    }
+
+    /**
+     * Sets the content root paths to index on initialization. Other content roots are indexed on their first lookup.
+     * @param contentRootPaths content root paths to index on initialization
+     */
+    public void setContentRootPaths(List<String> contentRootPaths) {
+        this.contentRootPaths = (contentRootPaths != null) ? contentRootPaths : Collections.emptyList();
+    }
+
+    @Override
+    public synchronized String[] getIndexedContentRootPaths() {
+        return contentRootIndexes.keySet().toArray(new String[contentRootIndexes.size()]);
+    }
+
+    @Override
+    public synchronized String[] getOverflowedContentRootPaths() {
+        final List<String> paths = new ArrayList<>();
+
+        for (ContentRootIndex contentRootIndex : contentRootIndexes.values()) {
+            if (contentRootIndex.overflowed) {
+                paths.add(contentRootIndex.contentRootPath);
+            }
+        }
+
+        return paths.toArray(new String[paths.size()]);
+    }
+
+    @Override
+    public synchronized int getEntryCount() {
+        return entryCount;
+    }
+
+    @Override
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    @Override
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns true if lookups under the {@code contentRootPath} can be served by the index, rebuilding the index of
+     * the content root first if it is registered for the first time or invalidated. The rebuild doesn't block the
+     * other lookups, and a lookup of a content root being rebuilt by another thread returns false right away.
+     * @param contentRootPath content root path
+     * @return true if lookups under the {@code contentRootPath} can be served by the index
+     */
+    public boolean isIndexed(final String contentRootPath) {
+        synchronized (this) {
+            if (session == null) {
+                fallbackCount.incrementAndGet();
+                return false;
+            }
+
+            final ContentRootIndex contentRootIndex = contentRootIndexes.computeIfAbsent(contentRootPath,
+                    ContentRootIndex::new);
+
+            if (!contentRootIndex.stale) {
+                return true;
+            }
+
+            if (contentRootIndex.overflowed || contentRootIndex.rebuilding) {
+                fallbackCount.incrementAndGet();
+                return false;
+            }
+        }
+
+        rebuild(contentRootPath);
+
+        synchronized (this) {
+            final ContentRootIndex contentRootIndex = contentRootIndexes.get(contentRootPath);
+
+            if (contentRootIndex == null || contentRootIndex.stale) {
+                fallbackCount.incrementAndGet();
+                return false;
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * Returns the translated folder path of the {@code translationId} under the {@code contentRootPath},
+     * or null if not found in the index.
+     * @param contentRootPath content root path
+     * @param translationId translation ID
+     * @param locale translation locale, or null for any locale
+     * @return the translated folder path of the {@code translationId} under the {@code contentRootPath}, or null
+     */
+    public synchronized String getFolderPath(final String contentRootPath, final String translationId,
+            final String locale) {
+        final ContentRootIndex contentRootIndex = contentRootIndexes.get(contentRootPath);
+        return countLookup((contentRootIndex != null) ? getPath(contentRootIndex.folderPaths, translationId, locale) : null);
+    }
+
+    /**
+     * Returns the translated document handle path of the {@code translationId} under the {@code contentRootPath},
+     * or null if not found in the index.
+     * @param contentRootPath content root path
+     * @param translationId translation ID
+     * @param locale translation locale, or null for any locale
+     * @return the translated document handle path of the {@code translationId} under the {@code contentRootPath},
+     *         or null
+     */
+    public synchronized String getDocumentHandlePath(final String contentRootPath, final String translationId,
+            final String locale) {
+        final ContentRootIndex contentRootIndex = contentRootIndexes.get(contentRootPath);
+        return countLookup((contentRootIndex != null) ? getPath(contentRootIndex.documentHandlePaths, translationId, locale) : null);
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    @Override
+    public long getFallbackCount() {
+        return fallbackCount.get();
+    }
+
+    @Override
+    public long getRebuildCount() {
+        return rebuildCount.get();
+    }
+
+    @Override
+    public long getLastRebuildTime() {
+        return lastRebuildTime;
+    }
+
+    @Override
+    public long getEventCount() {
+        return eventCount.get();
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        for (ContentRootIndex contentRootIndex : contentRootIndexes.values()) {
+            invalidate(contentRootIndex);
+            contentRootIndex.overflowed = false;
+        }
+    }
+
+    /**
+     * Rebuilds the index of the content root with a session of its own, without holding the lock of the index,
+     * and swaps in the rebuilt index. Does nothing if the content root is being rebuilt by another thread.
+     * @param contentRootPath content root path
+     */
+    @Override
+    public void rebuild(final String contentRootPath) {
+        final ContentRootIndex contentRootIndex;
+
+        synchronized (this) {
+            if (session == null) {
+                log.warn("Cannot rebuild the translation index of '{}' because it is not initialized.",
+                        contentRootPath);
+                return;
+            }
+
+            contentRootIndex = contentRootIndexes.computeIfAbsent(contentRootPath, ContentRootIndex::new);
+
+            if (contentRootIndex.rebuilding) {
+                log.debug("The translation index of '{}' is being rebuilt already.", contentRootPath);
+                return;
+            }
+
+            contentRootIndex.rebuilding = true;
+            contentRootIndex.pendingChanges.clear();
+        }
+
+        final long start = System.currentTimeMillis();
+        final ContentRootIndex rebuiltIndex = new ContentRootIndex(contentRootPath);
+        boolean rebuilt = false;
+        Session rebuildSession = null;
+
+        try {
+            rebuildSession = getRepository().login(getCredentials());
+
+            for (NodeIterator nodeIt = createTranslatedNodesQuery(rebuildSession, contentRootPath).execute()
+                    .getNodes(); nodeIt.hasNext();) {
+                final Node node = nodeIt.nextNode();
+
+                final IndexEntry entry = (node != null) ? IndexEntry.of(node) : null;
+
+                if (entry != null) {
+                    rebuiltIndex.put(entry);
+
+                    if (rebuiltIndex.size() > maxEntries) {
+                        rebuiltIndex.overflowed = true;
+                        break;
+                    }
+                }
+            }
+
+            rebuilt = true;
+        } catch (RepositoryException e) {
+            log.error("Failed to rebuild the translation index of '{}'.", contentRootPath, e);
+        } finally {
+            if (rebuildSession != null) {
+                rebuildSession.logout();
+            }
+        }
+
+        synchronized (this) {
+            contentRootIndex.rebuilding = false;
+            lastRebuildTime = System.currentTimeMillis() - start;
+            rebuildCount.incrementAndGet();
+
+            if (contentRootIndexes.get(contentRootPath) != contentRootIndex) {
+                // destroyed in the meantime
+                return;
+            }
+
+            invalidate(contentRootIndex);
+            contentRootIndex.overflowed = false;
+
+            if (!rebuilt) {
+                contentRootIndex.pendingChanges.clear();
+                return;
+            }
+
+            if (rebuiltIndex.overflowed || entryCount + rebuiltIndex.size() > maxEntries) {
+                overflow(contentRootIndex);
+                contentRootIndex.pendingChanges.clear();
+                return;
+            }
+
+            contentRootIndex.swap(rebuiltIndex);
+            contentRootIndex.stale = false;
+            entryCount += contentRootIndex.size();
+
+            final List<PendingChange> pendingChanges = new ArrayList<>(contentRootIndex.pendingChanges);
+            contentRootIndex.pendingChanges.clear();
+
+            for (PendingChange pendingChange : pendingChanges) {
+                applyChange(contentRootIndex, pendingChange);
+
+                if (contentRootIndex.stale) {
+                    break;
+                }
+            }
+
+            log.info("Rebuilt the translation index of '{}' with {} entries in {}ms.", contentRootPath,
+                    contentRootIndex.size(), lastRebuildTime);
+        }
+    }
+
+    @Override
+    public void resetStatistics() {
+        hitCount.set(0L);
+        missCount.set(0L);
+        fallbackCount.set(0L);
+        rebuildCount.set(0L);
+        eventCount.set(0L);
+        lastRebuildTime = 0L;
+    }
+
+    private void onEvents(final EventIterator events) {
+        while (events.hasNext()) {
+            final Event event = events.nextEvent();
+            eventCount.incrementAndGet();
+
+            try {
+                onEvent(event);
+            } catch (RepositoryException e) {
+                log.warn("Failed to apply a repository event to the translation index: {}", event, e);
+                invalidateContaining(event);
+            }
+        }
+    }
+
+    private void onEvent(final Event event) throws RepositoryException {
+        final String path = event.getPath();
+
+        switch (event.getType()) {
+        case Event.NODE_REMOVED:
+            submitRemoval(path);
+            break;
+        case Event.NODE_MOVED: {
+            final Object sourcePath = event.getInfo().get(SOURCE_PATH_EVENT_INFO);
+
+            // no source path on reordering in the same parent, which doesn't change any path
+            if (sourcePath != null) {
+                submitRemoval(sourcePath.toString());
+                submitSubtree(path);
+            }
+            break;
+        }
+        default:
+            if (isTranslationProperty(path)) {
+                submitReindex(StringUtils.substringBeforeLast(path, "/"));
+            }
+            break;
+        }
+    }
+
+    /**
+     * Submits the removal of the entries at or under the {@code path}, unless the removed node is neither an indexed
+     * folder or document handle nor an ancestor of one, e.g. a document variant, a compound or a request node.
+     */
+    private void submitRemoval(final String path) {
+        final ContentRootIndex contentRootIndex = getContainingContentRootIndex(path);
+
+        if (contentRootIndex == null) {
+            return;
+        }
+
+        // the entries of a content root being rebuilt are not known yet
+        if (contentRootIndex.rebuilding || path.equals(contentRootIndex.contentRootPath)
+                || contentRootIndex.containsSubtree(path)) {
+            submitChange(contentRootIndex, new PendingChange(Change.REMOVE, path, Collections.emptyList()));
+        }
+    }
+
+    /**
+     * Submits the entries of the translated node at the {@code path} and its translated descendants, e.g. after
+     * a move.
+     */
+    private void submitSubtree(final String path) throws RepositoryException {
+        final ContentRootIndex contentRootIndex = getContainingContentRootIndex(path);
+
+        if (contentRootIndex == null || (contentRootIndex.stale && !contentRootIndex.rebuilding)) {
+            return;
+        }
+
+        final List<IndexEntry> entries = new ArrayList<>();
+
+        synchronized (sessionLock) {
+            if (session == null) {
+                return;
+            }
+
+            session.refresh(false);
+
+            if (!session.nodeExists(path)) {
+                return;
+            }
+
+            addIndexEntry(entries, session.getNode(path));
+
+            for (NodeIterator nodeIt = createTranslatedNodesQuery(session, path).execute().getNodes(); nodeIt
+                    .hasNext() && entries.size() <= maxEntries;) {
+                addIndexEntry(entries, nodeIt.nextNode());
+            }
+        }
+
+        submitChange(contentRootIndex, new PendingChange(Change.INDEX_SUBTREE, path, entries));
+    }
+
+    /**
+     * Submits the entry of the node at the {@code nodePath} again after a translation property change, replacing
+     * the entry of the previous translation ID or locale.
+     */
+    private void submitReindex(final String nodePath) throws RepositoryException {
+        final ContentRootIndex contentRootIndex = getContainingContentRootIndex(nodePath);
+
+        if (contentRootIndex == null || (contentRootIndex.stale && !contentRootIndex.rebuilding)) {
+            return;
+        }
+
+        final List<IndexEntry> entries = new ArrayList<>(1);
+        final String indexedPath;
+
+        synchronized (sessionLock) {
+            if (session == null) {
+                return;
+            }
+
+            session.refresh(false);
+
+            if (!session.nodeExists(nodePath)) {
+                return;
+            }
+
+            final Node node = session.getNode(nodePath);
+            indexedPath = (!node.isNodeType(HippoStdNodeType.NT_FOLDER) && node.getDepth() > 0
+                    && node.getParent().isNodeType(HippoNodeType.NT_HANDLE)) ? node.getParent().getPath() : nodePath;
+            addIndexEntry(entries, node);
+        }
+
+        submitChange(contentRootIndex, new PendingChange(Change.REINDEX_NODE, indexedPath, entries));
+    }
+
+    /**
+     * Applies the change to the index of the content root, or keeps it to be applied after the rebuild if the
+     * content root is being rebuilt.
+     */
+    private synchronized void submitChange(final ContentRootIndex contentRootIndex, final PendingChange change) {
+        if (contentRootIndexes.get(contentRootIndex.contentRootPath) != contentRootIndex) {
+            return;
+        }
+
+        if (contentRootIndex.rebuilding) {
+            contentRootIndex.pendingChanges.add(change);
+        } else if (!contentRootIndex.stale) {
+            applyChange(contentRootIndex, change);
+        }
+    }
+
+    private void applyChange(final ContentRootIndex contentRootIndex, final PendingChange change) {
+        switch (change.change) {
+        case REMOVE:
+            if (change.path.equals(contentRootIndex.contentRootPath)) {
+                invalidate(contentRootIndex);
+            } else {
+                final int size = contentRootIndex.size();
+                contentRootIndex.removeSubtree(change.path);
+                entryCount += contentRootIndex.size() - size;
+            }
+            break;
+        case INDEX_SUBTREE:
+            putEntries(contentRootIndex, change.entries);
+            break;
+        case REINDEX_NODE: {
+            final int size = contentRootIndex.size();
+            contentRootIndex.removePath(change.path);
+            entryCount += contentRootIndex.size() - size;
+            putEntries(contentRootIndex, change.entries);
+            break;
+        }
+        default:
+            break;
+        }
+    }
+
+    /**
+     * Adds the entries to the index of the content root, dropping the content root from the index if the index
+     * exceeds the maximum number of entries.
+     */
+    private void putEntries(final ContentRootIndex contentRootIndex, final List<IndexEntry> entries) {
+        for (IndexEntry entry : entries) {
+            final int size = contentRootIndex.size();
+            contentRootIndex.put(entry);
+            entryCount += contentRootIndex.size() - size;
+
+            if (entryCount > maxEntries) {
+                overflow(contentRootIndex);
+                return;
+            }
+        }
+    }
+
+    private void overflow(final ContentRootIndex contentRootIndex) {
+        log.warn("The translation index exceeded the maximum number of entries, {}. Dropping '{}' from the "
+                + "index. Translations under it will be looked up by queries until it is rebuilt.",
+                maxEntries, contentRootIndex.contentRootPath);
+        invalidate(contentRootIndex);
+        contentRootIndex.overflowed = true;
+    }
+
+    private void invalidate(final ContentRootIndex contentRootIndex) {
+        entryCount -= contentRootIndex.size();
+        contentRootIndex.clear();
+        contentRootIndex.stale = true;
+    }
+
+    private synchronized void invalidateContaining(final Event event) {
+        try {
+            final ContentRootIndex contentRootIndex = getContainingContentRootIndex(event.getPath());
+
+            if (contentRootIndex != null) {
+                invalidate(contentRootIndex);
+            }
+        } catch (RepositoryException e) {
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Returns the index of the content root containing the {@code path}. Called without holding the lock of the
+     * index as well.
+     */
+    private ContentRootIndex getContainingContentRootIndex(final String path) {
+        for (ContentRootIndex contentRootIndex : contentRootIndexes.values()) {
+            if (path.equals(contentRootIndex.contentRootPath)
+                    || path.startsWith(contentRootIndex.contentRootPath + "/")) {
+                return contentRootIndex;
+            }
+        }
+
+        return null;
+    }
+
+    private String countLookup(final String path) {
+        if (path != null) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+        }
+
+        return path;
+    }
+
+    private static String getPath(final Map<String, Map<String, String>> pathsById, final String translationId,
+            final String locale) {
+        final Map<String, String> pathsByLocale = pathsById.get(translationId);
+
+        if (pathsByLocale == null || pathsByLocale.isEmpty()) {
+            return null;
+        }
+
+        if (locale == null) {
+            return pathsByLocale.values().iterator().next();
+        }
+
+        final String path = pathsByLocale.get(locale);
+        return (path != null) ? path : pathsByLocale.get(NO_LOCALE);
+    }
+
+    private static boolean isTranslationProperty(final String path) {
+        return path.endsWith(TRANSLATION_ID_PROPERTY_NAME_SUFFIX) || path.endsWith(TRANSLATION_LOCALE_PROPERTY_NAME_SUFFIX);
+    }
+
+    /**
+     * Creates the JCR-SQL2 query of the translated nodes under the {@code path}, like the queries of
+     * {@link TargetTranslationLookup}. The path constraint takes no bind variable, so the path is quoted as a name
+     * literal, which cannot be broken by a node name as JCR names cannot contain brackets.
+     */
+    private static Query createTranslatedNodesQuery(final Session session, final String path)
+            throws RepositoryException {
+        final String statement = "SELECT * FROM [" + HippoTranslationNodeType.NT_TRANSLATED
+                + "] AS n WHERE ISDESCENDANTNODE(n, [" + path + "])";
+        return session.getWorkspace().getQueryManager().createQuery(statement, Query.JCR_SQL2);
+    }
+
+    private static void addIndexEntry(final List<IndexEntry> entries, final Node node) throws RepositoryException {
+        final IndexEntry entry = (node != null) ? IndexEntry.of(node) : null;
+
+        if (entry != null) {
+            entries.add(entry);
+        }
+    }
+
+    /**
+     * Translated folder or document handle path with its translation ID and locale.
+     */
+    private static class IndexEntry {
+
+        private final String path;
+        private final String translationId;
+        private final String locale;
+        private final boolean folder;
+
+        private IndexEntry(final String path, final String translationId, final String locale, final boolean folder) {
+            this.path = path;
+            this.translationId = translationId;
+            this.locale = locale;
+            this.folder = folder;
+        }
+
+        /**
+         * Returns the entry of the translated folder or document variant node, or null if the node is not indexed.
+         */
+        private static IndexEntry of(final Node node) throws RepositoryException {
+            if (!node.isNodeType(HippoTranslationNodeType.NT_TRANSLATED)) {
+                return null;
+            }
+
+            final String translationId = JcrUtils.getStringProperty(node, HippoTranslationNodeType.ID, null);
+
+            if (StringUtils.isBlank(translationId)) {
+                return null;
+            }
+
+            final String locale = JcrUtils.getStringProperty(node, HippoTranslationNodeType.LOCALE, NO_LOCALE);
+
+            if (node.isNodeType(HippoStdNodeType.NT_FOLDER)) {
+                return new IndexEntry(node.getPath(), translationId, locale, true);
+            } else if (node.getDepth() > 0 && node.getParent().isNodeType(HippoNodeType.NT_HANDLE)) {
+                return new IndexEntry(node.getParent().getPath(), translationId, locale, false);
+            }
+
+            return null;
+        }
+
+        private boolean isSameAs(final IndexEntry other) {
+            return other != null && folder == other.folder && translationId.equals(other.translationId)
+                    && locale.equals(other.locale);
+        }
+    }
+
+    private static class ContentRootIndex {
+
+        private final String contentRootPath;
+
+        // translation ID -> locale -> path
+        private Map<String, Map<String, String>> folderPaths = new HashMap<>();
+        private Map<String, Map<String, String>> documentHandlePaths = new HashMap<>();
+
+        // path -> entry, sorted so that the entries of a subtree are a sub map. Changed while holding the lock of
+        // the index only, but read without the lock to drop the removals of the nodes which are not indexed.
+        private volatile NavigableMap<String, IndexEntry> entriesByPath = new ConcurrentSkipListMap<>();
+
+        private int size;
+
+        private volatile boolean stale = true;
+
+        private boolean overflowed;
+
+        private volatile boolean rebuilding;
+
+        // changes observed during a rebuild, to be applied after the rebuild
+        private final List<PendingChange> pendingChanges = new ArrayList<>();
+
+        private ContentRootIndex(final String contentRootPath) {
+            this.contentRootPath = contentRootPath;
+        }
+
+        /**
+         * Adds the entry, replacing the entry at the same path and the entry of the same translation ID and locale.
+         */
+        private void put(final IndexEntry entry) {
+            final IndexEntry previous = entriesByPath.get(entry.path);
+
+            if (entry.isSameAs(previous)) {
+                return;
+            }
+
+            if (previous != null) {
+                removeTranslation(previous);
+            } else {
+                ++size;
+            }
+
+            final String replacedPath = getPaths(entry.folder)
+                    .computeIfAbsent(entry.translationId, id -> new HashMap<>(2)).put(entry.locale, entry.path);
+
+            if (replacedPath != null && entriesByPath.remove(replacedPath) != null) {
+                --size;
+            }
+
+            entriesByPath.put(entry.path, entry);
+        }
+
+        /**
+         * Takes over the entries of the {@code rebuiltIndex}.
+         */
+        private void swap(final ContentRootIndex rebuiltIndex) {
+            folderPaths = rebuiltIndex.folderPaths;
+            documentHandlePaths = rebuiltIndex.documentHandlePaths;
+            entriesByPath = rebuiltIndex.entriesByPath;
+            size = rebuiltIndex.size;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private void clear() {
+            folderPaths = new HashMap<>();
+            documentHandlePaths = new HashMap<>();
+            entriesByPath = new ConcurrentSkipListMap<>();
+            size = 0;
+        }
+
+        /**
+         * Returns true if there is an entry at or under the {@code path}.
+         */
+        private boolean containsSubtree(final String path) {
+            final NavigableMap<String, IndexEntry> entries = entriesByPath;
+            final String descendantPath = entries.ceilingKey(path + "/");
+            return entries.containsKey(path) || (descendantPath != null && descendantPath.startsWith(path + "/"));
+        }
+
+        private void removeSubtree(final String path) {
+            removePath(path);
+
+            // '0' follows '/', so the sub map holds exactly the paths starting with path + "/"
+            final Map<String, IndexEntry> descendants = entriesByPath.subMap(path + "/", true, path + "0", false);
+
+            for (IndexEntry entry : descendants.values()) {
+                removeTranslation(entry);
+                --size;
+            }
+
+            descendants.clear();
+        }
+
+        private void removePath(final String path) {
+            final IndexEntry entry = entriesByPath.remove(path);
+
+            if (entry != null) {
+                removeTranslation(entry);
+                --size;
+            }
+        }
+
+        private void removeTranslation(final IndexEntry entry) {
+            final Map<String, Map<String, String>> pathsById = getPaths(entry.folder);
+            final Map<String, String> pathsByLocale = pathsById.get(entry.translationId);
+
+            if (pathsByLocale != null && pathsByLocale.remove(entry.locale, entry.path) && pathsByLocale.isEmpty()) {
+                pathsById.remove(entry.translationId);
+            }
+        }
+
+        private Map<String, Map<String, String>> getPaths(final boolean folder) {
+            return folder ? folderPaths : documentHandlePaths;
+        }
+    }
+
+    private static class PendingChange {
+
+        private final Change change;
+        private final String path;
+        private final List<IndexEntry> entries;
+
+        private PendingChange(final Change change, final String path, final List<IndexEntry> entries) {
+            this.change = change;
+            this.path = path;
+            this.entries = entries;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+/**
+ * JMX MXBean interface of {@link TranslationIndex}, exposing the indexed content roots, the memory bound
+ * and the lookup statistics.
+ */
+public interface TranslationIndexMXBean {
+
+    /**
+     * MBean name of the translation index.
+     */
+    String NAME = "org.onehippo.forge.channelmanager.pagesupport.channel.event:type=TranslationIndexMXBean";
+
+    /**
+     * Returns the content root paths registered in the index, either indexed or to be rebuilt.
+     * @return the content root paths registered in the index
+     */
+    String[] getIndexedContentRootPaths();
+
+    /**
+     * Returns the content root paths which are not indexed because the index exceeded the maximum number of entries.
+     * @return the content root paths which are not indexed because the index exceeded the maximum number of entries
+     */
+    String[] getOverflowedContentRootPaths();
+
+    /**
+     * Returns the total number of the entries in the index.
+     * @return the total number of the entries in the index
+     */
+    int getEntryCount();
+
+    /**
+     * Returns the maximum number of the entries in the index.
+     * @return the maximum number of the entries in the index
+     */
+    int getMaxEntries();
+
+    /**
+     * Sets the maximum number of the entries in the index.
+     * @param maxEntries the maximum number of the entries in the index
+     */
+    void setMaxEntries(int maxEntries);
+
+    /**
+     * Returns the number of the lookups which found a translated folder or document in the index.
+     * @return the number of the lookups which found a translated folder or document in the index
+     */
+    long getHitCount();
+
+    /**
+     * Returns the number of the lookups which found no translated folder or document in the index.
+     * @return the number of the lookups which found no translated folder or document in the index
+     */
+    long getMissCount();
+
+    /**
+     * Returns the number of the lookups which could not be served by the index, e.g. because of an overflow.
+     * @return the number of the lookups which could not be served by the index
+     */
+    long getFallbackCount();
+
+    /**
+     * Returns the number of the content root rebuilds.
+     * @return the number of the content root rebuilds
+     */
+    long getRebuildCount();
+
+    /**
+     * Returns the time in milliseconds spent on the last content root rebuild.
+     * @return the time in milliseconds spent on the last content root rebuild
+     */
+    long getLastRebuildTime();
+
+    /**
+     * Returns the number of the observed repository events.
+     * @return the number of the observed repository events
+     */
+    long getEventCount();
+
+    /**
+     * Marks all the content roots to be rebuilt on the next lookup.
+     */
+    void invalidateAll();
+
+    /**
+     * Rebuilds the index of the content root right away.
+     * @param contentRootPath content root path
+     */
+    void rebuild(String contentRootPath);
+
+    /**
+     * Resets all the statistics.
+     */
+    void resetStatistics();
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ChannelLockManagerTest {
+
+    private static final String CHANNEL_KEY = "/content/documents/channel1";
+
+    private ChannelLockManager lockManager;
+
+    private ExecutorService otherThread;
+
+    @Before
+    public void setUp() throws Exception {
+        lockManager = new ChannelLockManager();
+        otherThread = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        otherThread.shutdownNow();
+        lockManager.destroy();
+    }
+
+    @Test
+    public void testTryLockTimesOutWhileLockedByAnotherThread() throws Exception {
+        final CountDownLatch locked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final Future<?> holder = otherThread.submit(() -> {
+            assertTrue(lockManager.tryLock(CHANNEL_KEY, 0L));
+            locked.countDown();
+            release.await();
+            lockManager.unlock(CHANNEL_KEY);
+            return null;
+        });
+
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        final long start = System.currentTimeMillis();
+        assertFalse(lockManager.tryLock(CHANNEL_KEY, 100L));
+        assertTrue(System.currentTimeMillis() - start >= 100L);
+        assertEquals(1L, lockManager.getTimedOutCount());
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+
+        assertTrue(lockManager.tryLock(CHANNEL_KEY, 0L));
+        lockManager.unlock(CHANNEL_KEY);
+    }
+
+    @Test
+    public void testTryLockIsReentrant() throws Exception {
+        final CountingDistributedChannelLock distributedLock = new CountingDistributedChannelLock(
+                new InMemoryDistributedChannelLock());
+        lockManager.setDistributedChannelLock(distributedLock);
+
+        assertTrue(lockManager.tryLock(CHANNEL_KEY, 0L));
+        assertTrue(lockManager.tryLock(CHANNEL_KEY, 0L));
+        assertEquals(1, distributedLock.lockCount);
+
+        lockManager.unlock(CHANNEL_KEY);
+        assertEquals(1, lockManager.getLockedChannels().length);
+        assertEquals(0, distributedLock.unlockCount);
+
+        lockManager.unlock(CHANNEL_KEY);
+        assertEquals(0, lockManager.getLockedChannels().length);
+        assertEquals(1, distributedLock.unlockCount);
+        assertEquals(2L, lockManager.getAcquiredCount());
+    }
+
+    @Test(expected = IllegalMonitorStateException.class)
+    public void testUnlockWithoutLock() throws Exception {
+        lockManager.unlock(CHANNEL_KEY);
+    }
+
+    @Test
+    public void testDistributedLockTimeoutReleasesLocalLock() throws Exception {
+        final InMemoryDistributedChannelLock otherNode = new InMemoryDistributedChannelLock();
+        lockManager.setDistributedChannelLock(new InMemoryDistributedChannelLock(otherNode));
+        assertTrue(otherNode.tryLock(CHANNEL_KEY, 0L));
+
+        assertFalse(lockManager.tryLock(CHANNEL_KEY, 100L));
+        assertEquals(1L, lockManager.getTimedOutCount());
+        assertEquals(0, lockManager.getLockedChannels().length);
+
+        // the local lock is free for the other threads once the other node releases the distributed lock
+        otherNode.unlock(CHANNEL_KEY);
+        assertTrue(otherThread.submit(() -> lockManager.tryLock(CHANNEL_KEY, 0L)).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testDistributedLockFailureReleasesLocalLock() throws Exception {
+        lockManager.setDistributedChannelLock(new DistributedChannelLock() {
+            @Override
+            public boolean tryLock(final String channelKey, final long timeout) {
+                throw new IllegalStateException("Repository unavailable.");
+            }
+
+            @Override
+            public void unlock(final String channelKey) {
+            }
+        });
+
+        try {
+            lockManager.tryLock(CHANNEL_KEY, 0L);
+            fail("The failure of the distributed lock should be thrown.");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+
+        assertEquals(0, lockManager.getLockedChannels().length);
+        assertEquals(0L, lockManager.getAcquiredCount());
+    }
+
+    @Test
+    public void testLeaseRenewalKeepsDistributedLock() throws Exception {
+        final InMemoryDistributedChannelLock otherNode = new InMemoryDistributedChannelLock();
+        final InMemoryDistributedChannelLock thisNode = new InMemoryDistributedChannelLock(otherNode);
+        thisNode.setLeaseDuration(300L);
+        lockManager.setDistributedChannelLock(thisNode);
+        lockManager.setLeaseRenewalInterval(50L);
+
+        assertTrue(lockManager.tryLock(CHANNEL_KEY, 0L));
+        Thread.sleep(1000L);
+        // the lease would have expired three times over without the renewal
+        assertFalse(otherNode.tryLock(CHANNEL_KEY, 0L));
+
+        lockManager.unlock(CHANNEL_KEY);
+        assertTrue(otherNode.tryLock(CHANNEL_KEY, 0L));
+    }
+
+    @Test
+    public void testLeaseExpiresWithoutRenewal() throws Exception {
+        final InMemoryDistributedChannelLock otherNode = new InMemoryDistributedChannelLock();
+        final InMemoryDistributedChannelLock thisNode = new InMemoryDistributedChannelLock(otherNode);
+        thisNode.setLeaseDuration(100L);
+        lockManager.setDistributedChannelLock(thisNode);
+        lockManager.setLeaseRenewalInterval(0L);
+
+        assertTrue(lockManager.tryLock(CHANNEL_KEY, 0L));
+        assertTrue(otherNode.tryLock(CHANNEL_KEY, 1000L));
+        assertFalse(thisNode.renew(CHANNEL_KEY));
+
+        lockManager.unlock(CHANNEL_KEY);
+    }
+
+    private static class CountingDistributedChannelLock implements DistributedChannelLock {
+
+        private final DistributedChannelLock delegate;
+
+        private int lockCount;
+
+        private int unlockCount;
+
+        private CountingDistributedChannelLock(final DistributedChannelLock delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean tryLock(final String channelKey, final long timeout) throws InterruptedException {
+            ++lockCount;
+            return delegate.tryLock(channelKey, timeout);
+        }
+
+        @Override
+        public void unlock(final String channelKey) {
+            ++unlockCount;
+            delegate.unlock(channelKey);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.onehippo.forge.channelmanager.pagesupport.document.management.DocumentManagementServiceMXBean;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares invoking a stub <code>DocumentManagementService</code> directly with invoking it through
+ * {@link MBeanServer#invoke(ObjectName, String, Object[], String[])} by {@link DocumentManagementServiceClient},
+ * to measure the overhead of the reflective dispatch and the open type mapping of JMX per call.
+ * <P>
+ * Run it by the main method with the test classpath, e.g. in an IDE.
+ * </P>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentManagementServiceClientBenchmark {
+
+    private static final String BENCHMARK_MBEAN_NAME = DocumentManagementServiceMXBean.NAME + ",name=benchmark";
+
+    private static final int BATCH_SIZE = 10;
+
+    private StubDocumentManagementService service;
+
+    private DocumentManagementServiceClient jmxClient;
+
+    private ObjectName mbeanName;
+
+    private String[] sourceDocumentLocations;
+
+    private String[] targetDocumentNames;
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(DocumentManagementServiceClientBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        service = new StubDocumentManagementService();
+        mbeanName = new ObjectName(BENCHMARK_MBEAN_NAME);
+
+        final MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+        mbeanServer.registerMBean(service, mbeanName);
+
+        jmxClient = new DocumentManagementServiceClient();
+        jmxClient.setDirectInvocation(false);
+        jmxClient.setMbeanServer(mbeanServer);
+        jmxClient.setMbeanName(mbeanName);
+
+        sourceDocumentLocations = new String[BATCH_SIZE];
+        targetDocumentNames = new String[BATCH_SIZE];
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            sourceDocumentLocations[i] = "/content/documents/en/news/news-" + i;
+            targetDocumentNames[i] = "news-" + i;
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(mbeanName);
+    }
+
+    @Benchmark
+    public boolean directPublishDocument() {
+        return service.publishDocument(sourceDocumentLocations[0]);
+    }
+
+    @Benchmark
+    public boolean jmxPublishDocument() throws Exception {
+        return jmxClient.publishDocument(sourceDocumentLocations[0]);
+    }
+
+    @Benchmark
+    public DocumentManagementServiceClient.ItemResult[] directTranslateAndCommitDocuments() {
+        return DocumentManagementServiceClient.toItemResults(
+                service.translateAndCommitDocuments(sourceDocumentLocations, "fr", targetDocumentNames));
+    }
+
+    @Benchmark
+    public DocumentManagementServiceClient.ItemResult[] jmxTranslateAndCommitDocuments() throws Exception {
+        return jmxClient.translateAndCommitDocuments(sourceDocumentLocations, "fr", targetDocumentNames);
+    }
+
+    /**
+     * Stub service doing no workflow operations, so that only the invocation overhead is measured.
+     */
+    public static class StubDocumentManagementService implements DocumentManagementServiceMXBean {
+
+        @Override
+        public boolean obtainEditableDocument(String documentLocation) {
+            return true;
+        }
+
+        @Override
+        public boolean disposeEditableDocument(String documentLocation) {
+            return true;
+        }
+
+        @Override
+        public boolean commitEditableDocument(String documentLocation) {
+            return true;
+        }
+
+        @Override
+        public boolean depublishDocument(String documentLocation) {
+            return true;
+        }
+
+        @Override
+        public boolean publishDocument(String documentLocation) {
+            return true;
+        }
+
+        @Override
+        public String copyDocument(String sourceDocumentLocation, String targetFolderLocation,
+                String targetDocumentName) {
+            return targetFolderLocation + "/" + targetDocumentName;
+        }
+
+        @Override
+        public String translateFolder(String sourceFolderLocation, String language, String name) {
+            return sourceFolderLocation + "-" + language;
+        }
+
+        @Override
+        public String translateDocument(String sourceDocumentLocation, String language, String name) {
+            return sourceDocumentLocation + "-" + language;
+        }
+
+        @Override
+        public String submitBulkPublishInFolder(String folderLocation, String pathPattern) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String submitBulkDepublishInFolder(String folderLocation, String pathPattern) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onehippo.forge.channelmanager.pagesupport.document.management.DocumentManagementServiceMXBean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DocumentManagementServiceClientTest {
+
+    private static final String TEST_MBEAN_NAME = DocumentManagementServiceMXBean.NAME + ",name=test";
+
+    private MBeanServer mbeanServer;
+
+    private ObjectName mbeanName;
+
+    private DocumentManagementServiceClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        mbeanServer = ManagementFactory.getPlatformMBeanServer();
+        mbeanName = new ObjectName(TEST_MBEAN_NAME);
+
+        client = new DocumentManagementServiceClient();
+        client.setDirectInvocation(false);
+        client.setMbeanServer(mbeanServer);
+        client.setMbeanName(mbeanName);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (mbeanServer.isRegistered(mbeanName)) {
+            mbeanServer.unregisterMBean(mbeanName);
+        }
+    }
+
+    @Test
+    public void testFallsBackToSingleItemOperations() throws Exception {
+        final LegacyDocumentManagementService service = new LegacyDocumentManagementService();
+        mbeanServer.registerMBean(service, mbeanName);
+
+        assertFalse(client.isOperationAvailable("translateAndCommitDocuments"));
+
+        final DocumentManagementServiceClient.ItemResult[] results = client.translateAndCommitDocuments(
+                new String[] { "/content/en/news-1", "/content/en/locked" }, "fr", new String[] { "news-1", "locked" });
+
+        assertEquals(2, results.length);
+        assertTrue(results[0].isSucceeded());
+        assertEquals("/content/en/news-1-fr", results[0].getResultLocation());
+        assertFalse(results[1].isSucceeded());
+        // translated, but failed to be committed
+        assertEquals("/content/en/locked-fr", results[1].getResultLocation());
+        assertEquals(List.of("translateDocument:/content/en/news-1", "commitEditableDocument:/content/en/news-1-fr",
+                "translateDocument:/content/en/locked", "commitEditableDocument:/content/en/locked-fr"),
+                service.invocations);
+    }
+
+    @Test
+    public void testStopsTranslatingFoldersOnFailure() throws Exception {
+        final LegacyDocumentManagementService service = new LegacyDocumentManagementService();
+        mbeanServer.registerMBean(service, mbeanName);
+
+        final DocumentManagementServiceClient.ItemResult[] results = client.translateFolders(
+                new String[] { "/content/en/locked", "/content/en/locked/news" }, "fr",
+                new String[] { "locked", "news" });
+
+        assertFalse(results[0].isSucceeded());
+        assertFalse(results[1].isSucceeded());
+        assertNull(results[1].getResultLocation());
+        assertEquals(List.of("translateFolder:/content/en/locked"), service.invocations);
+    }
+
+    @Test
+    public void testPublishesByFallbackBatch() throws Exception {
+        final LegacyDocumentManagementService service = new LegacyDocumentManagementService();
+        mbeanServer.registerMBean(service, mbeanName);
+
+        final DocumentManagementServiceClient.ItemResult[] results = client.publishDocuments(
+                new String[] { "/content/en/news-1", "/content/en/news-2" });
+
+        assertTrue(results[0].isSucceeded());
+        assertTrue(results[1].isSucceeded());
+        assertEquals(List.of("publishDocument:/content/en/news-1", "publishDocument:/content/en/news-2"),
+                service.invocations);
+    }
+
+    /**
+     * MBean interface of an older service without the compound and batch operations.
+     */
+    public interface LegacyDocumentManagementServiceMXBean {
+
+        boolean obtainEditableDocument(String documentLocation);
+
+        boolean disposeEditableDocument(String documentLocation);
+
+        boolean commitEditableDocument(String documentLocation);
+
+        boolean depublishDocument(String documentLocation);
+
+        boolean publishDocument(String documentLocation);
+
+        String copyDocument(String sourceDocumentLocation, String targetFolderLocation, String targetDocumentName);
+
+        String translateFolder(String sourceFolderLocation, String language, String name);
+
+        String translateDocument(String sourceDocumentLocation, String language, String name);
+
+    }
+
+    /**
+     * Older service recording the invocations, failing on any location containing <code>locked</code>.
+     */
+    public static class LegacyDocumentManagementService implements LegacyDocumentManagementServiceMXBean {
+
+        private final List<String> invocations = new ArrayList<>();
+
+        @Override
+        public boolean obtainEditableDocument(String documentLocation) {
+            return invoke("obtainEditableDocument", documentLocation);
+        }
+
+        @Override
+        public boolean disposeEditableDocument(String documentLocation) {
+            return invoke("disposeEditableDocument", documentLocation);
+        }
+
+        @Override
+        public boolean commitEditableDocument(String documentLocation) {
+            return invoke("commitEditableDocument", documentLocation);
+        }
+
+        @Override
+        public boolean depublishDocument(String documentLocation) {
+            return invoke("depublishDocument", documentLocation);
+        }
+
+        @Override
+        public boolean publishDocument(String documentLocation) {
+            return invoke("publishDocument", documentLocation);
+        }
+
+        @Override
+        public String copyDocument(String sourceDocumentLocation, String targetFolderLocation,
+                String targetDocumentName) {
+            invoke("copyDocument", sourceDocumentLocation);
+            return targetFolderLocation + "/" + targetDocumentName;
+        }
+
+        @Override
+        public String translateFolder(String sourceFolderLocation, String language, String name) {
+            invoke("translateFolder", sourceFolderLocation);
+            return sourceFolderLocation + "-" + language;
+        }
+
+        @Override
+        public String translateDocument(String sourceDocumentLocation, String language, String name) {
+            // fails on committing a translated locked document, not on translating it
+            invocations.add("translateDocument:" + sourceDocumentLocation);
+            return sourceDocumentLocation + "-" + language;
+        }
+
+        private boolean invoke(String operationName, String location) {
+            invocations.add(operationName + ":" + location);
+
+            if (location.contains("locked")) {
+                throw new IllegalStateException("Locked: " + location);
+            }
+
+            return true;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class LatencyReservoirTest {
+
+    private static final double DELTA = 0.000001;
+
+    @Test
+    public void testEmpty() throws Exception {
+        final PageCopyLatencyStats stats = new LatencyReservoir(10).toStats("total");
+
+        assertEquals("total", stats.getName());
+        assertEquals(0L, stats.getCount());
+        assertEquals(0.0, stats.getTotalTime(), DELTA);
+        assertEquals(0.0, stats.getMaxTime(), DELTA);
+        assertEquals(0.0, stats.getP50(), DELTA);
+        assertEquals(0.0, stats.getP95(), DELTA);
+        assertEquals(0.0, stats.getP99(), DELTA);
+    }
+
+    @Test
+    public void testPercentiles() throws Exception {
+        final LatencyReservoir reservoir = new LatencyReservoir(100);
+
+        // recorded in reverse order to make sure the samples are sorted
+        for (int i = 100; i >= 1; i--) {
+            reservoir.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        final PageCopyLatencyStats stats = reservoir.toStats("total");
+
+        assertEquals(100L, stats.getCount());
+        assertEquals(5050.0, stats.getTotalTime(), DELTA);
+        assertEquals(100.0, stats.getMaxTime(), DELTA);
+        assertEquals(50.0, stats.getP50(), DELTA);
+        assertEquals(95.0, stats.getP95(), DELTA);
+        assertEquals(99.0, stats.getP99(), DELTA);
+    }
+
+    @Test
+    public void testSingleSample() throws Exception {
+        final LatencyReservoir reservoir = new LatencyReservoir(100);
+        reservoir.record(TimeUnit.MICROSECONDS.toNanos(1500));
+
+        final PageCopyLatencyStats stats = reservoir.toStats("total");
+
+        assertEquals(1.5, stats.getP50(), DELTA);
+        assertEquals(1.5, stats.getP99(), DELTA);
+        assertEquals(1.5, stats.getMaxTime(), DELTA);
+    }
+
+    @Test
+    public void testPercentilesOfLatestSamplesOnly() throws Exception {
+        final LatencyReservoir reservoir = new LatencyReservoir(10);
+
+        for (int i = 1; i <= 20; i++) {
+            reservoir.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        final PageCopyLatencyStats stats = reservoir.toStats("total");
+
+        // count, total and max cover all the samples, the percentiles the latest 10 samples, 11ms to 20ms
+        assertEquals(20L, stats.getCount());
+        assertEquals(210.0, stats.getTotalTime(), DELTA);
+        assertEquals(20.0, stats.getMaxTime(), DELTA);
+        assertEquals(15.0, stats.getP50(), DELTA);
+        assertEquals(20.0, stats.getP95(), DELTA);
+        assertEquals(20.0, stats.getP99(), DELTA);
+    }
+}
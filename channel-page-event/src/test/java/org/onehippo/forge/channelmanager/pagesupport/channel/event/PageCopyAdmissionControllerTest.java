@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PageCopyAdmissionControllerTest {
+
+    private static final String CHANNEL_KEY = "/content/documents/channel1";
+
+    private PageCopyAdmissionController admissionController;
+
+    private ExecutorService waitingThread;
+
+    @Before
+    public void setUp() throws Exception {
+        admissionController = new PageCopyAdmissionController();
+        admissionController.setMaxConcurrentCopies(1);
+        waitingThread = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        waitingThread.shutdownNow();
+    }
+
+    @Test
+    public void testAdmitsUpToMaxConcurrentCopies() throws Exception {
+        admissionController.setMaxConcurrentCopies(2);
+
+        assertTrue(admissionController.tryAcquire(CHANNEL_KEY));
+        assertTrue(admissionController.tryAcquire(CHANNEL_KEY));
+        assertEquals(2, admissionController.getActiveCopyCount());
+        assertEquals(2L, admissionController.getAdmittedCount());
+
+        admissionController.release();
+        admissionController.release();
+        assertEquals(0, admissionController.getActiveCopyCount());
+    }
+
+    @Test
+    public void testTimesOutWaitingForAdmission() throws Exception {
+        admissionController.setAdmissionWaitTimeout(100L);
+        assertTrue(admissionController.tryAcquire(CHANNEL_KEY));
+
+        final long start = System.currentTimeMillis();
+        assertFalse(admissionController.tryAcquire(CHANNEL_KEY));
+        assertTrue(System.currentTimeMillis() - start >= 100L);
+        assertEquals(1L, admissionController.getTimedOutCount());
+        assertEquals(0, admissionController.getQueueDepth());
+        assertEquals(1, admissionController.getMaxQueueDepth());
+
+        admissionController.release();
+        assertTrue(admissionController.tryAcquire(CHANNEL_KEY));
+    }
+
+    @Test
+    public void testRejectsWhenQueueIsFull() throws Exception {
+        admissionController.setMaxQueuedCopies(1);
+        admissionController.setAdmissionWaitTimeout(5000L);
+        assertTrue(admissionController.tryAcquire(CHANNEL_KEY));
+
+        final Future<Boolean> queued = waitingThread.submit(() -> admissionController.tryAcquire(CHANNEL_KEY));
+        waitForQueueDepth(1);
+
+        final long start = System.currentTimeMillis();
+        assertFalse(admissionController.tryAcquire(CHANNEL_KEY));
+        // rejected right away instead of waiting for the admission wait timeout
+        assertTrue(System.currentTimeMillis() - start < 5000L);
+        assertEquals(1L, admissionController.getRejectedCount());
+
+        admissionController.release();
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        assertEquals(1, admissionController.getActiveCopyCount());
+        assertEquals(0L, admissionController.getTimedOutCount());
+    }
+
+    private void waitForQueueDepth(final int queueDepth) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000L;
+
+        while (admissionController.getQueueDepth() < queueDepth) {
+            assertTrue("Timed out waiting for a queued copy.", System.currentTimeMillis() < deadline);
+            Thread.sleep(10L);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.channel.event;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+
+import org.hippoecm.hst.configuration.components.HstComponentConfiguration;
+import org.hippoecm.hst.configuration.hosting.Mount;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PageCopyJournalTest {
+
+    private PageCopyJournal journal;
+
+    private HstComponentConfiguration sourcePage;
+
+    private Mount targetMount;
+
+    @Before
+    public void setUp() throws Exception {
+        journal = new PageCopyJournal();
+        sourcePage = createSourcePage("page-1");
+        targetMount = createMount("mount-1");
+    }
+
+    @Test
+    public void testResumeFromEntry() throws Exception {
+        final PageCopyJournal.Entry entry = journal.getEntry(sourcePage, targetMount);
+        entry.folderTranslated("/content/documents/en/news", "/content/documents/fr/news");
+        entry.documentTranslated("/content/documents/en/news/a", "/content/documents/fr/news/a");
+        entry.documentTranslated("/content/documents/en/news/b", "/content/documents/fr/news/b");
+        entry.documentCompleted("/content/documents/en/news/b");
+
+        // a retry of the same page copy after a failure
+        final PageCopyJournal.Entry resumed = journal.getEntry(createSourcePage("page-1"), createMount("mount-1"));
+
+        assertSame(entry, resumed);
+        assertEquals(Collections.singletonMap("/content/documents/en/news", "/content/documents/fr/news"),
+                resumed.getTranslatedFolderPaths());
+        assertEquals("/content/documents/fr/news/a",
+                resumed.getUncommittedDocumentPath("/content/documents/en/news/a"));
+        assertFalse(resumed.isDocumentCompleted("/content/documents/en/news/a"));
+        assertNull(resumed.getUncommittedDocumentPath("/content/documents/en/news/b"));
+        assertTrue(resumed.isDocumentCompleted("/content/documents/en/news/b"));
+    }
+
+    @Test
+    public void testCompletedEntryIsRemoved() throws Exception {
+        final PageCopyJournal.Entry entry = journal.getEntry(sourcePage, targetMount);
+        entry.documentCompleted("/content/documents/en/news/a");
+        journal.completed(entry);
+
+        assertEquals(0, journal.getEntryCount());
+
+        final PageCopyJournal.Entry next = journal.getEntry(sourcePage, targetMount);
+
+        assertNotSame(entry, next);
+        assertFalse(next.isDocumentCompleted("/content/documents/en/news/a"));
+    }
+
+    @Test
+    public void testEntryPerTargetMount() throws Exception {
+        final PageCopyJournal.Entry entry = journal.getEntry(sourcePage, targetMount);
+        final PageCopyJournal.Entry otherEntry = journal.getEntry(sourcePage, createMount("mount-2"));
+
+        assertNotSame(entry, otherEntry);
+        assertEquals(2, journal.getEntryCount());
+    }
+
+    @Test
+    public void testExpiredEntryIsNotResumed() throws Exception {
+        journal.setTimeToLive(10L);
+        final PageCopyJournal.Entry entry = journal.getEntry(sourcePage, targetMount);
+        entry.documentCompleted("/content/documents/en/news/a");
+
+        Thread.sleep(50L);
+
+        final PageCopyJournal.Entry next = journal.getEntry(sourcePage, targetMount);
+
+        assertNotSame(entry, next);
+        assertFalse(next.isDocumentCompleted("/content/documents/en/news/a"));
+    }
+
+    @Test
+    public void testOldestEntryIsEvictedWhenFull() throws Exception {
+        journal.setMaxEntries(2);
+        final PageCopyJournal.Entry first = journal.getEntry(createSourcePage("page-1"), targetMount);
+        Thread.sleep(5L);
+        final PageCopyJournal.Entry second = journal.getEntry(createSourcePage("page-2"), targetMount);
+        Thread.sleep(5L);
+        journal.getEntry(createSourcePage("page-3"), targetMount);
+
+        assertEquals(2, journal.getEntryCount());
+        assertSame(second, journal.getEntry(createSourcePage("page-2"), targetMount));
+        assertNotSame(first, journal.getEntry(createSourcePage("page-1"), targetMount));
+    }
+
+    private static HstComponentConfiguration createSourcePage(final String canonicalIdentifier) {
+        return stub(HstComponentConfiguration.class, "getCanonicalIdentifier", canonicalIdentifier);
+    }
+
+    private static Mount createMount(final String identifier) {
+        return stub(Mount.class, "getIdentifier", identifier);
+    }
+
+    private static <T> T stub(final Class<T> type, final String methodName, final Object value) {
+        return type.cast(Proxy.newProxyInstance(PageCopyJournalTest.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    if (method.getName().equals(methodName)) {
+                        return value;
+                    }
+
+                    throw new UnsupportedOperationException(method.getName());
+                }));
+    }
+}
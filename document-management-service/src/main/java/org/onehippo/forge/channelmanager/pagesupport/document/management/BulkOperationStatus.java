@@ -0,0 +1,130 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.document.management;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Status of a bulk operation submitted to {@link DocumentManagementServiceMXBean}.
+ */
+public class BulkOperationStatus {
+
+    /**
+     * State of a bulk operation waiting for a worker.
+     */
+    public static final String QUEUED = "QUEUED";
+
+    /**
+     * State of a bulk operation being processed.
+     */
+    public static final String RUNNING = "RUNNING";
+
+    /**
+     * State of a bulk operation whose items are all processed.
+     */
+    public static final String COMPLETED = "COMPLETED";
+
+    /**
+     * State of a bulk operation cancelled before all the items are processed.
+     */
+    public static final String CANCELLED = "CANCELLED";
+
+    private final String id;
+    private final String operationName;
+    private final String state;
+    private final int totalCount;
+    private final int processedCount;
+    private final int succeededCount;
+    private final int failedCount;
+    private final long submittedTime;
+    private final long finishedTime;
+
+    @ConstructorProperties({ "id", "operationName", "state", "totalCount", "processedCount", "succeededCount",
+            "failedCount", "submittedTime", "finishedTime" })
+    public BulkOperationStatus(final String id, final String operationName, final String state, final int totalCount,
+            final int processedCount, final int succeededCount, final int failedCount, final long submittedTime,
+            final long finishedTime) {
+        this.id = id;
+        this.operationName = operationName;
+        this.state = state;
+        this.totalCount = totalCount;
+        this.processedCount = processedCount;
+        this.succeededCount = succeededCount;
+        this.failedCount = failedCount;
+        this.submittedTime = submittedTime;
+        this.finishedTime = finishedTime;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getOperationName() {
+        return operationName;
+    }
+
+    /**
+     * Returns the state, one of {@link #QUEUED}, {@link #RUNNING}, {@link #COMPLETED} and {@link #CANCELLED}.
+     * @return the state
+     */
+    public String getState() {
+        return state;
+    }
+
+    /**
+     * Returns the number of the items, which grows while the items are being found in the background, e.g. the
+     * documents under a folder.
+     * @return the number of the items
+     */
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the number of the processed items, which is the number of the results available so far.
+     * @return the number of the processed items
+     */
+    public int getProcessedCount() {
+        return processedCount;
+    }
+
+    public int getSucceededCount() {
+        return succeededCount;
+    }
+
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    public long getSubmittedTime() {
+        return submittedTime;
+    }
+
+    /**
+     * Returns the time when the bulk operation completed or was cancelled.
+     * @return the time when the bulk operation completed or was cancelled, or zero if not finished yet
+     */
+    public long getFinishedTime() {
+        return finishedTime;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkOperationStatus{id='" + id + "', operationName='" + operationName + "', state=" + state
+                + ", totalCount=" + totalCount + ", processedCount=" + processedCount + ", succeededCount="
+                + succeededCount + ", failedCount=" + failedCount + "}";
+    }
+}
@@ -15,8 +15,17 @@
  */
 package org.onehippo.forge.channelmanager.pagesupport.document.management;
 
+import java.util.function.BiFunction;
+
 /**
  * Hippo CMS Document/Folder Workflow invocation service interface as possibly deployed as JMX MBean.
+ * <P>
+ * The compound and batch operations have default implementations invoking the single item operations one after
+ * another, so a custom implementation only needs to implement the single item operations, and may override the
+ * others to run them more efficiently. The bulk operations with document locations run the single item operations
+ * synchronously by default, while the bulk operations on the documents under a folder, which have to find
+ * the documents in the repository, must be implemented.
+ * </P>
  */
 public interface DocumentManagementServiceMXBean {
 
@@ -87,4 +96,275 @@ public interface DocumentManagementServiceMXBean {
      */
     String translateDocument(String sourceDocumentLocation, String language, String name);
 
+    /**
+     * Translates the {@code sourceDocumentLocation} to {@code language} with the {@code name}, and commits
+     * the translated document right away, resolving the translated document handle and its workflow only once.
+     * @param sourceDocumentLocation source document handle location
+     * @param language target language to translate to
+     * @param name target document name
+     * @return the translated and committed target document handle location
+     */
+    default String translateAndCommitDocument(String sourceDocumentLocation, String language, String name) {
+        final String targetDocumentLocation = translateDocument(sourceDocumentLocation, language, name);
+        commitEditableDocument(targetDocumentLocation);
+        return targetDocumentLocation;
+    }
+
+    /**
+     * Copies the {@code sourceDocumentLocation} to {@code targetFolderLocation} with the {@code targetDocumentName},
+     * and publishes the copied document right away, resolving the copied document handle and its workflow only once.
+     * @param sourceDocumentLocation source document handle location
+     * @param targetFolderLocation target folder location
+     * @param targetDocumentName target document handle node name
+     * @return the copied and published target document handle location
+     */
+    default String copyAndPublishDocument(String sourceDocumentLocation, String targetFolderLocation,
+            String targetDocumentName) {
+        final String targetDocumentLocation = copyDocument(sourceDocumentLocation, targetFolderLocation,
+                targetDocumentName);
+        publishDocument(targetDocumentLocation);
+        return targetDocumentLocation;
+    }
+
+    /**
+     * Obtains an editable draft variant from the document handle location and commits it right away,
+     * with the same document workflow.
+     * @param documentLocation document handle location
+     * @return true if the operation was successful, false otherwise
+     */
+    default boolean obtainAndCommitEditableDocument(String documentLocation) {
+        return obtainEditableDocument(documentLocation) && commitEditableDocument(documentLocation);
+    }
+
+    /**
+     * Obtains an editable draft variant from each document handle location.
+     * @param documentLocations document handle locations
+     * @return the result of each document handle location
+     */
+    default DocumentOperationResult[] obtainEditableDocuments(String[] documentLocations) {
+        return processEach(documentLocations, null, false, (location, name) -> {
+            obtainEditableDocument(location);
+            return location;
+        });
+    }
+
+    /**
+     * Commits the draft variant currently being edited of each document handle location.
+     * @param documentLocations document handle locations
+     * @return the result of each document handle location
+     */
+    default DocumentOperationResult[] commitEditableDocuments(String[] documentLocations) {
+        return processEach(documentLocations, null, false, (location, name) -> {
+            commitEditableDocument(location);
+            return location;
+        });
+    }
+
+    /**
+     * Takes offline each document.
+     * @param documentLocations document handle locations
+     * @return the result of each document handle location
+     */
+    default DocumentOperationResult[] depublishDocuments(String[] documentLocations) {
+        return processEach(documentLocations, null, false, (location, name) -> {
+            depublishDocument(location);
+            return location;
+        });
+    }
+
+    /**
+     * Publishes each document.
+     * @param documentLocations document handle locations
+     * @return the result of each document handle location
+     */
+    default DocumentOperationResult[] publishDocuments(String[] documentLocations) {
+        return processEach(documentLocations, null, false, (location, name) -> {
+            publishDocument(location);
+            return location;
+        });
+    }
+
+    /**
+     * Translates each of the {@code sourceFolderLocations} to {@code language} with the name at the same index of
+     * {@code names}, in the given order, e.g. a chain of folders from the top ancestor down to the deepest descendant.
+     * As a folder cannot be translated without its parent folder translated, the folders after the first failure are
+     * not translated but reported as failed.
+     * @param sourceFolderLocations source folder locations
+     * @param language target language to translate to
+     * @param names target folder names
+     * @return the result of each source folder location, with the translated target folder location if succeeded
+     */
+    default DocumentOperationResult[] translateFolders(String[] sourceFolderLocations, String language,
+            String[] names) {
+        return processEach(sourceFolderLocations, names, true,
+                (location, name) -> translateFolder(location, language, name));
+    }
+
+    /**
+     * Translates each of the {@code sourceDocumentLocations} to {@code language} with the name at the same index of
+     * {@code names}.
+     * @param sourceDocumentLocations source document handle locations
+     * @param language target language to translate to
+     * @param names target document names
+     * @return the result of each source document handle location, with the translated target document handle location
+     *         if succeeded
+     */
+    default DocumentOperationResult[] translateDocuments(String[] sourceDocumentLocations, String language,
+            String[] names) {
+        return processEach(sourceDocumentLocations, names, false,
+                (location, name) -> translateDocument(location, language, name));
+    }
+
+    /**
+     * Translates each of the {@code sourceDocumentLocations} to {@code language} with the name at the same index of
+     * {@code names}, and commits the translated document right away.
+     * If a translated document fails to be committed, its result is failed but still has the translated target
+     * document handle location as {@link DocumentOperationResult#getResultLocation()}.
+     * @param sourceDocumentLocations source document handle locations
+     * @param language target language to translate to
+     * @param names target document names
+     * @return the result of each source document handle location, with the translated target document handle location
+     */
+    default DocumentOperationResult[] translateAndCommitDocuments(String[] sourceDocumentLocations, String language,
+            String[] names) {
+        if (sourceDocumentLocations == null || names == null || sourceDocumentLocations.length != names.length) {
+            throw new IllegalArgumentException("The source document locations and the target document names must be "
+                    + "given in the same number.");
+        }
+
+        final DocumentOperationResult[] results = new DocumentOperationResult[sourceDocumentLocations.length];
+
+        for (int i = 0; i < sourceDocumentLocations.length; i++) {
+            String targetDocumentLocation = null;
+
+            try {
+                targetDocumentLocation = translateDocument(sourceDocumentLocations[i], language, names[i]);
+                commitEditableDocument(targetDocumentLocation);
+                results[i] = DocumentOperationResult.succeeded(sourceDocumentLocations[i], targetDocumentLocation);
+            } catch (RuntimeException e) {
+                results[i] = new DocumentOperationResult(sourceDocumentLocations[i], false, targetDocumentLocation,
+                        e.getMessage());
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Submits a bulk operation publishing each document in the background, on a bounded pool of workers each with
+     * its own session, and returns right away.
+     * By default, the documents are published one after another before returning.
+     * @param documentLocations document handle locations
+     * @return the bulk operation ID to get the status and the results by
+     */
+    default String submitBulkPublish(String[] documentLocations) {
+        final long submittedTime = System.currentTimeMillis();
+        return SynchronousBulkOperations.add("publishDocument", publishDocuments(documentLocations), submittedTime);
+    }
+
+    /**
+     * Submits a bulk operation taking offline each document in the background, on a bounded pool of workers each
+     * with its own session, and returns right away.
+     * By default, the documents are taken offline one after another before returning.
+     * @param documentLocations document handle locations
+     * @return the bulk operation ID to get the status and the results by
+     */
+    default String submitBulkDepublish(String[] documentLocations) {
+        final long submittedTime = System.currentTimeMillis();
+        return SynchronousBulkOperations.add("depublishDocument", depublishDocuments(documentLocations),
+                submittedTime);
+    }
+
+    /**
+     * Submits a bulk operation publishing each document under the {@code folderLocation} in the background.
+     * The documents are found in the background as well, while the documents found so far are being published.
+     * @param folderLocation folder location to find the documents under, in all the descendant folders
+     * @param pathPattern regular expression to match the whole document handle location against,
+     *        or null or empty for all the documents under the folder
+     * @return the bulk operation ID to get the status and the results by
+     */
+    String submitBulkPublishInFolder(String folderLocation, String pathPattern);
+
+    /**
+     * Submits a bulk operation taking offline each document under the {@code folderLocation} in the background.
+     * The documents are found in the background as well, while the documents found so far are being taken offline.
+     * @param folderLocation folder location to find the documents under, in all the descendant folders
+     * @param pathPattern regular expression to match the whole document handle location against,
+     *        or null or empty for all the documents under the folder
+     * @return the bulk operation ID to get the status and the results by
+     */
+    String submitBulkDepublishInFolder(String folderLocation, String pathPattern);
+
+    /**
+     * Returns the status of the bulk operation.
+     * @param bulkOperationId bulk operation ID
+     * @return the status of the bulk operation
+     */
+    default BulkOperationStatus getBulkOperationStatus(String bulkOperationId) {
+        return SynchronousBulkOperations.getStatus(bulkOperationId);
+    }
+
+    /**
+     * Returns the results of the items of the bulk operation processed so far, in the order of completion,
+     * from {@code fromIndex} up to {@code maxCount} results, to be polled while the bulk operation is running.
+     * @param bulkOperationId bulk operation ID
+     * @param fromIndex index of the first result to return
+     * @param maxCount maximum number of the results to return
+     * @return the results of the items of the bulk operation processed so far from {@code fromIndex}
+     */
+    default DocumentOperationResult[] getBulkOperationResults(String bulkOperationId, int fromIndex, int maxCount) {
+        return SynchronousBulkOperations.getResults(bulkOperationId, fromIndex, maxCount);
+    }
+
+    /**
+     * Cancels the bulk operation. The items being processed are completed, and the rest are reported as failed.
+     * By default, the bulk operations are finished on submission, so nothing is cancelled.
+     * @param bulkOperationId bulk operation ID
+     * @return true if cancelled, or false if the bulk operation was finished already
+     */
+    default boolean cancelBulkOperation(String bulkOperationId) {
+        SynchronousBulkOperations.getStatus(bulkOperationId);
+        return false;
+    }
+
+    /**
+     * Runs the {@code operation} on each of the {@code locations} with the name at the same index of {@code names}
+     * if given, one after another, and collects the result of each.
+     * If {@code stopOnFailure} is true, the items after the first failure are reported as failed without running.
+     */
+    private DocumentOperationResult[] processEach(String[] locations, String[] names, boolean stopOnFailure,
+            BiFunction<String, String, String> operation) {
+        if (locations == null) {
+            throw new IllegalArgumentException("Invalid locations: null.");
+        }
+
+        if (names != null && names.length != locations.length) {
+            throw new IllegalArgumentException("The number of names (" + names.length
+                    + ") doesn't match the number of locations (" + locations.length + ").");
+        }
+
+        final DocumentOperationResult[] results = new DocumentOperationResult[locations.length];
+        String failedLocation = null;
+
+        for (int i = 0; i < locations.length; i++) {
+            if (failedLocation != null) {
+                results[i] = DocumentOperationResult.failed(locations[i],
+                        "Not processed because '" + failedLocation + "' failed.");
+                continue;
+            }
+
+            try {
+                results[i] = DocumentOperationResult.succeeded(locations[i],
+                        operation.apply(locations[i], (names != null) ? names[i] : null));
+            } catch (RuntimeException e) {
+                results[i] = DocumentOperationResult.failed(locations[i], e.getMessage());
+
+                if (stopOnFailure) {
+                    failedLocation = locations[i];
+                }
+            }
+        }
+
+        return results;
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.document.management;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Result of an item in a batch operation of {@link DocumentManagementServiceMXBean}.
+ */
+public class DocumentOperationResult {
+
+    private final String location;
+    private final boolean succeeded;
+    private final String resultLocation;
+    private final String errorMessage;
+
+    @ConstructorProperties({ "location", "succeeded", "resultLocation", "errorMessage" })
+    public DocumentOperationResult(final String location, final boolean succeeded, final String resultLocation,
+            final String errorMessage) {
+        this.location = location;
+        this.succeeded = succeeded;
+        this.resultLocation = resultLocation;
+        this.errorMessage = errorMessage;
+    }
+
+    /**
+     * Creates a result of a succeeded item.
+     * @param location the location of the item given to the operation
+     * @param resultLocation the location resulting from the operation, such as a translated document handle location
+     * @return a result of a succeeded item
+     */
+    public static DocumentOperationResult succeeded(final String location, final String resultLocation) {
+        return new DocumentOperationResult(location, true, resultLocation, null);
+    }
+
+    /**
+     * Creates a result of a failed item.
+     * @param location the location of the item given to the operation
+     * @param errorMessage the error message
+     * @return a result of a failed item
+     */
+    public static DocumentOperationResult failed(final String location, final String errorMessage) {
+        return new DocumentOperationResult(location, false, null, errorMessage);
+    }
+
+    /**
+     * Returns the location of the item given to the operation.
+     * @return the location of the item given to the operation
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    public boolean isSucceeded() {
+        return succeeded;
+    }
+
+    /**
+     * Returns the location resulting from the operation, such as a translated document handle location,
+     * or the same location as {@link #getLocation()} if the operation doesn't create a new one.
+     * A failed compound operation may have the location resulting from the steps completed before the failure.
+     * @return the location resulting from the operation, or null if failed
+     */
+    public String getResultLocation() {
+        return resultLocation;
+    }
+
+    /**
+     * Returns the error message if failed.
+     * @return the error message if failed, or null if succeeded
+     */
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    @Override
+    public String toString() {
+        return "DocumentOperationResult{location='" + location + "', succeeded=" + succeeded + ", resultLocation='"
+                + resultLocation + "', errorMessage='" + errorMessage + "'}";
+    }
+}
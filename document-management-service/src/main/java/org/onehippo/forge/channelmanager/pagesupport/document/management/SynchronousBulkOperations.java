@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.document.management;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Finished bulk operations run synchronously by the default bulk operations of
+ * {@link DocumentManagementServiceMXBean}, kept to get the status and the results by the bulk operation ID.
+ * Only the latest {@link #MAX_BULK_OPERATIONS} bulk operations are kept.
+ */
+final class SynchronousBulkOperations {
+
+    /**
+     * Maximum number of the bulk operations kept.
+     */
+    static final int MAX_BULK_OPERATIONS = 20;
+
+    private static final Map<String, BulkOperation> bulkOperations = new LinkedHashMap<String, BulkOperation>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, BulkOperation> eldest) {
+            return size() > MAX_BULK_OPERATIONS;
+        }
+    };
+
+    private SynchronousBulkOperations() {
+    }
+
+    /**
+     * Keeps the {@code results} of a bulk operation processed synchronously since {@code submittedTime}.
+     * @return the bulk operation ID
+     */
+    static String add(final String operationName, final DocumentOperationResult[] results,
+            final long submittedTime) {
+        int succeededCount = 0;
+
+        for (DocumentOperationResult result : results) {
+            if (result.isSucceeded()) {
+                succeededCount++;
+            }
+        }
+
+        final String id = UUID.randomUUID().toString();
+        final BulkOperationStatus status = new BulkOperationStatus(id, operationName, BulkOperationStatus.COMPLETED,
+                results.length, results.length, succeededCount, results.length - succeededCount, submittedTime,
+                System.currentTimeMillis());
+
+        synchronized (bulkOperations) {
+            bulkOperations.put(id, new BulkOperation(status, results));
+        }
+
+        return id;
+    }
+
+    static BulkOperationStatus getStatus(final String bulkOperationId) {
+        return getBulkOperation(bulkOperationId).status;
+    }
+
+    static DocumentOperationResult[] getResults(final String bulkOperationId, final int fromIndex,
+            final int maxCount) {
+        if (fromIndex < 0 || maxCount < 0) {
+            throw new IllegalArgumentException("Invalid range of results: " + fromIndex + ", " + maxCount + ".");
+        }
+
+        final DocumentOperationResult[] results = getBulkOperation(bulkOperationId).results;
+
+        if (fromIndex >= results.length) {
+            return new DocumentOperationResult[0];
+        }
+
+        final int toIndex = (int) Math.min((long) fromIndex + maxCount, results.length);
+        final DocumentOperationResult[] range = new DocumentOperationResult[toIndex - fromIndex];
+        System.arraycopy(results, fromIndex, range, 0, range.length);
+        return range;
+    }
+
+    private static BulkOperation getBulkOperation(final String bulkOperationId) {
+        final BulkOperation bulkOperation;
+
+        synchronized (bulkOperations) {
+            bulkOperation = bulkOperations.get(bulkOperationId);
+        }
+
+        if (bulkOperation == null) {
+            throw new IllegalArgumentException("Unknown bulk operation ID: '" + bulkOperationId + "'.");
+        }
+
+        return bulkOperation;
+    }
+
+    private static class BulkOperation {
+
+        private final BulkOperationStatus status;
+        private final DocumentOperationResult[] results;
+
+        private BulkOperation(final BulkOperationStatus status, final DocumentOperationResult[] results) {
+            this.status = status;
+            this.results = results;
+        }
+    }
+}
@@ -0,0 +1,576 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.document.management.impl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.onehippo.forge.channelmanager.pagesupport.document.management.BulkOperationStatus;
+import org.onehippo.forge.channelmanager.pagesupport.document.management.DocumentOperationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the bulk operations of {@link DocumentWorkflowDocumentManagementService} in the background, on a bounded pool
+ * of workers each with its own session from a dedicated {@link WorkflowSessionPool}, so that a bulk operation
+ * neither shares the sessions of the other operations nor blocks the caller.
+ * <P>
+ * The workers of a bulk operation take the items one by one, and each result is available as soon as the item is
+ * processed. The operations of all the workers are throttled to {@link #getMaxOperationsPerSecond()} if positive,
+ * so that a large bulk operation doesn't starve the live traffic.
+ * </P>
+ * <P>
+ * The items of a bulk operation may also be found in the background by a {@link LocationSource}, e.g. by walking
+ * a folder tree, in a dedicated thread with its own session. The found items are handed over to the workers through
+ * a queue of at most {@link #PENDING_LOCATIONS_CAPACITY} items, so the enumeration never gets far ahead of the
+ * workers and the locations are never all held in memory at once.
+ * </P>
+ */
+class BulkOperationExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkOperationExecutor.class);
+
+    /**
+     * Maximum number of the finished bulk operations to keep the results of.
+     */
+    static final int MAX_FINISHED_BULK_OPERATIONS = 20;
+
+    /**
+     * Maximum number of the found items waiting for a worker in a bulk operation finding its items in the background.
+     */
+    static final int PENDING_LOCATIONS_CAPACITY = 1000;
+
+    /**
+     * Time in milliseconds to wait for an item at a time, before checking whether the bulk operation is cancelled.
+     */
+    private static final long POLL_TIMEOUT_MILLIS = 100L;
+
+    private final SessionRunner sessionRunner;
+
+    private final int workerCount;
+
+    private final long maxOperationsPerSecond;
+
+    private final WorkflowSessionPool sessionPool;
+
+    private final ThreadPoolExecutor executor;
+
+    private final ExecutorService enumerationExecutor;
+
+    private final Map<String, BulkOperation> bulkOperations = new LinkedHashMap<>();
+
+    private final Object throttleLock = new Object();
+
+    private long nextOperationNanos;
+
+    /**
+     * @param baseSession session to impersonate the worker sessions from
+     * @param baseSessionLock lock held by all the users of the {@code baseSession}
+     * @param workerCount maximum number of the workers running at the same time
+     * @param maxOperationsPerSecond maximum number of the item operations per second of all the workers,
+     *        or zero for no limit
+     * @param sessionRunner runs an item operation with a worker session
+     */
+    BulkOperationExecutor(final Session baseSession, final Object baseSessionLock, final int workerCount,
+            final long maxOperationsPerSecond, final SessionRunner sessionRunner) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("workerCount must be positive: " + workerCount);
+        }
+
+        this.sessionRunner = sessionRunner;
+        this.workerCount = workerCount;
+        this.maxOperationsPerSecond = maxOperationsPerSecond;
+        // one more session for the enumeration thread
+        sessionPool = new WorkflowSessionPool(baseSession, baseSessionLock, workerCount + 1,
+                WorkflowSessionPool.DEFAULT_BORROW_TIMEOUT);
+
+        final AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workerCount, workerCount, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    final Thread thread = new Thread(runnable,
+                            "document-management-bulk-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+
+        enumerationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "document-management-bulk-enumeration");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    int getWorkerCount() {
+        return workerCount;
+    }
+
+    long getMaxOperationsPerSecond() {
+        return maxOperationsPerSecond;
+    }
+
+    /**
+     * Submits a bulk operation running the {@code operation} on each of the {@code locations}.
+     * @param operationName operation name
+     * @param locations locations of the items
+     * @param operation operation run by the {@link SessionRunner} with a worker session, returning the resulting
+     *        location of an item, or throwing a {@link RuntimeException} if failed
+     * @return the bulk operation ID
+     */
+    String submit(final String operationName, final List<String> locations,
+            final Function<String, String> operation) {
+        checkRunning();
+
+        final BulkOperation bulkOperation = new BulkOperation(UUID.randomUUID().toString(), operationName,
+                new LinkedBlockingQueue<>(locations), locations.size(), null);
+        final int workers = Math.min(workerCount, locations.size());
+
+        addBulkOperation(bulkOperation);
+
+        if (workers == 0) {
+            bulkOperation.finish();
+            return bulkOperation.id;
+        }
+
+        bulkOperation.activeParticipantCount.set(workers);
+        startWorkers(bulkOperation, workers, operation);
+
+        log.info("Submitted bulk operation '{}' of {} items: {}", operationName, locations.size(), bulkOperation.id);
+        return bulkOperation.id;
+    }
+
+    /**
+     * Submits a bulk operation running the {@code operation} on each of the locations found by the
+     * {@code locationSource} in the background, while the workers process the locations found so far.
+     * @param operationName operation name
+     * @param sourceLocation location where the items are found, e.g. a folder location, to report an enumeration
+     *        failure with
+     * @param locationSource source of the locations of the items, run by the {@link SessionRunner} with its own session
+     * @param operation operation run by the {@link SessionRunner} with a worker session, returning the resulting
+     *        location of an item, or throwing a {@link RuntimeException} if failed
+     * @return the bulk operation ID
+     */
+    String submit(final String operationName, final String sourceLocation, final LocationSource locationSource,
+            final Function<String, String> operation) {
+        checkRunning();
+
+        final BulkOperation bulkOperation = new BulkOperation(UUID.randomUUID().toString(), operationName,
+                new LinkedBlockingQueue<>(PENDING_LOCATIONS_CAPACITY), 0, sourceLocation);
+
+        addBulkOperation(bulkOperation);
+
+        // the enumeration is a participant as well, so the bulk operation finishes after both the enumeration and
+        // the workers finish
+        bulkOperation.activeParticipantCount.set(workerCount + 1);
+        enumerationExecutor.execute(() -> runEnumeration(bulkOperation, locationSource));
+        startWorkers(bulkOperation, workerCount, operation);
+
+        log.info("Submitted bulk operation '{}' of the items under '{}': {}", operationName, sourceLocation,
+                bulkOperation.id);
+        return bulkOperation.id;
+    }
+
+    BulkOperationStatus getStatus(final String bulkOperationId) {
+        return getBulkOperation(bulkOperationId).getStatus();
+    }
+
+    DocumentOperationResult[] getResults(final String bulkOperationId, final int fromIndex, final int maxCount) {
+        return getBulkOperation(bulkOperationId).getResults(fromIndex, maxCount);
+    }
+
+    boolean cancel(final String bulkOperationId) {
+        return getBulkOperation(bulkOperationId).cancel();
+    }
+
+    /**
+     * Shuts down the workers and the enumeration, cancelling the unfinished bulk operations, and closes the sessions.
+     */
+    void shutdown() {
+        synchronized (bulkOperations) {
+            bulkOperations.values().forEach(BulkOperation::cancel);
+        }
+
+        enumerationExecutor.shutdownNow();
+        executor.shutdownNow();
+
+        try {
+            if (!executor.awaitTermination(10L, TimeUnit.SECONDS)
+                    || !enumerationExecutor.awaitTermination(10L, TimeUnit.SECONDS)) {
+                log.warn("Bulk operation workers are still running after shutdown.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        sessionPool.close();
+    }
+
+    /**
+     * Returns the key of the worker session.
+     * @param session session
+     * @return the key of the session, or null if the session is not a worker session
+     * @see WorkflowSessionPool#getSessionKey(Session)
+     */
+    String getSessionKey(final Session session) {
+        return sessionPool.getSessionKey(session);
+    }
+
+    private void checkRunning() {
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("The bulk operation executor is shut down.");
+        }
+    }
+
+    private void addBulkOperation(final BulkOperation bulkOperation) {
+        synchronized (bulkOperations) {
+            evictFinishedBulkOperations();
+            bulkOperations.put(bulkOperation.id, bulkOperation);
+        }
+    }
+
+    private void startWorkers(final BulkOperation bulkOperation, final int workers,
+            final Function<String, String> operation) {
+        for (int i = 0; i < workers; i++) {
+            executor.execute(() -> runWorker(bulkOperation, operation));
+        }
+    }
+
+    private BulkOperation getBulkOperation(final String bulkOperationId) {
+        final BulkOperation bulkOperation;
+
+        synchronized (bulkOperations) {
+            bulkOperation = bulkOperations.get(bulkOperationId);
+        }
+
+        if (bulkOperation == null) {
+            throw new IllegalArgumentException("Unknown bulk operation ID: '" + bulkOperationId + "'.");
+        }
+
+        return bulkOperation;
+    }
+
+    private void evictFinishedBulkOperations() {
+        int finishedCount = 0;
+
+        for (BulkOperation bulkOperation : bulkOperations.values()) {
+            if (bulkOperation.isFinished()) {
+                finishedCount++;
+            }
+        }
+
+        for (Iterator<BulkOperation> it = bulkOperations.values().iterator(); it.hasNext()
+                && finishedCount >= MAX_FINISHED_BULK_OPERATIONS;) {
+            if (it.next().isFinished()) {
+                it.remove();
+                finishedCount--;
+            }
+        }
+    }
+
+    private void runEnumeration(final BulkOperation bulkOperation, final LocationSource locationSource) {
+        Session session = null;
+
+        try {
+            bulkOperation.start();
+            session = sessionPool.borrowSession();
+            sessionRunner.run(session, () -> {
+                locationSource.findLocations(bulkOperation::addLocation);
+                return null;
+            });
+        } catch (RepositoryException | RuntimeException e) {
+            log.error("Failed to find the items of bulk operation '{}'.", bulkOperation.id, e);
+            bulkOperation.enumerationFailed("Failed to find the items. " + e.getMessage());
+        } finally {
+            if (session != null) {
+                sessionPool.returnSession(session);
+            }
+
+            bulkOperation.enumerationFinished();
+            bulkOperation.participantFinished();
+        }
+    }
+
+    private void runWorker(final BulkOperation bulkOperation, final Function<String, String> operation) {
+        Session session = null;
+
+        try {
+            bulkOperation.start();
+            session = sessionPool.borrowSession();
+
+            for (String location = bulkOperation.nextLocation(); location != null; location = bulkOperation
+                    .nextLocation()) {
+                throttle();
+                bulkOperation.addResult(runOperation(session, location, operation));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            bulkOperation.cancel();
+        } catch (RepositoryException | RuntimeException e) {
+            log.error("Bulk operation worker of '{}' stopped.", bulkOperation.id, e);
+        } finally {
+            if (session != null) {
+                sessionPool.returnSession(session);
+            }
+
+            bulkOperation.participantFinished();
+        }
+    }
+
+    private DocumentOperationResult runOperation(final Session session, final String location,
+            final Function<String, String> operation) {
+        try {
+            return DocumentOperationResult.succeeded(location,
+                    sessionRunner.run(session, () -> operation.apply(location)));
+        } catch (RuntimeException e) {
+            return DocumentOperationResult.failed(location, e.getMessage());
+        }
+    }
+
+    /**
+     * Waits until the next operation is allowed by {@link #getMaxOperationsPerSecond()}.
+     */
+    private void throttle() throws InterruptedException {
+        if (maxOperationsPerSecond <= 0L) {
+            return;
+        }
+
+        final long waitNanos;
+
+        synchronized (throttleLock) {
+            final long nowNanos = System.nanoTime();
+            final long operationNanos = Math.max(nowNanos, nextOperationNanos);
+            nextOperationNanos = operationNanos + TimeUnit.SECONDS.toNanos(1L) / maxOperationsPerSecond;
+            waitNanos = operationNanos - nowNanos;
+        }
+
+        if (waitNanos > 0L) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Runs an item operation with the given worker session.
+     */
+    interface SessionRunner {
+
+        String run(Session session, Supplier<String> operation);
+
+    }
+
+    /**
+     * Finds the locations of the items of a bulk operation, run by the {@link SessionRunner} with its own session.
+     */
+    interface LocationSource {
+
+        /**
+         * Passes each location found to the {@code sink}, until the {@code sink} returns false, e.g. when the bulk
+         * operation is cancelled.
+         * @param sink consumer of the locations, returning false to stop
+         */
+        void findLocations(Predicate<String> sink);
+
+    }
+
+    private static class BulkOperation {
+
+        private final String id;
+        private final String operationName;
+        private final BlockingQueue<String> pendingLocations;
+        private final String sourceLocation;
+        private final long submittedTime = System.currentTimeMillis();
+        private final AtomicInteger activeParticipantCount = new AtomicInteger();
+        private final List<DocumentOperationResult> results = new ArrayList<>();
+        private int totalCount;
+        private int succeededCount;
+        private volatile boolean enumerated;
+        private String state = BulkOperationStatus.QUEUED;
+        private long finishedTime;
+
+        /**
+         * @param pendingLocations queue of the locations to process, with all the locations already unless
+         *        {@code sourceLocation} is given
+         * @param totalCount number of the locations in the {@code pendingLocations}
+         * @param sourceLocation location where the items are being found in the background, or null if all
+         *        the locations are given in the {@code pendingLocations}
+         */
+        private BulkOperation(final String id, final String operationName,
+                final BlockingQueue<String> pendingLocations, final int totalCount, final String sourceLocation) {
+            this.id = id;
+            this.operationName = operationName;
+            this.pendingLocations = pendingLocations;
+            this.totalCount = totalCount;
+            this.sourceLocation = sourceLocation;
+            enumerated = (sourceLocation == null);
+        }
+
+        private synchronized void start() {
+            if (BulkOperationStatus.QUEUED.equals(state)) {
+                state = BulkOperationStatus.RUNNING;
+            }
+        }
+
+        /**
+         * Adds a found location to be processed, waiting while the workers are behind.
+         * If no worker is left to take it, it is reported as failed right away.
+         * @return false if the bulk operation is cancelled, so no more locations are to be found
+         */
+        private boolean addLocation(final String location) {
+            synchronized (this) {
+                totalCount++;
+            }
+
+            try {
+                while (!isCancelled()) {
+                    // the enumeration itself is the only participant left
+                    if (activeParticipantCount.get() <= 1) {
+                        addResult(DocumentOperationResult.failed(location,
+                                "Not processed because no worker was available."));
+                        return true;
+                    }
+
+                    if (pendingLocations.offer(location, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            addResult(DocumentOperationResult.failed(location,
+                    "Not processed because the bulk operation was cancelled."));
+            return false;
+        }
+
+        private void enumerationFinished() {
+            enumerated = true;
+        }
+
+        /**
+         * Reports the failure of finding the items as a failed item of the source location.
+         */
+        private synchronized void enumerationFailed(final String errorMessage) {
+            totalCount++;
+            addResult(DocumentOperationResult.failed(sourceLocation, errorMessage));
+        }
+
+        /**
+         * Returns the location of the next item to process, waiting for the next location to be found if being
+         * found in the background, or null if none left or cancelled.
+         */
+        private String nextLocation() throws InterruptedException {
+            while (!isCancelled()) {
+                // read before polling, so an empty queue after the enumeration finished means no location left
+                final boolean allFound = enumerated;
+                final String location = allFound ? pendingLocations.poll()
+                        : pendingLocations.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+                if (location != null || allFound) {
+                    return location;
+                }
+            }
+
+            return null;
+        }
+
+        private synchronized void addResult(final DocumentOperationResult result) {
+            results.add(result);
+
+            if (result.isSucceeded()) {
+                succeededCount++;
+            }
+        }
+
+        /**
+         * Reports the items not processed as failed after the last worker or the enumeration finished,
+         * e.g. on cancellation or when no worker session is available.
+         */
+        private void participantFinished() {
+            if (activeParticipantCount.decrementAndGet() > 0) {
+                return;
+            }
+
+            final String reason = isCancelled() ? "Not processed because the bulk operation was cancelled."
+                    : "Not processed because no worker was available.";
+
+            for (String location = pendingLocations.poll(); location != null; location = pendingLocations.poll()) {
+                addResult(DocumentOperationResult.failed(location, reason));
+            }
+
+            finish();
+            log.info("Finished bulk operation '{}': {}", operationName, getStatus());
+        }
+
+        private synchronized void finish() {
+            if (!BulkOperationStatus.CANCELLED.equals(state)) {
+                state = BulkOperationStatus.COMPLETED;
+            }
+
+            finishedTime = System.currentTimeMillis();
+        }
+
+        private synchronized boolean cancel() {
+            if (isFinished()) {
+                return false;
+            }
+
+            state = BulkOperationStatus.CANCELLED;
+            return true;
+        }
+
+        private synchronized boolean isCancelled() {
+            return BulkOperationStatus.CANCELLED.equals(state);
+        }
+
+        private synchronized boolean isFinished() {
+            return finishedTime > 0L;
+        }
+
+        private synchronized BulkOperationStatus getStatus() {
+            return new BulkOperationStatus(id, operationName, state, totalCount, results.size(),
+                    succeededCount, results.size() - succeededCount, submittedTime, finishedTime);
+        }
+
+        private synchronized DocumentOperationResult[] getResults(final int fromIndex, final int maxCount) {
+            if (fromIndex < 0 || maxCount < 0) {
+                throw new IllegalArgumentException("Invalid range of results: " + fromIndex + ", " + maxCount + ".");
+            }
+
+            if (fromIndex >= results.size()) {
+                return new DocumentOperationResult[0];
+            }
+
+            final int toIndex = (int) Math.min((long) fromIndex + maxCount, results.size());
+            return results.subList(fromIndex, toIndex).toArray(new DocumentOperationResult[0]);
+        }
+    }
+}
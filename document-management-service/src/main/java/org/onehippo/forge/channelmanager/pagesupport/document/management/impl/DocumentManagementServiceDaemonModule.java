@@ -45,10 +45,34 @@ public class DocumentManagementServiceDaemonModule extends AbstractReconfigurabl
 
     public static final String DOCUMENT_MANAGEMENT_SERVICE_PARAM = "document.management.service";
 
+    public static final String SESSION_POOL_SIZE_PARAM = "session.pool.size";
+
+    public static final String SESSION_POOL_BORROW_TIMEOUT_PARAM = "session.pool.borrow.timeout";
+
+    public static final String WORKFLOW_CACHE_TTL_PARAM = "workflow.cache.ttl";
+
+    public static final String WORKFLOW_CACHE_MAX_ENTRIES_PARAM = "workflow.cache.max.entries";
+
+    public static final String BULK_WORKER_COUNT_PARAM = "bulk.worker.count";
+
+    public static final String BULK_MAX_OPERATIONS_PER_SECOND_PARAM = "bulk.max.operations.per.second";
+
     private Session session;
 
     private String documentManagementServiceClassName;
 
+    private long sessionPoolSize;
+
+    private long sessionPoolBorrowTimeout = WorkflowSessionPool.DEFAULT_BORROW_TIMEOUT;
+
+    private long workflowCacheTimeToLive;
+
+    private long workflowCacheMaxEntries = DocumentWorkflowDocumentManagementService.DEFAULT_WORKFLOW_CACHE_MAX_ENTRIES;
+
+    private long bulkWorkerCount;
+
+    private long bulkMaxOperationsPerSecond;
+
     private DocumentManagementService documentManagementService;
 
     @Override
@@ -57,6 +81,15 @@ public class DocumentManagementServiceDaemonModule extends AbstractReconfigurabl
             documentManagementServiceClassName = StringUtils
                     .trim(JcrUtils.getStringProperty(moduleConfig, DOCUMENT_MANAGEMENT_SERVICE_PARAM, null));
         }
+
+        sessionPoolSize = JcrUtils.getLongProperty(moduleConfig, SESSION_POOL_SIZE_PARAM, 0L);
+        sessionPoolBorrowTimeout = JcrUtils.getLongProperty(moduleConfig, SESSION_POOL_BORROW_TIMEOUT_PARAM,
+                WorkflowSessionPool.DEFAULT_BORROW_TIMEOUT);
+        workflowCacheTimeToLive = JcrUtils.getLongProperty(moduleConfig, WORKFLOW_CACHE_TTL_PARAM, 0L);
+        workflowCacheMaxEntries = JcrUtils.getLongProperty(moduleConfig, WORKFLOW_CACHE_MAX_ENTRIES_PARAM,
+                (long) DocumentWorkflowDocumentManagementService.DEFAULT_WORKFLOW_CACHE_MAX_ENTRIES);
+        bulkWorkerCount = JcrUtils.getLongProperty(moduleConfig, BULK_WORKER_COUNT_PARAM, 0L);
+        bulkMaxOperationsPerSecond = JcrUtils.getLongProperty(moduleConfig, BULK_MAX_OPERATIONS_PER_SECOND_PARAM, 0L);
     }
 
     @Override
@@ -77,10 +110,21 @@ public class DocumentManagementServiceDaemonModule extends AbstractReconfigurabl
         }
 
         if (documentManagementService != null) {
+            if (documentManagementService instanceof DocumentWorkflowDocumentManagementService) {
+                final DocumentWorkflowDocumentManagementService workflowService = (DocumentWorkflowDocumentManagementService) documentManagementService;
+                workflowService.setSessionPoolSize((int) sessionPoolSize);
+                workflowService.setSessionPoolBorrowTimeout(sessionPoolBorrowTimeout);
+                workflowService.setWorkflowCacheTimeToLive(workflowCacheTimeToLive);
+                workflowService.setWorkflowCacheMaxEntries((int) workflowCacheMaxEntries);
+                workflowService.setBulkWorkerCount((int) bulkWorkerCount);
+                workflowService.setBulkMaxOperationsPerSecond(bulkMaxOperationsPerSecond);
+            }
+
             documentManagementService.initialize(session);
 
             registerDocumentManagementServiceInHippoServiceRegistry();
             registerDocumentManagementServiceMBean();
+            registerWorkflowServiceMBeans();
         }
     }
 
@@ -89,6 +133,8 @@ public class DocumentManagementServiceDaemonModule extends AbstractReconfigurabl
         if (documentManagementService != null) {
             unregisterDocumentManagementServiceInHippoServiceRegistry();
             unregisterDocumentManagementServiceMBean();
+            unregisterMBean(WorkflowSessionPoolMXBean.NAME);
+            unregisterMBean(WorkflowCacheMXBean.NAME);
 
             documentManagementService.destroy();
             documentManagementService = null;
@@ -112,24 +158,48 @@ public class DocumentManagementServiceDaemonModule extends AbstractReconfigurabl
     }
 
     private void registerDocumentManagementServiceMBean() {
+        registerMBean(documentManagementService, DocumentManagementServiceMXBean.NAME);
+    }
+
+    private void unregisterDocumentManagementServiceMBean() {
+        unregisterMBean(DocumentManagementServiceMXBean.NAME);
+    }
+
+    private void registerWorkflowServiceMBeans() {
+        if (!(documentManagementService instanceof DocumentWorkflowDocumentManagementService)) {
+            return;
+        }
+
+        final DocumentWorkflowDocumentManagementService workflowService = (DocumentWorkflowDocumentManagementService) documentManagementService;
+
+        if (workflowService.getSessionPool() != null) {
+            registerMBean(workflowService.getSessionPool(), WorkflowSessionPoolMXBean.NAME);
+        }
+
+        if (workflowService.getWorkflowCache() != null) {
+            registerMBean(workflowService.getWorkflowCache(), WorkflowCacheMXBean.NAME);
+        }
+    }
+
+    private void registerMBean(final Object mbean, final String name) {
         try {
             MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
-            ObjectName mbeanName = new ObjectName(DocumentManagementServiceMXBean.NAME);
+            ObjectName mbeanName = new ObjectName(name);
 
             if (mbeanServer.isRegistered(mbeanName)) {
                 mbeanServer.unregisterMBean(mbeanName);
             }
 
-            mbeanServer.registerMBean(documentManagementService, mbeanName);
+            mbeanServer.registerMBean(mbean, mbeanName);
         } catch (Exception e) {
             log.error("Failed to register MBean.", e);
         }
     }
 
-    private void unregisterDocumentManagementServiceMBean() {
+    private void unregisterMBean(final String name) {
         try {
             MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
-            ObjectName mbeanName = new ObjectName(DocumentManagementServiceMXBean.NAME);
+            ObjectName mbeanName = new ObjectName(name);
 
             if (mbeanServer.isRegistered(mbeanName)) {
                 mbeanServer.unregisterMBean(mbeanName);
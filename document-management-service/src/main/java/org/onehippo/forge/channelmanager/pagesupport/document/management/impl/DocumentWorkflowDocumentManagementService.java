@@ -15,12 +15,25 @@
  */
 package org.onehippo.forge.channelmanager.pagesupport.document.management.impl;
 
+import java.io.Serializable;
 import java.rmi.RemoteException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 
 import javax.jcr.Node;
+import javax.jcr.NodeIterator;
 import javax.jcr.RepositoryException;
 import javax.jcr.Session;
+import javax.jcr.observation.Event;
+import javax.jcr.observation.ObservationManager;
 
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -28,7 +41,9 @@ import org.hippoecm.repository.HippoStdNodeType;
 import org.hippoecm.repository.api.Document;
 import org.hippoecm.repository.api.WorkflowException;
 import org.hippoecm.repository.translation.TranslationWorkflow;
+import org.onehippo.forge.channelmanager.pagesupport.document.management.BulkOperationStatus;
 import org.onehippo.forge.channelmanager.pagesupport.document.management.DocumentManagementService;
+import org.onehippo.forge.channelmanager.pagesupport.document.management.DocumentOperationResult;
 import org.onehippo.repository.documentworkflow.DocumentWorkflow;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,6 +55,16 @@ public class DocumentWorkflowDocumentManagementService implements DocumentManage
 
     private static final Logger log = LoggerFactory.getLogger(DocumentWorkflowDocumentManagementService.class);
 
+    /**
+     * Default maximum number of the cached document workflows.
+     */
+    public static final int DEFAULT_WORKFLOW_CACHE_MAX_ENTRIES = 1000;
+
+    /**
+     * Key of the session given on {@link #initialize(Session)} in the workflow cache.
+     */
+    private static final String SHARED_SESSION_KEY = "shared";
+
     private Session session;
 
     /**
@@ -47,18 +72,115 @@ public class DocumentWorkflowDocumentManagementService implements DocumentManage
      */
     private String documentWorkflowCategory = "default";
 
+    /**
+     * Maximum number of the pooled sessions for concurrent callers, or zero to share the initial session.
+     */
+    private int sessionPoolSize;
+
+    private long sessionPoolBorrowTimeout = WorkflowSessionPool.DEFAULT_BORROW_TIMEOUT;
+
+    private WorkflowSessionPool sessionPool;
+
+    /**
+     * The session borrowed from the pool by the operation running in the current thread.
+     */
+    private final ThreadLocal<Session> borrowedSession = new ThreadLocal<>();
+
+    /**
+     * Lock to let the callers take turns on the session given on {@link #initialize(Session)} if no pool is enabled,
+     * and the session pools impersonate their sessions from it, as a JCR session is not thread-safe.
+     */
+    private final Object sharedSessionLock = new Object();
+
+    /**
+     * Time in milliseconds to cache a document workflow and its hints, or zero to get them on each operation.
+     */
+    private long workflowCacheTimeToLive;
+
+    private int workflowCacheMaxEntries = DEFAULT_WORKFLOW_CACHE_MAX_ENTRIES;
+
+    /**
+     * Path under which the changes invalidate the cached workflows.
+     */
+    private String workflowCacheObservationPath = "/content";
+
+    private WorkflowCache workflowCache;
+
+    /**
+     * Number of the workers of the bulk operations, each with its own session, or zero to run the bulk operations
+     * synchronously.
+     */
+    private int bulkWorkerCount;
+
+    /**
+     * Maximum number of the item operations per second in the bulk operations, or zero for no limit.
+     */
+    private long bulkMaxOperationsPerSecond;
+
+    private BulkOperationExecutor bulkOperationExecutor;
+
     @Override
     public void initialize(Session session) {
         this.session = session;
+
+        if (sessionPoolSize > 0) {
+            sessionPool = new WorkflowSessionPool(session, sharedSessionLock, sessionPoolSize,
+                    sessionPoolBorrowTimeout);
+        }
+
+        if (workflowCacheTimeToLive > 0) {
+            workflowCache = new WorkflowCache(workflowCacheTimeToLive, workflowCacheMaxEntries);
+
+            try {
+                getObservationManager().addEventListener(workflowCache,
+                        Event.NODE_ADDED | Event.NODE_REMOVED | Event.NODE_MOVED | Event.PROPERTY_ADDED
+                                | Event.PROPERTY_CHANGED | Event.PROPERTY_REMOVED,
+                        workflowCacheObservationPath, true, null, null, false);
+            } catch (RepositoryException e) {
+                log.error("Failed to register the workflow cache as event listener. Disabling the workflow cache.",
+                        e);
+                workflowCache = null;
+            }
+        }
+
+        if (bulkWorkerCount > 0) {
+            bulkOperationExecutor = new BulkOperationExecutor(session, sharedSessionLock, bulkWorkerCount,
+                    bulkMaxOperationsPerSecond, this::withSession);
+        }
     }
 
     @Override
     public void destroy() {
+        if (bulkOperationExecutor != null) {
+            bulkOperationExecutor.shutdown();
+            bulkOperationExecutor = null;
+        }
+
+        if (workflowCache != null) {
+            try {
+                getObservationManager().removeEventListener(workflowCache);
+            } catch (RepositoryException e) {
+                log.warn("Failed to unregister the workflow cache as event listener.", e);
+            }
+
+            workflowCache.clear();
+            workflowCache = null;
+        }
+
+        if (sessionPool != null) {
+            sessionPool.close();
+            sessionPool = null;
+        }
+
         session = null;
     }
 
     @Override
     public boolean obtainEditableDocument(String documentLocation) {
+        return withSession(() -> doObtainEditableDocument(documentLocation));
+    }
+
+    protected boolean doObtainEditableDocument(String documentLocation) {
         log.debug("##### obtainEditableDocument('{}')", documentLocation);
 
         if (StringUtils.isBlank(documentLocation)) {
@@ -68,22 +190,16 @@ public class DocumentWorkflowDocumentManagementService implements DocumentManage
         boolean obtained = false;
 
         try {
-            if (!getSession().nodeExists(documentLocation)) {
-                throw new IllegalArgumentException("Document doesn't exist at '" + documentLocation + "'.");
-            }
-
-            Node documentHandleNode = HippoWorkflowUtils.getHippoDocumentHandle(getSession().getNode(documentLocation));
-
-            if (documentHandleNode == null) {
-                throw new IllegalArgumentException("Document handle is not found at '" + documentLocation + "'.");
-            }
+            Node documentHandleNode = getDocumentHandleNode(documentLocation);
 
             DocumentWorkflow documentWorkflow = getDocumentWorkflow(documentHandleNode);
 
-            Boolean obtainEditableInstance = (Boolean) documentWorkflow.hints().get("obtainEditableInstance");
+            Boolean obtainEditableInstance = (Boolean) getHints(documentHandleNode, documentWorkflow)
+                    .get("obtainEditableInstance");
 
             if (BooleanUtils.isTrue(obtainEditableInstance)) {
                 documentWorkflow.obtainEditableInstance();
+                invalidateWorkflow(documentHandleNode);
                 obtained = true;
             } else {
                 throw new IllegalStateException(
@@ -100,6 +216,10 @@ public class DocumentWorkflowDocumentManagementService implements DocumentManage
 
     @Override
     public boolean disposeEditableDocument(String documentLocation) {
+        return withSession(() -> doDisposeEditableDocument(documentLocation));
+    }
+
+    protected boolean doDisposeEditableDocument(String documentLocation) {
         log.debug("##### disposeEditableDocument('{}')", documentLocation);
 
         if (StringUtils.isBlank(documentLocation)) {
@@ -109,22 +229,16 @@ public class DocumentWorkflowDocumentManagementService implements DocumentManage
         boolean disposed = false;
 
         try {
-            if (!getSession().nodeExists(documentLocation)) {
-                throw new IllegalArgumentException("Document doesn't exist at '" + documentLocation + "'.");
-            }
-
-            Node documentHandleNode = HippoWorkflowUtils.getHippoDocumentHandle(getSession().getNode(documentLocation));
-
-            if (documentHandleNode == null) {
-                throw new IllegalArgumentException("Document handle is not found at '" + documentLocation + "'.");
-            }
+            Node documentHandleNode = getDocumentHandleNode(documentLocation);
 
             DocumentWorkflow documentWorkflow = getDocumentWorkflow(documentHandleNode);
 
-            Boolean disposeEditableInstance = (Boolean) documentWorkflow.hints().get("disposeEditableInstance");
+            Boolean disposeEditableInstance = (Boolean) getHints(documentHandleNode, documentWorkflow)
+                    .get("disposeEditableInstance");
 
             if (BooleanUtils.isTrue(disposeEditableInstance)) {
                 documentWorkflow.disposeEditableInstance();
+                invalidateWorkflow(documentHandleNode);
                 disposed = true;
             } else {
                 throw new IllegalStateException(
@@ -141,6 +255,10 @@ public class DocumentWorkflowDocumentManagementService implements DocumentManage
 
     @Override
     public boolean commitEditableDocument(String documentLocation) {
+        return withSession(() -> doCommitEditableDocument(documentLocation));
+    }
+
+    protected boolean doCommitEditableDocument(String documentLocation) {
         log.debug("##### commitEditableDocument('{}')", documentLocation);
 
         if (StringUtils.isBlank(documentLocation)) {
@@ -150,22 +268,16 @@ public class DocumentWorkflowDocumentManagementService implements DocumentManage
         boolean committed = false;
 
         try {
-            if (!getSession().nodeExists(documentLocation)) {
-                throw new IllegalArgumentException("Document doesn't exist at '" + documentLocation + "'.");
-            }
-
-            Node documentHandleNode = HippoWorkflowUtils.getHippoDocumentHandle(getSession().getNode(documentLocation));
-
-            if (documentHandleNode == null) {
-                throw new IllegalArgumentException("Document handle is not found at '" + documentLocation + "'.");
-            }
+            Node documentHandleNode = getDocumentHandleNode(documentLocation);
 
             DocumentWorkflow documentWorkflow = getDocumentWorkflow(documentHandleNode);
 
-            Boolean commitEditableInstance = (Boolean) documentWorkflow.hints().get("commitEditableInstance");
+            Boolean commitEditableInstance = (Boolean) getHints(documentHandleNode, documentWorkflow)
+                    .get("commitEditableInstance");
 
             if (BooleanUtils.isTrue(commitEditableInstance)) {
                 documentWorkflow.commitEditableInstance();
+                invalidateWorkflow(documentHandleNode);
                 committed = true;
             } else {
                 throw new IllegalStateException(
@@ -182,6 +294,10 @@ public class DocumentWorkflowDocumentManagementService implements DocumentManage
 
     @Override
     public boolean depublishDocument(String documentLocation) {
+        return withSession(() -> doDepublishDocument(documentLocation));
+    }
+
+    protected boolean doDepublishDocument(String documentLocation) {
         log.debug("##### depublishDocument('{}')", documentLocation);
 
         if (StringUtils.isBlank(documentLocation)) {
@@ -191,25 +307,18 @@ public class DocumentWorkflowDocumentManagementService implements DocumentManage
         boolean depublished = false;
 
         try {
-            if (!getSession().nodeExists(documentLocation)) {
-                throw new IllegalArgumentException("Document doesn't exist at '" + documentLocation + "'.");
-            }
-
-            Node documentHandleNode = HippoWorkflowUtils.getHippoDocumentHandle(getSession().getNode(documentLocation));
-
-            if (documentHandleNode == null) {
-                throw new IllegalArgumentException("Document handle is not found at '" + documentLocation + "'.");
-            }
+            Node documentHandleNode = getDocumentHandleNode(documentLocation);
 
             DocumentWorkflow documentWorkflow = getDocumentWorkflow(documentHandleNode);
 
-            Boolean isLive = (Boolean) documentWorkflow.hints().get("isLive");
+            Map<String, Serializable> hints = getHints(documentHandleNode, documentWorkflow);
+            Boolean isLive = (Boolean) hints.get("isLive");
 
             if (BooleanUtils.isFalse(isLive)) {
                 // already offline, so just return true
                 depublished = true;
             } else {
-                Boolean depublish = (Boolean) documentWorkflow.hints().get("depublish");
+                Boolean depublish = (Boolean) hints.get("depublish");
 
                 if (!BooleanUtils.isTrue(depublish)) {
                     throw new IllegalStateException(
@@ -217,6 +326,7 @@ public class DocumentWorkflowDocumentManagementService implements DocumentManage
                 }
 
                 documentWorkflow.depublish();
+                invalidateWorkflow(documentHandleNode);
                 depublished = true;
             }
         } catch (RepositoryException | WorkflowException | RemoteException e) {
@@ -229,6 +339,10 @@ public class DocumentWorkflowDocumentManagementService implements DocumentManage
 
     @Override
     public boolean publishDocument(String documentLocation) {
+        return withSession(() -> doPublishDocument(documentLocation));
+    }
+
+    protected boolean doPublishDocument(String documentLocation) {
         log.debug("##### publishDocument('{}')", documentLocation);
 
         if (StringUtils.isBlank(documentLocation)) {
@@ -238,25 +352,18 @@ public class DocumentWorkflowDocumentManagementService implements DocumentManage
         boolean published = false;
 
         try {
-            if (!getSession().nodeExists(documentLocation)) {
-                throw new IllegalArgumentException("Document doesn't exist at '" + documentLocation + "'.");
-            }
-
-            Node documentHandleNode = HippoWorkflowUtils.getHippoDocumentHandle(getSession().getNode(documentLocation));
-
-            if (documentHandleNode == null) {
-                throw new IllegalArgumentException("Document handle is not found at '" + documentLocation + "'.");
-            }
+            Node documentHandleNode = getDocumentHandleNode(documentLocation);
 
             DocumentWorkflow documentWorkflow = getDocumentWorkflow(documentHandleNode);
 
-            Boolean publish = (Boolean) documentWorkflow.hints().get("publish");
+            Boolean publish = (Boolean) getHints(documentHandleNode, documentWorkflow).get("publish");
 
             if (!BooleanUtils.isTrue(publish)) {
                 throw new IllegalStateException("Document at '" + documentLocation + "' doesn't have publish action.");
             }
 
             documentWorkflow.publish();
+            invalidateWorkflow(documentHandleNode);
             published = true;
         } catch (RepositoryException | WorkflowException | RemoteException e) {
             log.error("Failed to publish document at '{}'.", documentLocation, e);
@@ -269,42 +376,19 @@ public class DocumentWorkflowDocumentManagementService implements DocumentManage
     @Override
     public String copyDocument(String sourceDocumentLocation, String targetFolderLocation,
             String targetDocumentNodeName) {
+        return withSession(() -> doCopyDocument(sourceDocumentLocation, targetFolderLocation, targetDocumentNodeName));
+    }
+
+    protected String doCopyDocument(String sourceDocumentLocation, String targetFolderLocation,
+            String targetDocumentNodeName) {
         log.debug("##### copyDocument('{}', '{}', '{}')", sourceDocumentLocation, targetFolderLocation,
                 targetDocumentNodeName);
 
         String targetDocumentLocation = null;
 
         try {
-            if (!getSession().nodeExists(sourceDocumentLocation)) {
-                throw new IllegalArgumentException(
-                        "Source document doesn't exist at '" + sourceDocumentLocation + "'.");
-            }
-
-            final Node targetFolderNode = HippoWorkflowUtils.createMissingHippoFolders(getSession(),
-                    targetFolderLocation);
-
-            if (targetFolderNode == null) {
-                throw new IllegalArgumentException("Target folder doesn't exist at '" + targetFolderLocation + "'.");
-            }
-
-            Node sourceDocumentHandleNode = HippoWorkflowUtils
-                    .getHippoDocumentHandle(getSession().getNode(sourceDocumentLocation));
-
-            if (sourceDocumentHandleNode == null) {
-                throw new IllegalArgumentException(
-                        "Source document handle is not found at '" + sourceDocumentLocation + "'.");
-            }
-
-            DocumentWorkflow documentWorkflow = getDocumentWorkflow(sourceDocumentHandleNode);
-            Boolean copy = (Boolean) documentWorkflow.hints().get("copy");
-
-            if (BooleanUtils.isTrue(copy)) {
-                documentWorkflow.copy(new Document(targetFolderNode), targetDocumentNodeName);
-                targetDocumentLocation = targetFolderNode.getNode(targetDocumentNodeName).getPath();
-            } else {
-                throw new IllegalStateException("Copy action not available on document at '" + sourceDocumentLocation
-                        + "' to '" + targetFolderLocation + "/" + targetDocumentNodeName + "'.");
-            }
+            targetDocumentLocation = copyDocumentHandle(sourceDocumentLocation, targetFolderLocation,
+                    targetDocumentNodeName).getPath();
         } catch (RepositoryException | WorkflowException | RemoteException e) {
             log.error("Failed to copy document at '{}' to '{}/{}'.", sourceDocumentLocation, targetFolderLocation,
                     targetDocumentNodeName, e);
@@ -317,6 +401,10 @@ public class DocumentWorkflowDocumentManagementService implements DocumentManage
 
     @Override
     public String translateFolder(String sourceFolderLocation, String targetLanguage, String targetFolderNodeName) {
+        return withSession(() -> doTranslateFolder(sourceFolderLocation, targetLanguage, targetFolderNodeName));
+    }
+
+    protected String doTranslateFolder(String sourceFolderLocation, String targetLanguage, String targetFolderNodeName) {
         log.debug("##### translateFolder('{}', '{}', '{}')", sourceFolderLocation, targetLanguage,
                 targetFolderNodeName);
 
@@ -351,43 +439,372 @@ public class DocumentWorkflowDocumentManagementService implements DocumentManage
 
     @Override
     public String translateDocument(String sourceDocumentLocation, String targetLanguage, String targetDocumentNodeName) {
+        return withSession(() -> doTranslateDocument(sourceDocumentLocation, targetLanguage, targetDocumentNodeName));
+    }
+
+    protected String doTranslateDocument(String sourceDocumentLocation, String targetLanguage, String targetDocumentNodeName) {
         log.debug("##### translateDocument('{}', '{}', '{}')", sourceDocumentLocation, targetLanguage,
                 targetDocumentNodeName);
 
         String targetDocumentLocation = null;
 
         try {
-            if (!getSession().nodeExists(sourceDocumentLocation)) {
-                throw new IllegalArgumentException(
-                        "Source document doesn't exist at '" + sourceDocumentLocation + "'.");
-            }
+            targetDocumentLocation = translateDocumentHandle(sourceDocumentLocation, targetLanguage,
+                    targetDocumentNodeName).getPath();
+        } catch (RepositoryException | WorkflowException | RemoteException e) {
+            log.error("Failed to translate document at '{}' to '{}' in '{}'.", sourceDocumentLocation,
+                    targetDocumentNodeName, targetLanguage, e);
+            throw new RuntimeException("Failed to add translated document of '" + sourceDocumentLocation + "' to '"
+                    + targetDocumentNodeName + "' in '" + targetLanguage + "'. " + e);
+        }
 
-            Node sourceDocumentHandleNode = HippoWorkflowUtils
-                    .getHippoDocumentHandle(getSession().getNode(sourceDocumentLocation));
+        return targetDocumentLocation;
+    }
 
-            if (sourceDocumentHandleNode == null) {
-                throw new IllegalArgumentException(
-                        "Source document handle is not found at '" + sourceDocumentLocation + "'.");
-            }
+    @Override
+    public String translateAndCommitDocument(String sourceDocumentLocation, String targetLanguage,
+            String targetDocumentNodeName) {
+        return withSession(
+                () -> doTranslateAndCommitDocument(sourceDocumentLocation, targetLanguage, targetDocumentNodeName));
+    }
+
+    protected String doTranslateAndCommitDocument(String sourceDocumentLocation, String targetLanguage,
+            String targetDocumentNodeName) {
+        log.debug("##### translateAndCommitDocument('{}', '{}', '{}')", sourceDocumentLocation, targetLanguage,
+                targetDocumentNodeName);
+
+        final DocumentOperationResult result = translateAndCommit(sourceDocumentLocation, targetLanguage,
+                targetDocumentNodeName);
+
+        if (!result.isSucceeded()) {
+            throw new RuntimeException(result.getErrorMessage());
+        }
 
-            Node translationVariantNode = null;
-            Map<String, Node> documentVariantsMap = HippoWorkflowUtils.getDocumentVariantsMap(sourceDocumentHandleNode);
+        return result.getResultLocation();
+    }
+
+    @Override
+    public String copyAndPublishDocument(String sourceDocumentLocation, String targetFolderLocation,
+            String targetDocumentNodeName) {
+        return withSession(
+                () -> doCopyAndPublishDocument(sourceDocumentLocation, targetFolderLocation, targetDocumentNodeName));
+    }
+
+    protected String doCopyAndPublishDocument(String sourceDocumentLocation, String targetFolderLocation,
+            String targetDocumentNodeName) {
+        log.debug("##### copyAndPublishDocument('{}', '{}', '{}')", sourceDocumentLocation, targetFolderLocation,
+                targetDocumentNodeName);
+
+        String targetDocumentLocation = null;
 
-            if (documentVariantsMap.containsKey(HippoStdNodeType.UNPUBLISHED)) {
-                translationVariantNode = documentVariantsMap.get(HippoStdNodeType.UNPUBLISHED);
-            } else if (documentVariantsMap.containsKey(HippoStdNodeType.PUBLISHED)) {
-                translationVariantNode = documentVariantsMap.get(HippoStdNodeType.PUBLISHED);
+        try {
+            final Node targetDocumentHandleNode = copyDocumentHandle(sourceDocumentLocation, targetFolderLocation,
+                    targetDocumentNodeName);
+            targetDocumentLocation = targetDocumentHandleNode.getPath();
+            // the copied document is new, so publish it right away and let the workflow reject it if not allowed
+            getDocumentWorkflow(targetDocumentHandleNode).publish();
+            invalidateWorkflow(targetDocumentHandleNode);
+        } catch (RepositoryException | WorkflowException | RemoteException e) {
+            log.error("Failed to copy and publish document at '{}' to '{}/{}'.", sourceDocumentLocation,
+                    targetFolderLocation, targetDocumentNodeName, e);
+            throw new RuntimeException("Failed to copy and publish document at '" + sourceDocumentLocation + "' to '"
+                    + targetFolderLocation + "/" + targetDocumentNodeName + "'"
+                    + ((targetDocumentLocation != null) ? ", copied to '" + targetDocumentLocation + "'. " : ". ") + e);
+        }
+
+        return targetDocumentLocation;
+    }
+
+    @Override
+    public boolean obtainAndCommitEditableDocument(String documentLocation) {
+        return withSession(() -> doObtainAndCommitEditableDocument(documentLocation));
+    }
+
+    protected boolean doObtainAndCommitEditableDocument(String documentLocation) {
+        log.debug("##### obtainAndCommitEditableDocument('{}')", documentLocation);
+
+        try {
+            Node documentHandleNode = getDocumentHandleNode(documentLocation);
+            DocumentWorkflow documentWorkflow = getDocumentWorkflow(documentHandleNode);
+
+            Boolean obtainEditableInstance = (Boolean) getHints(documentHandleNode, documentWorkflow)
+                    .get("obtainEditableInstance");
+
+            if (!BooleanUtils.isTrue(obtainEditableInstance)) {
+                throw new IllegalStateException(
+                        "Document at '" + documentLocation + "' is not allowed to obtain an editable instance.");
             }
 
-            if (translationVariantNode == null) {
-                throw new IllegalStateException("No available unpublished or published variant in document at '"
-                        + sourceDocumentLocation + "'.");
+            documentWorkflow.obtainEditableInstance();
+            documentWorkflow.commitEditableInstance();
+            invalidateWorkflow(documentHandleNode);
+        } catch (Exception e) {
+            log.error("Failed to obtain and commit editable instance on document.", e);
+            throw new RuntimeException(
+                    "Failed to obtain and commit editable instance on document at '" + documentLocation + "'. " + e);
+        }
+
+        return true;
+    }
+
+    @Override
+    public DocumentOperationResult[] obtainEditableDocuments(String[] documentLocations) {
+        return processBatch("obtainEditableDocuments", documentLocations,
+                () -> DocumentManagementService.super.obtainEditableDocuments(documentLocations));
+    }
+
+    @Override
+    public DocumentOperationResult[] commitEditableDocuments(String[] documentLocations) {
+        return processBatch("commitEditableDocuments", documentLocations,
+                () -> DocumentManagementService.super.commitEditableDocuments(documentLocations));
+    }
+
+    @Override
+    public DocumentOperationResult[] depublishDocuments(String[] documentLocations) {
+        return processBatch("depublishDocuments", documentLocations,
+                () -> DocumentManagementService.super.depublishDocuments(documentLocations));
+    }
+
+    @Override
+    public DocumentOperationResult[] publishDocuments(String[] documentLocations) {
+        return processBatch("publishDocuments", documentLocations,
+                () -> DocumentManagementService.super.publishDocuments(documentLocations));
+    }
+
+    @Override
+    public DocumentOperationResult[] translateFolders(String[] sourceFolderLocations, String targetLanguage,
+            String[] targetFolderNodeNames) {
+        return processBatch("translateFolders", sourceFolderLocations,
+                () -> DocumentManagementService.super.translateFolders(sourceFolderLocations, targetLanguage,
+                        targetFolderNodeNames));
+    }
+
+    @Override
+    public DocumentOperationResult[] translateDocuments(String[] sourceDocumentLocations, String targetLanguage,
+            String[] targetDocumentNodeNames) {
+        return processBatch("translateDocuments", sourceDocumentLocations,
+                () -> DocumentManagementService.super.translateDocuments(sourceDocumentLocations, targetLanguage,
+                        targetDocumentNodeNames));
+    }
+
+    @Override
+    public DocumentOperationResult[] translateAndCommitDocuments(String[] sourceDocumentLocations,
+            String targetLanguage, String[] targetDocumentNodeNames) {
+        return withSession(
+                () -> doTranslateAndCommitDocuments(sourceDocumentLocations, targetLanguage, targetDocumentNodeNames));
+    }
+
+    protected DocumentOperationResult[] doTranslateAndCommitDocuments(String[] sourceDocumentLocations,
+            String targetLanguage, String[] targetDocumentNodeNames) {
+        log.debug("##### translateAndCommitDocuments({} items)",
+                (sourceDocumentLocations != null) ? sourceDocumentLocations.length : 0);
+
+        if (sourceDocumentLocations == null || targetDocumentNodeNames == null
+                || sourceDocumentLocations.length != targetDocumentNodeNames.length) {
+            throw new IllegalArgumentException("The source document locations and the target document names must be "
+                    + "given in the same number.");
+        }
+
+        final DocumentOperationResult[] results = new DocumentOperationResult[sourceDocumentLocations.length];
+
+        for (int i = 0; i < sourceDocumentLocations.length; i++) {
+            try {
+                results[i] = translateAndCommit(sourceDocumentLocations[i], targetLanguage,
+                        targetDocumentNodeNames[i]);
+            } catch (RuntimeException e) {
+                results[i] = DocumentOperationResult.failed(sourceDocumentLocations[i], e.getMessage());
             }
+        }
+
+        return results;
+    }
+
+    @Override
+    public String submitBulkPublish(String[] documentLocations) {
+        final BulkOperationExecutor executor = bulkOperationExecutor;
+
+        if (executor == null) {
+            return DocumentManagementService.super.submitBulkPublish(documentLocations);
+        }
+
+        return submitBulkOperation(executor, "publishDocument", toLocationList(documentLocations), location -> {
+            doPublishDocument(location);
+            return location;
+        });
+    }
+
+    @Override
+    public String submitBulkDepublish(String[] documentLocations) {
+        final BulkOperationExecutor executor = bulkOperationExecutor;
+
+        if (executor == null) {
+            return DocumentManagementService.super.submitBulkDepublish(documentLocations);
+        }
+
+        return submitBulkOperation(executor, "depublishDocument", toLocationList(documentLocations), location -> {
+            doDepublishDocument(location);
+            return location;
+        });
+    }
+
+    @Override
+    public String submitBulkPublishInFolder(String folderLocation, String pathPattern) {
+        final BulkOperationExecutor executor = bulkOperationExecutor;
+
+        if (executor == null) {
+            return DocumentManagementService.super.submitBulkPublish(
+                    findDocumentHandleLocations(folderLocation, pathPattern));
+        }
+
+        return submitBulkOperationInFolder(executor, "publishDocument", folderLocation, pathPattern, location -> {
+            doPublishDocument(location);
+            return location;
+        });
+    }
+
+    @Override
+    public String submitBulkDepublishInFolder(String folderLocation, String pathPattern) {
+        final BulkOperationExecutor executor = bulkOperationExecutor;
+
+        if (executor == null) {
+            return DocumentManagementService.super.submitBulkDepublish(
+                    findDocumentHandleLocations(folderLocation, pathPattern));
+        }
+
+        return submitBulkOperationInFolder(executor, "depublishDocument", folderLocation, pathPattern, location -> {
+            doDepublishDocument(location);
+            return location;
+        });
+    }
+
+    @Override
+    public BulkOperationStatus getBulkOperationStatus(String bulkOperationId) {
+        final BulkOperationExecutor executor = bulkOperationExecutor;
+        return (executor != null) ? executor.getStatus(bulkOperationId)
+                : DocumentManagementService.super.getBulkOperationStatus(bulkOperationId);
+    }
+
+    @Override
+    public DocumentOperationResult[] getBulkOperationResults(String bulkOperationId, int fromIndex, int maxCount) {
+        final BulkOperationExecutor executor = bulkOperationExecutor;
+        return (executor != null) ? executor.getResults(bulkOperationId, fromIndex, maxCount)
+                : DocumentManagementService.super.getBulkOperationResults(bulkOperationId, fromIndex, maxCount);
+    }
+
+    @Override
+    public boolean cancelBulkOperation(String bulkOperationId) {
+        final BulkOperationExecutor executor = bulkOperationExecutor;
+        return (executor != null) ? executor.cancel(bulkOperationId)
+                : DocumentManagementService.super.cancelBulkOperation(bulkOperationId);
+    }
+
+    public String getDocumentWorkflowCategory() {
+        return documentWorkflowCategory;
+    }
+
+    public void setDocumentWorkflowCategory(String documentWorkflowCategory) {
+        this.documentWorkflowCategory = documentWorkflowCategory;
+    }
+
+    public int getSessionPoolSize() {
+        return sessionPoolSize;
+    }
+
+    /**
+     * Sets the maximum number of the pooled sessions for concurrent callers, to be effective on {@link #initialize(Session)}.
+     * If zero, all the callers share the session given on {@link #initialize(Session)}, one operation at a time.
+     * @param sessionPoolSize the maximum number of the pooled sessions
+     */
+    public void setSessionPoolSize(int sessionPoolSize) {
+        this.sessionPoolSize = sessionPoolSize;
+    }
+
+    public long getSessionPoolBorrowTimeout() {
+        return sessionPoolBorrowTimeout;
+    }
+
+    public void setSessionPoolBorrowTimeout(long sessionPoolBorrowTimeout) {
+        this.sessionPoolBorrowTimeout = sessionPoolBorrowTimeout;
+    }
+
+    public long getWorkflowCacheTimeToLive() {
+        return workflowCacheTimeToLive;
+    }
+
+    /**
+     * Sets the time in milliseconds to cache a document workflow and its hints, to be effective on
+     * {@link #initialize(Session)}. If zero, the document workflow and its hints are read on each operation.
+     * @param workflowCacheTimeToLive the time in milliseconds to cache a document workflow and its hints
+     */
+    public void setWorkflowCacheTimeToLive(long workflowCacheTimeToLive) {
+        this.workflowCacheTimeToLive = workflowCacheTimeToLive;
+    }
+
+    public int getWorkflowCacheMaxEntries() {
+        return workflowCacheMaxEntries;
+    }
+
+    public void setWorkflowCacheMaxEntries(int workflowCacheMaxEntries) {
+        this.workflowCacheMaxEntries = workflowCacheMaxEntries;
+    }
+
+    public int getBulkWorkerCount() {
+        return bulkWorkerCount;
+    }
+
+    /**
+     * Sets the number of the workers of the bulk operations, each with its own session, to be effective on
+     * {@link #initialize(Session)}. If zero, the default, the bulk operations run synchronously on submission.
+     * @param bulkWorkerCount the number of the workers of the bulk operations
+     */
+    public void setBulkWorkerCount(int bulkWorkerCount) {
+        this.bulkWorkerCount = bulkWorkerCount;
+    }
+
+    public long getBulkMaxOperationsPerSecond() {
+        return bulkMaxOperationsPerSecond;
+    }
+
+    /**
+     * Sets the maximum number of the item operations per second of all the workers of the bulk operations, to be
+     * effective on {@link #initialize(Session)}. If zero, the bulk operations are not throttled.
+     * @param bulkMaxOperationsPerSecond the maximum number of the item operations per second
+     */
+    public void setBulkMaxOperationsPerSecond(long bulkMaxOperationsPerSecond) {
+        this.bulkMaxOperationsPerSecond = bulkMaxOperationsPerSecond;
+    }
+
+    public String getWorkflowCacheObservationPath() {
+        return workflowCacheObservationPath;
+    }
+
+    public void setWorkflowCacheObservationPath(String workflowCacheObservationPath) {
+        this.workflowCacheObservationPath = workflowCacheObservationPath;
+    }
 
-            TranslationWorkflow documentTranslationWorkflow = getDocumentTranslationWorkflow(translationVariantNode);
-            Document translatedDocument = documentTranslationWorkflow.addTranslation(targetLanguage, targetDocumentNodeName);
-            Node translatedDocumentHandleNode = HippoWorkflowUtils.getHippoDocumentHandle(translatedDocument.getNode(getSession()));
-            targetDocumentLocation = translatedDocumentHandleNode.getPath();
+    /**
+     * Returns the session pool if enabled.
+     * @return the session pool, or null if not enabled
+     */
+    public WorkflowSessionPool getSessionPool() {
+        return sessionPool;
+    }
+
+    /**
+     * Translates the source document and commits the translated document, with the translated document handle
+     * and its workflow resolved only once. If the commit fails, the result is failed but it still has the translated
+     * document handle location as {@link DocumentOperationResult#getResultLocation()}.
+     * @throws RuntimeException if the translation fails
+     */
+    private DocumentOperationResult translateAndCommit(String sourceDocumentLocation, String targetLanguage,
+            String targetDocumentNodeName) {
+        final Node targetDocumentHandleNode;
+        final String targetDocumentLocation;
+
+        try {
+            targetDocumentHandleNode = translateDocumentHandle(sourceDocumentLocation, targetLanguage,
+                    targetDocumentNodeName);
+            targetDocumentLocation = targetDocumentHandleNode.getPath();
         } catch (RepositoryException | WorkflowException | RemoteException e) {
             log.error("Failed to translate document at '{}' to '{}' in '{}'.", sourceDocumentLocation,
                     targetDocumentNodeName, targetLanguage, e);
@@ -395,24 +812,360 @@ public class DocumentWorkflowDocumentManagementService implements DocumentManage
                     + targetDocumentNodeName + "' in '" + targetLanguage + "'. " + e);
         }
 
-        return targetDocumentLocation;
+        try {
+            // the translated document is being edited, so commit it right away and let the workflow reject it if not allowed
+            getDocumentWorkflow(targetDocumentHandleNode).commitEditableInstance();
+            invalidateWorkflow(targetDocumentHandleNode);
+        } catch (RepositoryException | WorkflowException | RemoteException e) {
+            log.error("Failed to commit translated document at '{}'.", targetDocumentLocation, e);
+            return new DocumentOperationResult(sourceDocumentLocation, false, targetDocumentLocation,
+                    "Failed to commit editable instance on document at '" + targetDocumentLocation + "'. " + e);
+        }
+
+        return DocumentOperationResult.succeeded(sourceDocumentLocation, targetDocumentLocation);
     }
 
-    public String getDocumentWorkflowCategory() {
-        return documentWorkflowCategory;
+    /**
+     * Adds the translated document of the source document handle, and returns the translated document handle node.
+     */
+    private Node translateDocumentHandle(String sourceDocumentLocation, String targetLanguage,
+            String targetDocumentNodeName) throws RepositoryException, WorkflowException, RemoteException {
+        if (!getSession().nodeExists(sourceDocumentLocation)) {
+            throw new IllegalArgumentException(
+                    "Source document doesn't exist at '" + sourceDocumentLocation + "'.");
+        }
+
+        Node sourceDocumentHandleNode = HippoWorkflowUtils
+                .getHippoDocumentHandle(getSession().getNode(sourceDocumentLocation));
+
+        if (sourceDocumentHandleNode == null) {
+            throw new IllegalArgumentException(
+                    "Source document handle is not found at '" + sourceDocumentLocation + "'.");
+        }
+
+        Node translationVariantNode = null;
+        Map<String, Node> documentVariantsMap = HippoWorkflowUtils.getDocumentVariantsMap(sourceDocumentHandleNode);
+
+        if (documentVariantsMap.containsKey(HippoStdNodeType.UNPUBLISHED)) {
+            translationVariantNode = documentVariantsMap.get(HippoStdNodeType.UNPUBLISHED);
+        } else if (documentVariantsMap.containsKey(HippoStdNodeType.PUBLISHED)) {
+            translationVariantNode = documentVariantsMap.get(HippoStdNodeType.PUBLISHED);
+        }
+
+        if (translationVariantNode == null) {
+            throw new IllegalStateException("No available unpublished or published variant in document at '"
+                    + sourceDocumentLocation + "'.");
+        }
+
+        TranslationWorkflow documentTranslationWorkflow = getDocumentTranslationWorkflow(translationVariantNode);
+        Document translatedDocument = documentTranslationWorkflow.addTranslation(targetLanguage, targetDocumentNodeName);
+        return HippoWorkflowUtils.getHippoDocumentHandle(translatedDocument.getNode(getSession()));
     }
 
-    public void setDocumentWorkflowCategory(String documentWorkflowCategory) {
-        this.documentWorkflowCategory = documentWorkflowCategory;
+    /**
+     * Copies the source document handle to the target folder, and returns the copied document handle node.
+     */
+    private Node copyDocumentHandle(String sourceDocumentLocation, String targetFolderLocation,
+            String targetDocumentNodeName) throws RepositoryException, WorkflowException, RemoteException {
+        if (!getSession().nodeExists(sourceDocumentLocation)) {
+            throw new IllegalArgumentException(
+                    "Source document doesn't exist at '" + sourceDocumentLocation + "'.");
+        }
+
+        final Node targetFolderNode = HippoWorkflowUtils.createMissingHippoFolders(getSession(),
+                targetFolderLocation);
+
+        if (targetFolderNode == null) {
+            throw new IllegalArgumentException("Target folder doesn't exist at '" + targetFolderLocation + "'.");
+        }
+
+        Node sourceDocumentHandleNode = HippoWorkflowUtils
+                .getHippoDocumentHandle(getSession().getNode(sourceDocumentLocation));
+
+        if (sourceDocumentHandleNode == null) {
+            throw new IllegalArgumentException(
+                    "Source document handle is not found at '" + sourceDocumentLocation + "'.");
+        }
+
+        DocumentWorkflow documentWorkflow = getDocumentWorkflow(sourceDocumentHandleNode);
+        Boolean copy = (Boolean) getHints(sourceDocumentHandleNode, documentWorkflow).get("copy");
+
+        if (!BooleanUtils.isTrue(copy)) {
+            throw new IllegalStateException("Copy action not available on document at '" + sourceDocumentLocation
+                    + "' to '" + targetFolderLocation + "/" + targetDocumentNodeName + "'.");
+        }
+
+        documentWorkflow.copy(new Document(targetFolderNode), targetDocumentNodeName);
+        return targetFolderNode.getNode(targetDocumentNodeName);
     }
 
+    /**
+     * Returns the document handle node at the {@code documentLocation}.
+     * @throws IllegalArgumentException if the location is invalid or no document handle is found at the location
+     */
+    private Node getDocumentHandleNode(String documentLocation) throws RepositoryException {
+        if (StringUtils.isBlank(documentLocation)) {
+            throw new IllegalArgumentException("Invalid document location: '" + documentLocation + "'.");
+        }
+
+        if (!getSession().nodeExists(documentLocation)) {
+            throw new IllegalArgumentException("Document doesn't exist at '" + documentLocation + "'.");
+        }
+
+        Node documentHandleNode = HippoWorkflowUtils.getHippoDocumentHandle(getSession().getNode(documentLocation));
+
+        if (documentHandleNode == null) {
+            throw new IllegalArgumentException("Document handle is not found at '" + documentLocation + "'.");
+        }
+
+        return documentHandleNode;
+    }
+
+    /**
+     * Runs the default {@code batch} operation of the interface, invoking the single item operation on each item
+     * one after another, with the same session.
+     */
+    private DocumentOperationResult[] processBatch(String operationName, String[] locations,
+            Supplier<DocumentOperationResult[]> batch) {
+        log.debug("##### {}({} items)", operationName, (locations != null) ? locations.length : 0);
+        return withSession(batch);
+    }
+
+    private String submitBulkOperation(BulkOperationExecutor executor, String operationName, List<String> locations,
+            Function<String, String> operation) {
+        log.debug("##### submitBulkOperation('{}', {} items)", operationName, locations.size());
+        return executor.submit(operationName, locations, operation);
+    }
+
+    /**
+     * Submits a bulk operation on the document handles under the folder, found in the background while the workers
+     * process the document handles found so far. The arguments are validated right away.
+     */
+    private String submitBulkOperationInFolder(BulkOperationExecutor executor, String operationName,
+            String folderLocation, String pathPattern, Function<String, String> operation) {
+        log.debug("##### submitBulkOperationInFolder('{}', '{}', '{}')", operationName, folderLocation, pathPattern);
+
+        final Pattern pattern = toPathPattern(pathPattern);
+        checkFolderExists(folderLocation);
+
+        return executor.submit(operationName, folderLocation,
+                sink -> findDocumentHandleLocations(folderLocation, pattern, sink), operation);
+    }
+
+    /**
+     * Finds all the document handle locations under the folder right away, for the bulk operations run synchronously
+     * if the bulk operation workers are disabled.
+     */
+    private String[] findDocumentHandleLocations(String folderLocation, String pathPattern) {
+        log.debug("##### findDocumentHandleLocations('{}', '{}')", folderLocation, pathPattern);
+
+        final Pattern pattern = toPathPattern(pathPattern);
+        checkFolderExists(folderLocation);
+
+        final List<String> locations = new ArrayList<>();
+        withSession(() -> {
+            findDocumentHandleLocations(folderLocation, pattern, locations::add);
+            return null;
+        });
+
+        return locations.toArray(new String[0]);
+    }
+
+    private void checkFolderExists(String folderLocation) {
+        if (StringUtils.isBlank(folderLocation)) {
+            throw new IllegalArgumentException("Invalid folder location: '" + folderLocation + "'.");
+        }
+
+        final boolean folderExists = withSession(() -> {
+            try {
+                return getSession().nodeExists(folderLocation);
+            } catch (RepositoryException e) {
+                throw new RuntimeException("Failed to find folder at '" + folderLocation + "'. " + e);
+            }
+        });
+
+        if (!folderExists) {
+            throw new IllegalArgumentException("Folder doesn't exist at '" + folderLocation + "'.");
+        }
+    }
+
+    private static Pattern toPathPattern(String pathPattern) {
+        return StringUtils.isBlank(pathPattern) ? null : Pattern.compile(pathPattern);
+    }
+
+    private static List<String> toLocationList(String[] locations) {
+        if (locations == null) {
+            throw new IllegalArgumentException("Invalid locations: null.");
+        }
+
+        return new ArrayList<>(Arrays.asList(locations));
+    }
+
+    /**
+     * Finds the document handle locations under the folder, in all the descendant folders, matching the
+     * {@code pattern} if not null, passing each to the {@code sink} until the {@code sink} returns false.
+     */
+    private void findDocumentHandleLocations(String folderLocation, Pattern pattern, Predicate<String> sink) {
+        try {
+            final Deque<Node> folderNodes = new ArrayDeque<>();
+            folderNodes.push(getSession().getNode(folderLocation));
+
+            while (!folderNodes.isEmpty()) {
+                for (NodeIterator nodeIt = folderNodes.pop().getNodes(); nodeIt.hasNext();) {
+                    final Node childNode = nodeIt.nextNode();
+
+                    if (childNode == null) {
+                        continue;
+                    }
+
+                    if (childNode.isNodeType("hippo:handle")) {
+                        final String location = childNode.getPath();
+
+                        if ((pattern == null || pattern.matcher(location).matches()) && !sink.test(location)) {
+                            return;
+                        }
+                    } else if (childNode.isNodeType(HippoStdNodeType.NT_FOLDER)
+                            || childNode.isNodeType(HippoStdNodeType.NT_DIRECTORY)) {
+                        folderNodes.push(childNode);
+                    }
+                }
+            }
+        } catch (RepositoryException e) {
+            log.error("Failed to find documents under folder at '{}'.", folderLocation, e);
+            throw new RuntimeException("Failed to find documents under folder at '" + folderLocation + "'. " + e);
+        }
+    }
+
+    /**
+     * Runs the {@code operation} with a session borrowed from the pool if enabled, unless the current thread holds
+     * a borrowed session already, e.g. in a batch operation, so that the whole operation uses the same session.
+     * If no pool is enabled, the operation runs with the session given on {@link #initialize(Session)}, one operation
+     * at a time across the concurrent callers.
+     */
+    protected <T> T withSession(Supplier<T> operation) {
+        if (borrowedSession.get() != null) {
+            return operation.get();
+        }
+
+        final WorkflowSessionPool pool = sessionPool;
+
+        if (pool == null) {
+            synchronized (sharedSessionLock) {
+                return operation.get();
+            }
+        }
+
+        final Session pooledSession;
+
+        try {
+            pooledSession = pool.borrowSession();
+        } catch (RepositoryException e) {
+            log.error("Failed to borrow a workflow session.", e);
+            throw new RuntimeException("Failed to borrow a workflow session. " + e);
+        }
+
+        try {
+            return withSession(pooledSession, operation);
+        } finally {
+            pool.returnSession(pooledSession);
+        }
+    }
+
+    /**
+     * Runs the {@code operation} with the given {@code workflowSession} instead of the session given on
+     * {@link #initialize(Session)}, e.g. in a worker of a bulk operation.
+     */
+    protected <T> T withSession(Session workflowSession, Supplier<T> operation) {
+        borrowedSession.set(workflowSession);
+
+        try {
+            return operation.get();
+        } finally {
+            borrowedSession.remove();
+        }
+    }
+
+    /**
+     * Returns the cached document workflow and its hints if enabled.
+     * @return the cached document workflow and its hints, or null if not enabled
+     */
+    public WorkflowCache getWorkflowCache() {
+        return workflowCache;
+    }
+
+    /**
+     * Returns the session borrowed by the operation running in the current thread if any,
+     * or the session given on {@link #initialize(Session)}.
+     */
     protected Session getSession() {
-        return session;
+        final Session pooledSession = borrowedSession.get();
+        return (pooledSession != null) ? pooledSession : session;
+    }
+
+    /**
+     * Returns the key of the session returned by {@link #getSession()} to cache its workflows by, or null if
+     * the session is not known to this.
+     */
+    protected String getSessionKey() {
+        final Session pooledSession = borrowedSession.get();
+
+        if (pooledSession == null) {
+            return SHARED_SESSION_KEY;
+        }
+
+        final WorkflowSessionPool pool = sessionPool;
+        final String sessionKey = (pool != null) ? pool.getSessionKey(pooledSession) : null;
+
+        if (sessionKey != null) {
+            return sessionKey;
+        }
+
+        final BulkOperationExecutor executor = bulkOperationExecutor;
+        return (executor != null) ? executor.getSessionKey(pooledSession) : null;
     }
 
     protected DocumentWorkflow getDocumentWorkflow(final Node documentHandleNode) throws RepositoryException {
-        return (DocumentWorkflow) HippoWorkflowUtils.getHippoWorkflow(getSession(), getDocumentWorkflowCategory(),
-                documentHandleNode);
+        final WorkflowCache cache = workflowCache;
+        final String sessionKey = (cache != null) ? getSessionKey() : null;
+
+        if (sessionKey == null) {
+            return (DocumentWorkflow) HippoWorkflowUtils.getHippoWorkflow(getSession(), getDocumentWorkflowCategory(),
+                    documentHandleNode);
+        }
+
+        return (DocumentWorkflow) cache.getWorkflow(sessionKey, documentHandleNode, getDocumentWorkflowCategory(),
+                () -> HippoWorkflowUtils.getHippoWorkflow(getSession(), getDocumentWorkflowCategory(),
+                        documentHandleNode));
+    }
+
+    /**
+     * Returns the hints of the document workflow, cached along with the workflow if enabled.
+     */
+    protected Map<String, Serializable> getHints(final Node documentHandleNode,
+            final DocumentWorkflow documentWorkflow) throws RepositoryException, WorkflowException, RemoteException {
+        final WorkflowCache cache = workflowCache;
+        final String sessionKey = (cache != null) ? getSessionKey() : null;
+
+        if (sessionKey == null) {
+            return documentWorkflow.hints();
+        }
+
+        return cache.getHints(sessionKey, documentHandleNode, getDocumentWorkflowCategory(), documentWorkflow);
+    }
+
+    /**
+     * Invalidates the cached workflow of the document handle after a workflow action changing the document.
+     */
+    protected void invalidateWorkflow(final Node documentHandleNode) throws RepositoryException {
+        final WorkflowCache cache = workflowCache;
+
+        if (cache != null) {
+            cache.invalidate(documentHandleNode.getIdentifier());
+        }
+    }
+
+    private ObservationManager getObservationManager() throws RepositoryException {
+        return session.getWorkspace().getObservationManager();
     }
 
     protected TranslationWorkflow getFolderTranslationWorkflow(final Node folderNode)
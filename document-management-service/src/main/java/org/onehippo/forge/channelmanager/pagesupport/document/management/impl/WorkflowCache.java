@@ -0,0 +1,322 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.document.management.impl;
+
+import java.io.Serializable;
+import java.rmi.RemoteException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.jcr.Node;
+import javax.jcr.RepositoryException;
+import javax.jcr.observation.Event;
+import javax.jcr.observation.EventIterator;
+import javax.jcr.observation.EventListener;
+
+import org.hippoecm.repository.api.Workflow;
+import org.hippoecm.repository.api.WorkflowException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Short-lived cache of the workflows of document handles and their hints, keyed by the key of the session, the handle
+ * identifier and the workflow category, for bursts of operations touching the same document handle within a short
+ * time. The session key, such as {@link WorkflowSessionPool#getSessionKey(javax.jcr.Session)}, identifies the session
+ * the workflow belongs to, without the cache holding the session.
+ * <P>
+ * A cached workflow is invalidated after a workflow operation on the handle, and on any change under the handle
+ * when registered as a JCR observation {@link EventListener}, besides expiring after {@link #getTimeToLive()}.
+ * When the cache holds {@link #getMaxEntries()} workflows, the least recently used one is evicted.
+ * </P>
+ */
+public class WorkflowCache implements WorkflowCacheMXBean, EventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkflowCache.class);
+
+    /**
+     * Supplies a new workflow on a cache miss.
+     */
+    public interface WorkflowSupplier {
+
+        Workflow get() throws RepositoryException;
+
+    }
+
+    private final long timeToLive;
+
+    private final int maxEntries;
+
+    // in access order, guarded by itself
+    private final Map<Key, Entry> entries;
+
+    private long nextExpiryCheckTime;
+
+    private final AtomicLong workflowHitCount = new AtomicLong();
+
+    private final AtomicLong workflowMissCount = new AtomicLong();
+
+    private final AtomicLong hintsHitCount = new AtomicLong();
+
+    private final AtomicLong hintsMissCount = new AtomicLong();
+
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    /**
+     * @param timeToLive time in milliseconds to keep a workflow and its hints
+     * @param maxEntries maximum number of the cached workflows
+     */
+    public WorkflowCache(final long timeToLive, final int maxEntries) {
+        this.timeToLive = timeToLive;
+        this.maxEntries = maxEntries;
+        entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, Entry> eldest) {
+                return size() > WorkflowCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached workflow of the document handle in the category for the session, or the workflow supplied
+     * by the {@code supplier} after caching it.
+     * @param sessionKey key of the session of the workflow
+     * @param handleNode document handle node
+     * @param category workflow category
+     * @param supplier supplier of a new workflow
+     * @return the cached or supplied workflow
+     * @throws RepositoryException if repository exception occurs
+     */
+    public Workflow getWorkflow(final String sessionKey, final Node handleNode, final String category,
+            final WorkflowSupplier supplier) throws RepositoryException {
+        final Key key = new Key(sessionKey, handleNode.getIdentifier(), category);
+        final Entry entry = getEntry(key);
+
+        if (entry != null && !entry.isExpired()) {
+            workflowHitCount.incrementAndGet();
+            return entry.workflow;
+        }
+
+        workflowMissCount.incrementAndGet();
+        final Workflow workflow = supplier.get();
+        final long now = System.currentTimeMillis();
+        final Entry newEntry = new Entry(workflow, handleNode.getPath(), now + timeToLive);
+
+        synchronized (entries) {
+            // drop the expired workflows once in a while, not to hold them and their sessions until evicted
+            if (now >= nextExpiryCheckTime) {
+                entries.values().removeIf(Entry::isExpired);
+                nextExpiryCheckTime = now + timeToLive;
+            }
+
+            entries.put(key, newEntry);
+        }
+
+        return workflow;
+    }
+
+    /**
+     * Returns the cached hints of the workflow of the document handle, or the hints of the {@code workflow}
+     * after caching them if the workflow is the cached one.
+     * @param sessionKey key of the session of the workflow
+     * @param handleNode document handle node
+     * @param category workflow category
+     * @param workflow the workflow of the document handle
+     * @return the cached or current hints of the workflow
+     * @throws RepositoryException if repository exception occurs
+     * @throws WorkflowException if workflow exception occurs
+     * @throws RemoteException if remote exception occurs
+     */
+    public Map<String, Serializable> getHints(final String sessionKey, final Node handleNode, final String category,
+            final Workflow workflow) throws RepositoryException, WorkflowException, RemoteException {
+        final Entry entry = getEntry(new Key(sessionKey, handleNode.getIdentifier(), category));
+
+        if (entry != null && entry.workflow == workflow && !entry.isExpired()) {
+            final Map<String, Serializable> hints = entry.hints;
+
+            if (hints != null) {
+                hintsHitCount.incrementAndGet();
+                return hints;
+            }
+        }
+
+        hintsMissCount.incrementAndGet();
+        final Map<String, Serializable> hints = workflow.hints();
+
+        if (entry != null && entry.workflow == workflow) {
+            entry.hints = hints;
+        }
+
+        return hints;
+    }
+
+    /**
+     * Invalidates the cached workflows of the document handle for all the sessions and categories.
+     * @param handleIdentifier document handle identifier
+     */
+    public void invalidate(final String handleIdentifier) {
+        synchronized (entries) {
+            for (Iterator<Key> it = entries.keySet().iterator(); it.hasNext();) {
+                if (it.next().handleIdentifier.equals(handleIdentifier)) {
+                    it.remove();
+                    invalidationCount.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onEvent(final EventIterator events) {
+        if (getSize() == 0) {
+            return;
+        }
+
+        while (events.hasNext()) {
+            final Event event = events.nextEvent();
+
+            try {
+                invalidatePath(event.getPath());
+            } catch (RepositoryException e) {
+                log.warn("Failed to get the path of an event. Clearing the workflow cache.", e);
+                clear();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    @Override
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    @Override
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public long getWorkflowHitCount() {
+        return workflowHitCount.get();
+    }
+
+    @Override
+    public long getWorkflowMissCount() {
+        return workflowMissCount.get();
+    }
+
+    @Override
+    public long getHintsHitCount() {
+        return hintsHitCount.get();
+    }
+
+    @Override
+    public long getHintsMissCount() {
+        return hintsMissCount.get();
+    }
+
+    @Override
+    public long getInvalidationCount() {
+        return invalidationCount.get();
+    }
+
+    @Override
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Invalidates the cached workflows of the document handle at or above the changed item {@code path}.
+     */
+    private void invalidatePath(final String path) {
+        synchronized (entries) {
+            for (Iterator<Entry> it = entries.values().iterator(); it.hasNext();) {
+                final String handlePath = it.next().handlePath;
+
+                if (path.equals(handlePath) || path.startsWith(handlePath + "/")) {
+                    it.remove();
+                    invalidationCount.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private Entry getEntry(final Key key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private static class Key {
+
+        private final String sessionKey;
+        private final String handleIdentifier;
+        private final String category;
+
+        private Key(final String sessionKey, final String handleIdentifier, final String category) {
+            this.sessionKey = sessionKey;
+            this.handleIdentifier = handleIdentifier;
+            this.category = category;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            final Key other = (Key) o;
+            return sessionKey.equals(other.sessionKey) && handleIdentifier.equals(other.handleIdentifier)
+                    && category.equals(other.category);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * sessionKey.hashCode() + handleIdentifier.hashCode()) + category.hashCode();
+        }
+    }
+
+    private static class Entry {
+
+        private final Workflow workflow;
+        private final String handlePath;
+        private final long expirationTime;
+        private volatile Map<String, Serializable> hints;
+
+        private Entry(final Workflow workflow, final String handlePath, final long expirationTime) {
+            this.workflow = workflow;
+            this.handlePath = handlePath;
+            this.expirationTime = expirationTime;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= expirationTime;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.document.management.impl;
+
+/**
+ * Management interface of {@link WorkflowCache} as deployed as JMX MBean.
+ */
+public interface WorkflowCacheMXBean {
+
+    /**
+     * JMX MBean name to be used.
+     */
+    String NAME = "org.onehippo.forge.channelmanager.pagesupport.document.management:type=WorkflowCacheMXBean";
+
+    /**
+     * Returns the time in milliseconds to keep a workflow and its hints.
+     * @return the time in milliseconds to keep a workflow and its hints
+     */
+    long getTimeToLive();
+
+    /**
+     * Returns the maximum number of the cached workflows.
+     * @return the maximum number of the cached workflows
+     */
+    int getMaxEntries();
+
+    /**
+     * Returns the number of the cached workflows, including the expired ones not evicted yet.
+     * @return the number of the cached workflows
+     */
+    int getSize();
+
+    long getWorkflowHitCount();
+
+    long getWorkflowMissCount();
+
+    long getHintsHitCount();
+
+    long getHintsMissCount();
+
+    /**
+     * Returns the number of the cached workflows invalidated by a workflow operation or a change of the document.
+     * @return the number of the cached workflows invalidated
+     */
+    long getInvalidationCount();
+
+    /**
+     * Removes all the cached workflows.
+     */
+    void clear();
+
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.document.management.impl;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+import javax.jcr.SimpleCredentials;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded pool of JCR sessions impersonated from the session of the document management service,
+ * so that the workflow operations of concurrent callers don't share a single session.
+ * <P>
+ * A borrowed session is refreshed to see the latest changes, and a returned session is refreshed again to
+ * discard any pending changes before being kept idle. A borrow waits up to {@link #getBorrowTimeout()}
+ * milliseconds when all the sessions are borrowed.
+ * </P>
+ * <P>
+ * The sessions are impersonated while holding the lock given on construction, which the other users of the base
+ * session must hold as well, as a JCR session is not thread-safe.
+ * </P>
+ * <P>
+ * Each session created by a pool is given a key unique in the JVM by {@link #getSessionKey(Session)}, e.g. to cache
+ * the workflows of the session without holding the session.
+ * </P>
+ */
+public class WorkflowSessionPool implements WorkflowSessionPoolMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkflowSessionPool.class);
+
+    /**
+     * Default maximum time in milliseconds to wait for a session to be returned.
+     */
+    public static final long DEFAULT_BORROW_TIMEOUT = 30000L;
+
+    private static final AtomicLong sessionNumbers = new AtomicLong();
+
+    private final Session baseSession;
+
+    private final Object baseSessionLock;
+
+    private final int maxSize;
+
+    private final long borrowTimeout;
+
+    private final Semaphore permits;
+
+    private final LinkedBlockingQueue<Session> idleSessions = new LinkedBlockingQueue<>();
+
+    // live session created by this -> session key
+    private final Map<Session, String> sessionKeys = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private final AtomicLong createdCount = new AtomicLong();
+
+    private final AtomicLong borrowCount = new AtomicLong();
+
+    private final AtomicLong waitCount = new AtomicLong();
+
+    private final AtomicLong timeoutCount = new AtomicLong();
+
+    private final AtomicLong totalWaitMillis = new AtomicLong();
+
+    private volatile boolean closed;
+
+    /**
+     * @param baseSession session to impersonate the pooled sessions from
+     * @param baseSessionLock lock held by all the users of the {@code baseSession}
+     * @param maxSize maximum number of the sessions borrowed at the same time
+     * @param borrowTimeout maximum time in milliseconds to wait for a session to be returned
+     */
+    public WorkflowSessionPool(final Session baseSession, final Object baseSessionLock, final int maxSize,
+            final long borrowTimeout) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+
+        this.baseSession = baseSession;
+        this.baseSessionLock = baseSessionLock;
+        this.maxSize = maxSize;
+        this.borrowTimeout = borrowTimeout;
+        permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Borrows a session, waiting for one to be returned if all the sessions are borrowed.
+     * @return a refreshed session
+     * @throws IllegalStateException if the pool is closed, or no session is returned within the borrow timeout
+     * @throws RepositoryException if a session cannot be created or refreshed
+     */
+    public Session borrowSession() throws RepositoryException {
+        if (closed) {
+            throw new IllegalStateException("The session pool is closed.");
+        }
+
+        acquirePermit();
+
+        try {
+            Session session = idleSessions.poll();
+
+            while (session != null && !session.isLive()) {
+                sessionKeys.remove(session);
+                session = idleSessions.poll();
+            }
+
+            if (session == null) {
+                session = createSession();
+            } else {
+                session.refresh(false);
+            }
+
+            borrowCount.incrementAndGet();
+            return session;
+        } catch (RepositoryException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the borrowed session to the pool, discarding its pending changes.
+     * @param session borrowed session
+     */
+    public void returnSession(final Session session) {
+        try {
+            if (!closed && session.isLive()) {
+                session.refresh(false);
+                idleSessions.offer(session);
+            } else {
+                discard(session);
+            }
+        } catch (RepositoryException e) {
+            log.warn("Failed to refresh the returned session. Discarding it.", e);
+            discard(session);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Closes the pool, logging out the idle sessions. The sessions borrowed currently are logged out when returned.
+     */
+    public void close() {
+        closed = true;
+
+        for (Session session = idleSessions.poll(); session != null; session = idleSessions.poll()) {
+            discard(session);
+        }
+    }
+
+    /**
+     * Returns the key of the session created by this pool, unique in the JVM and never reused by another session.
+     * @param session session
+     * @return the key of the session, or null if the session is not a live session created by this pool
+     */
+    public String getSessionKey(final Session session) {
+        return sessionKeys.get(session);
+    }
+
+    @Override
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    @Override
+    public int getIdleCount() {
+        return idleSessions.size();
+    }
+
+    @Override
+    public long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    @Override
+    public long getBorrowCount() {
+        return borrowCount.get();
+    }
+
+    @Override
+    public long getWaitCount() {
+        return waitCount.get();
+    }
+
+    @Override
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    @Override
+    public long getAverageWaitMillis() {
+        final long waits = waitCount.get();
+        return (waits > 0) ? totalWaitMillis.get() / waits : 0L;
+    }
+
+    @Override
+    public long getBorrowTimeout() {
+        return borrowTimeout;
+    }
+
+    private void acquirePermit() {
+        if (permits.tryAcquire()) {
+            return;
+        }
+
+        waitCount.incrementAndGet();
+        final long waitStartMillis = System.currentTimeMillis();
+        boolean acquired = false;
+
+        try {
+            acquired = permits.tryAcquire(borrowTimeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a workflow session.");
+        } finally {
+            totalWaitMillis.addAndGet(System.currentTimeMillis() - waitStartMillis);
+        }
+
+        if (!acquired) {
+            timeoutCount.incrementAndGet();
+            throw new IllegalStateException("No workflow session available within " + borrowTimeout + "ms.");
+        }
+    }
+
+    private Session createSession() throws RepositoryException {
+        final Session session;
+
+        synchronized (baseSessionLock) {
+            session = baseSession.impersonate(new SimpleCredentials(baseSession.getUserID(), new char[0]));
+        }
+
+        sessionKeys.put(session, "workflow-session-" + sessionNumbers.incrementAndGet());
+        createdCount.incrementAndGet();
+        log.debug("Created workflow session #{} of the pool.", createdCount.get());
+        return session;
+    }
+
+    private void discard(final Session session) {
+        sessionKeys.remove(session);
+
+        if (session.isLive()) {
+            session.logout();
+        }
+    }
+}
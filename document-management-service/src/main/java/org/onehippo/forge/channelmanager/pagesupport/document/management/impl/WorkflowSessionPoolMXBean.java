@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.document.management.impl;
+
+/**
+ * Management interface of {@link WorkflowSessionPool} as deployed as JMX MBean.
+ */
+public interface WorkflowSessionPoolMXBean {
+
+    /**
+     * JMX MBean name to be used.
+     */
+    String NAME = "org.onehippo.forge.channelmanager.pagesupport.document.management:type=WorkflowSessionPoolMXBean";
+
+    /**
+     * Returns the maximum number of the sessions borrowed at the same time.
+     * @return the maximum number of the sessions borrowed at the same time
+     */
+    int getMaxSize();
+
+    /**
+     * Returns the number of the sessions borrowed currently.
+     * @return the number of the sessions borrowed currently
+     */
+    int getActiveCount();
+
+    /**
+     * Returns the number of the sessions idle in the pool.
+     * @return the number of the sessions idle in the pool
+     */
+    int getIdleCount();
+
+    /**
+     * Returns the number of the sessions created since the pool was created.
+     * @return the number of the sessions created since the pool was created
+     */
+    long getCreatedCount();
+
+    /**
+     * Returns the number of the borrows since the pool was created.
+     * @return the number of the borrows since the pool was created
+     */
+    long getBorrowCount();
+
+    /**
+     * Returns the number of the borrows which had to wait for a session to be returned.
+     * @return the number of the borrows which had to wait for a session to be returned
+     */
+    long getWaitCount();
+
+    /**
+     * Returns the number of the borrows which gave up waiting for a session.
+     * @return the number of the borrows which gave up waiting for a session
+     */
+    long getTimeoutCount();
+
+    /**
+     * Returns the average time in milliseconds waited for a session by the borrows which had to wait.
+     * @return the average time in milliseconds waited for a session by the borrows which had to wait
+     */
+    long getAverageWaitMillis();
+
+    /**
+     * Returns the maximum time in milliseconds to wait for a session to be returned.
+     * @return the maximum time in milliseconds to wait for a session to be returned
+     */
+    long getBorrowTimeout();
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.document.management;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SynchronousBulkOperationsTest {
+
+    @Test
+    public void testDefaultBulkPublish() throws Exception {
+        final SingleItemService service = new SingleItemService();
+
+        final String id = service.submitBulkPublish(new String[] { "/content/doc-1", "/content/doc-2",
+                "/content/locked" });
+
+        assertEquals(3, service.published.size());
+
+        final BulkOperationStatus status = service.getBulkOperationStatus(id);
+        assertEquals(BulkOperationStatus.COMPLETED, status.getState());
+        assertEquals("publishDocument", status.getOperationName());
+        assertEquals(3, status.getTotalCount());
+        assertEquals(3, status.getProcessedCount());
+        assertEquals(2, status.getSucceededCount());
+        assertEquals(1, status.getFailedCount());
+        assertTrue(status.getFinishedTime() > 0L);
+
+        final DocumentOperationResult[] results = service.getBulkOperationResults(id, 1, 10);
+        assertEquals(2, results.length);
+        assertTrue(results[0].isSucceeded());
+        assertEquals("/content/locked", results[1].getLocation());
+        assertFalse(results[1].isSucceeded());
+
+        assertEquals(0, service.getBulkOperationResults(id, 3, 10).length);
+        assertFalse(service.cancelBulkOperation(id));
+    }
+
+    @Test
+    public void testDefaultBulkDepublish() throws Exception {
+        final SingleItemService service = new SingleItemService();
+
+        final String id = service.submitBulkDepublish(new String[] { "/content/doc-1" });
+
+        assertEquals(1, service.depublished.size());
+        assertEquals("depublishDocument", service.getBulkOperationStatus(id).getOperationName());
+        assertEquals(1, service.getBulkOperationStatus(id).getSucceededCount());
+    }
+
+    @Test
+    public void testUnknownBulkOperation() throws Exception {
+        final SingleItemService service = new SingleItemService();
+
+        try {
+            service.getBulkOperationStatus("unknown");
+            fail("Unknown bulk operation ID must be rejected.");
+        } catch (IllegalArgumentException expected) {
+        }
+
+        try {
+            service.cancelBulkOperation("unknown");
+            fail("Unknown bulk operation ID must be rejected.");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void testEvictsOldestBulkOperations() throws Exception {
+        final SingleItemService service = new SingleItemService();
+        final String firstId = service.submitBulkPublish(new String[] { "/content/doc-1" });
+
+        for (int i = 0; i < SynchronousBulkOperations.MAX_BULK_OPERATIONS; i++) {
+            service.submitBulkPublish(new String[] { "/content/doc-1" });
+        }
+
+        try {
+            service.getBulkOperationStatus(firstId);
+            fail("The oldest bulk operation must be evicted.");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    /**
+     * Service implementing only the single item operations, publishing and taking offline any document except
+     * <code>/content/locked</code>.
+     */
+    private static class SingleItemService implements DocumentManagementServiceMXBean {
+
+        private final List<String> published = new ArrayList<>();
+        private final List<String> depublished = new ArrayList<>();
+
+        @Override
+        public boolean obtainEditableDocument(String documentLocation) {
+            return true;
+        }
+
+        @Override
+        public boolean disposeEditableDocument(String documentLocation) {
+            return true;
+        }
+
+        @Override
+        public boolean commitEditableDocument(String documentLocation) {
+            return true;
+        }
+
+        @Override
+        public boolean depublishDocument(String documentLocation) {
+            depublished.add(documentLocation);
+            checkNotLocked(documentLocation);
+            return true;
+        }
+
+        @Override
+        public boolean publishDocument(String documentLocation) {
+            published.add(documentLocation);
+            checkNotLocked(documentLocation);
+            return true;
+        }
+
+        @Override
+        public String copyDocument(String sourceDocumentLocation, String targetFolderLocation,
+                String targetDocumentName) {
+            return targetFolderLocation + "/" + targetDocumentName;
+        }
+
+        @Override
+        public String translateFolder(String sourceFolderLocation, String language, String name) {
+            return sourceFolderLocation + "-" + language;
+        }
+
+        @Override
+        public String translateDocument(String sourceDocumentLocation, String language, String name) {
+            return sourceDocumentLocation + "-" + language;
+        }
+
+        @Override
+        public String submitBulkPublishInFolder(String folderLocation, String pathPattern) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String submitBulkDepublishInFolder(String folderLocation, String pathPattern) {
+            throw new UnsupportedOperationException();
+        }
+
+        private static void checkNotLocked(String documentLocation) {
+            if ("/content/locked".equals(documentLocation)) {
+                throw new IllegalStateException("Locked.");
+            }
+        }
+    }
+}
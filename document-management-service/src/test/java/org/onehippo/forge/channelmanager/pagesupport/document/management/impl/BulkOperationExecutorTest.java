@@ -0,0 +1,242 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.document.management.impl;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jcr.Session;
+
+import org.junit.After;
+import org.junit.Test;
+import org.onehippo.forge.channelmanager.pagesupport.document.management.BulkOperationStatus;
+import org.onehippo.forge.channelmanager.pagesupport.document.management.DocumentOperationResult;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BulkOperationExecutorTest {
+
+    private BulkOperationExecutor executor;
+
+    @After
+    public void tearDown() throws Exception {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testProcessesAllLocations() throws Exception {
+        executor = createExecutor(2, 0L);
+        final List<String> locations = createLocations(10);
+
+        final String id = executor.submit("publish", locations, location -> {
+            if (location.endsWith("/doc-5")) {
+                throw new IllegalStateException("Locked.");
+            }
+
+            return location;
+        });
+
+        final BulkOperationStatus status = waitForFinish(id);
+
+        assertEquals(BulkOperationStatus.COMPLETED, status.getState());
+        assertEquals(10, status.getTotalCount());
+        assertEquals(9, status.getSucceededCount());
+        assertEquals(1, status.getFailedCount());
+
+        final DocumentOperationResult[] results = executor.getResults(id, 0, 100);
+        assertEquals(10, results.length);
+
+        for (DocumentOperationResult result : results) {
+            assertEquals(!result.getLocation().endsWith("/doc-5"), result.isSucceeded());
+        }
+    }
+
+    @Test
+    public void testEmptyLocations() throws Exception {
+        executor = createExecutor(2, 0L);
+
+        final BulkOperationStatus status = waitForFinish(executor.submit("publish", new ArrayList<>(),
+                location -> location));
+
+        assertEquals(BulkOperationStatus.COMPLETED, status.getState());
+        assertEquals(0, status.getTotalCount());
+    }
+
+    @Test
+    public void testThrottlesOperations() throws Exception {
+        executor = createExecutor(4, 20L);
+        final long start = System.currentTimeMillis();
+
+        final BulkOperationStatus status = waitForFinish(executor.submit("publish", createLocations(11),
+                location -> location));
+
+        // 11 operations at 20 per second take at least 10 intervals of 50ms, however many workers there are
+        assertTrue(System.currentTimeMillis() - start >= 450L);
+        assertEquals(11, status.getSucceededCount());
+    }
+
+    @Test
+    public void testBoundsLocationsFoundAhead() throws Exception {
+        executor = createExecutor(2, 0L);
+        final int locationCount = BulkOperationExecutor.PENDING_LOCATIONS_CAPACITY * 3;
+        final AtomicInteger foundCount = new AtomicInteger();
+        final CountDownLatch workersReleased = new CountDownLatch(1);
+
+        final String id = executor.submit("publish", "/content/documents", sink -> {
+            for (int i = 0; i < locationCount && sink.test("/content/documents/doc-" + i); i++) {
+                foundCount.incrementAndGet();
+            }
+        }, location -> {
+            try {
+                workersReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            return location;
+        });
+
+        Thread.sleep(500L);
+
+        // the enumeration waits for the blocked workers, with at most one location taken by each worker
+        assertTrue(foundCount.get() <= BulkOperationExecutor.PENDING_LOCATIONS_CAPACITY + 2);
+        assertEquals(BulkOperationStatus.RUNNING, executor.getStatus(id).getState());
+
+        workersReleased.countDown();
+        final BulkOperationStatus status = waitForFinish(id);
+
+        assertEquals(locationCount, foundCount.get());
+        assertEquals(locationCount, status.getTotalCount());
+        assertEquals(locationCount, status.getSucceededCount());
+    }
+
+    @Test
+    public void testEnumerationFailure() throws Exception {
+        executor = createExecutor(2, 0L);
+
+        final String id = executor.submit("publish", "/content/documents", sink -> {
+            sink.test("/content/documents/doc-1");
+            throw new IllegalStateException("Query failed.");
+        }, location -> location);
+
+        final BulkOperationStatus status = waitForFinish(id);
+
+        assertEquals(BulkOperationStatus.COMPLETED, status.getState());
+        assertEquals(2, status.getTotalCount());
+        assertEquals(1, status.getSucceededCount());
+        assertEquals(1, status.getFailedCount());
+    }
+
+    @Test
+    public void testCancelReportsUnprocessedLocations() throws Exception {
+        executor = createExecutor(1, 0L);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch workerReleased = new CountDownLatch(1);
+
+        final String id = executor.submit("publish", createLocations(5), location -> {
+            started.countDown();
+
+            try {
+                workerReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            return location;
+        });
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(executor.cancel(id));
+        workerReleased.countDown();
+
+        final BulkOperationStatus status = waitForFinish(id);
+
+        assertEquals(BulkOperationStatus.CANCELLED, status.getState());
+        assertEquals(5, status.getProcessedCount());
+        assertEquals(1, status.getSucceededCount());
+        assertEquals(4, status.getFailedCount());
+        assertFalse(executor.cancel(id));
+    }
+
+    private static BulkOperationExecutor createExecutor(final int workerCount, final long maxOperationsPerSecond) {
+        return new BulkOperationExecutor(createSession(), new Object(), workerCount, maxOperationsPerSecond,
+                (session, operation) -> operation.get());
+    }
+
+    private static List<String> createLocations(final int count) {
+        final List<String> locations = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            locations.add("/content/documents/doc-" + i);
+        }
+
+        return locations;
+    }
+
+    private BulkOperationStatus waitForFinish(final String id) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 10000L;
+
+        while (true) {
+            final BulkOperationStatus status = executor.getStatus(id);
+
+            if (status.getFinishedTime() > 0L) {
+                return status;
+            }
+
+            assertTrue("Timed out waiting for the bulk operation: " + status, System.currentTimeMillis() < deadline);
+            Thread.sleep(10L);
+        }
+    }
+
+    /**
+     * Creates a session stub supporting only the methods used by the session pool.
+     */
+    private static Session createSession() {
+        final AtomicBoolean live = new AtomicBoolean(true);
+
+        return (Session) Proxy.newProxyInstance(BulkOperationExecutorTest.class.getClassLoader(),
+                new Class<?>[] { Session.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "impersonate":
+                        return createSession();
+                    case "getUserID":
+                        return "admin";
+                    case "isLive":
+                        return live.get();
+                    case "refresh":
+                        return null;
+                    case "logout":
+                        live.set(false);
+                        return null;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
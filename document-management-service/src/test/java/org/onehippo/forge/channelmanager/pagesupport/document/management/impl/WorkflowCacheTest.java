@@ -0,0 +1,195 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.document.management.impl;
+
+import java.io.Serializable;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jcr.Node;
+import javax.jcr.observation.Event;
+import javax.jcr.observation.EventIterator;
+
+import org.hippoecm.repository.api.Workflow;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class WorkflowCacheTest {
+
+    private static final String SESSION_KEY = "workflow-session-1";
+
+    private static final String CATEGORY = "default";
+
+    private final AtomicInteger suppliedCount = new AtomicInteger();
+
+    private Node handleNode;
+
+    @Before
+    public void setUp() throws Exception {
+        handleNode = createNode("handle-1", "/content/documents/news/article");
+    }
+
+    @Test
+    public void testCachesWorkflowPerSessionKey() throws Exception {
+        final WorkflowCache cache = new WorkflowCache(60000L, 10);
+
+        final Workflow workflow = getWorkflow(cache, SESSION_KEY, handleNode);
+
+        assertSame(workflow, getWorkflow(cache, SESSION_KEY, handleNode));
+        assertNotSame(workflow, getWorkflow(cache, "workflow-session-2", handleNode));
+        assertEquals(2, suppliedCount.get());
+        assertEquals(1L, cache.getWorkflowHitCount());
+        assertEquals(2L, cache.getWorkflowMissCount());
+    }
+
+    @Test
+    public void testWorkflowExpiresAfterTimeToLive() throws Exception {
+        final WorkflowCache cache = new WorkflowCache(50L, 10);
+        final Workflow workflow = getWorkflow(cache, SESSION_KEY, handleNode);
+
+        Thread.sleep(100L);
+
+        assertNotSame(workflow, getWorkflow(cache, SESSION_KEY, handleNode));
+        assertEquals(2, suppliedCount.get());
+    }
+
+    @Test
+    public void testCachesHintsOfCachedWorkflow() throws Exception {
+        final WorkflowCache cache = new WorkflowCache(60000L, 10);
+        final Workflow workflow = getWorkflow(cache, SESSION_KEY, handleNode);
+
+        final Map<String, Serializable> hints = cache.getHints(SESSION_KEY, handleNode, CATEGORY, workflow);
+
+        assertSame(hints, cache.getHints(SESSION_KEY, handleNode, CATEGORY, workflow));
+        assertEquals(1L, cache.getHintsHitCount());
+        assertEquals(1L, cache.getHintsMissCount());
+    }
+
+    @Test
+    public void testInvalidateByHandleIdentifier() throws Exception {
+        final WorkflowCache cache = new WorkflowCache(60000L, 10);
+        final Node otherHandleNode = createNode("handle-2", "/content/documents/news/other");
+        final Workflow workflow = getWorkflow(cache, SESSION_KEY, handleNode);
+        final Workflow otherWorkflow = getWorkflow(cache, SESSION_KEY, otherHandleNode);
+
+        cache.invalidate("handle-1");
+
+        assertNotSame(workflow, getWorkflow(cache, SESSION_KEY, handleNode));
+        assertSame(otherWorkflow, getWorkflow(cache, SESSION_KEY, otherHandleNode));
+        assertEquals(1L, cache.getInvalidationCount());
+    }
+
+    @Test
+    public void testInvalidateByChangedPath() throws Exception {
+        final WorkflowCache cache = new WorkflowCache(60000L, 10);
+        final Node siblingHandleNode = createNode("handle-2", "/content/documents/news/article-2");
+        final Workflow workflow = getWorkflow(cache, SESSION_KEY, handleNode);
+        final Workflow siblingWorkflow = getWorkflow(cache, SESSION_KEY, siblingHandleNode);
+
+        // a change under the handle, which doesn't touch the sibling handle sharing its name prefix
+        cache.onEvent(createEvents("/content/documents/news/article/article/myproject:title"));
+
+        assertNotSame(workflow, getWorkflow(cache, SESSION_KEY, handleNode));
+        assertSame(siblingWorkflow, getWorkflow(cache, SESSION_KEY, siblingHandleNode));
+
+        final Workflow nextWorkflow = getWorkflow(cache, SESSION_KEY, handleNode);
+        cache.onEvent(createEvents("/content/documents/news/article"));
+
+        assertNotSame(nextWorkflow, getWorkflow(cache, SESSION_KEY, handleNode));
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedWhenFull() throws Exception {
+        final WorkflowCache cache = new WorkflowCache(60000L, 2);
+        final Node secondHandleNode = createNode("handle-2", "/content/documents/news/second");
+        final Node thirdHandleNode = createNode("handle-3", "/content/documents/news/third");
+        final Workflow workflow = getWorkflow(cache, SESSION_KEY, handleNode);
+        final Workflow secondWorkflow = getWorkflow(cache, SESSION_KEY, secondHandleNode);
+
+        // uses the first one, so the second one is the least recently used
+        assertSame(workflow, getWorkflow(cache, SESSION_KEY, handleNode));
+        getWorkflow(cache, SESSION_KEY, thirdHandleNode);
+
+        assertEquals(2, cache.getSize());
+        assertSame(workflow, getWorkflow(cache, SESSION_KEY, handleNode));
+        assertNotSame(secondWorkflow, getWorkflow(cache, SESSION_KEY, secondHandleNode));
+    }
+
+    private Workflow getWorkflow(final WorkflowCache cache, final String sessionKey, final Node node)
+            throws Exception {
+        return cache.getWorkflow(sessionKey, node, CATEGORY, () -> {
+            suppliedCount.incrementAndGet();
+            return createWorkflow();
+        });
+    }
+
+    private static Workflow createWorkflow() {
+        return stub(Workflow.class, Collections.singletonMap("hints", new HashMap<String, Serializable>()));
+    }
+
+    private static Node createNode(final String identifier, final String path) {
+        final Map<String, Object> values = new HashMap<>();
+        values.put("getIdentifier", identifier);
+        values.put("getPath", path);
+        return stub(Node.class, values);
+    }
+
+    private static EventIterator createEvents(final String... paths) {
+        final Iterator<String> it = Arrays.asList(paths).iterator();
+
+        return (EventIterator) Proxy.newProxyInstance(WorkflowCacheTest.class.getClassLoader(),
+                new Class<?>[] { EventIterator.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "hasNext":
+                        return it.hasNext();
+                    case "nextEvent":
+                        return stub(Event.class, Collections.singletonMap("getPath", it.next()));
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    /**
+     * Creates a stub returning the given values by method name, comparing by identity.
+     */
+    private static <T> T stub(final Class<T> type, final Map<String, ?> values) {
+        return type.cast(Proxy.newProxyInstance(WorkflowCacheTest.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        if (values.containsKey(method.getName())) {
+                            return values.get(method.getName());
+                        }
+
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                }));
+    }
+}
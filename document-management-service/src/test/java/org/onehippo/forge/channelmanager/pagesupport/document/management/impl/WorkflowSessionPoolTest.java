@@ -0,0 +1,248 @@
+/*
+ * Copyright 2024 Bloomreach (https://www.bloomreach.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onehippo.forge.channelmanager.pagesupport.document.management.impl;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jcr.RepositoryException;
+import javax.jcr.Session;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class WorkflowSessionPoolTest {
+
+    private final Object baseSessionLock = new Object();
+
+    private final AtomicBoolean impersonationFailing = new AtomicBoolean();
+
+    private final AtomicBoolean impersonatedWithoutLock = new AtomicBoolean();
+
+    private final AtomicBoolean refreshFailing = new AtomicBoolean();
+
+    private final AtomicInteger liveSessionCount = new AtomicInteger();
+
+    private Session baseSession;
+
+    @Before
+    public void setUp() throws Exception {
+        baseSession = createSession();
+    }
+
+    @Test
+    public void testReusesReturnedSession() throws Exception {
+        final WorkflowSessionPool pool = new WorkflowSessionPool(baseSession, baseSessionLock, 2, 1000L);
+
+        final Session session = pool.borrowSession();
+        assertNotSame(baseSession, session);
+        assertEquals(1, pool.getActiveCount());
+
+        pool.returnSession(session);
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(1, pool.getIdleCount());
+
+        assertSame(session, pool.borrowSession());
+        assertEquals(1L, pool.getCreatedCount());
+        assertEquals(2L, pool.getBorrowCount());
+    }
+
+    @Test
+    public void testImpersonatesWhileHoldingBaseSessionLock() throws Exception {
+        final WorkflowSessionPool pool = new WorkflowSessionPool(baseSession, baseSessionLock, 2, 1000L);
+
+        pool.borrowSession();
+        pool.borrowSession();
+
+        assertEquals(2L, pool.getCreatedCount());
+        assertFalse(impersonatedWithoutLock.get());
+    }
+
+    @Test
+    public void testBorrowTimesOutWhenAllSessionsAreBorrowed() throws Exception {
+        final WorkflowSessionPool pool = new WorkflowSessionPool(baseSession, baseSessionLock, 1, 100L);
+        final Session session = pool.borrowSession();
+
+        final long start = System.currentTimeMillis();
+
+        try {
+            pool.borrowSession();
+            fail("No session should be available.");
+        } catch (IllegalStateException expected) {
+            assertTrue(System.currentTimeMillis() - start >= 100L);
+        }
+
+        assertEquals(1L, pool.getWaitCount());
+        assertEquals(1L, pool.getTimeoutCount());
+
+        pool.returnSession(session);
+        assertSame(session, pool.borrowSession());
+    }
+
+    @Test
+    public void testPermitReleasedWhenSessionCreationFails() throws Exception {
+        final WorkflowSessionPool pool = new WorkflowSessionPool(baseSession, baseSessionLock, 1, 100L);
+        impersonationFailing.set(true);
+
+        try {
+            pool.borrowSession();
+            fail("The impersonation failure should be thrown.");
+        } catch (RepositoryException expected) {
+            // expected
+        }
+
+        assertEquals(0, pool.getActiveCount());
+
+        impersonationFailing.set(false);
+        pool.borrowSession();
+        assertEquals(0L, pool.getTimeoutCount());
+    }
+
+    @Test
+    public void testPermitReleasedWhenRefreshFails() throws Exception {
+        final WorkflowSessionPool pool = new WorkflowSessionPool(baseSession, baseSessionLock, 1, 100L);
+        pool.returnSession(pool.borrowSession());
+        refreshFailing.set(true);
+
+        try {
+            pool.borrowSession();
+            fail("The refresh failure should be thrown.");
+        } catch (RepositoryException expected) {
+            // expected
+        }
+
+        assertEquals(0, pool.getActiveCount());
+    }
+
+    @Test
+    public void testDiscardsSessionNotLive() throws Exception {
+        final WorkflowSessionPool pool = new WorkflowSessionPool(baseSession, baseSessionLock, 1, 100L);
+        final Session session = pool.borrowSession();
+        pool.returnSession(session);
+        session.logout();
+
+        final Session nextSession = pool.borrowSession();
+
+        assertNotSame(session, nextSession);
+        assertTrue(nextSession.isLive());
+        assertEquals(2L, pool.getCreatedCount());
+    }
+
+    @Test
+    public void testSessionKeys() throws Exception {
+        final WorkflowSessionPool pool = new WorkflowSessionPool(baseSession, baseSessionLock, 2, 100L);
+        final WorkflowSessionPool otherPool = new WorkflowSessionPool(baseSession, baseSessionLock, 1, 100L);
+        final Session session = pool.borrowSession();
+        final Session otherSession = pool.borrowSession();
+        final Session otherPoolSession = otherPool.borrowSession();
+
+        assertNotNull(pool.getSessionKey(session));
+        assertNotEquals(pool.getSessionKey(session), pool.getSessionKey(otherSession));
+        assertNotEquals(pool.getSessionKey(session), otherPool.getSessionKey(otherPoolSession));
+        assertNull(pool.getSessionKey(otherPoolSession));
+        assertNull(pool.getSessionKey(baseSession));
+
+        final String sessionKey = pool.getSessionKey(session);
+        pool.returnSession(session);
+        assertEquals(sessionKey, pool.getSessionKey(session));
+
+        // a discarded session is not known anymore, and its replacement gets a new key
+        session.logout();
+        final Session nextSession = pool.borrowSession();
+
+        assertNull(pool.getSessionKey(session));
+        assertNotEquals(sessionKey, pool.getSessionKey(nextSession));
+    }
+
+    @Test
+    public void testCloseLogsOutSessions() throws Exception {
+        final WorkflowSessionPool pool = new WorkflowSessionPool(baseSession, baseSessionLock, 2, 100L);
+        final Session idleSession = pool.borrowSession();
+        final Session borrowedSession = pool.borrowSession();
+        pool.returnSession(idleSession);
+
+        pool.close();
+
+        assertFalse(idleSession.isLive());
+        assertTrue(borrowedSession.isLive());
+
+        pool.returnSession(borrowedSession);
+
+        assertFalse(borrowedSession.isLive());
+        assertEquals(1, liveSessionCount.get());
+        assertEquals(0, pool.getActiveCount());
+
+        try {
+            pool.borrowSession();
+            fail("The pool is closed.");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+    }
+
+    /**
+     * Creates a session stub supporting only the methods used by the pool.
+     */
+    private Session createSession() {
+        final AtomicBoolean live = new AtomicBoolean(true);
+        liveSessionCount.incrementAndGet();
+
+        return (Session) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Session.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "impersonate":
+                        if (!Thread.holdsLock(baseSessionLock)) {
+                            impersonatedWithoutLock.set(true);
+                        }
+                        if (impersonationFailing.get()) {
+                            throw new RepositoryException("Impersonation failed.");
+                        }
+                        return createSession();
+                    case "getUserID":
+                        return "admin";
+                    case "isLive":
+                        return live.get();
+                    case "refresh":
+                        if (refreshFailing.get()) {
+                            throw new RepositoryException("Refresh failed.");
+                        }
+                        return null;
+                    case "logout":
+                        if (live.getAndSet(false)) {
+                            liveSessionCount.decrementAndGet();
+                        }
+                        return null;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}